@@ -2,6 +2,7 @@ plugins {
     java
     id("org.springframework.boot") version "3.4.3"
     id("io.spring.dependency-management") version "1.1.7"
+    id("me.champeau.jmh") version "0.7.3"
 }
 
 group = "com.realtime"
@@ -19,6 +20,19 @@ repositories {
     mavenCentral()
 }
 
+// 부하 도구 (src/loadtest/java). 앱 코드와 같은 classpath에 embedded 인프라를 더해 한 JVM에서 돌린다
+sourceSets {
+    create("loadtest") {
+        compileClasspath += sourceSets.main.get().output
+        runtimeClasspath += sourceSets.main.get().output
+    }
+}
+
+val loadtestImplementation: Configuration by configurations.getting {
+    extendsFrom(configurations.implementation.get())
+}
+configurations["loadtestRuntimeOnly"].extendsFrom(configurations.runtimeOnly.get())
+
 dependencies {
     // Spring Boot
     implementation("org.springframework.boot:spring-boot-starter-web")
@@ -60,8 +74,66 @@ dependencies {
     // Lombok for test
     testCompileOnly("org.projectlombok:lombok")
     testAnnotationProcessor("org.projectlombok:lombok")
+
+    // Load test (embedded Kafka/PostgreSQL/Redis, HdrHistogram)
+    loadtestImplementation("org.springframework.kafka:spring-kafka-test")
+    loadtestImplementation("org.hdrhistogram:HdrHistogram:2.2.2")
+    loadtestImplementation("io.zonky.test:embedded-postgres:2.1.0")
+    loadtestImplementation("com.github.codemonstur:embedded-redis:1.4.3")
 }
 
 tasks.withType<Test> {
     useJUnitPlatform()
 }
+
+// 실행: ./gradlew loadTest --args="--rooms 100 --users-per-room 20 --messages-per-user 20"
+// 결과: artifacts/ws/<run-id>/ (summary.json, manifest.json, latency-histograms.json, JSONL)
+tasks.register<JavaExec>("loadTest") {
+    group = "verification"
+    description = "embedded 인프라 위에서 WebSocket 전달 부하를 걸고 delivery evidence를 남긴다"
+    classpath = sourceSets["loadtest"].runtimeClasspath
+    mainClass = "com.realtime.chat.loadtest.LoadGenerator"
+    workingDir = projectDir
+    maxHeapSize = "2g"
+}
+
+// 실행: ./gradlew insertPathComparison --args="--rows 200 --rounds 10 --warmup 3 --out <file>"
+tasks.register<JavaExec>("insertPathComparison") {
+    group = "verification"
+    description = "embedded PostgreSQL에서 메시지 insert 경로(row 단위/JPA batch/JDBC multi-row) 소요 시간을 비교한다"
+    classpath = sourceSets["loadtest"].runtimeClasspath
+    mainClass = "com.realtime.chat.loadtest.InsertPathComparison"
+    workingDir = projectDir
+    maxHeapSize = "1g"
+}
+
+// 실행: ./gradlew keyOrderedComparison --args="--rooms 20 --messages 2000 --rounds 5 --warmup 2 --out <file>"
+tasks.register<JavaExec>("keyOrderedComparison") {
+    group = "verification"
+    description = "embedded 인프라에서 persistence consumer의 batch/key-ordered 설정별 저장 완료 시간을 비교한다"
+    classpath = sourceSets["loadtest"].runtimeClasspath
+    mainClass = "com.realtime.chat.loadtest.KeyOrderedComparison"
+    workingDir = projectDir
+    maxHeapSize = "1g"
+}
+
+// JMH micro benchmark (src/jmh/java). 실행: ./gradlew jmh
+jmh {
+    jmhVersion = "1.37"
+    // 앱 의존성 전체가 들어간 benchmark jar는 entry가 65535개를 넘는다
+    zip64 = true
+    // 호출당 할당량(gc.alloc.rate.norm)을 함께 보기 위해 GC profiler를 켠다
+    profilers = listOf("gc")
+    // 결과를 docs/evidence 아래 JSON으로 남겨 이전 결과와 diff로 회귀를 본다
+    resultFormat = "JSON"
+    resultsFile = layout.projectDirectory.file("docs/evidence/jmh-hot-paths-result.json")
+    // -PjmhResultsFile=docs/evidence/<name>.json 으로 비교별 결과 파일을 따로 남긴다
+    (findProperty("jmhResultsFile") as String?)?.let {
+        resultsFile = layout.projectDirectory.file(it)
+    }
+    // -PjmhIncludes=RoomFanout,JwtValidation 처럼 일부만 실행 (Redis/Kafka가 필요한 benchmark 제외 등).
+    // plugin은 includes 목록을 쉼표로 이어 정규식 하나로 넘기므로 alternation으로 합친다
+    (findProperty("jmhIncludes") as String?)?.let {
+        includes = listOf(it.split(",").joinToString("|"))
+    }
+}
@@ -0,0 +1,124 @@
+package com.realtime.chat.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.realtime.chat.config.RedisConfig;
+import com.realtime.chat.domain.MessageType;
+import com.realtime.chat.event.ChatMessageEvent;
+import com.realtime.chat.service.MessageHopTracer;
+import com.realtime.chat.service.RedisPubSubService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+// Redis room 채널 수신 → STOMP frame 생성까지 broadcast 1회 비용 비교.
+// deserializeAndReserialize: 이전 방식 (String 디코딩 → ChatMessageEvent 역직렬화 → converter 재직렬화)
+// passThrough: RedisPubSubService.onMessage (roomId만 읽고 원본 bytes 전달)
+// 할당량은 gc profiler의 gc.alloc.rate.norm(B/op)으로 비교한다.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BroadcastPayloadBenchmark {
+
+  private static final String CHANNEL = RedisConfig.CHAT_ROOM_CHANNEL_PREFIX + 20;
+
+  @Param({"32", "1024"})
+  private int contentLength;
+
+  private final LastMessageChannel brokerChannel = new LastMessageChannel();
+
+  private byte[] payload;
+  private ObjectMapper objectMapper;
+  private RedisPubSubService redisPubSubService;
+  private SimpMessagingTemplate legacyTemplate;
+  private Counter legacyReceivedCounter;
+  private Timer legacyFanoutTimer;
+
+  @Setup
+  public void setUp() throws Exception {
+    objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    ChatMessageEvent event =
+        new ChatMessageEvent(
+            UUID.randomUUID(),
+            20L,
+            10L,
+            "sender",
+            "a".repeat(contentLength),
+            MessageType.TEXT,
+            LocalDateTime.now());
+    payload = objectMapper.writeValueAsBytes(event);
+
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    redisPubSubService =
+        new RedisPubSubService(
+            null,
+            new SimpMessagingTemplate(brokerChannel),
+            objectMapper,
+            registry.counter("chat.messages.received"),
+            registry.timer("chat.room.fanout.latency"),
+            null,
+            // hop 추적 off (hops 읽기 없이 기존 fan-out 경로만 측정)
+            new MessageHopTracer(false, null, null, null, null, null, null, Clock.systemUTC()));
+
+    MappingJackson2MessageConverter converter = new MappingJackson2MessageConverter();
+    converter.setObjectMapper(objectMapper);
+    legacyTemplate = new SimpMessagingTemplate(brokerChannel);
+    legacyTemplate.setMessageConverter(converter);
+    legacyReceivedCounter = registry.counter("legacy.messages.received");
+    legacyFanoutTimer = registry.timer("legacy.room.fanout.latency");
+  }
+
+  @Benchmark
+  public Message<?> deserializeAndReserialize() throws Exception {
+    Instant startedAt = Instant.now();
+    String message = new String(payload, StandardCharsets.UTF_8);
+    ChatMessageEvent event = objectMapper.readValue(message, ChatMessageEvent.class);
+    legacyTemplate.convertAndSend("/topic/room." + event.getRoomId(), event);
+    legacyReceivedCounter.increment();
+    legacyFanoutTimer.record(Duration.between(startedAt, Instant.now()));
+    return brokerChannel.last;
+  }
+
+  @Benchmark
+  public Message<?> passThrough() {
+    redisPubSubService.onMessage(payload, CHANNEL);
+    return brokerChannel.last;
+  }
+
+  // broker로 넘어간 마지막 frame을 잡아 두어 전송 경로가 제거되지 않게 한다
+  private static final class LastMessageChannel implements MessageChannel {
+
+    private Message<?> last;
+
+    @Override
+    public boolean send(Message<?> message, long timeout) {
+      last = message;
+      return true;
+    }
+  }
+}
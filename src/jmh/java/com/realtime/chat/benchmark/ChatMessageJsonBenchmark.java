@@ -0,0 +1,75 @@
+package com.realtime.chat.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.realtime.chat.domain.MessageType;
+import com.realtime.chat.dto.SequencedChatMessage;
+import com.realtime.chat.event.ChatMessageEvent;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+// Redis room 채널 payload로 쓰는 ChatMessageEvent JSON 1건의 직렬화/역직렬화 비용.
+// serialize: RedisPubSubService.publish/publishAll (writeValueAsBytes)
+// serializeSequenced: hot room 발행 payload (SequencedChatMessage, @JsonUnwrapped + roomSeq)
+// deserialize: validate-payload 모드와 이전 broadcast 경로의 readValue
+// Spring Boot와 같은 설정의 ObjectMapper(Jackson2ObjectMapperBuilder)를 쓴다.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChatMessageJsonBenchmark {
+
+  @Param({"32", "1024"})
+  private int contentLength;
+
+  private ObjectMapper objectMapper;
+  private ChatMessageEvent event;
+  private SequencedChatMessage sequenced;
+  private byte[] payload;
+
+  @Setup
+  public void setUp() throws Exception {
+    objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    event =
+        new ChatMessageEvent(
+            UUID.randomUUID(),
+            20L,
+            10L,
+            "sender",
+            "a".repeat(contentLength),
+            MessageType.TEXT,
+            UUID.randomUUID(),
+            LocalDateTime.now());
+    sequenced = new SequencedChatMessage(event, 1_000L);
+    payload = objectMapper.writeValueAsBytes(event);
+  }
+
+  @Benchmark
+  public byte[] serialize() throws Exception {
+    return objectMapper.writeValueAsBytes(event);
+  }
+
+  @Benchmark
+  public byte[] serializeSequenced() throws Exception {
+    return objectMapper.writeValueAsBytes(sequenced);
+  }
+
+  @Benchmark
+  public ChatMessageEvent deserialize() throws Exception {
+    return objectMapper.readValue(payload, ChatMessageEvent.class);
+  }
+}
@@ -0,0 +1,110 @@
+package com.realtime.chat.benchmark;
+
+import com.realtime.chat.config.KafkaConfig;
+import com.realtime.chat.domain.MessageType;
+import com.realtime.chat.event.ChatMessageEvent;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+// chat.messages producer 설정별 지연/처리량 비교. Kafka가 필요하다 (docker compose up -d kafka).
+// sendAndWait: SEND 1건의 broker ack까지 시간 (ACCEPTED ACK 지연, SampleTime으로 p50/p99)
+// sendAsync: ack를 기다리지 않는 발행 처리량. iteration 끝에 flush해 버퍼에 남은 record도 전송한다.
+// linger가 길수록 batch가 커져 처리량/압축률은 오르고 sendAndWait 지연은 linger만큼 늘어난다.
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ChatProducerBenchmark {
+
+  @Param({"localhost:29092"})
+  private String bootstrapServers;
+
+  @Param({"0", "5", "20"})
+  private int lingerMs;
+
+  @Param({"none", "lz4", "zstd"})
+  private String compressionType;
+
+  @Param({"65536"})
+  private int batchSize;
+
+  private DefaultKafkaProducerFactory<String, Object> producerFactory;
+  private KafkaTemplate<String, Object> kafkaTemplate;
+  private ChatMessageEvent event;
+
+  @Setup
+  public void setUp() {
+    Map<String, Object> props = new HashMap<>();
+    props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+    props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+    props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
+    props.put(ProducerConfig.ACKS_CONFIG, "all");
+    props.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+    props.put(ProducerConfig.LINGER_MS_CONFIG, lingerMs);
+    props.put(ProducerConfig.BATCH_SIZE_CONFIG, batchSize);
+    props.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, compressionType);
+    producerFactory = new DefaultKafkaProducerFactory<>(props);
+    kafkaTemplate = new KafkaTemplate<>(producerFactory);
+    event =
+        new ChatMessageEvent(
+            UUID.randomUUID(),
+            20L,
+            10L,
+            "sender",
+            "안녕하세요 ".repeat(20),
+            MessageType.TEXT,
+            LocalDateTime.now());
+  }
+
+  @TearDown(Level.Iteration)
+  public void flush() {
+    kafkaTemplate.flush();
+  }
+
+  @TearDown
+  public void tearDown() {
+    producerFactory.destroy();
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.SampleTime)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  public SendResult<String, Object> sendAndWait() throws Exception {
+    return kafkaTemplate.send(KafkaConfig.MESSAGES_TOPIC, roomKey(), event).get();
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.SECONDS)
+  public Object sendAsync() {
+    return kafkaTemplate.send(KafkaConfig.MESSAGES_TOPIC, roomKey(), event);
+  }
+
+  // 실제 트래픽처럼 여러 room(partition)에 나눠 보낸다
+  private String roomKey() {
+    return String.valueOf(ThreadLocalRandom.current().nextInt(100));
+  }
+}
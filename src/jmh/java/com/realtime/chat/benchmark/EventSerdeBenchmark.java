@@ -0,0 +1,102 @@
+package com.realtime.chat.benchmark;
+
+import com.realtime.chat.config.KafkaConfig;
+import com.realtime.chat.domain.MessageType;
+import com.realtime.chat.event.ChatEventDeserializer;
+import com.realtime.chat.event.ChatEventSerializer;
+import com.realtime.chat.event.ChatMessageEvent;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+// Kafka value 1건의 직렬화/역직렬화 비용 비교 (ChatMessageEvent).
+// json*: 이전 방식 (JsonSerializer type header + JsonDeserializer trusted package 검사)
+// binary*: ChatEventSerializer / ChatEventDeserializer (EventWireFormat)
+// 할당량은 gc.alloc.rate.norm(B/op)으로 비교한다. 같은 event의 형식별 bytes는 측정 시간과 무관한 고정값이라
+// benchmark 결과에 넣지 않고 docs/evidence/JMH_HOT_PATHS.md에 적는다.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventSerdeBenchmark {
+
+  private static final String TOPIC = KafkaConfig.MESSAGES_TOPIC;
+
+  @Param({"32", "1024"})
+  private int contentLength;
+
+  private ChatMessageEvent event;
+  private JsonSerializer<Object> jsonSerializer;
+  private JsonDeserializer<Object> jsonDeserializer;
+  private ChatEventSerializer binarySerializer;
+  private ChatEventDeserializer binaryDeserializer;
+  private RecordHeaders jsonHeaders;
+  private byte[] jsonPayload;
+  private byte[] binaryPayload;
+
+  @Setup
+  public void setUp() {
+    event =
+        new ChatMessageEvent(
+            UUID.randomUUID(),
+            20L,
+            10L,
+            "sender",
+            "a".repeat(contentLength),
+            MessageType.TEXT,
+            LocalDateTime.now());
+    Map<String, Object> configs =
+        Map.of(JsonDeserializer.TRUSTED_PACKAGES, "com.realtime.chat.event");
+
+    jsonSerializer = new JsonSerializer<>();
+    jsonDeserializer = new JsonDeserializer<>();
+    jsonDeserializer.configure(configs, false);
+    binarySerializer = new ChatEventSerializer();
+    binarySerializer.configure(Map.of(ChatEventSerializer.WIRE_FORMAT_CONFIG, "binary"), false);
+    binaryDeserializer = new ChatEventDeserializer();
+    binaryDeserializer.configure(configs, false);
+
+    jsonHeaders = new RecordHeaders();
+    jsonPayload = jsonSerializer.serialize(TOPIC, jsonHeaders, event);
+    binaryPayload = binarySerializer.serialize(TOPIC, new RecordHeaders(), event);
+  }
+
+  @Benchmark
+  public byte[] jsonSerialize() {
+    return jsonSerializer.serialize(TOPIC, new RecordHeaders(), event);
+  }
+
+  // JsonDeserializer는 읽은 type header를 지우므로 record마다 header를 새로 만든다 (실제 consumer와 동일)
+  @Benchmark
+  public Object jsonDeserialize() {
+    RecordHeaders headers = new RecordHeaders(jsonHeaders.toArray());
+    return jsonDeserializer.deserialize(TOPIC, headers, jsonPayload);
+  }
+
+  @Benchmark
+  public byte[] binarySerialize() {
+    return binarySerializer.serialize(TOPIC, new RecordHeaders(), event);
+  }
+
+  @Benchmark
+  public Object binaryDeserialize() {
+    return binaryDeserializer.deserialize(TOPIC, new RecordHeaders(), binaryPayload);
+  }
+}
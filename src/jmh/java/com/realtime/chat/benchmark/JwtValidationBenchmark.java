@@ -0,0 +1,56 @@
+package com.realtime.chat.benchmark;
+
+import com.realtime.chat.common.JwtTokenProvider;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// STOMP CONNECT / HTTP 요청마다 호출되는 JwtTokenProvider.validateToken 비용 (HS256).
+// valid: 서명 검증 + claims 파싱 성공 경로
+// tamperedSignature: 서명 불일치로 JwtException이 나는 거부 경로 (예외 생성 비용 포함)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtValidationBenchmark {
+
+  private static final String SECRET =
+      "realtime-chat-jwt-secret-key-must-be-at-least-256-bits-long-for-hs256";
+
+  private JwtTokenProvider jwtTokenProvider;
+  private String validToken;
+  private String tamperedToken;
+
+  @Setup
+  public void setUp() {
+    jwtTokenProvider = new JwtTokenProvider(SECRET, TimeUnit.DAYS.toMillis(1));
+    validToken = jwtTokenProvider.createToken(10L, "user@test.com");
+    // 서명 부분 첫 글자를 바꿔 base64url 형식은 유지한 채 서명만 틀리게 만든다
+    int signatureStart = validToken.lastIndexOf('.') + 1;
+    char first = validToken.charAt(signatureStart);
+    tamperedToken =
+        validToken.substring(0, signatureStart)
+            + (first == 'A' ? 'B' : 'A')
+            + validToken.substring(signatureStart + 1);
+  }
+
+  @Benchmark
+  public boolean valid() {
+    return jwtTokenProvider.validateToken(validToken);
+  }
+
+  @Benchmark
+  public boolean tamperedSignature() {
+    return jwtTokenProvider.validateToken(tamperedToken);
+  }
+}
@@ -0,0 +1,113 @@
+package com.realtime.chat.benchmark;
+
+import com.realtime.chat.config.SendRateLimiter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+// SEND 1회당 rate limit 판정 비용 비교. Redis가 필요하다 (docker compose up -d redis).
+// fixedWindowRedis: 이전 RateLimitInterceptor 방식 (SEND마다 INCR, 첫 hit에 EXPIRE)
+// localBucket: SendRateLimiter.tryAcquire (판정은 로컬, Redis 반영은 sync thread가 100ms마다)
+// 여러 thread 경합은 -t 옵션으로 본다. userCount만큼 user를 고르게 섞어 한 user의 제한에 묶이지 않게 한다.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RateLimitBenchmark {
+
+  @Param({"localhost"})
+  private String redisHost;
+
+  @Param({"10000"})
+  private int userCount;
+
+  private LettuceConnectionFactory connectionFactory;
+  private FixedWindowRateLimiter fixedWindow;
+  private SendRateLimiter localBucket;
+
+  @Setup
+  public void setUp() {
+    connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration(redisHost));
+    connectionFactory.afterPropertiesSet();
+    connectionFactory.start();
+    StringRedisTemplate redisTemplate = new StringRedisTemplate(connectionFactory);
+
+    fixedWindow = new FixedWindowRateLimiter(redisTemplate, 10, Clock.systemUTC());
+    localBucket =
+        new SendRateLimiter(
+            redisTemplate,
+            10,
+            10,
+            Duration.ofMillis(100),
+            new SimpleMeterRegistry().counter("chat.rate_limit.sync.failures"),
+            Clock.systemUTC(),
+            System::nanoTime,
+            Executors.newSingleThreadScheduledExecutor());
+  }
+
+  @TearDown
+  public void tearDown() {
+    localBucket.shutdown();
+    connectionFactory.destroy();
+  }
+
+  @Benchmark
+  public boolean fixedWindowRedis() {
+    return fixedWindow.tryAcquire(nextUserId());
+  }
+
+  @Benchmark
+  public boolean localBucket() {
+    return localBucket.tryAcquire(nextUserId());
+  }
+
+  private Long nextUserId() {
+    return (long) ThreadLocalRandom.current().nextInt(userCount);
+  }
+
+  // 교체 전 RateLimitInterceptor의 fixed-window 판정을 그대로 옮긴 기준선
+  private static final class FixedWindowRateLimiter {
+
+    private static final String RATE_LIMIT_KEY_PREFIX = "rate:bench:fixed:user:";
+    private static final Duration WINDOW_TTL = Duration.ofSeconds(2);
+
+    private final StringRedisTemplate redisTemplate;
+    private final int messagesPerSecond;
+    private final Clock clock;
+
+    FixedWindowRateLimiter(StringRedisTemplate redisTemplate, int messagesPerSecond, Clock clock) {
+      this.redisTemplate = redisTemplate;
+      this.messagesPerSecond = messagesPerSecond;
+      this.clock = clock;
+    }
+
+    boolean tryAcquire(Long userId) {
+      String key = RATE_LIMIT_KEY_PREFIX + userId + ":" + clock.instant().getEpochSecond();
+      Long count = redisTemplate.opsForValue().increment(key);
+      if (count != null && count == 1L) {
+        redisTemplate.expire(key, WINDOW_TTL);
+      }
+      return count != null && count <= messagesPerSecond;
+    }
+  }
+}
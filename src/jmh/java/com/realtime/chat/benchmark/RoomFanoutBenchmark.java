@@ -0,0 +1,129 @@
+package com.realtime.chat.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.realtime.chat.config.RedisConfig;
+import com.realtime.chat.domain.MessageType;
+import com.realtime.chat.event.ChatMessageEvent;
+import com.realtime.chat.service.MessageHopTracer;
+import com.realtime.chat.service.RedisPubSubService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.broker.SimpleBrokerMessageHandler;
+import org.springframework.messaging.support.ExecutorSubscribableChannel;
+import org.springframework.messaging.support.MessageBuilder;
+
+// Redis room 채널 메시지 1건을 SimpleBroker로 넘겨 구독자 N명에게 frame을 만들기까지의 비용.
+// 경로: RedisPubSubService.onMessage → brokerChannel → SimpleBrokerMessageHandler
+// → clientOutboundChannel.
+// 채널은 executor 없이 호출 thread에서 바로 전달하고, outbound는 WebSocket 전송 대신 건수만 센다.
+// 구독자 수에 따라 broker의 구독 조회와 session별 frame 복사 비용이 어떻게 늘어나는지 본다.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RoomFanoutBenchmark {
+
+  private static final String DESTINATION = "/topic/room.20";
+  private static final String CHANNEL = RedisConfig.CHAT_ROOM_CHANNEL_PREFIX + 20;
+
+  @Param({"1", "100", "1000"})
+  private int subscribers;
+
+  private final CountingChannel clientOutboundChannel = new CountingChannel();
+
+  private SimpleBrokerMessageHandler broker;
+  private RedisPubSubService redisPubSubService;
+  private byte[] payload;
+
+  @Setup
+  public void setUp() throws Exception {
+    ExecutorSubscribableChannel clientInboundChannel = new ExecutorSubscribableChannel();
+    ExecutorSubscribableChannel brokerChannel = new ExecutorSubscribableChannel();
+    broker =
+        new SimpleBrokerMessageHandler(
+            clientInboundChannel, clientOutboundChannel, brokerChannel, List.of("/topic"));
+    broker.start();
+    for (int i = 0; i < subscribers; i++) {
+      broker.handleMessage(subscribe("session-" + i));
+    }
+
+    ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    payload =
+        objectMapper.writeValueAsBytes(
+            new ChatMessageEvent(
+                UUID.randomUUID(),
+                20L,
+                10L,
+                "sender",
+                "hello",
+                MessageType.TEXT,
+                LocalDateTime.now()));
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    redisPubSubService =
+        new RedisPubSubService(
+            null,
+            new SimpMessagingTemplate(brokerChannel),
+            objectMapper,
+            registry.counter("chat.messages.received"),
+            registry.timer("chat.room.fanout.latency"),
+            null,
+            // hop 추적 off (hops 읽기 없이 기존 fan-out 경로만 측정)
+            new MessageHopTracer(false, null, null, null, null, null, null, Clock.systemUTC()));
+  }
+
+  @TearDown
+  public void tearDown() {
+    broker.stop();
+  }
+
+  @Benchmark
+  public long onMessage() {
+    redisPubSubService.onMessage(payload, CHANNEL);
+    return clientOutboundChannel.sent;
+  }
+
+  private static Message<byte[]> subscribe(String sessionId) {
+    SimpMessageHeaderAccessor accessor =
+        SimpMessageHeaderAccessor.create(SimpMessageType.SUBSCRIBE);
+    accessor.setSessionId(sessionId);
+    accessor.setSubscriptionId("sub-0");
+    accessor.setDestination(DESTINATION);
+    return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+  }
+
+  // WebSocket session 전송 대신 broker가 만든 frame 수만 센다
+  private static final class CountingChannel implements MessageChannel {
+
+    private long sent;
+
+    @Override
+    public boolean send(Message<?> message, long timeout) {
+      sent++;
+      return true;
+    }
+  }
+}
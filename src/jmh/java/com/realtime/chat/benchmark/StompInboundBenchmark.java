@@ -0,0 +1,131 @@
+package com.realtime.chat.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.realtime.chat.config.RateLimitInterceptor;
+import com.realtime.chat.config.SendRateLimiter;
+import com.realtime.chat.config.WebSocketAuthorizationInterceptor;
+import com.realtime.chat.repository.ChatRoomMemberRepository;
+import com.realtime.chat.service.RoomMembershipCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.lang.reflect.Proxy;
+import java.security.Principal;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+
+// clientInboundChannel interceptor의 frame 1건당 비용 (Redis/DB 없이 로컬 판정 경로만).
+// rateLimitSend: RateLimitInterceptor.preSend (SEND, SendRateLimiter 로컬 bucket 허용 경로)
+// authorizeRoomSubscribe: WebSocketAuthorizationInterceptor.preSend (room topic 경로 파싱 + 멤버십 캐시 hit)
+// authorizeNonRoomSubscribe: 같은 interceptor의 room topic이 아닌 구독 (/user/queue/...) 통과 경로
+// 멤버십은 setUp에서 preload로 적재하고, rate limit은 제한에 걸리지 않도록 속도를 크게 둔다.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StompInboundBenchmark {
+
+  private static final Long USER_ID = 10L;
+  private static final Principal USER = () -> String.valueOf(USER_ID);
+
+  private ScheduledExecutorService syncScheduler;
+  private RateLimitInterceptor rateLimitInterceptor;
+  private WebSocketAuthorizationInterceptor authorizationInterceptor;
+  private Message<byte[]> sendFrame;
+  private Message<byte[]> roomSubscribeFrame;
+  private Message<byte[]> nonRoomSubscribeFrame;
+
+  @Setup
+  public void setUp() {
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    // Redis sync는 측정 구간에 돌지 않도록 주기를 길게 둔다 (SEND 판정은 로컬 bucket만 본다)
+    syncScheduler = Executors.newSingleThreadScheduledExecutor();
+    SendRateLimiter sendRateLimiter =
+        new SendRateLimiter(
+            null,
+            1_000_000_000,
+            1_000_000,
+            Duration.ofHours(1),
+            registry.counter("chat.rate_limit.sync.failures"),
+            Clock.systemUTC(),
+            System::nanoTime,
+            syncScheduler);
+    rateLimitInterceptor = new RateLimitInterceptor(sendRateLimiter);
+
+    // 멤버 room 100개를 가진 user (preload 때만 repository를 부른다)
+    List<Long> roomIds = LongStream.rangeClosed(1, 100).boxed().toList();
+    ChatRoomMemberRepository repository =
+        (ChatRoomMemberRepository)
+            Proxy.newProxyInstance(
+                ChatRoomMemberRepository.class.getClassLoader(),
+                new Class<?>[] {ChatRoomMemberRepository.class},
+                (proxy, method, args) -> {
+                  if ("findRoomIdsByUserId".equals(method.getName())) {
+                    return roomIds;
+                  }
+                  throw new UnsupportedOperationException(method.getName());
+                });
+    RoomMembershipCache membershipCache =
+        new RoomMembershipCache(
+            repository,
+            null,
+            new ObjectMapper(),
+            registry.counter("chat.membership.cache", "result", "hit"),
+            registry.counter("chat.membership.cache", "result", "miss"),
+            100_000,
+            1_000);
+    membershipCache.preload(USER_ID);
+    authorizationInterceptor = new WebSocketAuthorizationInterceptor(membershipCache);
+
+    sendFrame = frame(StompCommand.SEND, "/app/chat.send");
+    roomSubscribeFrame = frame(StompCommand.SUBSCRIBE, "/topic/room.20");
+    nonRoomSubscribeFrame = frame(StompCommand.SUBSCRIBE, "/user/queue/messages/persisted");
+  }
+
+  @TearDown
+  public void tearDown() {
+    syncScheduler.shutdownNow();
+  }
+
+  @Benchmark
+  public Message<?> rateLimitSend() {
+    return rateLimitInterceptor.preSend(sendFrame, null);
+  }
+
+  @Benchmark
+  public Message<?> authorizeRoomSubscribe() {
+    return authorizationInterceptor.preSend(roomSubscribeFrame, null);
+  }
+
+  @Benchmark
+  public Message<?> authorizeNonRoomSubscribe() {
+    return authorizationInterceptor.preSend(nonRoomSubscribeFrame, null);
+  }
+
+  private static Message<byte[]> frame(StompCommand command, String destination) {
+    StompHeaderAccessor accessor = StompHeaderAccessor.create(command);
+    accessor.setDestination(destination);
+    accessor.setUser(USER);
+    return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+  }
+}
@@ -0,0 +1,75 @@
+package com.realtime.chat.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// 경로/설정별 소요 시간 비교 도구(InsertPathComparison, KeyOrderedComparison)가 같이 쓰는 인자 파싱,
+// ms 통계, 실행 환경, JSON 출력.
+final class ComparisonReport {
+
+  private ComparisonReport() {}
+
+  static Map<String, String> parse(String[] args) {
+    Map<String, String> options = new LinkedHashMap<>();
+    for (int i = 0; i < args.length; i++) {
+      if (!args[i].startsWith("--") || i + 1 >= args.length) {
+        throw new IllegalArgumentException("인자는 --name value 형식이어야 합니다: " + args[i]);
+      }
+      options.put(args[i].substring(2), args[++i]);
+    }
+    return options;
+  }
+
+  static Map<String, Object> stats(List<Double> values) {
+    double[] sorted = values.stream().mapToDouble(Double::doubleValue).sorted().toArray();
+    Map<String, Object> stats = new LinkedHashMap<>();
+    stats.put("minMs", round(sorted[0]));
+    stats.put("medianMs", round(median(sorted)));
+    stats.put("maxMs", round(sorted[sorted.length - 1]));
+    stats.put("samplesMs", Arrays.stream(sorted).map(ComparisonReport::round).boxed().toList());
+    return stats;
+  }
+
+  static Map<String, Object> environment(EmbeddedInfrastructure infrastructure) {
+    Runtime runtime = Runtime.getRuntime();
+    Map<String, Object> environment = new LinkedHashMap<>();
+    environment.put("javaVersion", System.getProperty("java.version"));
+    environment.put("vmName", System.getProperty("java.vm.name"));
+    environment.put("platform", System.getProperty("os.name"));
+    environment.put("arch", System.getProperty("os.arch"));
+    environment.put("availableProcessors", runtime.availableProcessors());
+    environment.put("maxHeapBytes", runtime.maxMemory());
+    environment.put("infrastructure", infrastructure.describe());
+    return environment;
+  }
+
+  // 결과를 표준 출력에 쓰고, out이 있으면 같은 내용을 파일로도 남긴다
+  static void write(Map<String, Object> result, String out) throws IOException {
+    ObjectMapper pretty = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    String json = pretty.writeValueAsString(result);
+    if (out != null) {
+      Path path = Path.of(out);
+      if (path.getParent() != null) {
+        Files.createDirectories(path.getParent());
+      }
+      Files.writeString(path, json + System.lineSeparator());
+    }
+    System.out.println(json);
+  }
+
+  private static double round(double millis) {
+    return Math.round(millis * 100) / 100.0;
+  }
+
+  private static double median(double[] sorted) {
+    int middle = sorted.length / 2;
+    return sorted.length % 2 == 1 ? sorted[middle] : (sorted[middle - 1] + sorted[middle]) / 2;
+  }
+}
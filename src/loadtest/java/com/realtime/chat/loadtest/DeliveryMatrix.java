@@ -0,0 +1,356 @@
+package com.realtime.chat.loadtest;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+// scripts/delivery-matrix.mjs의 summarize()를 그대로 옮긴 것.
+// validate-delivery-evidence.mjs가 raw JSONL로 summary를 다시 계산해 필드별로 비교하므로
+// 필드 이름, 순서, percentile(nearest-rank), completenessPercent 반올림(toFixed(4))을 바꾸지 않는다.
+// 한쪽을 고치면 다른 쪽도 같이 고친다.
+final class DeliveryMatrix {
+
+  private DeliveryMatrix() {}
+
+  static Map<String, Object> summarize(
+      List<Map<String, Object>> members,
+      List<Map<String, Object>> sends,
+      List<Map<String, Object>> receives,
+      List<Map<String, Object>> statuses) {
+    Map<Object, Set<Object>> roomMembers = new LinkedHashMap<>();
+    for (Map<String, Object> member : members) {
+      roomMembers
+          .computeIfAbsent(member.get("roomId"), roomId -> new LinkedHashSet<>())
+          .add(member.get("userId"));
+    }
+
+    Map<String, Object> summary = summarizeScope(roomMembers, sends, receives, statuses);
+    Map<String, Object> byRoom = new LinkedHashMap<>();
+    List<Object> roomIds = new ArrayList<>(roomMembers.keySet());
+    // JS Array.prototype.sort() 기본 비교는 문자열 순서다
+    roomIds.sort(Comparator.comparing(String::valueOf));
+    for (Object roomId : roomIds) {
+      byRoom.put(
+          String.valueOf(roomId),
+          summarizeScope(
+              Map.of(roomId, roomMembers.get(roomId)),
+              filterByRoom(sends, roomId),
+              filterByRoom(receives, roomId),
+              filterByRoom(statuses, roomId)));
+    }
+    summary.put("byRoom", byRoom);
+    summary.put("mixedHttp", emptyHttpSummary());
+    return summary;
+  }
+
+  private static Map<String, Object> summarizeScope(
+      Map<Object, Set<Object>> roomMembers,
+      List<Map<String, Object>> sends,
+      List<Map<String, Object>> receives,
+      List<Map<String, Object>> statuses) {
+    StatusIndex statusIndex = indexStatuses(statuses);
+    Map<String, Map<String, Object>> sendsByMessageKey = new HashMap<>();
+    for (Map<String, Object> send : sends) {
+      sendsByMessageKey.put(keyOfMessage(send.get("roomId"), send.get("clientMessageId")), send);
+    }
+
+    Set<String> allExpected = buildExpectedSet(sends, roomMembers);
+    List<Map<String, Object>> acceptedSends = new ArrayList<>();
+    List<Map<String, Object>> persistedSends = new ArrayList<>();
+    int failedSends = 0;
+    int rateLimitedSends = 0;
+    int statuslessSends = 0;
+    for (Map<String, Object> send : sends) {
+      Set<String> observed = statusIndex.statusesFor(send);
+      boolean accepted = observed.contains("accepted") || observed.contains("persisted");
+      boolean failed = observed.contains("failed");
+      boolean rateLimited = observed.contains("rate_limited");
+      if (accepted) {
+        acceptedSends.add(send);
+      }
+      if (observed.contains("persisted")) {
+        persistedSends.add(send);
+      }
+      failedSends += failed ? 1 : 0;
+      rateLimitedSends += rateLimited ? 1 : 0;
+      statuslessSends += accepted || failed || rateLimited ? 0 : 1;
+    }
+    Set<String> acceptedExpected = buildExpectedSet(acceptedSends, roomMembers);
+    Set<String> persistedExpected = buildExpectedSet(persistedSends, roomMembers);
+
+    Set<String> actual = new HashSet<>();
+    int duplicateDeliveries = 0;
+    int unexpectedDeliveries = 0;
+    List<Long> latencyMs = new ArrayList<>();
+    Map<String, Double> lastSequenceByReceiverRoomSender = new HashMap<>();
+    Map<String, Double> lastPersistedMessageIdByReceiverRoom = new HashMap<>();
+    int senderLocalOutOfOrderCount = 0;
+    int roomGlobalOutOfOrderCount = 0;
+    int roomGlobalComparableDeliveries = 0;
+
+    for (Map<String, Object> receive : receives) {
+      Object roomId = receive.get("roomId");
+      Map<String, Object> send =
+          sendsByMessageKey.get(keyOfMessage(roomId, receive.get("clientMessageId")));
+      String deliveryKey =
+          keyOfDelivery(roomId, receive.get("receiverUserId"), receive.get("clientMessageId"));
+      if (!allExpected.contains(deliveryKey)) {
+        unexpectedDeliveries++;
+        continue;
+      }
+      if (!actual.add(deliveryKey)) {
+        duplicateDeliveries++;
+      }
+      if (send != null
+          && send.get("sendStartedAtMs") instanceof Number sentAt
+          && receive.get("receivedAtMs") instanceof Number receivedAt) {
+        latencyMs.add(receivedAt.longValue() - sentAt.longValue());
+      }
+      Double persistedMessageId = resolvePersistedMessageId(statusIndex, receive, send);
+      if (persistedMessageId != null) {
+        roomGlobalComparableDeliveries++;
+        String orderKey = receive.get("receiverUserId") + "\u0000" + roomId;
+        Double previous = lastPersistedMessageIdByReceiverRoom.get(orderKey);
+        if (previous != null && persistedMessageId < previous) {
+          roomGlobalOutOfOrderCount++;
+        }
+        lastPersistedMessageIdByReceiverRoom.put(
+            orderKey,
+            Math.max(previous != null ? previous : persistedMessageId, persistedMessageId));
+      }
+      if (receive.get("roomSequence") instanceof Number roomSequence && roomId != null) {
+        String sequenceKey =
+            receive.get("receiverUserId")
+                + "\u0000"
+                + roomId
+                + "\u0000"
+                + receive.get("senderUserId");
+        Double previous = lastSequenceByReceiverRoomSender.get(sequenceKey);
+        if (previous != null && roomSequence.doubleValue() < previous) {
+          senderLocalOutOfOrderCount++;
+        }
+        lastSequenceByReceiverRoomSender.put(sequenceKey, roomSequence.doubleValue());
+      }
+    }
+
+    Map<String, Object> allDelivery = summarizeExpectedSet(allExpected, actual);
+    Map<String, Object> scope = new LinkedHashMap<>();
+    scope.put("expectedDeliveries", allDelivery.get("expectedDeliveries"));
+    scope.put("actualUniqueDeliveries", allDelivery.get("actualUniqueDeliveries"));
+    scope.put("missingDeliveries", allDelivery.get("missingDeliveries"));
+    scope.put("duplicateDeliveries", duplicateDeliveries);
+    scope.put("unexpectedDeliveries", unexpectedDeliveries);
+    scope.put("senderLocalOutOfOrderCount", senderLocalOutOfOrderCount);
+    scope.put("roomGlobalOutOfOrderCount", roomGlobalOutOfOrderCount);
+    Map<String, Object> roomGlobalOrdering = new LinkedHashMap<>();
+    roomGlobalOrdering.put(
+        "source", roomGlobalComparableDeliveries > 0 ? "persistedMessageId" : "unavailable");
+    roomGlobalOrdering.put("comparableDeliveries", roomGlobalComparableDeliveries);
+    roomGlobalOrdering.put("outOfOrderCount", roomGlobalOutOfOrderCount);
+    scope.put("roomGlobalOrdering", roomGlobalOrdering);
+    scope.put("completenessPercent", allDelivery.get("completenessPercent"));
+    Map<String, Object> sendStatus = new LinkedHashMap<>();
+    sendStatus.put("totalSends", sends.size());
+    sendStatus.put("statusesObserved", statuses.size());
+    sendStatus.put("acceptedSends", acceptedSends.size());
+    sendStatus.put("persistedSends", persistedSends.size());
+    sendStatus.put("failedSends", failedSends);
+    sendStatus.put("rateLimitedSends", rateLimitedSends);
+    sendStatus.put("statuslessSends", statuslessSends);
+    sendStatus.put(
+        "stompErrorsWithoutClientMessageId", statusIndex.stompErrorsWithoutClientMessageId);
+    scope.put("sendStatus", sendStatus);
+    scope.put("acceptedDelivery", summarizeExpectedSet(acceptedExpected, actual));
+    scope.put("persistedDelivery", summarizeExpectedSet(persistedExpected, actual));
+    scope.put("latencyMs", latencySummary(latencyMs));
+    return scope;
+  }
+
+  private static Map<String, Object> latencySummary(List<Long> values) {
+    List<Long> sorted = new ArrayList<>(values);
+    sorted.sort(null);
+    Map<String, Object> latency = new LinkedHashMap<>();
+    latency.put("count", sorted.size());
+    latency.put("p50", percentile(sorted, 0.5));
+    latency.put("p90", percentile(sorted, 0.9));
+    latency.put("p95", percentile(sorted, 0.95));
+    latency.put("p99", percentile(sorted, 0.99));
+    latency.put("max", sorted.isEmpty() ? null : sorted.get(sorted.size() - 1));
+    return latency;
+  }
+
+  // nearest-rank: ceil(ratio × n) - 1
+  private static Long percentile(List<Long> sorted, double ratio) {
+    if (sorted.isEmpty()) {
+      return null;
+    }
+    int index = (int) Math.ceil(ratio * sorted.size()) - 1;
+    return sorted.get(Math.max(0, Math.min(index, sorted.size() - 1)));
+  }
+
+  private static Set<String> buildExpectedSet(
+      List<Map<String, Object>> sends, Map<Object, Set<Object>> roomMembers) {
+    Set<String> expected = new HashSet<>();
+    for (Map<String, Object> send : sends) {
+      Set<Object> membersInRoom = roomMembers.get(send.get("roomId"));
+      if (membersInRoom == null) {
+        throw new IllegalStateException("missing member matrix for roomId=" + send.get("roomId"));
+      }
+      for (Object receiverUserId : membersInRoom) {
+        if (Objects.equals(receiverUserId, send.get("senderUserId"))) {
+          continue;
+        }
+        expected.add(
+            keyOfDelivery(send.get("roomId"), receiverUserId, send.get("clientMessageId")));
+      }
+    }
+    return expected;
+  }
+
+  private static Map<String, Object> summarizeExpectedSet(
+      Set<String> expected, Set<String> actual) {
+    int actualUniqueDeliveries = 0;
+    for (String deliveryKey : actual) {
+      if (expected.contains(deliveryKey)) {
+        actualUniqueDeliveries++;
+      }
+    }
+    Map<String, Object> delivery = new LinkedHashMap<>();
+    delivery.put("expectedDeliveries", expected.size());
+    delivery.put("actualUniqueDeliveries", actualUniqueDeliveries);
+    delivery.put("missingDeliveries", expected.size() - actualUniqueDeliveries);
+    delivery.put(
+        "completenessPercent", completenessPercent(actualUniqueDeliveries, expected.size()));
+    return delivery;
+  }
+
+  // Number(((actual / expected) * 100).toFixed(4)): double의 정확한 십진 값을 half-up으로 자른다
+  private static Double completenessPercent(int actual, int expected) {
+    if (expected == 0) {
+      return null;
+    }
+    double percent = ((double) actual / expected) * 100;
+    return new BigDecimal(percent).setScale(4, RoundingMode.HALF_UP).doubleValue();
+  }
+
+  private static Map<String, Object> emptyHttpSummary() {
+    Map<String, Object> http = new LinkedHashMap<>();
+    http.put("totalRequests", 0);
+    http.put("okRequests", 0);
+    http.put("failedRequests", 0);
+    http.put("byOperation", Map.of());
+    return http;
+  }
+
+  private static List<Map<String, Object>> filterByRoom(
+      List<Map<String, Object>> rows, Object roomId) {
+    return rows.stream().filter(row -> Objects.equals(row.get("roomId"), roomId)).toList();
+  }
+
+  private static StatusIndex indexStatuses(List<Map<String, Object>> statuses) {
+    StatusIndex index = new StatusIndex();
+    for (Map<String, Object> row : statuses) {
+      String status = normalizeStatus(row.get("status"));
+      Object clientMessageId = row.get("clientMessageId");
+      if (clientMessageId == null) {
+        if ("stomp_error".equals(status)) {
+          index.stompErrorsWithoutClientMessageId++;
+        }
+        continue;
+      }
+      String statusKey =
+          row.get("roomId") != null
+              ? keyOfMessage(row.get("roomId"), clientMessageId)
+              : String.valueOf(clientMessageId);
+      index.byMessageKey.computeIfAbsent(statusKey, key -> new HashSet<>()).add(status);
+      Double messageId = numericMessageId(row.get("messageId"));
+      if (messageId != null) {
+        index.messageIdsByMessageKey.put(statusKey, messageId);
+      }
+    }
+    return index;
+  }
+
+  private static String normalizeStatus(Object status) {
+    String value = status == null ? "" : String.valueOf(status);
+    return switch (value.toUpperCase(Locale.ROOT)) {
+      case "ACCEPTED" -> "accepted";
+      case "PERSISTED" -> "persisted";
+      case "FAILED" -> "failed";
+      case "RATE_LIMITED" -> "rate_limited";
+      case "STOMP_ERROR" -> "stomp_error";
+      default -> value.toLowerCase(Locale.ROOT);
+    };
+  }
+
+  private static Double resolvePersistedMessageId(
+      StatusIndex statusIndex, Map<String, Object> receive, Map<String, Object> send) {
+    List<Object> candidates = new ArrayList<>();
+    candidates.add(receive.get("messageId"));
+    candidates.add(receive.get("persistedMessageId"));
+    candidates.add(send != null ? send.get("messageId") : null);
+    candidates.add(send != null ? send.get("persistedMessageId") : null);
+    candidates.add(
+        statusIndex.messageIdsByMessageKey.get(
+            keyOfMessage(receive.get("roomId"), receive.get("clientMessageId"))));
+    candidates.add(
+        statusIndex.messageIdsByMessageKey.get(String.valueOf(receive.get("clientMessageId"))));
+    for (Object candidate : candidates) {
+      Double messageId = numericMessageId(candidate);
+      if (messageId != null) {
+        return messageId;
+      }
+    }
+    return null;
+  }
+
+  // 행에 없는 필드(undefined)만 null로 본다. 행은 null 필드를 쓰지 않는다 (LoadGenerator 참고)
+  private static Double numericMessageId(Object value) {
+    if (value instanceof Number number) {
+      return number.doubleValue();
+    }
+    if (value instanceof String text) {
+      try {
+        return Double.parseDouble(text);
+      } catch (NumberFormatException e) {
+        return null;
+      }
+    }
+    return null;
+  }
+
+  private static String keyOfMessage(Object roomId, Object clientMessageId) {
+    return roomId + "\u0000" + clientMessageId;
+  }
+
+  private static String keyOfDelivery(
+      Object roomId, Object receiverUserId, Object clientMessageId) {
+    return roomId + "\u0000" + receiverUserId + "\u0000" + clientMessageId;
+  }
+
+  private static final class StatusIndex {
+
+    private final Map<String, Set<String>> byMessageKey = new HashMap<>();
+    private final Map<String, Double> messageIdsByMessageKey = new HashMap<>();
+    private int stompErrorsWithoutClientMessageId;
+
+    Set<String> statusesFor(Map<String, Object> send) {
+      Set<String> statuses =
+          byMessageKey.get(keyOfMessage(send.get("roomId"), send.get("clientMessageId")));
+      if (statuses == null) {
+        statuses = byMessageKey.get(String.valueOf(send.get("clientMessageId")));
+      }
+      return statuses != null ? statuses : Set.of();
+    }
+  }
+}
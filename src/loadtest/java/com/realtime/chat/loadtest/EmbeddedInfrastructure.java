@@ -0,0 +1,99 @@
+package com.realtime.chat.loadtest;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+import redis.embedded.RedisServer;
+
+// docker 없이 한 JVM 안에서 띄우는 PostgreSQL, Kafka(KRaft), Redis.
+// 바이너리는 의존성 jar에 포함되어 있어 첫 의존성 다운로드 이후에는 네트워크가 필요 없다.
+// 운영 구성과 다르다 (broker 1대, replication 1, fsync/디스크 차이, 모두 같은 호스트).
+// 결과는 같은 구성끼리의 전후 비교에만 쓴다.
+final class EmbeddedInfrastructure implements AutoCloseable {
+
+  private final EmbeddedPostgres postgres;
+  private final EmbeddedKafkaKraftBroker kafka;
+  private final RedisServer redis;
+  private final int redisPort;
+
+  private EmbeddedInfrastructure(
+      EmbeddedPostgres postgres, EmbeddedKafkaKraftBroker kafka, RedisServer redis, int redisPort) {
+    this.postgres = postgres;
+    this.kafka = kafka;
+    this.redis = redis;
+    this.redisPort = redisPort;
+  }
+
+  static EmbeddedInfrastructure start() throws IOException {
+    EmbeddedPostgres postgres = EmbeddedPostgres.builder().start();
+
+    // topic은 앱의 KafkaConfig NewTopic bean이 만든다. broker 1대라 내부 topic replication도 1로 둔다
+    EmbeddedKafkaKraftBroker kafka = new EmbeddedKafkaKraftBroker(1, 1);
+    kafka.brokerProperties(
+        Map.of(
+            "offsets.topic.replication.factor", "1",
+            "transaction.state.log.replication.factor", "1",
+            "transaction.state.log.min.isr", "1",
+            "min.insync.replicas", "1"));
+    kafka.afterPropertiesSet();
+
+    int redisPort = freePort();
+    RedisServer redis = new RedisServer(redisPort);
+    redis.start();
+    return new EmbeddedInfrastructure(postgres, kafka, redis, redisPort);
+  }
+
+  // SpringApplication command line 인자로 넘길 연결 설정.
+  // default properties(SpringApplicationBuilder.properties)는 application.yml보다 우선순위가 낮아 쓰지 않는다
+  String[] applicationArguments() {
+    Map<String, Object> properties = new LinkedHashMap<>();
+    properties.put("spring.datasource.url", postgres.getJdbcUrl("postgres", "postgres"));
+    properties.put("spring.datasource.username", "postgres");
+    properties.put("spring.datasource.password", "postgres");
+    properties.put("spring.kafka.bootstrap-servers", kafka.getBrokersAsString());
+    properties.put("spring.data.redis.host", "localhost");
+    properties.put("spring.data.redis.port", redisPort);
+    properties.put("server.port", 0);
+    // 기본 설정의 DEBUG 로그가 부하 중 측정값을 흔들지 않도록 낮춘다
+    properties.put("logging.level.com.realtime.chat", "WARN");
+    properties.put("logging.level.org.springframework.web.socket", "WARN");
+    properties.put("logging.level.org.apache.kafka", "WARN");
+    return properties.entrySet().stream()
+        .map(entry -> "--" + entry.getKey() + "=" + entry.getValue())
+        .toArray(String[]::new);
+  }
+
+  Map<String, Object> describe() {
+    Map<String, Object> description = new LinkedHashMap<>();
+    description.put("postgres", "zonky embedded-postgres");
+    description.put("kafka", "spring-kafka-test EmbeddedKafkaKraftBroker (1 broker)");
+    description.put("redis", "embedded-redis port " + redisPort);
+    return description;
+  }
+
+  @Override
+  public void close() throws IOException {
+    try {
+      redis.stop();
+    } finally {
+      try {
+        kafka.destroy();
+      } finally {
+        postgres.close();
+      }
+    }
+  }
+
+  private static int freePort() {
+    try (ServerSocket socket = new ServerSocket(0)) {
+      socket.setReuseAddress(true);
+      return socket.getLocalPort();
+    } catch (IOException e) {
+      throw new UncheckedIOException("빈 port를 찾지 못했습니다", e);
+    }
+  }
+}
@@ -0,0 +1,128 @@
+package com.realtime.chat.loadtest;
+
+import com.realtime.chat.ChatApplication;
+import com.realtime.chat.domain.ChatRoom;
+import com.realtime.chat.domain.Message;
+import com.realtime.chat.domain.MessageType;
+import com.realtime.chat.domain.RoomType;
+import com.realtime.chat.domain.User;
+import com.realtime.chat.repository.ChatRoomRepository;
+import com.realtime.chat.repository.MessageRepository;
+import com.realtime.chat.repository.UserRepository;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+// MessageIdGenerationIntegrationTest와 같은 세 insert 경로의 소요 시간을 embedded PostgreSQL에서 잰다.
+// row 단위 saveAndFlush / JPA saveAll batch / JDBC multi-row insert를 한 round에 한 번씩 돌리고,
+// warmup round를 버린 뒤 경로별 min/median/max ms를 출력한다.
+// 같은 JVM/같은 DB에서의 경로 간 상대 비교용이며 운영 DB 처리량 수치가 아니다.
+//
+// 실행: ./gradlew insertPathComparison --args="--rows 200 --rounds 10 --warmup 3 --out <file>"
+public final class InsertPathComparison {
+
+  private static final List<String> PATHS =
+      List.of("perRowSaveAndFlush", "jpaSaveAll", "jdbcInsertAll");
+
+  private final MessageRepository messageRepository;
+  private final ChatRoom room;
+  private final User sender;
+  private final int rows;
+
+  private InsertPathComparison(
+      MessageRepository messageRepository, ChatRoom room, User sender, int rows) {
+    this.messageRepository = messageRepository;
+    this.room = room;
+    this.sender = sender;
+    this.rows = rows;
+  }
+
+  public static void main(String[] args) throws Exception {
+    Map<String, String> options = ComparisonReport.parse(args);
+    int rows = Integer.parseInt(options.getOrDefault("rows", "200"));
+    int rounds = Integer.parseInt(options.getOrDefault("rounds", "10"));
+    int warmup = Integer.parseInt(options.getOrDefault("warmup", "3"));
+
+    try (EmbeddedInfrastructure infrastructure = EmbeddedInfrastructure.start()) {
+      ConfigurableApplicationContext context =
+          new SpringApplicationBuilder(ChatApplication.class)
+              .run(infrastructure.applicationArguments());
+      try {
+        User sender =
+            context
+                .getBean(UserRepository.class)
+                .save(new User("insert-path@loadtest.local", "encoded", "insert-path"));
+        ChatRoom room = new ChatRoom("insert-path", RoomType.GROUP, sender);
+        room.addMember(sender);
+        context.getBean(ChatRoomRepository.class).saveAndFlush(room);
+
+        InsertPathComparison comparison =
+            new InsertPathComparison(context.getBean(MessageRepository.class), room, sender, rows);
+        Map<String, Object> result = comparison.run(rounds, warmup);
+        result.put("environment", ComparisonReport.environment(infrastructure));
+        ComparisonReport.write(result, options.get("out"));
+      } finally {
+        context.close();
+      }
+    }
+  }
+
+  private Map<String, Object> run(int rounds, int warmup) {
+    Map<String, List<Double>> samples = new LinkedHashMap<>();
+    PATHS.forEach(path -> samples.put(path, new ArrayList<>()));
+
+    for (int round = 0; round < warmup + rounds; round++) {
+      boolean measured = round >= warmup;
+      // 경로 순서에 따른 캐시/sequence 편향을 줄이도록 round마다 시작 경로를 돌린다
+      for (int offset = 0; offset < PATHS.size(); offset++) {
+        String path = PATHS.get((round + offset) % PATHS.size());
+        double millis = time(messages(path + "-" + round), insert(path));
+        if (measured) {
+          samples.get(path).add(millis);
+        }
+      }
+    }
+
+    Map<String, Object> results = new LinkedHashMap<>();
+    samples.forEach((path, values) -> results.put(path, ComparisonReport.stats(values)));
+
+    Map<String, Object> result = new LinkedHashMap<>();
+    result.put("artifactType", "message-insert-path-comparison");
+    result.put("generatedAt", Instant.now().toString());
+    result.put("rowsPerRound", rows);
+    result.put("warmupRounds", warmup);
+    result.put("measuredRounds", rounds);
+    result.put("unit", "ms per round");
+    result.put("results", results);
+    return result;
+  }
+
+  private Consumer<List<Message>> insert(String path) {
+    return switch (path) {
+      case "perRowSaveAndFlush" -> messages -> messages.forEach(messageRepository::saveAndFlush);
+      case "jpaSaveAll" -> messageRepository::saveAll;
+      case "jdbcInsertAll" -> messageRepository::insertAll;
+      default -> throw new IllegalArgumentException("알 수 없는 insert 경로: " + path);
+    };
+  }
+
+  private double time(List<Message> messages, Consumer<List<Message>> insert) {
+    long start = System.nanoTime();
+    insert.accept(messages);
+    return (System.nanoTime() - start) / 1_000_000.0;
+  }
+
+  private List<Message> messages(String prefix) {
+    return IntStream.range(0, rows)
+        .mapToObj(
+            i -> new Message(UUID.randomUUID(), room, sender, prefix + "-" + i, MessageType.TEXT))
+        .toList();
+  }
+}
@@ -0,0 +1,174 @@
+package com.realtime.chat.loadtest;
+
+import com.realtime.chat.ChatApplication;
+import com.realtime.chat.config.KafkaConfig;
+import com.realtime.chat.domain.ChatRoom;
+import com.realtime.chat.domain.MessageType;
+import com.realtime.chat.domain.RoomType;
+import com.realtime.chat.domain.User;
+import com.realtime.chat.event.ChatMessageEvent;
+import com.realtime.chat.repository.ChatRoomRepository;
+import com.realtime.chat.repository.MessageRepository;
+import com.realtime.chat.repository.UserRepository;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.kafka.core.KafkaTemplate;
+
+// persistence consumer의 key-ordered 처리 on/off를 batch 저장 on/off와 조합해 embedded 인프라에서 비교한다.
+// 여러 room의 메시지를 chat.messages partition 0 하나에 몰아 보내고(한 consumer thread가 모두 받는 상황),
+// 보내기 시작부터 전부 DB에 저장될 때까지 걸린 시간을 잰다. 설정마다 앱 context를 새로 띄운다.
+// 같은 JVM/같은 DB에서의 설정 간 상대 비교용이며 운영 처리량 수치가 아니다.
+//
+// 실행: ./gradlew keyOrderedComparison
+//         --args="--rooms 20 --messages 2000 --rounds 5 --warmup 2 --out <file>"
+public final class KeyOrderedComparison {
+
+  private static final Map<String, List<String>> MODES = modes();
+  private static final Duration DRAIN_TIMEOUT = Duration.ofMinutes(5);
+
+  private final MessageRepository messageRepository;
+  private final KafkaTemplate<String, Object> kafkaTemplate;
+  private final User sender;
+  private final List<ChatRoom> rooms;
+  private final int messages;
+
+  private KeyOrderedComparison(
+      MessageRepository messageRepository,
+      KafkaTemplate<String, Object> kafkaTemplate,
+      User sender,
+      List<ChatRoom> rooms,
+      int messages) {
+    this.messageRepository = messageRepository;
+    this.kafkaTemplate = kafkaTemplate;
+    this.sender = sender;
+    this.rooms = rooms;
+    this.messages = messages;
+  }
+
+  public static void main(String[] args) throws Exception {
+    Map<String, String> options = ComparisonReport.parse(args);
+    int roomCount = Integer.parseInt(options.getOrDefault("rooms", "20"));
+    int messages = Integer.parseInt(options.getOrDefault("messages", "2000"));
+    int rounds = Integer.parseInt(options.getOrDefault("rounds", "5"));
+    int warmup = Integer.parseInt(options.getOrDefault("warmup", "2"));
+
+    try (EmbeddedInfrastructure infrastructure = EmbeddedInfrastructure.start()) {
+      Map<String, Object> results = new LinkedHashMap<>();
+      for (Map.Entry<String, List<String>> mode : MODES.entrySet()) {
+        String[] arguments =
+            Stream.concat(
+                    Stream.of(infrastructure.applicationArguments()), mode.getValue().stream())
+                .toArray(String[]::new);
+        ConfigurableApplicationContext context =
+            new SpringApplicationBuilder(ChatApplication.class).run(arguments);
+        try {
+          KeyOrderedComparison comparison = setUp(context, mode.getKey(), roomCount, messages);
+          Map<String, Object> stats = ComparisonReport.stats(comparison.run(rounds, warmup));
+          stats.put("properties", mode.getValue());
+          results.put(mode.getKey(), stats);
+        } finally {
+          context.close();
+        }
+      }
+
+      Map<String, Object> result = new LinkedHashMap<>();
+      result.put("artifactType", "key-ordered-persistence-comparison");
+      result.put("generatedAt", Instant.now().toString());
+      result.put("rooms", roomCount);
+      result.put("messagesPerRound", messages);
+      result.put("partition", 0);
+      result.put("warmupRounds", warmup);
+      result.put("measuredRounds", rounds);
+      result.put("unit", "ms per round (첫 발행 ~ 마지막 저장 확인)");
+      result.put("results", results);
+      result.put("environment", ComparisonReport.environment(infrastructure));
+      ComparisonReport.write(result, options.get("out"));
+    }
+  }
+
+  private static Map<String, List<String>> modes() {
+    Map<String, List<String>> modes = new LinkedHashMap<>();
+    modes.put("batchSequential", properties(true, false));
+    modes.put("batchKeyOrdered", properties(true, true));
+    modes.put("recordSequential", properties(false, false));
+    modes.put("recordKeyOrdered", properties(false, true));
+    return modes;
+  }
+
+  private static List<String> properties(boolean batch, boolean keyOrdered) {
+    return List.of(
+        "--chat.persistence.batch.enabled=" + batch,
+        "--chat.consumer.key-ordered.enabled=" + keyOrdered);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static KeyOrderedComparison setUp(
+      ConfigurableApplicationContext context, String mode, int roomCount, int messages) {
+    User sender =
+        context
+            .getBean(UserRepository.class)
+            .save(new User(mode + "@loadtest.local", "encoded", mode));
+    ChatRoomRepository chatRoomRepository = context.getBean(ChatRoomRepository.class);
+    List<ChatRoom> rooms =
+        IntStream.range(0, roomCount)
+            .mapToObj(
+                i -> {
+                  ChatRoom room = new ChatRoom(mode + "-" + i, RoomType.GROUP, sender);
+                  room.addMember(sender);
+                  return chatRoomRepository.saveAndFlush(room);
+                })
+            .toList();
+    return new KeyOrderedComparison(
+        context.getBean(MessageRepository.class),
+        context.getBean("chatMessageKafkaTemplate", KafkaTemplate.class),
+        sender,
+        rooms,
+        messages);
+  }
+
+  private List<Double> run(int rounds, int warmup) throws InterruptedException {
+    List<Double> samples = new ArrayList<>();
+    for (int round = 0; round < warmup + rounds; round++) {
+      double millis = sendAndDrain(round);
+      if (round >= warmup) {
+        samples.add(millis);
+      }
+    }
+    return samples;
+  }
+
+  // room을 돌아가며 partition 0으로 보내고, persistence consumer가 모두 저장할 때까지 기다린다
+  private double sendAndDrain(int round) throws InterruptedException {
+    long expected = messageRepository.count() + messages;
+    long start = System.nanoTime();
+    for (int i = 0; i < messages; i++) {
+      ChatRoom room = rooms.get(i % rooms.size());
+      ChatMessageEvent event =
+          ChatMessageEvent.of(
+              room.getId(),
+              sender.getId(),
+              sender.getNickname(),
+              "round-" + round + "-" + i,
+              MessageType.TEXT);
+      kafkaTemplate.send(KafkaConfig.MESSAGES_TOPIC, 0, String.valueOf(room.getId()), event);
+    }
+    kafkaTemplate.flush();
+
+    long deadline = start + DRAIN_TIMEOUT.toNanos();
+    while (messageRepository.count() < expected) {
+      if (System.nanoTime() > deadline) {
+        throw new IllegalStateException("저장 대기 시간 초과: round=" + round);
+      }
+      Thread.sleep(10);
+    }
+    return (System.nanoTime() - start) / 1_000_000.0;
+  }
+}
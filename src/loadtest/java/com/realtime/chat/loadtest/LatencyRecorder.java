@@ -0,0 +1,88 @@
+package com.realtime.chat.loadtest;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+// send→ACK(ACCEPTED), send→PERSISTED, send→room 수신 latency를 HdrHistogram에 µs 단위로 기록한다.
+// ACK/PERSISTED는 clientMessageId마다 첫 관측 한 번만, room 수신은 수신자마다 첫 관측 한 번만 센다
+// (중복 전달은 DeliveryMatrix의 duplicateDeliveries로 따로 본다).
+final class LatencyRecorder {
+
+  // 1µs ~ 10분, 유효 숫자 3자리
+  private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(10);
+
+  private final Histogram sendToAck = histogram();
+  private final Histogram sendToPersisted = histogram();
+  private final Histogram sendToRoomReceive = histogram();
+  private final Map<String, Long> sendStartedAtNanos = new ConcurrentHashMap<>();
+  private final Set<String> observed = ConcurrentHashMap.newKeySet();
+
+  void sent(String clientMessageId, long startedAtNanos) {
+    sendStartedAtNanos.put(clientMessageId, startedAtNanos);
+  }
+
+  void accepted(String clientMessageId, long observedAtNanos) {
+    record(sendToAck, "ack\u0000" + clientMessageId, clientMessageId, observedAtNanos);
+  }
+
+  void persisted(String clientMessageId, long observedAtNanos) {
+    record(sendToPersisted, "persisted\u0000" + clientMessageId, clientMessageId, observedAtNanos);
+  }
+
+  void received(String clientMessageId, long receiverUserId, long observedAtNanos) {
+    record(
+        sendToRoomReceive,
+        "receive\u0000" + receiverUserId + "\u0000" + clientMessageId,
+        clientMessageId,
+        observedAtNanos);
+  }
+
+  Map<String, Object> toJson() {
+    Map<String, Object> histograms = new LinkedHashMap<>();
+    histograms.put("unit", "ms");
+    histograms.put("sendToAck", summarize(sendToAck));
+    histograms.put("sendToPersisted", summarize(sendToPersisted));
+    histograms.put("sendToRoomReceive", summarize(sendToRoomReceive));
+    return histograms;
+  }
+
+  private void record(
+      Histogram histogram, String observationKey, String clientMessageId, long observedAtNanos) {
+    Long startedAtNanos = sendStartedAtNanos.get(clientMessageId);
+    if (startedAtNanos == null || !observed.add(observationKey)) {
+      return;
+    }
+    long micros = TimeUnit.NANOSECONDS.toMicros(observedAtNanos - startedAtNanos);
+    histogram.recordValue(Math.max(1, Math.min(micros, HIGHEST_TRACKABLE_MICROS)));
+  }
+
+  private static Map<String, Object> summarize(Histogram histogram) {
+    Map<String, Object> summary = new LinkedHashMap<>();
+    long count = histogram.getTotalCount();
+    summary.put("count", count);
+    if (count == 0) {
+      return summary;
+    }
+    summary.put("mean", millis(histogram.getMean()));
+    summary.put("p50", millis(histogram.getValueAtPercentile(50)));
+    summary.put("p90", millis(histogram.getValueAtPercentile(90)));
+    summary.put("p95", millis(histogram.getValueAtPercentile(95)));
+    summary.put("p99", millis(histogram.getValueAtPercentile(99)));
+    summary.put("p999", millis(histogram.getValueAtPercentile(99.9)));
+    summary.put("max", millis(histogram.getMaxValue()));
+    return summary;
+  }
+
+  private static double millis(double micros) {
+    return Math.round(micros) / 1000.0;
+  }
+
+  private static Histogram histogram() {
+    return new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+  }
+}
@@ -0,0 +1,634 @@
+package com.realtime.chat.loadtest;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.realtime.chat.ChatApplication;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Type;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.messaging.converter.ByteArrayMessageConverter;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+// docker/k6/Node 없이 한 JVM에서 돌리는 WebSocket 전달 부하 도구.
+// 1. embedded PostgreSQL/Kafka/Redis를 띄우고 ChatApplication을 random port로 기동한다.
+// 2. 사용자 가입과 그룹 방 생성은 REST로, 사용자마다 STOMP session 하나를 virtual thread로 연결한다.
+// 3. 방마다 senders-per-room명이 send-interval-ms 간격으로 messages-per-user개씩 보낸다.
+// 4. drain-ms 동안 남은 전달을 기다린 뒤 ws-delivery-runner.mjs와 같은 JSONL/summary/manifest를 쓴다.
+//    node scripts/validate-delivery-evidence.mjs --artifact-dir <out-dir>로 다시 검증할 수 있다.
+// send→ACK/PERSISTED/room 수신 latency는 latency-histograms.json에 HdrHistogram 분위수로 남긴다.
+//
+// 실행: ./gradlew loadTest --args="--rooms 100 --users-per-room 20 --messages-per-user 20"
+public final class LoadGenerator {
+
+  private static final String PASSWORD = "password123";
+
+  private final LoadTestOptions options;
+  private final String baseUrl;
+  private final String wsUrl;
+  private final HttpClient httpClient = HttpClient.newHttpClient();
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private final ObjectMapper rowMapper =
+      new ObjectMapper().setSerializationInclusion(JsonInclude.Include.NON_NULL);
+  private final LatencyRecorder latencyRecorder = new LatencyRecorder();
+  private final List<Map<String, Object>> memberRows =
+      Collections.synchronizedList(new ArrayList<>());
+  private final List<Map<String, Object>> sendRows =
+      Collections.synchronizedList(new ArrayList<>());
+  private final List<Map<String, Object>> receiveRows =
+      Collections.synchronizedList(new ArrayList<>());
+  private final List<Map<String, Object>> statusRows =
+      Collections.synchronizedList(new ArrayList<>());
+
+  private LoadGenerator(LoadTestOptions options, int port) {
+    this.options = options;
+    this.baseUrl = "http://localhost:" + port;
+    this.wsUrl = "ws://localhost:" + port + "/ws";
+  }
+
+  public static void main(String[] args) throws Exception {
+    LoadTestOptions options = LoadTestOptions.parse(args);
+    try (EmbeddedInfrastructure infrastructure = EmbeddedInfrastructure.start()) {
+      ConfigurableApplicationContext context =
+          new SpringApplicationBuilder(ChatApplication.class)
+              .run(infrastructure.applicationArguments());
+      try {
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        new LoadGenerator(options, port).run(infrastructure);
+      } finally {
+        context.close();
+      }
+    }
+  }
+
+  private void run(EmbeddedInfrastructure infrastructure) throws Exception {
+    List<User> users = signUpUsers();
+    List<Room> rooms = createRooms(users);
+
+    WebSocketStompClient stompClient = stompClient();
+    List<Client> clients = connectClients(stompClient, rooms);
+    // 구독 receipt를 기다리지 않으므로 SUBSCRIBE가 broker에 등록될 시간을 둔다
+    Thread.sleep(options.settleMs());
+
+    sendMessages(rooms, clients);
+    Thread.sleep(options.drainMs());
+    for (Client client : clients) {
+      client.session().disconnect();
+    }
+    stompClient.stop();
+
+    writeArtifacts(rooms, users, infrastructure);
+  }
+
+  private List<User> signUpUsers() throws Exception {
+    Semaphore permits = new Semaphore(options.signupConcurrency());
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      List<Future<User>> futures = new ArrayList<>(options.users());
+      for (int index = 0; index < options.users(); index++) {
+        int userIndex = index;
+        futures.add(
+            executor.submit(
+                () -> {
+                  permits.acquire();
+                  try {
+                    return signUp(userIndex);
+                  } finally {
+                    permits.release();
+                  }
+                }));
+      }
+      List<User> users = new ArrayList<>(futures.size());
+      for (Future<User> future : futures) {
+        users.add(future.get());
+      }
+      return users;
+    }
+  }
+
+  private User signUp(int index) throws IOException, InterruptedException {
+    Map<String, Object> body = new LinkedHashMap<>();
+    body.put("email", options.runId() + "-" + index + "@example.com");
+    body.put("password", PASSWORD);
+    body.put("nickname", "LoadUser" + index);
+    JsonNode response = postJson("/api/auth/signup", null, body);
+    return new User(response.get("userId").asLong(), response.get("token").asText());
+  }
+
+  // 방마다 연속한 users-per-room명을 묶고 첫 사용자가 방을 만든다
+  private List<Room> createRooms(List<User> users) throws IOException, InterruptedException {
+    List<Room> rooms = new ArrayList<>(options.rooms());
+    for (int roomNumber = 0; roomNumber < options.rooms(); roomNumber++) {
+      List<User> roomUsers =
+          users.subList(
+              roomNumber * options.usersPerRoom(), (roomNumber + 1) * options.usersPerRoom());
+      Map<String, Object> body = new LinkedHashMap<>();
+      body.put("name", options.runId() + "-room-" + roomNumber);
+      body.put("memberIds", roomUsers.stream().skip(1).map(User::userId).toList());
+      JsonNode response = postJson("/api/rooms/group", roomUsers.get(0).token(), body);
+      Room room = new Room(response.get("id").asLong(), roomUsers);
+      rooms.add(room);
+      for (User user : roomUsers) {
+        memberRows.add(
+            row(
+                "runId", options.runId(),
+                "roomId", room.id(),
+                "roomNumber", roomNumber,
+                "userId", user.userId()));
+      }
+    }
+    return rooms;
+  }
+
+  private WebSocketStompClient stompClient() {
+    StandardWebSocketClient webSocketClient = new StandardWebSocketClient();
+    // handshake를 virtual thread에서 실행하고, 동시에 진행하는 handshake 수만 제한한다
+    SimpleAsyncTaskExecutor connectExecutor = new SimpleAsyncTaskExecutor("loadtest-connect-");
+    connectExecutor.setVirtualThreads(true);
+    connectExecutor.setConcurrencyLimit(options.connectConcurrency());
+    webSocketClient.setTaskExecutor(connectExecutor);
+    WebSocketStompClient stompClient = new WebSocketStompClient(webSocketClient);
+    // payload는 byte[]로 주고받고 직접 파싱한다 (수신 시각을 변환 전에 찍기 위해)
+    stompClient.setMessageConverter(new JsonBytesMessageConverter());
+    return stompClient;
+  }
+
+  private List<Client> connectClients(WebSocketStompClient stompClient, List<Room> rooms)
+      throws Exception {
+    List<CompletableFuture<Client>> futures = new ArrayList<>(options.users());
+    for (Room room : rooms) {
+      for (User user : room.users()) {
+        StompHeaders connectHeaders = new StompHeaders();
+        connectHeaders.add("Authorization", "Bearer " + user.token());
+        futures.add(
+            stompClient
+                .connectAsync(
+                    wsUrl,
+                    new WebSocketHttpHeaders(),
+                    connectHeaders,
+                    new ErrorRecordingHandler(room.id(), user.userId()))
+                .thenApply(session -> subscribe(session, room, user)));
+      }
+    }
+    CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+        .get(options.connectTimeoutMs(), TimeUnit.MILLISECONDS);
+    return futures.stream().map(CompletableFuture::join).toList();
+  }
+
+  private Client subscribe(StompSession session, Room room, User user) {
+    session.subscribe("/topic/room." + room.id(), new RoomFrameHandler(room.id(), user.userId()));
+    for (String queue : List.of("ack", "error", "persisted")) {
+      String destination = "/user/queue/messages/" + queue;
+      session.subscribe(destination, new StatusFrameHandler(room.id(), user.userId(), destination));
+    }
+    return new Client(room.id(), user, session);
+  }
+
+  // 발신자마다 virtual thread 하나가 자기 session으로 순서대로 보낸다
+  private void sendMessages(List<Room> rooms, List<Client> clients) throws Exception {
+    Map<Long, Client> clientsByUserId = new LinkedHashMap<>();
+    for (Client client : clients) {
+      clientsByUserId.put(client.user().userId(), client);
+    }
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      List<Future<?>> futures = new ArrayList<>();
+      for (Room room : rooms) {
+        for (User sender : room.users().subList(0, options.sendersPerRoom())) {
+          Client client = clientsByUserId.get(sender.userId());
+          futures.add(executor.submit(() -> sendAll(client)));
+        }
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    }
+  }
+
+  private Void sendAll(Client client) throws Exception {
+    StompHeaders headers = new StompHeaders();
+    headers.setDestination("/app/chat.send");
+    headers.setContentType(MimeTypeUtils.APPLICATION_JSON);
+    for (int sequence = 1; sequence <= options.messagesPerUser(); sequence++) {
+      String clientMessageId = UUID.randomUUID().toString();
+      String content = options.runId() + ":" + sequence + ":" + client.user().userId();
+      Map<String, Object> payload = new LinkedHashMap<>();
+      payload.put("clientMessageId", clientMessageId);
+      payload.put("roomId", client.roomId());
+      payload.put("content", content);
+      payload.put("type", "TEXT");
+      byte[] body = objectMapper.writeValueAsBytes(payload);
+
+      latencyRecorder.sent(clientMessageId, System.nanoTime());
+      sendRows.add(
+          row(
+              "runId", options.runId(),
+              "roomId", client.roomId(),
+              "senderUserId", client.user().userId(),
+              "clientMessageId", clientMessageId,
+              "roomSequence", sequence,
+              "sendStartedAtMs", System.currentTimeMillis(),
+              "payloadBytes", content.getBytes(StandardCharsets.UTF_8).length));
+      client.session().send(headers, body);
+      if (options.sendIntervalMs() > 0 && sequence < options.messagesPerUser()) {
+        Thread.sleep(options.sendIntervalMs());
+      }
+    }
+    return null;
+  }
+
+  private void writeArtifacts(List<Room> rooms, List<User> users, EmbeddedInfrastructure infra)
+      throws IOException {
+    Path outDir = options.outDir();
+    Files.createDirectories(outDir);
+    List<Map<String, Object>> members = List.copyOf(memberRows);
+    List<Map<String, Object>> sends = List.copyOf(sendRows);
+    List<Map<String, Object>> receives = List.copyOf(receiveRows);
+    List<Map<String, Object>> statuses = List.copyOf(statusRows);
+    writeJsonLines(outDir.resolve("members.jsonl"), members);
+    writeJsonLines(outDir.resolve("send.jsonl"), sends);
+    writeJsonLines(outDir.resolve("receive.jsonl"), receives);
+    writeJsonLines(outDir.resolve("status.jsonl"), statuses);
+
+    Map<String, Object> summary = DeliveryMatrix.summarize(members, sends, receives, statuses);
+    Map<String, Object> histograms = latencyRecorder.toJson();
+    ObjectMapper pretty = objectMapper.copy().enable(SerializationFeature.INDENT_OUTPUT);
+    pretty.writeValue(outDir.resolve("summary.json").toFile(), summary);
+    pretty.writeValue(outDir.resolve("latency-histograms.json").toFile(), histograms);
+    pretty.writeValue(
+        outDir.resolve("manifest.json").toFile(),
+        manifest(rooms, users, summary, infra, sends, receives, statuses));
+
+    Map<String, Object> result = new LinkedHashMap<>();
+    result.put("runId", options.runId());
+    result.put("outDir", outDir.toString());
+    result.put("completenessPercent", summary.get("completenessPercent"));
+    result.put("latency", histograms);
+    System.out.println(pretty.writeValueAsString(result));
+  }
+
+  private Map<String, Object> manifest(
+      List<Room> rooms,
+      List<User> users,
+      Map<String, Object> summary,
+      EmbeddedInfrastructure infra,
+      List<Map<String, Object>> sends,
+      List<Map<String, Object>> receives,
+      List<Map<String, Object>> statuses) {
+    Map<String, Object> claimBoundary = new LinkedHashMap<>();
+    claimBoundary.put("status", "시나리오 검증");
+    claimBoundary.put(
+        "scope",
+        "Single-JVM WebSocket receiver-matrix artifact on embedded infrastructure."
+            + " Do not promote to public benchmark without separate documented review.");
+    claimBoundary.put(
+        "acceptableDiagnostics",
+        List.of(
+            "statuslessSends",
+            "failedSends",
+            "missingDeliveries",
+            "duplicateDeliveries",
+            "unexpectedDeliveries"));
+
+    Map<String, Object> roomMemberCounts = new LinkedHashMap<>();
+    for (Room room : rooms) {
+      roomMemberCounts.put(String.valueOf(room.id()), room.users().size());
+    }
+    Map<String, Object> expected = new LinkedHashMap<>();
+    expected.put("sessions", users.size());
+    expected.put("rooms", rooms.size());
+    expected.put("usersPerRoom", options.usersPerRoom());
+    expected.put("sendersPerRoom", options.sendersPerRoom());
+    expected.put("messagesPerUser", options.messagesPerUser());
+    expected.put("messagesAttempted", sends.size());
+    expected.put("roomIds", rooms.stream().map(Room::id).toList());
+    expected.put("roomMemberCounts", roomMemberCounts);
+    expected.put("mixedHttpProbesIncluded", false);
+
+    Map<String, Object> observedSummary = new LinkedHashMap<>();
+    for (String field :
+        List.of(
+            "expectedDeliveries",
+            "actualUniqueDeliveries",
+            "missingDeliveries",
+            "duplicateDeliveries",
+            "unexpectedDeliveries",
+            "sendStatus",
+            "mixedHttp")) {
+      observedSummary.put(field, summary.get(field));
+    }
+    Map<String, Object> observed = new LinkedHashMap<>();
+    observed.put("messagesAttempted", sends.size());
+    observed.put("deliveriesObserved", receives.size());
+    observed.put("statusesObserved", statuses.size());
+    observed.put("httpRequestsObserved", 0);
+    observed.put("summary", observedSummary);
+
+    Runtime runtime = Runtime.getRuntime();
+    Map<String, Object> environment = new LinkedHashMap<>();
+    environment.put("javaVersion", System.getProperty("java.version"));
+    environment.put("vmName", System.getProperty("java.vm.name"));
+    environment.put("platform", System.getProperty("os.name"));
+    environment.put("arch", System.getProperty("os.arch"));
+    environment.put("availableProcessors", runtime.availableProcessors());
+    environment.put("maxHeapBytes", runtime.maxMemory());
+    environment.put("pid", ProcessHandle.current().pid());
+    environment.put("cwd", Path.of("").toAbsolutePath().toString());
+    environment.put("timezone", ZoneId.systemDefault().getId());
+    environment.put("jvmArguments", ManagementFactory.getRuntimeMXBean().getInputArguments());
+    environment.put("infrastructure", infra.describe());
+
+    Map<String, Object> files = new LinkedHashMap<>();
+    files.put("members", "members.jsonl");
+    files.put("send", "send.jsonl");
+    files.put("receive", "receive.jsonl");
+    files.put("status", "status.jsonl");
+    files.put("summary", "summary.json");
+    files.put("latencyHistograms", "latency-histograms.json");
+
+    Map<String, Object> manifest = new LinkedHashMap<>();
+    manifest.put("schemaVersion", 1);
+    manifest.put("artifactType", "websocket-delivery-evidence");
+    manifest.put("claimBoundary", claimBoundary);
+    manifest.put("generatedAt", Instant.now().toString());
+    manifest.put("runId", options.runId());
+    manifest.put("outDir", options.outDir().toString());
+    manifest.put("options", options.toManifest());
+    manifest.put("expected", expected);
+    manifest.put("observed", observed);
+    manifest.put("environment", environment);
+    manifest.put("files", files);
+    return manifest;
+  }
+
+  private JsonNode postJson(String path, String token, Object body)
+      throws IOException, InterruptedException {
+    HttpRequest.Builder request =
+        HttpRequest.newBuilder(URI.create(baseUrl + path))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)));
+    if (token != null) {
+      request.header("Authorization", "Bearer " + token);
+    }
+    HttpResponse<byte[]> response =
+        httpClient.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+    if (response.statusCode() / 100 != 2) {
+      throw new IllegalStateException(
+          path
+              + " 요청 실패: status="
+              + response.statusCode()
+              + ", body="
+              + new String(response.body(), StandardCharsets.UTF_8));
+    }
+    return objectMapper.readTree(response.body());
+  }
+
+  // 행은 null 필드를 쓰지 않는다 (delivery-matrix.mjs는 없는 필드와 null을 다르게 본다)
+  private void writeJsonLines(Path path, List<Map<String, Object>> rows) throws IOException {
+    try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+      for (Map<String, Object> row : rows) {
+        writer.write(rowMapper.writeValueAsString(row));
+        writer.newLine();
+      }
+    }
+  }
+
+  private static Map<String, Object> row(Object... keyValues) {
+    Map<String, Object> row = new LinkedHashMap<>();
+    for (int index = 0; index < keyValues.length; index += 2) {
+      if (keyValues[index + 1] != null) {
+        row.put((String) keyValues[index], keyValues[index + 1]);
+      }
+    }
+    return row;
+  }
+
+  private static Long longOrNull(JsonNode node, String field) {
+    JsonNode value = node.get(field);
+    return value != null && value.canConvertToLong() ? value.asLong() : null;
+  }
+
+  private static String textOrNull(JsonNode node, String field) {
+    JsonNode value = node.get(field);
+    return value != null && !value.isNull() ? value.asText() : null;
+  }
+
+  private static Long sequenceFromContent(String content) {
+    String[] parts = content != null ? content.split(":") : new String[0];
+    if (parts.length < 2) {
+      return null;
+    }
+    try {
+      return Long.parseLong(parts[1]);
+    } catch (NumberFormatException e) {
+      return null;
+    }
+  }
+
+  private JsonNode parse(Object payload) {
+    try {
+      return objectMapper.readTree((byte[]) payload);
+    } catch (IOException e) {
+      return null;
+    }
+  }
+
+  // /topic/room.{id}: 다른 사용자가 보낸 이 방 메시지만 수신으로 기록한다
+  private final class RoomFrameHandler implements StompFrameHandler {
+
+    private final long roomId;
+    private final long userId;
+
+    private RoomFrameHandler(long roomId, long userId) {
+      this.roomId = roomId;
+      this.userId = userId;
+    }
+
+    @Override
+    public Type getPayloadType(StompHeaders headers) {
+      return byte[].class;
+    }
+
+    @Override
+    public void handleFrame(StompHeaders headers, Object payload) {
+      long receivedAtNanos = System.nanoTime();
+      long receivedAtMs = System.currentTimeMillis();
+      JsonNode body = parse(payload);
+      if (body == null) {
+        return;
+      }
+      String clientMessageId = textOrNull(body, "clientMessageId");
+      Long senderId = longOrNull(body, "senderId");
+      Long bodyRoomId = longOrNull(body, "roomId");
+      if (clientMessageId == null
+          || senderId == null
+          || bodyRoomId == null
+          || bodyRoomId != roomId
+          || senderId == userId) {
+        return;
+      }
+      latencyRecorder.received(clientMessageId, userId, receivedAtNanos);
+      String content = textOrNull(body, "content");
+      receiveRows.add(
+          row(
+              "runId", content != null ? content.split(":")[0] : null,
+              "roomId", roomId,
+              "receiverUserId", userId,
+              "senderUserId", senderId,
+              "clientMessageId", clientMessageId,
+              "messageKey", textOrNull(body, "messageKey"),
+              "roomSequence", sequenceFromContent(content),
+              "receivedAtMs", receivedAtMs));
+    }
+  }
+
+  // /user/queue/messages/{ack,error,persisted}: ACCEPTED/FAILED/PERSISTED 상태를 기록한다
+  private final class StatusFrameHandler implements StompFrameHandler {
+
+    private final long roomId;
+    private final long userId;
+    private final String destination;
+
+    private StatusFrameHandler(long roomId, long userId, String destination) {
+      this.roomId = roomId;
+      this.userId = userId;
+      this.destination = destination;
+    }
+
+    @Override
+    public Type getPayloadType(StompHeaders headers) {
+      return byte[].class;
+    }
+
+    @Override
+    public void handleFrame(StompHeaders headers, Object payload) {
+      long observedAtNanos = System.nanoTime();
+      long observedAtMs = System.currentTimeMillis();
+      JsonNode body = parse(payload);
+      String clientMessageId = body != null ? textOrNull(body, "clientMessageId") : null;
+      String serverStatus = body != null ? textOrNull(body, "status") : null;
+      if (clientMessageId == null || serverStatus == null) {
+        return;
+      }
+      String status =
+          switch (serverStatus) {
+            case "ACCEPTED" -> "accepted";
+            case "FAILED" -> "failed";
+            case "PERSISTED" -> "persisted";
+            default -> null;
+          };
+      if (status == null) {
+        return;
+      }
+      if ("accepted".equals(status)) {
+        latencyRecorder.accepted(clientMessageId, observedAtNanos);
+      } else if ("persisted".equals(status)) {
+        latencyRecorder.persisted(clientMessageId, observedAtNanos);
+      }
+      Long bodyRoomId = longOrNull(body, "roomId");
+      statusRows.add(
+          row(
+              "runId", options.runId(),
+              "roomId", bodyRoomId != null ? bodyRoomId : roomId,
+              "userId", userId,
+              "clientMessageId", clientMessageId,
+              "messageKey", textOrNull(body, "messageKey"),
+              "messageId", longOrNull(body, "messageId"),
+              "status", status,
+              "serverStatus", serverStatus,
+              "reason", textOrNull(body, "reason"),
+              "destination", destination,
+              "observedAtMs", observedAtMs));
+    }
+  }
+
+  // STOMP ERROR frame(rate limit 초과, 권한 거부 등)은 clientMessageId 없이 stomp_error로 남긴다
+  private final class ErrorRecordingHandler extends StompSessionHandlerAdapter {
+
+    private final long roomId;
+    private final long userId;
+
+    private ErrorRecordingHandler(long roomId, long userId) {
+      this.roomId = roomId;
+      this.userId = userId;
+    }
+
+    @Override
+    public Type getPayloadType(StompHeaders headers) {
+      return byte[].class;
+    }
+
+    @Override
+    public void handleFrame(StompHeaders headers, Object payload) {
+      String reason =
+          payload instanceof byte[] bytes && bytes.length > 0
+              ? new String(bytes, StandardCharsets.UTF_8)
+              : headers.getFirst("message");
+      statusRows.add(
+          row(
+              "runId", options.runId(),
+              "roomId", roomId,
+              "userId", userId,
+              "status", "stomp_error",
+              "reason", reason,
+              "observedAtMs", System.currentTimeMillis()));
+    }
+
+    @Override
+    public void handleException(
+        StompSession session,
+        StompCommand command,
+        StompHeaders headers,
+        byte[] payload,
+        Throwable exception) {
+      System.err.println("STOMP frame 처리 실패 userId=" + userId + ": " + exception.getMessage());
+    }
+  }
+
+  // ByteArrayMessageConverter는 application/octet-stream만 받으므로 JSON frame도 byte[] 그대로 통과시킨다
+  private static final class JsonBytesMessageConverter extends ByteArrayMessageConverter {
+
+    private JsonBytesMessageConverter() {
+      addSupportedMimeTypes(MimeTypeUtils.APPLICATION_JSON);
+    }
+  }
+
+  private record User(long userId, String token) {}
+
+  private record Room(long id, List<User> users) {}
+
+  private record Client(long roomId, User user, StompSession session) {}
+}
@@ -0,0 +1,88 @@
+package com.realtime.chat.loadtest;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// ./gradlew loadTest --args="--rooms 100 --users-per-room 20 ..." 인자.
+// 이름과 기본값은 scripts/ws-delivery-runner.mjs 옵션을 따른다 (manifest.options 비교가 쉽도록).
+record LoadTestOptions(
+    String runId,
+    int rooms,
+    int usersPerRoom,
+    int sendersPerRoom,
+    int messagesPerUser,
+    long sendIntervalMs,
+    long settleMs,
+    long drainMs,
+    long connectTimeoutMs,
+    int signupConcurrency,
+    int connectConcurrency,
+    Path outDir) {
+
+  static LoadTestOptions parse(String[] args) {
+    Map<String, String> values = new HashMap<>();
+    for (int index = 0; index < args.length; index += 2) {
+      if (!args[index].startsWith("--") || index + 1 >= args.length) {
+        throw new IllegalArgumentException("인자는 --name value 형식이어야 합니다: " + args[index]);
+      }
+      values.put(args[index].substring(2), args[index + 1]);
+    }
+
+    String runId = values.getOrDefault("run-id", "jvm-" + Instant.now().toEpochMilli());
+    int rooms = intOption(values, "rooms", 10);
+    int usersPerRoom = intOption(values, "users-per-room", 10);
+    int sendersPerRoom = intOption(values, "senders-per-room", usersPerRoom);
+    if (usersPerRoom < 2 || sendersPerRoom < 1 || sendersPerRoom > usersPerRoom) {
+      throw new IllegalArgumentException(
+          "users-per-room은 2 이상, senders-per-room은 1 이상 users-per-room 이하여야 합니다");
+    }
+    return new LoadTestOptions(
+        runId,
+        rooms,
+        usersPerRoom,
+        sendersPerRoom,
+        intOption(values, "messages-per-user", 10),
+        // 사용자당 10 msg/s rate limit(chat.rate-limit)에 걸리지 않는 간격
+        longOption(values, "send-interval-ms", 200),
+        longOption(values, "settle-ms", 1000),
+        longOption(values, "drain-ms", 5000),
+        longOption(values, "connect-timeout-ms", 30000),
+        intOption(values, "signup-concurrency", 64),
+        intOption(values, "connect-concurrency", 256),
+        Path.of(values.getOrDefault("out-dir", "artifacts/ws/" + runId)));
+  }
+
+  int users() {
+    return rooms * usersPerRoom;
+  }
+
+  Map<String, Object> toManifest() {
+    Map<String, Object> options = new LinkedHashMap<>();
+    options.put("driver", "jvm-load-generator");
+    options.put("users", users());
+    options.put("rooms", rooms);
+    options.put("usersPerRoom", usersPerRoom);
+    options.put("messagesPerUser", messagesPerUser);
+    options.put("senders", rooms * sendersPerRoom);
+    options.put("sendersPerRoom", sendersPerRoom);
+    options.put("sendIntervalMs", sendIntervalMs);
+    options.put("drainMs", drainMs);
+    options.put("statusSubscribeSettleMs", settleMs);
+    options.put("connectTimeoutMs", connectTimeoutMs);
+    options.put("signupConcurrency", signupConcurrency);
+    options.put("connectConcurrency", connectConcurrency);
+    options.put("mixedHttpProbes", false);
+    return options;
+  }
+
+  private static int intOption(Map<String, String> values, String name, int defaultValue) {
+    return values.containsKey(name) ? Integer.parseInt(values.get(name)) : defaultValue;
+  }
+
+  private static long longOption(Map<String, String> values, String name, long defaultValue) {
+    return values.containsKey(name) ? Long.parseLong(values.get(name)) : defaultValue;
+  }
+}
@@ -0,0 +1,31 @@
+package com.realtime.chat.common;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+// 노드 로컬 캐시/카운터용 크기 제한 map/set.
+// 최대 개수를 넘으면 가장 먼저 넣은 항목부터 버린다. 조회로 순서가 바뀌지 않는 FIFO라 hit 경로에서 쓰기가 없고,
+// 버려진 항목은 호출 쪽이 다음 요청에서 다시 적재한다. 여러 thread가 쓰므로 synchronized wrapper로 돌려준다.
+public final class BoundedFifoMaps {
+
+  private BoundedFifoMaps() {}
+
+  public static <K, V> Map<K, V> synchronizedMap(int maxEntries) {
+    return Collections.synchronizedMap(fifo(maxEntries));
+  }
+
+  public static <E> Set<E> synchronizedSet(int maxEntries) {
+    return Collections.synchronizedSet(Collections.newSetFromMap(fifo(maxEntries)));
+  }
+
+  private static <K, V> Map<K, V> fifo(int maxEntries) {
+    return new LinkedHashMap<>() {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+        return size() > maxEntries;
+      }
+    };
+  }
+}
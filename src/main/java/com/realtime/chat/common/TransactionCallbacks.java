@@ -0,0 +1,25 @@
+package com.realtime.chat.common;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// 트랜잭션 결과를 다른 스레드/노드가 보는 캐시에 반영할 때 쓰는 커밋 후 실행 헬퍼.
+// 트랜잭션 안이면 커밋 후에만 실행하고(롤백되면 버림), 트랜잭션 밖이면 바로 실행한다.
+public final class TransactionCallbacks {
+
+  private TransactionCallbacks() {}
+
+  public static void afterCommit(Runnable action) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      action.run();
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(
+        new TransactionSynchronization() {
+          @Override
+          public void afterCommit() {
+            action.run();
+          }
+        });
+  }
+}
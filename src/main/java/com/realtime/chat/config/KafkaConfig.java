@@ -1,22 +1,31 @@
 package com.realtime.chat.config;
 
+import com.realtime.chat.event.ChatEventDeserializer;
+import com.realtime.chat.event.ChatEventSerializer;
 import io.micrometer.core.instrument.Counter;
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.admin.NewTopic;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.config.TopicBuilder;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.MicrometerProducerListener;
+import org.springframework.kafka.core.ProducerFactory;
 import org.springframework.kafka.listener.ContainerProperties;
 import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
 import org.springframework.kafka.listener.DefaultErrorHandler;
@@ -31,14 +40,56 @@ public class KafkaConfig {
   public static final String READ_RECEIPTS_TOPIC = "chat.read-receipts";
   public static final String MESSAGES_DLT = "chat.messages.dlt";
   public static final String READ_RECEIPTS_DLT = "chat.read-receipts.dlt";
+  // HotRoomRouter가 hot room shard partition을 직접 계산하므로 topic partition 수와 같아야 한다
+  public static final int MESSAGES_PARTITIONS = 6;
 
   @Value("${spring.kafka.bootstrap-servers}")
   private String bootstrapServers;
 
+  @Value("${chat.persistence.batch.max-poll-records:500}")
+  private int persistenceMaxPollRecords;
+
+  // factory별 consumer thread 수 (thread마다 partition을 나눠 받는다. partition 수보다 크면 남는 thread는 논다)
+  @Value("${chat.persistence.concurrency:1}")
+  private int persistenceConcurrency;
+
+  @Value("${chat.broadcast.concurrency:1}")
+  private int broadcastConcurrency;
+
+  @Value("${chat.read-receipt.concurrency:1}")
+  private int readReceiptConcurrency;
+
+  @Value("${chat.broadcast.batch.max-poll-records:500}")
+  private int broadcastMaxPollRecords;
+
+  @Value("${chat.read-receipt.batch.max-poll-records:500}")
+  private int readReceiptMaxPollRecords;
+
+  @Value("${chat.read-receipt.batch.fetch-min-bytes:16384}")
+  private int readReceiptFetchMinBytes;
+
+  @Value("${chat.read-receipt.batch.fetch-max-wait:100ms}")
+  private Duration readReceiptFetchMaxWait;
+
+  @Value("${chat.broadcast.instance-id:${random.uuid}}")
+  private String broadcastInstanceId;
+
+  @Value("${chat.producer.linger:5ms}")
+  private Duration chatProducerLinger;
+
+  @Value("${chat.producer.batch-size:65536}")
+  private int chatProducerBatchSize;
+
+  @Value("${chat.producer.compression-type:lz4}")
+  private String chatProducerCompressionType;
+
+  @Value("${chat.event.wire-format:json}")
+  private String eventWireFormat;
+
   // 토픽 생성
   @Bean
   public NewTopic messagesTopic() {
-    return TopicBuilder.name(MESSAGES_TOPIC).partitions(6).replicas(1).build();
+    return TopicBuilder.name(MESSAGES_TOPIC).partitions(MESSAGES_PARTITIONS).replicas(1).build();
   }
 
   @Bean
@@ -56,13 +107,67 @@ public class KafkaConfig {
     return TopicBuilder.name(READ_RECEIPTS_DLT).partitions(1).replicas(1).build();
   }
 
-  // Consumer 공통 설정: manual commit
+  // 기본 producer (읽음 이벤트, DLT, replay): spring.kafka.producer 설정 그대로
+  @Bean
+  @Primary
+  public ProducerFactory<String, Object> kafkaProducerFactory(
+      KafkaProperties kafkaProperties,
+      MicrometerProducerListener<String, Object> kafkaProducerMetricsListener) {
+    DefaultKafkaProducerFactory<String, Object> factory =
+        new DefaultKafkaProducerFactory<>(producerConfigs(kafkaProperties));
+    factory.addListener(kafkaProducerMetricsListener);
+    return factory;
+  }
+
+  @Bean
+  @Primary
+  public KafkaTemplate<String, Object> kafkaTemplate(
+      ProducerFactory<String, Object> kafkaProducerFactory) {
+    return new KafkaTemplate<>(kafkaProducerFactory);
+  }
+
+  // chat.messages 전용 producer: linger 동안 모아 batch로 압축 전송한다.
+  // 재전송 중복/순서 뒤바뀜을 막도록 idempotence(acks=all, in-flight ≤ 5)를 켠다.
+  // linger만큼 SEND → ACCEPTED ACK 지연이 늘어나는 대신 요청 수와 전송 bytes가 줄어든다.
+  @Bean
+  public ProducerFactory<String, Object> chatMessageProducerFactory(
+      KafkaProperties kafkaProperties,
+      MicrometerProducerListener<String, Object> kafkaProducerMetricsListener) {
+    Map<String, Object> props = producerConfigs(kafkaProperties);
+    props.put(ProducerConfig.CLIENT_ID_CONFIG, "chat-messages");
+    props.put(ProducerConfig.ACKS_CONFIG, "all");
+    props.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+    props.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, 5);
+    props.put(ProducerConfig.LINGER_MS_CONFIG, (int) chatProducerLinger.toMillis());
+    props.put(ProducerConfig.BATCH_SIZE_CONFIG, chatProducerBatchSize);
+    props.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, chatProducerCompressionType);
+    DefaultKafkaProducerFactory<String, Object> factory = new DefaultKafkaProducerFactory<>(props);
+    factory.addListener(kafkaProducerMetricsListener);
+    return factory;
+  }
+
+  @Bean
+  public KafkaTemplate<String, Object> chatMessageKafkaTemplate(
+      @Qualifier("chatMessageProducerFactory")
+          ProducerFactory<String, Object> chatMessageProducerFactory) {
+    return new KafkaTemplate<>(chatMessageProducerFactory);
+  }
+
+  // Producer 공통 설정: event는 기존 JSON (chat.event.wire-format=binary이면 EventWireFormat)
+  private Map<String, Object> producerConfigs(KafkaProperties kafkaProperties) {
+    Map<String, Object> props = new HashMap<>(kafkaProperties.buildProducerProperties(null));
+    props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ChatEventSerializer.class);
+    props.put(ChatEventSerializer.WIRE_FORMAT_CONFIG, eventWireFormat);
+    return props;
+  }
+
+  // Consumer 공통 설정: manual commit, binary/JSON record 모두 읽음 (JSON은 trusted package 검사)
   private Map<String, Object> consumerConfigs(String groupId) {
     Map<String, Object> props = new HashMap<>();
     props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
     props.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
     props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-    props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, JsonDeserializer.class);
+    props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ChatEventDeserializer.class);
     props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
     props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
     props.put(ConsumerConfig.ISOLATION_LEVEL_CONFIG, "read_committed");
@@ -88,41 +193,77 @@ public class KafkaConfig {
         });
   }
 
-  // DB 저장용 Consumer (Group 1)
+  // DB 저장용 Consumer (Group 1): poll 단위 batch listener
   @Bean
   public ConcurrentKafkaListenerContainerFactory<String, Object> persistenceListenerFactory(
       KafkaTemplate<String, Object> kafkaTemplate,
       @Qualifier("dltRoutedCounter") Counter dltRoutedCounter) {
-    return createListenerFactory("chat-persistence", kafkaTemplate, dltRoutedCounter);
+    Map<String, Object> props = consumerConfigs("chat-persistence");
+    props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, persistenceMaxPollRecords);
+    ConcurrentKafkaListenerContainerFactory<String, Object> factory =
+        createListenerFactory(props, kafkaTemplate, dltRoutedCounter);
+    factory.setBatchListener(true);
+    factory.setConcurrency(persistenceConcurrency);
+    return factory;
   }
 
-  // 브로드캐스트용 Consumer (Group 2)
+  // 브로드캐스트용 Consumer (Group 2): poll 단위 batch listener (batch 하나를 Redis pipeline 한 번으로 발행)
   @Bean
   public ConcurrentKafkaListenerContainerFactory<String, Object> broadcastListenerFactory(
       KafkaTemplate<String, Object> kafkaTemplate,
       @Qualifier("dltRoutedCounter") Counter dltRoutedCounter) {
-    return createListenerFactory("chat-broadcast", kafkaTemplate, dltRoutedCounter);
+    Map<String, Object> props = consumerConfigs("chat-broadcast");
+    props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, broadcastMaxPollRecords);
+    ConcurrentKafkaListenerContainerFactory<String, Object> factory =
+        createListenerFactory(props, kafkaTemplate, dltRoutedCounter);
+    factory.setBatchListener(true);
+    factory.setConcurrency(broadcastConcurrency);
+    return factory;
   }
 
-  // 읽음 처리용 Consumer
+  // 노드 로컬 브로드캐스트용 Consumer (chat.broadcast.mode=kafka): 노드마다 고유 group, latest부터 읽고
+  // offset을 commit하지 않는다. 로컬 전달 실패는 재시도/DLT 없이 로그만 남긴다 (Redis Pub/Sub와 같은 best-effort).
+  @Bean
+  public ConcurrentKafkaListenerContainerFactory<String, Object> localBroadcastListenerFactory() {
+    Map<String, Object> props = consumerConfigs("chat-broadcast-" + broadcastInstanceId);
+    props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
+    ConcurrentKafkaListenerContainerFactory<String, Object> factory =
+        new ConcurrentKafkaListenerContainerFactory<>();
+    factory.setConsumerFactory(new DefaultKafkaConsumerFactory<>(props));
+    factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+    factory.setCommonErrorHandler(new DefaultErrorHandler(new FixedBackOff(0L, 0L)));
+    return factory;
+  }
+
+  // 읽음 처리용 Consumer: poll 단위 batch listener (짧은 fetch 대기로 연속 읽음 이벤트를 한 poll에 모음)
   @Bean
   public ConcurrentKafkaListenerContainerFactory<String, Object> readReceiptListenerFactory(
       KafkaTemplate<String, Object> kafkaTemplate,
       @Qualifier("dltRoutedCounter") Counter dltRoutedCounter) {
-    return createListenerFactory("chat-read-receipt", kafkaTemplate, dltRoutedCounter);
+    Map<String, Object> props = consumerConfigs("chat-read-receipt");
+    props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, readReceiptMaxPollRecords);
+    props.put(ConsumerConfig.FETCH_MIN_BYTES_CONFIG, readReceiptFetchMinBytes);
+    props.put(ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG, (int) readReceiptFetchMaxWait.toMillis());
+    ConcurrentKafkaListenerContainerFactory<String, Object> factory =
+        createListenerFactory(props, kafkaTemplate, dltRoutedCounter);
+    factory.setBatchListener(true);
+    factory.setConcurrency(readReceiptConcurrency);
+    return factory;
   }
 
   private ConcurrentKafkaListenerContainerFactory<String, Object> createListenerFactory(
-      String groupId, KafkaTemplate<String, Object> kafkaTemplate, Counter dltRoutedCounter) {
+      Map<String, Object> consumerProps,
+      KafkaTemplate<String, Object> kafkaTemplate,
+      Counter dltRoutedCounter) {
     ConsumerFactory<String, Object> consumerFactory =
-        new DefaultKafkaConsumerFactory<>(consumerConfigs(groupId));
+        new DefaultKafkaConsumerFactory<>(consumerProps);
 
     ConcurrentKafkaListenerContainerFactory<String, Object> factory =
         new ConcurrentKafkaListenerContainerFactory<>();
     factory.setConsumerFactory(consumerFactory);
     factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
 
-    // 3회 재시도 후 DLT로 격리
+    // 3회 재시도 후 DLT로 격리 (batch listener는 BatchListenerFailedException의 record 기준)
     DefaultErrorHandler errorHandler =
         new DefaultErrorHandler(
             deadLetterRecoverer(kafkaTemplate, dltRoutedCounter), new FixedBackOff(1000L, 3));
@@ -1,11 +1,14 @@
 package com.realtime.chat.config;
 
 import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
 import java.util.concurrent.atomic.AtomicInteger;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.core.MicrometerProducerListener;
 
 // 커스텀 비즈니스 메트릭 등록
 @Configuration
@@ -52,10 +55,99 @@ public class MetricsConfig {
   @Bean
   public Counter roomsCacheEvictionsCounter(MeterRegistry registry) {
     return Counter.builder("chat.rooms.cache.evictions")
-        .description("채팅방 목록 cache entry evict 수")
+        .description("메시지 저장 후 room version 증가로 무효화된 채팅방 수")
         .register(registry);
   }
 
+  // SEND/SUBSCRIBE 멤버십 캐시: hit rate = hit / (hit + miss)
+  @Bean
+  public Counter membershipCacheHitCounter(MeterRegistry registry) {
+    return Counter.builder("chat.membership.cache")
+        .tag("result", "hit")
+        .description("멤버십 캐시만으로 통과시킨 SEND/SUBSCRIBE 권한 검사 수")
+        .register(registry);
+  }
+
+  @Bean
+  public Counter membershipCacheMissCounter(MeterRegistry registry) {
+    return Counter.builder("chat.membership.cache")
+        .tag("result", "miss")
+        .description("멤버십 캐시에 없어 DB로 확인한 SEND/SUBSCRIBE 권한 검사 수")
+        .register(registry);
+  }
+
+  @Bean
+  public Counter messagesDroppedNoSubscribersCounter(MeterRegistry registry) {
+    return Counter.builder("chat.messages.dropped")
+        .tag("reason", "no_local_subscribers")
+        .description("room 채널 수신 시 노드 로컬 STOMP 구독자가 없어 브로드캐스트하지 않은 메시지 수")
+        .register(registry);
+  }
+
+  @Bean
+  public Counter rateLimitSyncFailureCounter(MeterRegistry registry) {
+    return Counter.builder("chat.rate_limit.sync.failures")
+        .description("SEND rate limit 로컬 사용량을 Redis에 반영하지 못한 sync 횟수")
+        .register(registry);
+  }
+
+  // read receipt coalescing: 합쳐진 비율 = 1 - applied / received
+  @Bean
+  public Counter readReceiptsReceivedCounter(MeterRegistry registry) {
+    return Counter.builder("chat.read_receipts.received")
+        .description("read receipt consumer가 수신한 읽음 이벤트 수")
+        .register(registry);
+  }
+
+  @Bean
+  public Counter readReceiptsAppliedCounter(MeterRegistry registry) {
+    return Counter.builder("chat.read_receipts.applied")
+        .description("(roomId, userId)별 최대 lastReadMessageId로 합친 뒤 DB에 반영을 시도한 읽음 위치 수")
+        .register(registry);
+  }
+
+  // hot room 분산 발행: 노드 로컬 기준으로 hot 전환된 횟수와 shard partition으로 보낸 메시지 수
+  @Bean
+  public Counter hotRoomDetectedCounter(MeterRegistry registry) {
+    return Counter.builder("chat.hot_room.detected")
+        .description("초당 SEND 임계치를 넘어 hot room으로 전환된 횟수 (노드 로컬)")
+        .register(registry);
+  }
+
+  @Bean
+  public Counter hotRoomMessagesCounter(MeterRegistry registry) {
+    return Counter.builder("chat.hot_room.messages")
+        .description("hot room shard partition으로 발행한 메시지 수")
+        .register(registry);
+  }
+
+  // broadcast consumer: poll batch 크기와 batch 하나를 Redis pipeline으로 발행하는 데 걸린 시간
+  @Bean
+  public DistributionSummary broadcastBatchSizeSummary(MeterRegistry registry) {
+    return DistributionSummary.builder("chat.broadcast.batch.size")
+        .description("broadcast consumer가 한 poll에서 받아 Redis로 발행한 record 수")
+        .publishPercentileHistogram()
+        .register(registry);
+  }
+
+  @Bean
+  public Timer broadcastPublishTimer(MeterRegistry registry) {
+    return Timer.builder("chat.broadcast.publish.latency")
+        .description("broadcast batch 하나를 Redis pipeline으로 발행하는 데 걸린 시간")
+        .publishPercentileHistogram()
+        .register(registry);
+  }
+
+  // Kafka producer client metric을 client.id tag로 바인딩한다 (KafkaConfig의 두 producer factory 공용).
+  // 예: kafka.producer.record.send.rate, kafka.producer.request.latency.avg,
+  // kafka.producer.buffer.available.bytes, kafka.producer.batch.size.avg,
+  // kafka.producer.compression.rate.avg
+  @Bean
+  public MicrometerProducerListener<String, Object> kafkaProducerMetricsListener(
+      MeterRegistry registry) {
+    return new MicrometerProducerListener<>(registry);
+  }
+
   @Bean
   public AtomicInteger websocketSessionGauge(MeterRegistry registry) {
     AtomicInteger sessions = new AtomicInteger(0);
@@ -76,4 +168,57 @@ public class MetricsConfig {
         .description("Redis room channel 수신 → WebSocket room topic 브로드캐스트 처리 시간")
         .register(registry);
   }
+
+  // 메시지 hop별 지연 (MessageHopTracer). 같은 meter 이름에 hop tag로 구분한다.
+  // SLO bucket은 Prometheus에서 histogram_quantile/SLO 비율 계산용이고,
+  // client-side percentile은 인스턴스별 p50/p95/p99 확인용이다.
+  @Bean
+  public Timer hopProduceAckTimer(MeterRegistry registry) {
+    return hopLatencyTimer(registry, "ws_to_kafka_ack");
+  }
+
+  @Bean
+  public Timer hopKafkaToPersistedTimer(MeterRegistry registry) {
+    return hopLatencyTimer(registry, "kafka_to_persisted");
+  }
+
+  @Bean
+  public Timer hopKafkaToBroadcastTimer(MeterRegistry registry) {
+    return hopLatencyTimer(registry, "kafka_to_broadcast");
+  }
+
+  @Bean
+  public Timer hopRedisTransitTimer(MeterRegistry registry) {
+    return hopLatencyTimer(registry, "redis_transit");
+  }
+
+  @Bean
+  public Timer hopStompSendTimer(MeterRegistry registry) {
+    return hopLatencyTimer(registry, "stomp_send");
+  }
+
+  @Bean
+  public Timer hopEndToEndTimer(MeterRegistry registry) {
+    return hopLatencyTimer(registry, "end_to_end");
+  }
+
+  private static Timer hopLatencyTimer(MeterRegistry registry, String hop) {
+    return Timer.builder("chat.message.hop.latency")
+        .description("메시지 hop별 지연 (WebSocket 수신 → Kafka → 저장/브로드캐스트 → Redis → STOMP)")
+        .tag("hop", hop)
+        .serviceLevelObjectives(
+            Duration.ofMillis(1),
+            Duration.ofMillis(5),
+            Duration.ofMillis(10),
+            Duration.ofMillis(25),
+            Duration.ofMillis(50),
+            Duration.ofMillis(100),
+            Duration.ofMillis(250),
+            Duration.ofMillis(500),
+            Duration.ofSeconds(1),
+            Duration.ofMillis(2500),
+            Duration.ofSeconds(5))
+        .publishPercentiles(0.5, 0.95, 0.99)
+        .register(registry);
+  }
 }
@@ -4,6 +4,8 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.realtime.chat.service.RedisPubSubService;
+import com.realtime.chat.service.RoomMembershipCache;
+import com.realtime.chat.service.SenderProfileCache;
 import java.time.Duration;
 import org.springframework.cache.CacheManager;
 import org.springframework.context.annotation.Bean;
@@ -13,7 +15,6 @@ import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.data.redis.listener.ChannelTopic;
-import org.springframework.data.redis.listener.PatternTopic;
 import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.listener.adapter.MessageListenerAdapter;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
@@ -23,9 +24,12 @@ import org.springframework.data.redis.serializer.RedisSerializationContext;
 public class RedisConfig {
 
   public static final String CHAT_ROOM_CHANNEL_PREFIX = "chat:room:";
-  public static final String CHAT_ROOM_PATTERN = "chat:room:*";
   public static final String PRESENCE_CHANNEL = "chat:presence";
   public static final String USER_NOTIFICATION_CHANNEL = "chat:user-notifications";
+  public static final String MEMBERSHIP_INVALIDATION_CHANNEL = "chat:membership-invalidation";
+  public static final String SENDER_PROFILE_INVALIDATION_CHANNEL =
+      "chat:sender-profile-invalidation";
+  public static final Duration CACHE_TTL = Duration.ofMinutes(5);
 
   @Bean
   public StringRedisTemplate stringRedisTemplate(RedisConnectionFactory connectionFactory) {
@@ -43,7 +47,7 @@ public class RedisConfig {
 
     RedisCacheConfiguration config =
         RedisCacheConfiguration.defaultCacheConfig()
-            .entryTtl(Duration.ofMinutes(5))
+            .entryTtl(CACHE_TTL)
             .serializeValuesWith(
                 RedisSerializationContext.SerializationPair.fromSerializer(
                     new GenericJackson2JsonRedisSerializer(objectMapper)));
@@ -51,27 +55,28 @@ public class RedisConfig {
     return RedisCacheManager.builder(connectionFactory).cacheDefaults(config).build();
   }
 
-  // Redis Pub/Sub 리스너 컨테이너: chat:room:* + chat:presence 채널 구독
+  // Redis Pub/Sub 리스너 컨테이너: chat:presence + user notification + 멤버십/발신자 프로필 무효화 채널 구독
+  // chat:room:{roomId} 채널은 로컬 STOMP 구독이 있는 room만 RoomSubscriptionRegistry가 동적으로 구독한다
   @Bean
   public RedisMessageListenerContainer redisMessageListenerContainer(
       RedisConnectionFactory connectionFactory,
-      MessageListenerAdapter messageListenerAdapter,
       MessageListenerAdapter presenceListenerAdapter,
-      MessageListenerAdapter userNotificationListenerAdapter) {
+      MessageListenerAdapter userNotificationListenerAdapter,
+      MessageListenerAdapter membershipInvalidationListenerAdapter,
+      MessageListenerAdapter senderProfileInvalidationListenerAdapter) {
     RedisMessageListenerContainer container = new RedisMessageListenerContainer();
     container.setConnectionFactory(connectionFactory);
-    container.addMessageListener(messageListenerAdapter, new PatternTopic(CHAT_ROOM_PATTERN));
     container.addMessageListener(presenceListenerAdapter, new ChannelTopic(PRESENCE_CHANNEL));
     container.addMessageListener(
         userNotificationListenerAdapter, new ChannelTopic(USER_NOTIFICATION_CHANNEL));
+    container.addMessageListener(
+        membershipInvalidationListenerAdapter, new ChannelTopic(MEMBERSHIP_INVALIDATION_CHANNEL));
+    container.addMessageListener(
+        senderProfileInvalidationListenerAdapter,
+        new ChannelTopic(SENDER_PROFILE_INVALIDATION_CHANNEL));
     return container;
   }
 
-  @Bean
-  public MessageListenerAdapter messageListenerAdapter(RedisPubSubService redisPubSubService) {
-    return new MessageListenerAdapter(redisPubSubService, "onMessage");
-  }
-
   @Bean
   public MessageListenerAdapter presenceListenerAdapter(RedisPubSubService redisPubSubService) {
     return new MessageListenerAdapter(redisPubSubService, "onPresenceMessage");
@@ -82,4 +87,16 @@ public class RedisConfig {
       RedisPubSubService redisPubSubService) {
     return new MessageListenerAdapter(redisPubSubService, "onUserNotificationMessage");
   }
+
+  @Bean
+  public MessageListenerAdapter membershipInvalidationListenerAdapter(
+      RoomMembershipCache roomMembershipCache) {
+    return new MessageListenerAdapter(roomMembershipCache, "onInvalidationMessage");
+  }
+
+  @Bean
+  public MessageListenerAdapter senderProfileInvalidationListenerAdapter(
+      SenderProfileCache senderProfileCache) {
+    return new MessageListenerAdapter(senderProfileCache, "onInvalidationMessage");
+  }
 }
@@ -0,0 +1,211 @@
+package com.realtime.chat.config;
+
+import io.micrometer.core.instrument.Counter;
+import jakarta.annotation.PreDestroy;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+// 유저별 SEND 허용 여부를 노드 로컬 token bucket으로 바로 판정하고, sync-interval마다 Redis와 사용량을 맞춘다.
+// bucket은 GCRA 형태로 "다음 token이 찰 시각(TAT)" 하나를 AtomicLong CAS로 갱신한다 (lock-free).
+// 임의 구간 t에서 허용량은 burst + rate × t 이하라 fixed-window의 초 경계 2배 burst가 생기지 않는다.
+// sync는 노드별 증가분을 초 단위 key에 INCRBY로 더하고, 다른 노드가 쓴 양만큼 로컬 token을 차감한다.
+@Slf4j
+@Component
+public class SendRateLimiter {
+
+  private static final String RATE_LIMIT_KEY_PREFIX = "rate:ws:send:user:";
+  private static final Duration WINDOW_TTL = Duration.ofSeconds(2);
+  private static final long ONE_SECOND_NANOS = TimeUnit.SECONDS.toNanos(1);
+  // 이 시간 동안 SEND가 없던 user의 bucket은 sync 때 정리한다
+  private static final long IDLE_EVICT_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+  private final StringRedisTemplate redisTemplate;
+  private final Counter rateLimitSyncFailureCounter;
+  private final Clock clock;
+  private final LongSupplier nanoTime;
+  private final ScheduledExecutorService scheduler;
+  private final long emissionIntervalNanos;
+  private final long burstNanos;
+
+  private final ConcurrentHashMap<Long, UserBucket> buckets = new ConcurrentHashMap<>();
+
+  @Autowired
+  public SendRateLimiter(
+      StringRedisTemplate redisTemplate,
+      @Value("${chat.rate-limit.messages-per-second:10}") int messagesPerSecond,
+      @Value("${chat.rate-limit.burst:${chat.rate-limit.messages-per-second:10}}") int burst,
+      @Value("${chat.rate-limit.sync-interval:100ms}") Duration syncInterval,
+      @Qualifier("rateLimitSyncFailureCounter") Counter rateLimitSyncFailureCounter) {
+    this(
+        redisTemplate,
+        messagesPerSecond,
+        burst,
+        syncInterval,
+        rateLimitSyncFailureCounter,
+        Clock.systemUTC(),
+        System::nanoTime,
+        Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, "rate-limit-sync");
+              thread.setDaemon(true);
+              return thread;
+            }));
+  }
+
+  public SendRateLimiter(
+      StringRedisTemplate redisTemplate,
+      int messagesPerSecond,
+      int burst,
+      Duration syncInterval,
+      Counter rateLimitSyncFailureCounter,
+      Clock clock,
+      LongSupplier nanoTime,
+      ScheduledExecutorService scheduler) {
+    this.redisTemplate = redisTemplate;
+    this.rateLimitSyncFailureCounter = rateLimitSyncFailureCounter;
+    this.clock = clock;
+    this.nanoTime = nanoTime;
+    this.scheduler = scheduler;
+    this.emissionIntervalNanos = Math.max(1L, ONE_SECOND_NANOS / messagesPerSecond);
+    this.burstNanos = emissionIntervalNanos * Math.max(1, burst);
+    scheduler.scheduleWithFixedDelay(
+        this::syncWithRedis,
+        syncInterval.toMillis(),
+        syncInterval.toMillis(),
+        TimeUnit.MILLISECONDS);
+  }
+
+  // SEND 경로: Redis 왕복 없이 로컬 bucket만 본다
+  public boolean tryAcquire(Long userId) {
+    long now = nanoTime.getAsLong();
+    return buckets.computeIfAbsent(userId, id -> new UserBucket(now)).tryAcquire(now);
+  }
+
+  // sync thread 전용. 최근 1초 안에 SEND가 있었던 user만 pipeline 한 번으로 Redis에 반영한다.
+  // Redis 장애 시 증가분을 되돌려 다음 sync에 다시 보내고, 그동안은 노드 로컬 제한만 적용된다.
+  public void syncWithRedis() {
+    long now = nanoTime.getAsLong();
+    long window = clock.instant().getEpochSecond();
+    List<SyncEntry> entries = new ArrayList<>();
+    buckets.forEach(
+        (userId, bucket) -> {
+          long delta = bucket.unsynced.getAndSet(0);
+          if (delta > 0 || bucket.activeSince(now - ONE_SECOND_NANOS)) {
+            entries.add(new SyncEntry(userId, bucket, delta));
+          } else if (!bucket.activeSince(now - IDLE_EVICT_NANOS)) {
+            buckets.remove(userId, bucket);
+          }
+        });
+    if (entries.isEmpty()) {
+      return;
+    }
+
+    List<Object> results;
+    try {
+      results =
+          redisTemplate.executePipelined(
+              (RedisCallback<Object>)
+                  connection -> {
+                    for (SyncEntry entry : entries) {
+                      byte[] key =
+                          rateLimitKey(entry.userId(), window).getBytes(StandardCharsets.UTF_8);
+                      connection.stringCommands().incrBy(key, entry.delta());
+                      connection.keyCommands().expire(key, WINDOW_TTL.toSeconds());
+                    }
+                    return null;
+                  });
+    } catch (Exception e) {
+      rateLimitSyncFailureCounter.increment();
+      log.warn("Redis rate limit sync 실패, 로컬 제한으로 계속 판정: users={}", entries.size(), e);
+      entries.forEach(entry -> entry.bucket().unsynced.addAndGet(entry.delta()));
+      return;
+    }
+
+    for (int i = 0; i < entries.size(); i++) {
+      SyncEntry entry = entries.get(i);
+      long globalCount = ((Number) results.get(i * 2)).longValue();
+      entry.bucket().reconcile(window, entry.delta(), globalCount, now);
+    }
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    scheduler.shutdownNow();
+  }
+
+  private String rateLimitKey(Long userId, long epochSecond) {
+    return RATE_LIMIT_KEY_PREFIX + userId + ":" + epochSecond;
+  }
+
+  private record SyncEntry(Long userId, UserBucket bucket, long delta) {}
+
+  private final class UserBucket {
+
+    // theoretical arrival time: 이 시각 이후면 bucket이 가득 찬 상태
+    private final AtomicLong tat;
+    // 마지막 sync 이후 로컬에서 허용한 SEND 수
+    private final AtomicLong unsynced = new AtomicLong();
+
+    // 아래 필드는 sync thread만 읽고 쓴다
+    private long syncedWindow = Long.MIN_VALUE;
+    private long contributedInWindow;
+    private long othersSeenInWindow;
+
+    UserBucket(long now) {
+      this.tat = new AtomicLong(now);
+    }
+
+    boolean tryAcquire(long now) {
+      while (true) {
+        long current = tat.get();
+        long next = Math.max(current, now) + emissionIntervalNanos;
+        if (next - now > burstNanos) {
+          return false;
+        }
+        if (tat.compareAndSet(current, next)) {
+          unsynced.incrementAndGet();
+          return true;
+        }
+      }
+    }
+
+    boolean activeSince(long since) {
+      return tat.get() - since > 0;
+    }
+
+    // 이번 window의 전역 count에서 이 노드 몫을 뺀 나머지가 다른 노드 사용량이다.
+    // 새로 보인 만큼 token을 소모시키되, 차감은 bucket이 빈 뒤 1초분까지만 누적한다.
+    void reconcile(long window, long delta, long globalCount, long now) {
+      if (window != syncedWindow) {
+        syncedWindow = window;
+        contributedInWindow = 0;
+        othersSeenInWindow = 0;
+      }
+      contributedInWindow += delta;
+      long newOthers = globalCount - contributedInWindow - othersSeenInWindow;
+      if (newOthers <= 0) {
+        return;
+      }
+      othersSeenInWindow += newOthers;
+      long penalty = newOthers * emissionIntervalNanos;
+      long limit = now + burstNanos + ONE_SECOND_NANOS;
+      tat.getAndUpdate(current -> Math.min(Math.max(current, now) + penalty, limit));
+    }
+  }
+}
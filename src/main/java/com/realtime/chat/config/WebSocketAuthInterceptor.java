@@ -1,6 +1,7 @@
 package com.realtime.chat.config;
 
 import com.realtime.chat.common.JwtTokenProvider;
+import com.realtime.chat.service.SenderProfileCache;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -23,6 +24,7 @@ public class WebSocketAuthInterceptor implements ChannelInterceptor {
   private static final String BEARER_PREFIX = "Bearer ";
 
   private final JwtTokenProvider jwtTokenProvider;
+  private final SenderProfileCache senderProfileCache;
 
   @Override
   public Message<?> preSend(Message<?> message, MessageChannel channel) {
@@ -40,6 +42,7 @@ public class WebSocketAuthInterceptor implements ChannelInterceptor {
           UsernamePasswordAuthenticationToken authentication =
               new UsernamePasswordAuthenticationToken(userId, null, List.of());
           accessor.setUser(authentication);
+          preloadSenderProfile(userId);
           log.debug("WebSocket 인증 성공: userId={}", userId);
         } else {
           log.warn("WebSocket 인증 실패: 유효하지 않은 토큰");
@@ -53,4 +56,13 @@ public class WebSocketAuthInterceptor implements ChannelInterceptor {
 
     return message;
   }
+
+  // 적재 실패는 연결을 막지 않는다 (첫 SEND에서 다시 조회)
+  private void preloadSenderProfile(Long userId) {
+    try {
+      senderProfileCache.preload(userId);
+    } catch (Exception e) {
+      log.warn("발신자 프로필 적재 실패: userId={}", userId, e);
+    }
+  }
 }
@@ -1,6 +1,6 @@
 package com.realtime.chat.config;
 
-import com.realtime.chat.repository.ChatRoomMemberRepository;
+import com.realtime.chat.service.RoomMembershipCache;
 import java.security.Principal;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -20,10 +20,14 @@ import org.springframework.stereotype.Component;
 @RequiredArgsConstructor
 public class WebSocketAuthorizationInterceptor implements ChannelInterceptor {
 
-  private static final Pattern ROOM_TOPIC_PATTERN = Pattern.compile("^/topic/room\\.(\\d+)$");
+  // /topic/room.{roomId} 와 room presence topic /topic/room.{roomId}.presence 모두 멤버만 구독 가능
+  private static final Pattern ROOM_TOPIC_PATTERN =
+      Pattern.compile("^/topic/room\\.(\\d+)(\\.presence)?$");
   private static final String ROOM_TOPIC_PREFIX = "/topic/room.";
+  // 전역 presence topic은 더 이상 이벤트를 받지 않는다. 조용히 아무것도 못 받지 않도록 구독을 거부한다
+  private static final String LEGACY_PRESENCE_TOPIC = "/topic/presence";
 
-  private final ChatRoomMemberRepository chatRoomMemberRepository;
+  private final RoomMembershipCache roomMembershipCache;
 
   @Override
   public Message<?> preSend(Message<?> message, MessageChannel channel) {
@@ -34,6 +38,11 @@ public class WebSocketAuthorizationInterceptor implements ChannelInterceptor {
     }
 
     String destination = accessor.getDestination();
+    if (LEGACY_PRESENCE_TOPIC.equals(destination)) {
+      log.warn("지원 종료된 전역 presence topic 구독 시도: sessionId={}", accessor.getSessionId());
+      throw new AccessDeniedException(
+          "전역 presence topic은 지원하지 않습니다. /topic/room.{roomId}.presence를 구독하세요.");
+    }
     Long roomId = extractRoomId(destination);
     if (roomId == null) {
       if (isRoomTopicCandidate(destination)) {
@@ -48,7 +57,7 @@ public class WebSocketAuthorizationInterceptor implements ChannelInterceptor {
     }
 
     Long userId = parseUserId(principal);
-    if (!chatRoomMemberRepository.existsByChatRoomIdAndUserId(roomId, userId)) {
+    if (!roomMembershipCache.isMember(roomId, userId)) {
       log.warn("채팅방 구독 권한 없음: userId={}, roomId={}", userId, roomId);
       throw new AccessDeniedException("채팅방을 구독할 권한이 없습니다.");
     }
@@ -3,6 +3,8 @@ package com.realtime.chat.config;
 import com.realtime.chat.dto.PresenceEvent;
 import com.realtime.chat.service.PresenceService;
 import com.realtime.chat.service.RedisPubSubService;
+import com.realtime.chat.service.RoomMembershipCache;
+import com.realtime.chat.service.RoomSubscriptionRegistry;
 import java.util.concurrent.atomic.AtomicInteger;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -12,8 +14,10 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.stereotype.Component;
 import org.springframework.web.socket.messaging.SessionConnectEvent;
 import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
 
-// WebSocket 연결/해제 이벤트 감지 → 온라인 상태 관리
+// WebSocket 연결/해제 이벤트 감지 → 온라인 상태 관리 + room 채널 구독 관리
 @Slf4j
 @Component
 @RequiredArgsConstructor
@@ -22,6 +26,8 @@ public class WebSocketEventListener {
   private final PresenceService presenceService;
   private final RedisPubSubService redisPubSubService;
   private final AtomicInteger websocketSessionGauge;
+  private final RoomSubscriptionRegistry roomSubscriptionRegistry;
+  private final RoomMembershipCache roomMembershipCache;
 
   @EventListener
   public void handleWebSocketConnect(SessionConnectEvent event) {
@@ -33,14 +39,32 @@ public class WebSocketEventListener {
         redisPubSubService.publishPresence(PresenceEvent.online(userId));
       }
       websocketSessionGauge.incrementAndGet();
+      preloadMemberships(userId);
       log.info("WebSocket 연결: userId={}, sessionId={}", userId, sessionId);
     }
   }
 
+  // 구독 권한 검사(WebSocketAuthorizationInterceptor)를 통과한 SUBSCRIBE만 이벤트로 들어온다
+  @EventListener
+  public void handleSubscribe(SessionSubscribeEvent event) {
+    StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+    roomSubscriptionRegistry.subscribe(
+        accessor.getSessionId(), accessor.getSubscriptionId(), accessor.getDestination());
+  }
+
+  @EventListener
+  public void handleUnsubscribe(SessionUnsubscribeEvent event) {
+    StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+    roomSubscriptionRegistry.unsubscribe(accessor.getSessionId(), accessor.getSubscriptionId());
+  }
+
   @EventListener
   public void handleWebSocketDisconnect(SessionDisconnectEvent event) {
     Long userId = extractUserId(event.getUser());
     String sessionId = event.getSessionId();
+    if (sessionId != null) {
+      roomSubscriptionRegistry.removeSession(sessionId);
+    }
     if (userId != null && sessionId != null) {
       boolean becameOffline = presenceService.setOffline(userId, sessionId);
       if (becameOffline) {
@@ -51,6 +75,15 @@ public class WebSocketEventListener {
     }
   }
 
+  // 적재 실패는 연결을 막지 않는다 (첫 SEND/SUBSCRIBE에서 다시 적재)
+  private void preloadMemberships(Long userId) {
+    try {
+      roomMembershipCache.preload(userId);
+    } catch (Exception e) {
+      log.warn("멤버십 캐시 적재 실패: userId={}", userId, e);
+    }
+  }
+
   private Long extractUserId(Object principal) {
     if (principal instanceof UsernamePasswordAuthenticationToken auth) {
       Object userId = auth.getPrincipal();
@@ -0,0 +1,148 @@
+package com.realtime.chat.consumer;
+
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.stereotype.Component;
+
+// batch listener의 poll 실행기.
+// 기본(chat.consumer.key-ordered.enabled=false)은 poll 전체를 batch handler로 한 번에 처리하고,
+// 실패하면 poll 순서대로 하나씩 처리한다.
+// key-ordered 모드는 poll 안의 record를 key(roomId)별로 나눠 key마다 batch handler(실패 시 offset 순서대로
+// 하나씩)로 처리하고, 서로 다른 key는 동시에 처리한다.
+// 한 key에서 실패하면 그 key의 뒤 record는 처리하지 않고, 모든 key가 끝난 뒤 가장 낮은 실패 index를
+// BatchListenerFailedException으로 넘긴다. ErrorHandler는 그 앞까지만 commit하고 실패 record부터 다시 받는다.
+// 실패 index 뒤에서 이미 성공한 다른 key의 record는 다시 처리된다 (at-least-once, 소비 경로는 멱등이어야 한다).
+@Component
+public class KeyOrderedRecordProcessor {
+
+  private static final AtomicInteger THREAD_SEQUENCE = new AtomicInteger();
+
+  // null이면 순차 처리
+  private final ExecutorService executor;
+
+  public KeyOrderedRecordProcessor(
+      @Value("${chat.consumer.key-ordered.enabled:false}") boolean enabled,
+      @Value("${chat.consumer.key-ordered.parallelism:4}") int parallelism) {
+    this.executor =
+        enabled && parallelism > 1
+            ? Executors.newFixedThreadPool(
+                parallelism,
+                runnable -> {
+                  Thread thread =
+                      new Thread(runnable, "key-ordered-" + THREAD_SEQUENCE.incrementAndGet());
+                  thread.setDaemon(true);
+                  return thread;
+                })
+            : null;
+  }
+
+  public <V> void process(
+      List<ConsumerRecord<String, V>> records, String failureMessage, RecordHandler<V> handler) {
+    process(records, failureMessage, null, handler);
+  }
+
+  // batchHandler가 null이면 record 단위로만 처리한다
+  public <V> void process(
+      List<ConsumerRecord<String, V>> records,
+      String failureMessage,
+      BatchHandler<V> batchHandler,
+      RecordHandler<V> handler) {
+    Map<String, List<Integer>> indexesByKey = executor != null ? groupByKey(records) : Map.of();
+    if (indexesByKey.size() < 2) {
+      List<Integer> indexes = IntStream.range(0, records.size()).boxed().toList();
+      Failure failure = handleGroup(records, indexes, batchHandler, handler);
+      if (failure != null) {
+        throw new BatchListenerFailedException(failureMessage, failure.cause(), failure.index());
+      }
+      return;
+    }
+
+    List<Callable<Failure>> tasks = new ArrayList<>(indexesByKey.size());
+    for (List<Integer> indexes : indexesByKey.values()) {
+      tasks.add(() -> handleGroup(records, indexes, batchHandler, handler));
+    }
+    Failure lowest = null;
+    try {
+      for (Future<Failure> future : executor.invokeAll(tasks)) {
+        Failure failure = future.get();
+        if (failure != null && (lowest == null || failure.index() < lowest.index())) {
+          lowest = failure;
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("key 순서 병렬 처리 대기 중 인터럽트", e);
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("key 순서 병렬 처리 실패", e.getCause());
+    }
+    if (lowest != null) {
+      throw new BatchListenerFailedException(failureMessage, lowest.cause(), lowest.index());
+    }
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    if (executor != null) {
+      executor.shutdownNow();
+    }
+  }
+
+  // key가 없는 record는 한 그룹으로 묶어 서로의 순서를 지킨다
+  private static <V> Map<String, List<Integer>> groupByKey(
+      List<ConsumerRecord<String, V>> records) {
+    Map<String, List<Integer>> indexesByKey = new LinkedHashMap<>();
+    for (int index = 0; index < records.size(); index++) {
+      String key = records.get(index).key();
+      indexesByKey.computeIfAbsent(key, ignored -> new ArrayList<>()).add(index);
+    }
+    return indexesByKey;
+  }
+
+  // 2건 이상이면 batch handler로 먼저 처리하고, 실패(false)하면 offset 순서대로 하나씩 다시 처리한다
+  private static <V> Failure handleGroup(
+      List<ConsumerRecord<String, V>> records,
+      List<Integer> indexes,
+      BatchHandler<V> batchHandler,
+      RecordHandler<V> handler) {
+    if (batchHandler != null
+        && indexes.size() > 1
+        && batchHandler.handle(indexes.stream().map(records::get).toList())) {
+      return null;
+    }
+    for (int index : indexes) {
+      try {
+        handler.handle(records.get(index));
+      } catch (Exception e) {
+        return new Failure(index, e);
+      }
+    }
+    return null;
+  }
+
+  // 묶음 전체를 처리했으면 true. 실패 원인은 직접 로그로 남기고 false를 돌려주면 그 묶음을 record 단위로
+  // 다시 처리한다 (이미 반영된 일부가 있을 수 있으므로 record handler는 멱등이어야 한다)
+  @FunctionalInterface
+  public interface BatchHandler<V> {
+    boolean handle(List<ConsumerRecord<String, V>> records);
+  }
+
+  @FunctionalInterface
+  public interface RecordHandler<V> {
+    void handle(ConsumerRecord<String, V> record) throws Exception;
+  }
+
+  private record Failure(int index, Exception cause) {}
+}
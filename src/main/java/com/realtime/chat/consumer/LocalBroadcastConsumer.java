@@ -0,0 +1,56 @@
+package com.realtime.chat.consumer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.realtime.chat.config.KafkaConfig;
+import com.realtime.chat.event.ChatMessageEvent;
+import com.realtime.chat.service.MessageHopTracer;
+import com.realtime.chat.service.RedisPubSubService;
+import com.realtime.chat.service.RoomSubscriptionRegistry;
+import io.micrometer.core.instrument.Counter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+// chat.broadcast.mode=kafka: 노드마다 고유 group으로 chat.messages를 직접 읽어 로컬 SimpleBroker로 전달한다.
+// Redis Pub/Sub hop 없이 Kafka → WebSocket. offset은 commit하지 않는다 (재시작 시 latest부터, best-effort).
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "chat.broadcast.mode", havingValue = "kafka")
+public class LocalBroadcastConsumer {
+
+  private final RedisPubSubService redisPubSubService;
+  private final RoomSubscriptionRegistry roomSubscriptionRegistry;
+  private final ObjectMapper objectMapper;
+  @Qualifier("messagesDroppedNoSubscribersCounter")
+  private final Counter messagesDroppedNoSubscribersCounter;
+  private final MessageHopTracer messageHopTracer;
+
+  @KafkaListener(
+      topics = KafkaConfig.MESSAGES_TOPIC,
+      containerFactory = "localBroadcastListenerFactory")
+  public void consume(ConsumerRecord<String, ChatMessageEvent> record) {
+    ChatMessageEvent event = record.value();
+    if (!roomSubscriptionRegistry.hasLocalSubscribers(event.getRoomId())) {
+      messagesDroppedNoSubscribersCounter.increment();
+      return;
+    }
+    try {
+      // Redis hop이 없으므로 hops에 publishedAt이 없다 (redis_transit 미기록). hops는 frame에 싣지 않는다
+      redisPubSubService.onMessage(
+          objectMapper.writeValueAsBytes(event), messageHopTracer.consumed(record), record.topic());
+    } catch (Exception e) {
+      // Redis 경로와 같이 로컬 전달 실패는 reconnect sync로 보정하고 재시도하지 않는다
+      log.error(
+          "로컬 브로드캐스트 실패: messageKey={}, partition={}, offset={}",
+          event.getMessageKey(),
+          record.partition(),
+          record.offset(),
+          e);
+    }
+  }
+}
@@ -1,32 +1,89 @@
 package com.realtime.chat.consumer;
 
 import com.realtime.chat.config.KafkaConfig;
+import com.realtime.chat.dto.TracedChatMessage;
 import com.realtime.chat.event.ChatMessageEvent;
+import com.realtime.chat.producer.HotRoomRouter;
+import com.realtime.chat.service.MessageHopTracer;
 import com.realtime.chat.service.RedisPubSubService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Timer;
+import java.util.List;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.stereotype.Component;
 
-// Consumer Group 2: Kafka → Redis Pub/Sub → WebSocket 브로드캐스트
+// Consumer Group 2: Kafka → Redis Pub/Sub → WebSocket 브로드캐스트 (chat.broadcast.mode=redis, 기본값)
+// poll 단위로 받아 Redis pipeline 한 번으로 발행하고 batch당 한 번 ack한다.
+// hot room shard key record는 persistence consumer가 roomSeq와 함께 발행하므로 여기서는 건너뛴다.
 @Slf4j
 @Component
 @RequiredArgsConstructor
+@ConditionalOnProperty(name = "chat.broadcast.mode", havingValue = "redis", matchIfMissing = true)
 public class MessageBroadcastConsumer {
 
   private final RedisPubSubService redisPubSubService;
+  @Qualifier("broadcastBatchSizeSummary")
+  private final DistributionSummary broadcastBatchSizeSummary;
+  @Qualifier("broadcastPublishTimer")
+  private final Timer broadcastPublishTimer;
+  private final KeyOrderedRecordProcessor keyOrderedRecordProcessor;
+  private final MessageHopTracer messageHopTracer;
 
   @KafkaListener(topics = KafkaConfig.MESSAGES_TOPIC, containerFactory = "broadcastListenerFactory")
-  public void consume(ConsumerRecord<String, ChatMessageEvent> record, Acknowledgment ack) {
-    ChatMessageEvent event = record.value();
-    log.debug(
-        "메시지 수신 (broadcast): messageKey={}, roomId={}", event.getMessageKey(), event.getRoomId());
+  public void consumeBatch(
+      List<ConsumerRecord<String, ChatMessageEvent>> records, Acknowledgment ack) {
+    log.debug("메시지 batch 수신 (broadcast): size={}", records.size());
+    broadcastBatchSizeSummary.record(records.size());
 
+    Timer.Sample sample = Timer.start();
     try {
-      redisPubSubService.publish(event);
+      List<ConsumerRecord<String, ChatMessageEvent>> broadcastRecords =
+          records.stream().filter(record -> !HotRoomRouter.isHotKey(record.key())).toList();
+      if (messageHopTracer.isEnabled()) {
+        // record header의 hop 시각 + Redis 발행 시각을 envelope의 hops로 함께 싣는다
+        redisPubSubService.publishTraced(
+            broadcastRecords.stream()
+                .map(
+                    record ->
+                        new TracedChatMessage(
+                            record.value(),
+                            messageHopTracer.published(messageHopTracer.consumed(record))))
+                .toList());
+      } else {
+        redisPubSubService.publishAll(
+            broadcastRecords.stream().map(ConsumerRecord::value).toList());
+      }
+      sample.stop(broadcastPublishTimer);
       ack.acknowledge();
+      return;
+    } catch (Exception e) {
+      // pipeline 일부가 이미 발행됐을 수 있어 record 단위 재발행 시 중복 전달될 수 있다 (at-least-once)
+      log.warn(
+          "브로드캐스트 batch 실패, record 단위로 재처리: size={}, partition={}, firstOffset={}",
+          records.size(),
+          records.get(0).partition(),
+          records.get(0).offset(),
+          e);
+    }
+
+    // 앞선 record offset은 commit하고, 실패 record부터 ErrorHandler가 재시도 후 DLT로 보냄
+    keyOrderedRecordProcessor.process(records, "브로드캐스트 실패", this::publish);
+    ack.acknowledge();
+  }
+
+  private void publish(ConsumerRecord<String, ChatMessageEvent> record) {
+    if (HotRoomRouter.isHotKey(record.key())) {
+      return;
+    }
+    ChatMessageEvent event = record.value();
+    try {
+      redisPubSubService.publish(event);
     } catch (Exception e) {
       log.error(
           "브로드캐스트 실패: messageKey={}, topic={}, partition={}, offset={}",
@@ -1,41 +1,63 @@
 package com.realtime.chat.consumer;
 
 import com.realtime.chat.common.BusinessException;
+import com.realtime.chat.common.TransactionCallbacks;
 import com.realtime.chat.config.KafkaConfig;
 import com.realtime.chat.domain.ChatRoom;
 import com.realtime.chat.domain.Message;
 import com.realtime.chat.domain.User;
 import com.realtime.chat.dto.MessagePersistedNotification;
+import com.realtime.chat.dto.MessageHops;
+import com.realtime.chat.dto.SequencedChatMessage;
+import com.realtime.chat.dto.TracedChatMessage;
 import com.realtime.chat.event.ChatMessageEvent;
+import com.realtime.chat.producer.HotRoomRouter;
+import com.realtime.chat.repository.ChatRoomMemberBulkRepository.SentMessages;
 import com.realtime.chat.repository.ChatRoomMemberRepository;
 import com.realtime.chat.repository.ChatRoomRepository;
 import com.realtime.chat.repository.MessageRepository;
 import com.realtime.chat.repository.UserRepository;
+import com.realtime.chat.service.KnownEntityIdCache;
+import com.realtime.chat.service.MessageHopTracer;
 import com.realtime.chat.service.RedisPubSubService;
+import com.realtime.chat.service.RoomListCache;
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.Timer;
+import java.sql.SQLException;
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.cache.CacheManager;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionOperations;
 
-// Consumer Group 1: 메시지를 DB에 저장 + 멱등성 체크 + unreadCount 증가
+// Consumer Group 1: 메시지를 DB에 저장 + 멱등성 체크 + room sequence 할당
+// hot room shard key record(HotRoomRouter)는 redis 모드에서 저장 후 roomSeq를 붙여 직접 브로드캐스트한다.
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class MessagePersistenceConsumer {
 
+  // PostgreSQL foreign_key_violation
+  private static final String FOREIGN_KEY_VIOLATION = "23503";
+
   private final MessageRepository messageRepository;
   private final ChatRoomRepository chatRoomRepository;
   private final UserRepository userRepository;
@@ -46,99 +68,121 @@ public class MessagePersistenceConsumer {
   private final Counter messagesFailedCounter;
   @Qualifier("messagesLatencyTimer")
   private final Timer messagesLatencyTimer;
-  @Qualifier("roomsCacheEvictionsCounter")
-  private final Counter roomsCacheEvictionsCounter;
-  private final CacheManager cacheManager;
+  private final RoomListCache roomListCache;
   private final RedisPubSubService redisPubSubService;
+  private final TransactionOperations transactionOperations;
+  private final KnownEntityIdCache knownEntityIdCache;
+  private final KeyOrderedRecordProcessor keyOrderedRecordProcessor;
+  private final MessageHopTracer messageHopTracer;
+
+  // false면 poll을 받더라도 record 단위 트랜잭션으로만 저장한다 (batch 경로 장애 시 운영 스위치)
+  @Value("${chat.persistence.batch.enabled:true}")
+  private boolean batchEnabled = true;
+
+  // hot room 메시지 브로드캐스트는 redis 모드에서만 이 consumer가 맡는다 (kafka 모드는 LocalBroadcastConsumer)
+  @Value("${chat.broadcast.mode:redis}")
+  private String broadcastMode = "redis";
 
+  // poll 단위 batch 저장: 한 트랜잭션 + multi-row insert, 실패 시 record 단위로 재처리
+  // key-ordered 모드는 poll을 room별 묶음으로 나눠 묶음마다 트랜잭션을 따로 열고 동시에 저장한다
   @KafkaListener(
       topics = KafkaConfig.MESSAGES_TOPIC,
       containerFactory = "persistenceListenerFactory")
-  @Transactional
-  public void consume(ConsumerRecord<String, ChatMessageEvent> record, Acknowledgment ack) {
+  public void consumeBatch(
+      List<ConsumerRecord<String, ChatMessageEvent>> records, Acknowledgment ack) {
+    log.debug("메시지 batch 수신 (persistence): size={}", records.size());
+
+    // 앞선 record offset은 commit하고, 실패 record부터 ErrorHandler가 재시도 후 DLT로 보냄
+    keyOrderedRecordProcessor.process(
+        records,
+        "메시지 저장 실패",
+        batchEnabled ? this::saveBatch : null,
+        record -> {
+          transactionOperations.executeWithoutResult(status -> persist(record));
+          messageHopTracer.recordPersisted(record);
+        });
+    ack.acknowledge();
+  }
+
+  // 한 트랜잭션으로 저장하고 커밋 후 PERSISTED 알림과 hot room 메시지를 발행한다.
+  // 실패하면 false를 돌려 record 단위로 재처리하게 한다
+  private boolean saveBatch(List<ConsumerRecord<String, ChatMessageEvent>> records) {
+    try {
+      BatchResult result = transactionOperations.execute(status -> persistBatch(records));
+      records.forEach(messageHopTracer::recordPersisted);
+      if (result != null) {
+        result.notifications().forEach(redisPubSubService::publishPersisted);
+        broadcastHotMessages(result.hotMessages());
+      }
+      return true;
+    } catch (Exception e) {
+      // batch 트랜잭션은 전부 롤백됐으므로 record 단위 경로가 실패 record를 정확히 격리한다
+      log.warn(
+          "batch 저장 실패, record 단위로 재처리: size={}, partition={}, firstOffset={}",
+          records.size(),
+          records.get(0).partition(),
+          records.get(0).offset(),
+          e);
+      return false;
+    }
+  }
+
+  private void persist(ConsumerRecord<String, ChatMessageEvent> record) {
     ChatMessageEvent event = record.value();
     log.debug(
         "메시지 수신 (persistence): messageKey={}, roomId={}", event.getMessageKey(), event.getRoomId());
 
     try {
-      // 멱등성 체크: 동일 messageKey가 이미 저장되어 있으면 스킵
-      if (messageRepository.existsByMessageKey(event.getMessageKey())) {
-        log.info("중복 메시지 스킵: messageKey={}", event.getMessageKey());
-        publishPersistedIfExisting(
-            messageRepository.findByMessageKey(event.getMessageKey()), event);
-        ack.acknowledge();
-        return;
-      }
-      if (isDuplicateClientMessage(event)) {
+      // 존재가 확인된 id는 SELECT 없이 통과, 모르는 id만 DB 확인 (없으면 NOT_FOUND → 재시도 → DLT)
+      knownEntityIdCache.requireRoom(event.getRoomId());
+      knownEntityIdCache.requireUser(event.getSenderId());
+      Message message = newMessage(record);
+      long roomSeq = allocateRoomSeqs(event.getRoomId(), 1);
+      message.assignRoomSeq(roomSeq);
+
+      // 멱등성 체크: INSERT ... ON CONFLICT DO NOTHING 한 번으로 신규/중복을 판정
+      Optional<Long> messageId = insertIfAbsent(message, event);
+      if (messageId.isEmpty()) {
+        // room row lock을 잡고 있으므로 그 사이 다른 할당 없이 방금 받은 번호를 그대로 반납한다
+        chatRoomRepository.releaseMessageSeqs(event.getRoomId(), 1);
         log.info(
-            "중복 클라이언트 메시지 스킵: senderId={}, clientMessageId={}",
+            "중복 메시지 스킵: messageKey={}, senderId={}, clientMessageId={}",
+            event.getMessageKey(),
             event.getSenderId(),
             event.getClientMessageId());
-        publishPersistedIfExisting(findByClientMessage(event), event);
-        ack.acknowledge();
+        publishPersistedIfExisting(findDuplicateMessage(event), event);
         return;
       }
 
-      ChatRoom room =
-          chatRoomRepository
-              .findById(event.getRoomId())
-              .orElseThrow(() -> new BusinessException(HttpStatus.NOT_FOUND, "채팅방을 찾을 수 없습니다."));
-      User sender =
-          userRepository
-              .findById(event.getSenderId())
-              .orElseThrow(() -> new BusinessException(HttpStatus.NOT_FOUND, "사용자를 찾을 수 없습니다."));
-
-      Message message =
-          new Message(
-              event.getMessageKey(),
-              event.getClientMessageId(),
-              room,
-              sender,
-              event.getContent(),
-              event.getType());
-      message.updateKafkaMetadata(record.partition(), record.offset());
-      try {
-        messageRepository.saveAndFlush(message);
-      } catch (DataIntegrityViolationException e) {
-        if (isDuplicateMessage(event)) {
-          log.info(
-              "중복 메시지 unique 충돌 스킵: messageKey={}, senderId={}, clientMessageId={}",
-              event.getMessageKey(),
-              event.getSenderId(),
-              event.getClientMessageId());
-          publishPersistedIfExisting(findDuplicateMessage(event), event);
-          ack.acknowledge();
-          return;
-        }
-        throw e;
-      }
-
-      // 발신자를 제외한 멤버들의 unreadCount 증가 + 해당 방 멤버 캐시만 무효화
-      chatRoomMemberRepository.incrementUnreadCountForOtherMembers(
-          event.getRoomId(), event.getSenderId());
-      var roomsCache = cacheManager.getCache("rooms");
-      if (roomsCache != null) {
-        chatRoomMemberRepository
-            .findUserIdsByRoomId(event.getRoomId())
-            .forEach(
-                userId -> {
-                  roomsCache.evict(userId);
-                  roomsCacheEvictionsCounter.increment();
-                });
-      }
+      // unreadCount는 room sequence 차이로 계산하므로 멤버 row는 발신자 한 row만 갱신
+      chatRoomMemberRepository.recordSentMessages(
+          event.getRoomId(), Map.of(event.getSenderId(), new SentMessages(1, roomSeq)));
+      roomListCache.invalidateRoom(event.getRoomId());
 
-      publishPersisted(message, event);
+      // batch 경로와 같이 커밋된 뒤에만 PERSISTED 알림과 hot room 메시지를 발행한다
+      MessagePersistedNotification notification =
+          MessagePersistedNotification.from(
+              message, messageId.get(), event.getSenderId(), event.getRoomId());
+      List<HotMessage> hotMessages =
+          HotRoomRouter.isHotKey(record.key())
+              ? List.of(
+                  new HotMessage(
+                      new SequencedChatMessage(event, roomSeq), messageHopTracer.hopsOf(record)))
+              : List.of();
+      TransactionCallbacks.afterCommit(
+          () -> {
+            redisPubSubService.publishPersisted(notification);
+            broadcastHotMessages(hotMessages);
+          });
 
       // 메트릭: 저장 성공 + 지연시간
       messagesPersistedCounter.increment();
-      Duration latency = Duration.between(event.getTimestamp(), LocalDateTime.now());
-      messagesLatencyTimer.record(latency);
+      Duration latency = recordLatency(event);
 
-      ack.acknowledge();
       log.debug(
           "메시지 저장 완료: messageKey={}, id={}, latency={}ms",
           event.getMessageKey(),
-          message.getId(),
+          messageId.get(),
           latency.toMillis());
 
     } catch (Exception e) {
@@ -154,16 +198,238 @@ public class MessagePersistenceConsumer {
     }
   }
 
-  private boolean isDuplicateMessage(ChatMessageEvent event) {
-    return messageRepository.existsByMessageKey(event.getMessageKey())
-        || isDuplicateClientMessage(event);
+  // poll 전체를 한 트랜잭션에서 저장하고, 커밋 후 발행할 PERSISTED 알림과 hot room 메시지를 record 순서대로 반환
+  private BatchResult persistBatch(
+      List<ConsumerRecord<String, ChatMessageEvent>> records) {
+    List<Message> messages = buildMessages(records);
+
+    // room별 sequence 블록을 한 번에 할당해 record 순서대로 부여 (deadlock 방지를 위해 roomId 순으로 row lock)
+    Map<Long, Integer> messageCountByRoom = new TreeMap<>();
+    records.forEach(
+        record -> messageCountByRoom.merge(record.value().getRoomId(), 1, Integer::sum));
+    Map<Long, Long> nextSeqByRoom = new HashMap<>();
+    messageCountByRoom.forEach(
+        (roomId, count) -> nextSeqByRoom.put(roomId, allocateRoomSeqs(roomId, count) - count + 1));
+    for (int index = 0; index < records.size(); index++) {
+      Long roomId = records.get(index).value().getRoomId();
+      long roomSeq = nextSeqByRoom.get(roomId);
+      nextSeqByRoom.put(roomId, roomSeq + 1);
+      messages.get(index).assignRoomSeq(roomSeq);
+    }
+
+    // 멱등성 체크: ON CONFLICT DO NOTHING으로 기존 row/batch 내 중복은 insert되지 않고 RETURNING에서 빠진다
+    Map<UUID, Long> insertedIds = new HashMap<>(messageRepository.insertAll(messages));
+    List<Long> messageIds = new ArrayList<>(records.size());
+    List<ChatMessageEvent> insertedEvents = new ArrayList<>();
+    List<ChatMessageEvent> duplicateEvents = new ArrayList<>();
+    Map<Long, List<Integer>> insertedIndexesByRoom = new HashMap<>();
+    for (ConsumerRecord<String, ChatMessageEvent> record : records) {
+      // 같은 messageKey가 batch에 반복되면 먼저 나온 record만 insert된 row로 취급
+      Long messageId = insertedIds.remove(record.value().getMessageKey());
+      int index = messageIds.size();
+      messageIds.add(messageId);
+      if (messageId != null) {
+        insertedEvents.add(record.value());
+        insertedIndexesByRoom
+            .computeIfAbsent(record.value().getRoomId(), roomId -> new ArrayList<>())
+            .add(index);
+      } else {
+        duplicateEvents.add(record.value());
+      }
+    }
+    MessageIndex duplicates = findDuplicateMessages(duplicateEvents);
+
+    // room 단위로 중복이 남긴 빈 sequence를 당겨 채우고, 발신자 row 갱신 + 방 목록 캐시 version 증가
+    Map<Long, Long> renumberedSeqs = new LinkedHashMap<>();
+    messageCountByRoom.forEach(
+        (roomId, allocated) -> {
+          List<Integer> insertedIndexes = insertedIndexesByRoom.getOrDefault(roomId, List.of());
+          long firstSeq = nextSeqByRoom.get(roomId) - allocated;
+          Map<Long, SentMessages> sentBySender = new HashMap<>();
+          for (int i = 0; i < insertedIndexes.size(); i++) {
+            int index = insertedIndexes.get(i);
+            Message message = messages.get(index);
+            long roomSeq = firstSeq + i;
+            if (message.getRoomSeq() != roomSeq) {
+              message.assignRoomSeq(roomSeq);
+              renumberedSeqs.put(messageIds.get(index), roomSeq);
+            }
+            sentBySender.merge(
+                records.get(index).value().getSenderId(),
+                new SentMessages(1, roomSeq),
+                (sent, next) -> new SentMessages(sent.count() + 1, next.lastSeq()));
+          }
+          if (insertedIndexes.size() < allocated) {
+            chatRoomRepository.releaseMessageSeqs(roomId, allocated - insertedIndexes.size());
+          }
+          if (!insertedIndexes.isEmpty()) {
+            chatRoomMemberRepository.recordSentMessages(roomId, sentBySender);
+            roomListCache.invalidateRoom(roomId);
+          }
+        });
+    if (!renumberedSeqs.isEmpty()) {
+      messageRepository.updateRoomSeqs(renumberedSeqs);
+    }
+
+    messagesPersistedCounter.increment(insertedEvents.size());
+    insertedEvents.forEach(this::recordLatency);
+
+    // 중복 record도 기존 row(같은 batch에서 먼저 저장된 row 포함) 기준으로 PERSISTED 알림을 보낸다
+    List<MessagePersistedNotification> notifications = new ArrayList<>(records.size());
+    List<HotMessage> hotMessages = new ArrayList<>();
+    for (int index = 0; index < records.size(); index++) {
+      ConsumerRecord<String, ChatMessageEvent> record = records.get(index);
+      ChatMessageEvent event = record.value();
+      Long messageId = messageIds.get(index);
+      if (messageId != null) {
+        Message message = messages.get(index);
+        notifications.add(
+            MessagePersistedNotification.from(
+                message, messageId, event.getSenderId(), event.getRoomId()));
+        if (HotRoomRouter.isHotKey(record.key())) {
+          hotMessages.add(
+              new HotMessage(
+                  new SequencedChatMessage(event, message.getRoomSeq()),
+                  messageHopTracer.hopsOf(record)));
+        }
+        continue;
+      }
+      log.info(
+          "중복 메시지 스킵 (batch): messageKey={}, senderId={}, clientMessageId={}",
+          event.getMessageKey(),
+          event.getSenderId(),
+          event.getClientMessageId());
+      duplicates
+          .find(event)
+          .ifPresent(
+              message ->
+                  notifications.add(
+                      MessagePersistedNotification.from(
+                          message, event.getSenderId(), event.getRoomId())));
+    }
+
+    log.debug(
+        "메시지 batch 저장 완료: records={}, inserted={}, rooms={}",
+        records.size(),
+        insertedEvents.size(),
+        messageCountByRoom.size());
+    return new BatchResult(notifications, hotMessages);
   }
 
-  private boolean isDuplicateClientMessage(ChatMessageEvent event) {
-    UUID clientMessageId = event.getClientMessageId();
-    return clientMessageId != null
-        && messageRepository.existsBySenderIdAndClientMessageId(
-            event.getSenderId(), clientMessageId);
+  // 브로드캐스트 실패는 저장을 되돌리지 않는다 (일반 경로처럼 reconnect sync로 보정, best-effort)
+  private void broadcastHotMessages(List<HotMessage> hotMessages) {
+    if (hotMessages.isEmpty() || !"redis".equals(broadcastMode)) {
+      return;
+    }
+    try {
+      if (messageHopTracer.isEnabled()) {
+        // hop 추적 시 Redis 발행 시각을 더한 hops와 함께 envelope로 감싼다
+        redisPubSubService.publishTraced(
+            hotMessages.stream()
+                .map(
+                    hot ->
+                        new TracedChatMessage(
+                            hot.message(), messageHopTracer.published(hot.hops())))
+                .toList());
+      } else {
+        redisPubSubService.publishSequenced(
+            hotMessages.stream().map(HotMessage::message).toList());
+      }
+    } catch (Exception e) {
+      log.warn("hot room 메시지 브로드캐스트 실패: size={}", hotMessages.size(), e);
+    }
+  }
+
+  // insert되지 않은 record만 모아 기존 row를 단일 쿼리로 조회 (중복이 없으면 조회하지 않음)
+  private MessageIndex findDuplicateMessages(List<ChatMessageEvent> duplicateEvents) {
+    if (duplicateEvents.isEmpty()) {
+      return new MessageIndex(List.of());
+    }
+    Set<UUID> messageKeys = new HashSet<>();
+    Set<UUID> clientMessageIds = new HashSet<>();
+    for (ChatMessageEvent event : duplicateEvents) {
+      messageKeys.add(event.getMessageKey());
+      if (event.getClientMessageId() != null) {
+        clientMessageIds.add(event.getClientMessageId());
+      }
+    }
+    return new MessageIndex(
+        messageRepository.findAllByMessageKeysOrClientMessageIds(messageKeys, clientMessageIds));
+  }
+
+  // room/sender 존재 여부를 batch 단위로 확인하고 record 순서대로 insert 대상 entity를 만든다
+  private List<Message> buildMessages(List<ConsumerRecord<String, ChatMessageEvent>> records) {
+    Set<Long> roomIds = new HashSet<>();
+    Set<Long> senderIds = new HashSet<>();
+    records.forEach(
+        record -> {
+          roomIds.add(record.value().getRoomId());
+          senderIds.add(record.value().getSenderId());
+        });
+    knownEntityIdCache.requireRooms(roomIds);
+    knownEntityIdCache.requireUsers(senderIds);
+
+    List<Message> messages = new ArrayList<>(records.size());
+    records.forEach(record -> messages.add(newMessage(record)));
+    return messages;
+  }
+
+  // room row lock으로 room 단위 sequence를 할당 (room이 삭제됐으면 캐시에서 빼고 NOT_FOUND → 재시도 → DLT)
+  private long allocateRoomSeqs(Long roomId, int count) {
+    return chatRoomRepository
+        .allocateMessageSeqs(roomId, count)
+        .orElseThrow(
+            () -> {
+              knownEntityIdCache.evictRoom(roomId);
+              return new BusinessException(HttpStatus.NOT_FOUND, "채팅방을 찾을 수 없습니다.");
+            });
+  }
+
+  // room/sender는 getReferenceById proxy로 연결 (insert에는 id만 쓰므로 초기화 SELECT가 없다)
+  private Message newMessage(ConsumerRecord<String, ChatMessageEvent> record) {
+    ChatMessageEvent event = record.value();
+    ChatRoom room = chatRoomRepository.getReferenceById(event.getRoomId());
+    User sender = userRepository.getReferenceById(event.getSenderId());
+    Message message =
+        new Message(
+            event.getMessageKey(),
+            event.getClientMessageId(),
+            room,
+            sender,
+            event.getContent(),
+            event.getType());
+    message.updateKafkaMetadata(record.partition(), record.offset());
+    return message;
+  }
+
+  private Optional<Long> insertIfAbsent(Message message, ChatMessageEvent event) {
+    try {
+      return messageRepository.insertIfAbsent(message);
+    } catch (DataIntegrityViolationException e) {
+      if (!isForeignKeyViolation(e)) {
+        throw e;
+      }
+      // 캐시에 남아 있던 삭제된 room/user: evict 후 NOT_FOUND로 재시도시키면 다음 시도는 DB로 다시 확인한다
+      knownEntityIdCache.evictRoom(event.getRoomId());
+      knownEntityIdCache.evictUser(event.getSenderId());
+      throw new BusinessException(HttpStatus.NOT_FOUND, "채팅방 또는 사용자를 찾을 수 없습니다.");
+    }
+  }
+
+  private boolean isForeignKeyViolation(Throwable e) {
+    for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+      if (cause instanceof SQLException sqlException
+          && FOREIGN_KEY_VIOLATION.equals(sqlException.getSQLState())) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private Duration recordLatency(ChatMessageEvent event) {
+    Duration latency = Duration.between(event.getTimestamp(), LocalDateTime.now());
+    messagesLatencyTimer.record(latency);
+    return latency;
   }
 
   private Optional<Message> findDuplicateMessage(ChatMessageEvent event) {
@@ -189,4 +455,44 @@ public class MessagePersistenceConsumer {
     redisPubSubService.publishPersisted(
         MessagePersistedNotification.from(message, event.getSenderId(), event.getRoomId()));
   }
+
+  private record BatchResult(
+      List<MessagePersistedNotification> notifications, List<HotMessage> hotMessages) {}
+
+  // 커밋 후 발행할 hot room 메시지와 record header의 hop 시각 (hop 추적이 꺼져 있으면 null)
+  private record HotMessage(SequencedChatMessage message, MessageHops hops) {}
+
+  private record ClientMessageRef(Long senderId, UUID clientMessageId) {
+
+    static ClientMessageRef of(ChatMessageEvent event) {
+      return event.getClientMessageId() != null
+          ? new ClientMessageRef(event.getSenderId(), event.getClientMessageId())
+          : null;
+    }
+  }
+
+  // messageKey 또는 (senderId, clientMessageId)로 batch 멱등성 대상 메시지를 찾는 인덱스
+  private static class MessageIndex {
+
+    private final Map<UUID, Message> byMessageKey = new HashMap<>();
+    private final Map<ClientMessageRef, Message> byClientMessage = new HashMap<>();
+
+    MessageIndex(List<Message> messages) {
+      for (Message message : messages) {
+        byMessageKey.putIfAbsent(message.getMessageKey(), message);
+        byClientMessage.putIfAbsent(
+            new ClientMessageRef(message.getSender().getId(), message.getClientMessageId()),
+            message);
+      }
+    }
+
+    Optional<Message> find(ChatMessageEvent event) {
+      Message message = byMessageKey.get(event.getMessageKey());
+      ClientMessageRef clientRef = ClientMessageRef.of(event);
+      if (message == null && clientRef != null) {
+        message = byClientMessage.get(clientRef);
+      }
+      return Optional.ofNullable(message);
+    }
+  }
 }
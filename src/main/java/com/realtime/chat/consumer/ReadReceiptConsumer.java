@@ -3,31 +3,73 @@ package com.realtime.chat.consumer;
 import com.realtime.chat.config.KafkaConfig;
 import com.realtime.chat.event.ReadReceiptEvent;
 import com.realtime.chat.service.ReadReceiptService;
+import io.micrometer.core.instrument.Counter;
+import java.util.List;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.stereotype.Component;
 
-// 읽음 처리 Consumer: Kafka → DB/Redis 업데이트
+// 읽음 처리 Consumer: Kafka → DB/Redis 업데이트 (poll 단위로 (roomId, userId)별 마지막 읽음 위치만 반영)
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class ReadReceiptConsumer {
 
   private final ReadReceiptService readReceiptService;
+  @Qualifier("readReceiptsReceivedCounter")
+  private final Counter readReceiptsReceivedCounter;
+  @Qualifier("readReceiptsAppliedCounter")
+  private final Counter readReceiptsAppliedCounter;
+  private final KeyOrderedRecordProcessor keyOrderedRecordProcessor;
+
+  // false면 poll을 받더라도 record 단위로만 처리한다 (batch 경로 장애 시 운영 스위치)
+  @Value("${chat.read-receipt.batch.enabled:true}")
+  private boolean batchEnabled = true;
 
   @KafkaListener(
       topics = KafkaConfig.READ_RECEIPTS_TOPIC,
       containerFactory = "readReceiptListenerFactory")
-  public void consume(ConsumerRecord<String, ReadReceiptEvent> record, Acknowledgment ack) {
-    ReadReceiptEvent event = record.value();
-    log.debug("읽음 처리 수신: roomId={}, userId={}", event.getRoomId(), event.getUserId());
+  public void consumeBatch(
+      List<ConsumerRecord<String, ReadReceiptEvent>> records, Acknowledgment ack) {
+    log.debug("읽음 처리 batch 수신: size={}", records.size());
+    readReceiptsReceivedCounter.increment(records.size());
+
+    // 앞선 record offset은 commit하고, 실패 record부터 ErrorHandler가 재시도 후 DLT로 보냄
+    keyOrderedRecordProcessor.process(
+        records, "읽음 처리 실패", batchEnabled ? this::processBatch : null, this::process);
+    ack.acknowledge();
+  }
 
+  // 묶음의 마지막 읽음 위치를 한 트랜잭션으로 반영한다. 실패하면 false를 돌려 record 단위로 재처리하게 한다
+  private boolean processBatch(List<ConsumerRecord<String, ReadReceiptEvent>> records) {
+    try {
+      int applied =
+          readReceiptService.processReadReceipts(
+              records.stream().map(ConsumerRecord::value).toList());
+      readReceiptsAppliedCounter.increment(applied);
+      return true;
+    } catch (Exception e) {
+      // batch 트랜잭션은 전부 롤백됐으므로 record 단위 경로가 실패 record를 정확히 격리한다
+      log.warn(
+          "읽음 처리 batch 실패, record 단위로 재처리: size={}, partition={}, firstOffset={}",
+          records.size(),
+          records.get(0).partition(),
+          records.get(0).offset(),
+          e);
+      return false;
+    }
+  }
+
+  private void process(ConsumerRecord<String, ReadReceiptEvent> record) {
+    ReadReceiptEvent event = record.value();
     try {
       readReceiptService.processReadReceipt(event);
-      ack.acknowledge();
+      readReceiptsAppliedCounter.increment();
     } catch (Exception e) {
       log.error(
           "읽음 처리 실패: roomId={}, userId={}, topic={}, partition={}, offset={}",
@@ -1,14 +1,14 @@
 package com.realtime.chat.controller;
 
 import com.realtime.chat.common.BusinessException;
-import com.realtime.chat.domain.User;
 import com.realtime.chat.dto.MessagePublishAckResponse;
 import com.realtime.chat.dto.MessagePublishErrorResponse;
 import com.realtime.chat.dto.SendMessageRequest;
 import com.realtime.chat.event.ChatMessageEvent;
 import com.realtime.chat.producer.ChatMessageProducer;
-import com.realtime.chat.repository.ChatRoomMemberRepository;
-import com.realtime.chat.repository.UserRepository;
+import com.realtime.chat.service.MessageHopTracer;
+import com.realtime.chat.service.RoomMembershipCache;
+import com.realtime.chat.service.SenderProfileCache;
 import io.micrometer.core.instrument.Counter;
 import java.security.Principal;
 import java.util.UUID;
@@ -32,41 +32,39 @@ public class ChatMessageController {
   private static final String MESSAGE_ERROR_DESTINATION = "/queue/messages/error";
 
   private final ChatMessageProducer chatMessageProducer;
-  private final ChatRoomMemberRepository chatRoomMemberRepository;
-  private final UserRepository userRepository;
+  private final RoomMembershipCache roomMembershipCache;
+  private final SenderProfileCache senderProfileCache;
   @Qualifier("messagesSentCounter")
   private final Counter messagesSentCounter;
   private final SimpMessagingTemplate messagingTemplate;
+  private final MessageHopTracer messageHopTracer;
 
   // 클라이언트가 /app/chat.send로 메시지를 보내면 Kafka로 발행
   @MessageMapping("/chat.send")
   public void sendMessage(@Payload SendMessageRequest request, Principal principal) {
+    long wsReceivedAt = messageHopTracer.now();
     Long userId = Long.parseLong(principal.getName());
     String userDestination = principal.getName();
     UUID clientMessageId = resolveClientMessageId(request);
     log.debug("메시지 수신: userId={}, roomId={}", userId, request.getRoomId());
 
-    // 채팅방 멤버인지 확인
-    if (!chatRoomMemberRepository.existsByChatRoomIdAndUserId(request.getRoomId(), userId)) {
+    // 채팅방 멤버인지 확인 (노드 로컬 멤버십 캐시)
+    if (!roomMembershipCache.isMember(request.getRoomId(), userId)) {
       throw new BusinessException(HttpStatus.FORBIDDEN, "채팅방에 참여하지 않은 사용자입니다.");
     }
 
-    User sender =
-        userRepository
-            .findById(userId)
-            .orElseThrow(() -> new BusinessException(HttpStatus.NOT_FOUND, "사용자를 찾을 수 없습니다."));
-
+    // 발신자 nickname은 CONNECT 때 적재한 노드 로컬 캐시에서 읽는다 (SEND 경로 DB 조회 없음)
     ChatMessageEvent event =
         ChatMessageEvent.of(
             request.getRoomId(),
             userId,
-            sender.getNickname(),
+            senderProfileCache.nickname(userId),
             request.getContent(),
             request.getType(),
             clientMessageId);
 
     chatMessageProducer
-        .sendMessage(event)
+        .sendMessage(event, wsReceivedAt)
         .whenComplete(
             (result, ex) -> {
               if (ex != null) {
@@ -85,6 +83,7 @@ public class ChatMessageController {
                 return;
               }
 
+              messageHopTracer.recordProduceAck(wsReceivedAt);
               messagesSentCounter.increment();
               messagingTemplate.convertAndSendToUser(
                   userDestination,
@@ -14,8 +14,13 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 public class ChatRoom {
 
+  // pooled sequence로 id를 미리 할당해 방 + 초기 멤버 insert가 JDBC batch로 묶이게 한다 (V2 migration)
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "chat_rooms_id_gen")
+  @SequenceGenerator(
+      name = "chat_rooms_id_gen",
+      sequenceName = "chat_rooms_id_seq",
+      allocationSize = 50)
   private Long id;
 
   @Column(length = 100)
@@ -32,6 +37,10 @@ public class ChatRoom {
   @Column(nullable = false, updatable = false)
   private LocalDateTime createdAt;
 
+  // 마지막으로 저장된 메시지의 room sequence. persistence consumer가 SQL로만 증가시킨다 (entity flush로 덮어쓰지 않음)
+  @Column(nullable = false, updatable = false)
+  private long lastSeq;
+
   @OneToMany(mappedBy = "chatRoom", cascade = CascadeType.ALL, orphanRemoval = true)
   private List<ChatRoomMember> members = new ArrayList<>();
 
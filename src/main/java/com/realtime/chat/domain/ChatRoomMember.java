@@ -15,7 +15,11 @@ import lombok.NoArgsConstructor;
 public class ChatRoomMember {
 
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "chat_room_members_id_gen")
+  @SequenceGenerator(
+      name = "chat_room_members_id_gen",
+      sequenceName = "chat_room_members_id_seq",
+      allocationSize = 50)
   private Long id;
 
   @ManyToOne(fetch = FetchType.LAZY)
@@ -28,15 +32,26 @@ public class ChatRoomMember {
 
   private Long lastReadMessageId;
 
-  @Column(nullable = false)
-  private int unreadCount = 0;
+  // unreadCount = room.lastSeq - lastReadSeq - sentSinceRead
+  // 읽음 처리/메시지 저장 경로가 SQL로만 갱신한다 (entity flush로 덮어쓰지 않음)
+  @Column(nullable = false, updatable = false)
+  private long lastReadSeq;
+
+  // lastReadSeq 이후 본인이 보낸 메시지 수
+  @Column(nullable = false, updatable = false)
+  private int sentSinceRead;
+
+  @Column(nullable = false, updatable = false)
+  private long lastSentSeq;
 
   @Column(nullable = false, updatable = false)
   private LocalDateTime joinedAt;
 
+  // 참여 이전 메시지는 읽은 것으로 본다
   public ChatRoomMember(ChatRoom chatRoom, User user) {
     this.chatRoom = chatRoom;
     this.user = user;
+    this.lastReadSeq = chatRoom.getLastSeq();
   }
 
   @PrePersist
@@ -44,19 +59,7 @@ public class ChatRoomMember {
     this.joinedAt = LocalDateTime.now();
   }
 
-  public void updateLastReadMessageId(Long messageId) {
-    this.lastReadMessageId = messageId;
-  }
-
-  public void resetUnreadCount() {
-    this.unreadCount = 0;
-  }
-
-  public void incrementUnreadCount() {
-    this.unreadCount++;
-  }
-
-  public void updateUnreadCount(int count) {
-    this.unreadCount = count;
+  public int getUnreadCount() {
+    return (int) Math.max(0, chatRoom.getLastSeq() - lastReadSeq - sentSinceRead);
   }
 }
@@ -18,8 +18,11 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 public class Message {
 
+  // id는 room 커서 페이지네이션 기준이므로 노드별 pooled 블록을 쓰지 않고 매 row nextval로 받는다.
+  // 노드 간 partition 재할당 후에도 같은 room의 id가 증가 순서를 유지한다 (persistence batch 경로는 column default nextval).
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "messages_id_gen")
+  @SequenceGenerator(name = "messages_id_gen", sequenceName = "messages_id_seq", allocationSize = 1)
   private Long id;
 
   @Column(nullable = false, unique = true)
@@ -47,6 +50,9 @@ public class Message {
 
   private Long kafkaOffset;
 
+  // room 안에서 저장 순서대로 1씩 증가하는 번호 (chat_rooms.last_seq에서 할당)
+  private Long roomSeq;
+
   @Column(nullable = false, updatable = false)
   private LocalDateTime createdAt;
 
@@ -79,4 +85,8 @@ public class Message {
     this.kafkaPartition = partition;
     this.kafkaOffset = offset;
   }
+
+  public void assignRoomSeq(long roomSeq) {
+    this.roomSeq = roomSeq;
+  }
 }
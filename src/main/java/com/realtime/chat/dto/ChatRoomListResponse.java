@@ -20,15 +20,21 @@ public class ChatRoomListResponse {
   private int unreadCount;
   private LocalDateTime createdAt;
 
-  // JPQL 프로젝션용 생성자 (COUNT 결과가 Long이므로 변환)
+  // JPQL 프로젝션용 생성자 (COUNT / sequence 차이 결과가 Long이므로 변환)
   public ChatRoomListResponse(
       Long id,
       String name,
       RoomType type,
       Long memberCount,
-      int unreadCount,
+      Long unreadCount,
       LocalDateTime createdAt) {
-    this(id, name, type, memberCount.intValue(), unreadCount, createdAt);
+    this(
+        id,
+        name,
+        type,
+        memberCount.intValue(),
+        (int) Math.max(0, unreadCount),
+        createdAt);
   }
 
   public static ChatRoomListResponse from(ChatRoom room, Long userId) {
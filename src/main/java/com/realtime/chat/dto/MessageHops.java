@@ -0,0 +1,19 @@
+package com.realtime.chat.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+// room 메시지 Redis envelope에 싣는 hop 시각 (epoch nanos, MessageHopTracer 참고).
+// publishedAt은 Redis 발행 직전에 찍고, kafka broadcast mode처럼 Redis를 거치지 않으면 비어 있다.
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class MessageHops {
+
+  private Long wsReceivedAt;
+  private Long producedAt;
+  private Long publishedAt;
+}
@@ -30,11 +30,17 @@ public class MessagePersistedNotification {
   }
 
   public static MessagePersistedNotification from(Message message, Long targetUserId, Long roomId) {
+    return from(message, message.getId(), targetUserId, roomId);
+  }
+
+  // JDBC bulk insert처럼 entity에 id가 채워지지 않는 경로에서 RETURNING id를 함께 넘긴다
+  public static MessagePersistedNotification from(
+      Message message, Long messageId, Long targetUserId, Long roomId) {
     return new MessagePersistedNotification(
         targetUserId,
         message.getClientMessageId(),
         message.getMessageKey(),
-        message.getId(),
+        messageId,
         roomId,
         LocalDateTime.now());
   }
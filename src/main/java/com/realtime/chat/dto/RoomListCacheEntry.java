@@ -0,0 +1,16 @@
+package com.realtime.chat.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+// rooms cache 값: 목록과 함께 캐싱 시점의 room별 version을 같은 순서로 보관
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoomListCacheEntry {
+
+  private List<ChatRoomListResponse> rooms;
+  private List<Long> roomVersions;
+}
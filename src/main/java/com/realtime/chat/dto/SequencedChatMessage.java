@@ -0,0 +1,18 @@
+package com.realtime.chat.dto;
+
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import com.realtime.chat.event.ChatMessageEvent;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+// hot room 메시지 브로드캐스트 payload: ChatMessageEvent 필드 + persistence가 할당한 room 전체 순서.
+// 여러 partition에서 오는 hot room 메시지는 클라이언트가 roomSeq로 다시 정렬한다.
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SequencedChatMessage {
+
+  @JsonUnwrapped private ChatMessageEvent event;
+  private long roomSeq;
+}
@@ -0,0 +1,32 @@
+package com.realtime.chat.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.realtime.chat.event.ChatMessageEvent;
+import lombok.Getter;
+
+// hop 추적을 켰을 때의 room 메시지 Redis envelope: {"hops":{...},"message":{...}}.
+// message는 클라이언트가 받는 room 메시지 그대로다 (ChatMessageEvent 또는 hot room의 SequencedChatMessage).
+// 수신 노드는 hops를 떼어 내고 message bytes만 STOMP frame으로 보낸다 (RedisPubSubService 참고).
+@Getter
+@JsonPropertyOrder({"hops", "message"})
+public class TracedChatMessage {
+
+  private final MessageHops hops;
+  private final Object message;
+  @JsonIgnore private final Long roomId;
+
+  public TracedChatMessage(ChatMessageEvent event, MessageHops hops) {
+    this(hops, event, event.getRoomId());
+  }
+
+  public TracedChatMessage(SequencedChatMessage message, MessageHops hops) {
+    this(hops, message, message.getEvent().getRoomId());
+  }
+
+  private TracedChatMessage(MessageHops hops, Object message, Long roomId) {
+    this.hops = hops;
+    this.message = message;
+    this.roomId = roomId;
+  }
+}
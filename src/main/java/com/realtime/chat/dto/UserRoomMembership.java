@@ -0,0 +1,13 @@
+package com.realtime.chat.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// presence room fan-out용 JPQL 프로젝션 (userId가 속한 roomId)
+@Getter
+@AllArgsConstructor
+public class UserRoomMembership {
+
+  private Long userId;
+  private Long roomId;
+}
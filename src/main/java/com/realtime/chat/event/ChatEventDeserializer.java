@@ -0,0 +1,40 @@
+package com.realtime.chat.event;
+
+import java.util.Map;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+// Kafka value deserializer: 첫 byte로 EventWireFormat binary와 기존 JSON record를 구분한다.
+// JSON record는 JsonDeserializer에 그대로 넘긴다 (type header, spring.json.trusted.packages 설정 유지).
+// topic에 전환 이전 JSON record가 남아 있어도 같은 consumer가 둘 다 읽는다.
+public class ChatEventDeserializer implements Deserializer<Object> {
+
+  private final JsonDeserializer<Object> jsonDeserializer = new JsonDeserializer<>();
+
+  @Override
+  public void configure(Map<String, ?> configs, boolean isKey) {
+    jsonDeserializer.configure(configs, isKey);
+  }
+
+  @Override
+  public Object deserialize(String topic, byte[] data) {
+    if (EventWireFormat.isBinary(data)) {
+      return EventWireFormat.decode(data);
+    }
+    return jsonDeserializer.deserialize(topic, data);
+  }
+
+  @Override
+  public Object deserialize(String topic, Headers headers, byte[] data) {
+    if (EventWireFormat.isBinary(data)) {
+      return EventWireFormat.decode(data);
+    }
+    return jsonDeserializer.deserialize(topic, headers, data);
+  }
+
+  @Override
+  public void close() {
+    jsonDeserializer.close();
+  }
+}
@@ -0,0 +1,49 @@
+package com.realtime.chat.event;
+
+import java.util.Map;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Serializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+// Kafka value serializer: 기본은 모든 값을 기존 JSON(type header 포함)으로 쓴다.
+// chat.event.wire-format=binary이면 ChatMessageEvent/ReadReceiptEvent는 EventWireFormat binary로 쓰고,
+// 그 외 값은 JSON으로 쓴다.
+// 이전 버전 consumer는 binary를 읽지 못하므로 json으로 배포해 모든 consumer가
+// ChatEventDeserializer로 바뀐 뒤에 binary로 전환한다.
+public class ChatEventSerializer implements Serializer<Object> {
+
+  public static final String WIRE_FORMAT_CONFIG = "chat.event.wire-format";
+
+  private final JsonSerializer<Object> jsonSerializer = new JsonSerializer<>();
+  private boolean binary;
+
+  @Override
+  public void configure(Map<String, ?> configs, boolean isKey) {
+    Object wireFormat = configs.get(WIRE_FORMAT_CONFIG);
+    binary = wireFormat != null && "binary".equalsIgnoreCase(wireFormat.toString().trim());
+    jsonSerializer.configure(configs, isKey);
+  }
+
+  @Override
+  public byte[] serialize(String topic, Object data) {
+    return serialize(topic, null, data);
+  }
+
+  @Override
+  public byte[] serialize(String topic, Headers headers, Object data) {
+    if (data == null) {
+      return null;
+    }
+    if (binary && EventWireFormat.supports(data)) {
+      return EventWireFormat.encode(data);
+    }
+    return headers != null
+        ? jsonSerializer.serialize(topic, headers, data)
+        : jsonSerializer.serialize(topic, data);
+  }
+
+  @Override
+  public void close() {
+    jsonSerializer.close();
+  }
+}
@@ -0,0 +1,289 @@
+package com.realtime.chat.event;
+
+import com.realtime.chat.domain.MessageType;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.UUID;
+import org.apache.kafka.common.errors.SerializationException;
+
+// Kafka value binary wire format. 첫 byte가 MAGIC이면 binary, 아니면 기존 JSON record('{')로 본다.
+// [MAGIC][version][event type][presence bitmask][필드...]
+// - presence bitmask: 필드 순서대로 null이 아닌 필드 bit만 켠다 (null 필드는 쓰지 않는다)
+// - Long: zigzag varint, UUID: 16 bytes, LocalDateTime: UTC 기준 epoch second varint + nano varint
+// - String: UTF-8 byte 길이 varint + bytes, MessageType: 고정 code 1 byte (ordinal 아님)
+// 필드를 추가/변경하면 VERSION을 올리고 이전 version decode를 남겨 둔다 (topic에 이전 record가 남아 있으므로).
+public final class EventWireFormat {
+
+  public static final byte MAGIC = (byte) 0xCE;
+  public static final byte VERSION = 1;
+
+  private static final byte CHAT_MESSAGE = 1;
+  private static final byte READ_RECEIPT = 2;
+
+  private EventWireFormat() {}
+
+  public static boolean supports(Object event) {
+    return event instanceof ChatMessageEvent || event instanceof ReadReceiptEvent;
+  }
+
+  public static boolean isBinary(byte[] data) {
+    return data != null && data.length > 0 && data[0] == MAGIC;
+  }
+
+  public static byte[] encode(Object event) {
+    if (event instanceof ChatMessageEvent chatMessage) {
+      return encodeChatMessage(chatMessage);
+    }
+    if (event instanceof ReadReceiptEvent readReceipt) {
+      return encodeReadReceipt(readReceipt);
+    }
+    throw new SerializationException("binary 인코딩을 지원하지 않는 event: " + event.getClass());
+  }
+
+  public static Object decode(byte[] data) {
+    if (!isBinary(data) || data.length < 4) {
+      throw new SerializationException("binary event가 아닙니다.");
+    }
+    if (data[1] != VERSION) {
+      throw new SerializationException("지원하지 않는 event wire version: " + data[1]);
+    }
+    Reader reader = new Reader(data, 3);
+    try {
+      return switch (data[2]) {
+        case CHAT_MESSAGE -> decodeChatMessage(reader);
+        case READ_RECEIPT -> decodeReadReceipt(reader);
+        default -> throw new SerializationException("알 수 없는 event type: " + data[2]);
+      };
+    } catch (RuntimeException e) {
+      if (e instanceof SerializationException) {
+        throw e;
+      }
+      throw new SerializationException("binary event 디코딩 실패", e);
+    }
+  }
+
+  private static byte[] encodeChatMessage(ChatMessageEvent event) {
+    byte[] senderNickname = utf8(event.getSenderNickname());
+    byte[] content = utf8(event.getContent());
+    Writer writer = new Writer(CHAT_MESSAGE, 96 + length(senderNickname) + length(content));
+    int presence =
+        bit(0, event.getMessageKey())
+            | bit(1, event.getClientMessageId())
+            | bit(2, event.getRoomId())
+            | bit(3, event.getSenderId())
+            | bit(4, event.getSenderNickname())
+            | bit(5, event.getContent())
+            | bit(6, event.getType())
+            | bit(7, event.getTimestamp());
+    writer.writeByte(presence);
+    writer.writeUuid(event.getMessageKey());
+    writer.writeUuid(event.getClientMessageId());
+    writer.writeLong(event.getRoomId());
+    writer.writeLong(event.getSenderId());
+    writer.writeString(senderNickname);
+    writer.writeString(content);
+    if (event.getType() != null) {
+      writer.writeByte(typeCode(event.getType()));
+    }
+    writer.writeTimestamp(event.getTimestamp());
+    return writer.toByteArray();
+  }
+
+  private static ChatMessageEvent decodeChatMessage(Reader reader) {
+    int presence = reader.readByte();
+    UUID messageKey = has(presence, 0) ? reader.readUuid() : null;
+    UUID clientMessageId = has(presence, 1) ? reader.readUuid() : null;
+    Long roomId = has(presence, 2) ? reader.readLong() : null;
+    Long senderId = has(presence, 3) ? reader.readLong() : null;
+    String senderNickname = has(presence, 4) ? reader.readString() : null;
+    String content = has(presence, 5) ? reader.readString() : null;
+    MessageType type = has(presence, 6) ? messageType(reader.readByte()) : null;
+    LocalDateTime timestamp = has(presence, 7) ? reader.readTimestamp() : null;
+    return new ChatMessageEvent(
+        messageKey, roomId, senderId, senderNickname, content, type, clientMessageId, timestamp);
+  }
+
+  private static byte[] encodeReadReceipt(ReadReceiptEvent event) {
+    Writer writer = new Writer(READ_RECEIPT, 40);
+    int presence =
+        bit(0, event.getRoomId())
+            | bit(1, event.getUserId())
+            | bit(2, event.getLastReadMessageId())
+            | bit(3, event.getTimestamp());
+    writer.writeByte(presence);
+    writer.writeLong(event.getRoomId());
+    writer.writeLong(event.getUserId());
+    writer.writeLong(event.getLastReadMessageId());
+    writer.writeTimestamp(event.getTimestamp());
+    return writer.toByteArray();
+  }
+
+  private static ReadReceiptEvent decodeReadReceipt(Reader reader) {
+    int presence = reader.readByte();
+    Long roomId = has(presence, 0) ? reader.readLong() : null;
+    Long userId = has(presence, 1) ? reader.readLong() : null;
+    Long lastReadMessageId = has(presence, 2) ? reader.readLong() : null;
+    LocalDateTime timestamp = has(presence, 3) ? reader.readTimestamp() : null;
+    return new ReadReceiptEvent(roomId, userId, lastReadMessageId, timestamp);
+  }
+
+  // enum 순서가 바뀌어도 wire 값이 바뀌지 않도록 code를 고정한다
+  private static int typeCode(MessageType type) {
+    return switch (type) {
+      case TEXT -> 1;
+      case IMAGE -> 2;
+      case SYSTEM -> 3;
+    };
+  }
+
+  private static MessageType messageType(int code) {
+    return switch (code) {
+      case 1 -> MessageType.TEXT;
+      case 2 -> MessageType.IMAGE;
+      case 3 -> MessageType.SYSTEM;
+      default -> throw new SerializationException("알 수 없는 MessageType code: " + code);
+    };
+  }
+
+  private static int bit(int index, Object value) {
+    return value != null ? 1 << index : 0;
+  }
+
+  private static boolean has(int presence, int index) {
+    return (presence & (1 << index)) != 0;
+  }
+
+  private static byte[] utf8(String value) {
+    return value != null ? value.getBytes(StandardCharsets.UTF_8) : null;
+  }
+
+  private static int length(byte[] bytes) {
+    return bytes != null ? bytes.length : 0;
+  }
+
+  private static final class Writer {
+
+    private byte[] buffer;
+    private int position;
+
+    private Writer(byte eventType, int initialCapacity) {
+      buffer = new byte[initialCapacity];
+      buffer[0] = MAGIC;
+      buffer[1] = VERSION;
+      buffer[2] = eventType;
+      position = 3;
+    }
+
+    private void writeByte(int value) {
+      ensureCapacity(1);
+      buffer[position++] = (byte) value;
+    }
+
+    private void writeLong(Long value) {
+      if (value != null) {
+        writeVarLong((value << 1) ^ (value >> 63));
+      }
+    }
+
+    private void writeUuid(UUID value) {
+      if (value == null) {
+        return;
+      }
+      ensureCapacity(16);
+      ByteBuffer.wrap(buffer, position, 16)
+          .putLong(value.getMostSignificantBits())
+          .putLong(value.getLeastSignificantBits());
+      position += 16;
+    }
+
+    private void writeString(byte[] bytes) {
+      if (bytes == null) {
+        return;
+      }
+      writeVarLong(bytes.length);
+      ensureCapacity(bytes.length);
+      System.arraycopy(bytes, 0, buffer, position, bytes.length);
+      position += bytes.length;
+    }
+
+    private void writeTimestamp(LocalDateTime value) {
+      if (value != null) {
+        writeLong(value.toEpochSecond(ZoneOffset.UTC));
+        writeVarLong(value.getNano());
+      }
+    }
+
+    private void writeVarLong(long value) {
+      ensureCapacity(10);
+      while ((value & ~0x7FL) != 0) {
+        buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+        value >>>= 7;
+      }
+      buffer[position++] = (byte) value;
+    }
+
+    private void ensureCapacity(int additional) {
+      if (position + additional > buffer.length) {
+        buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + additional));
+      }
+    }
+
+    private byte[] toByteArray() {
+      return Arrays.copyOf(buffer, position);
+    }
+  }
+
+  private static final class Reader {
+
+    private final byte[] data;
+    private int position;
+
+    private Reader(byte[] data, int position) {
+      this.data = data;
+      this.position = position;
+    }
+
+    private int readByte() {
+      return data[position++] & 0xFF;
+    }
+
+    private long readLong() {
+      long value = readVarLong();
+      return (value >>> 1) ^ -(value & 1);
+    }
+
+    private UUID readUuid() {
+      ByteBuffer buffer = ByteBuffer.wrap(data, position, 16);
+      position += 16;
+      return new UUID(buffer.getLong(), buffer.getLong());
+    }
+
+    private String readString() {
+      int length = Math.toIntExact(readVarLong());
+      String value = new String(data, position, length, StandardCharsets.UTF_8);
+      position += length;
+      return value;
+    }
+
+    private LocalDateTime readTimestamp() {
+      long epochSecond = readLong();
+      int nano = Math.toIntExact(readVarLong());
+      return LocalDateTime.ofEpochSecond(epochSecond, nano, ZoneOffset.UTC);
+    }
+
+    private long readVarLong() {
+      long value = 0;
+      for (int shift = 0; shift < 64; shift += 7) {
+        int b = data[position++];
+        value |= (long) (b & 0x7F) << shift;
+        if ((b & 0x80) == 0) {
+          return value;
+        }
+      }
+      throw new SerializationException("varint가 너무 깁니다.");
+    }
+  }
+}
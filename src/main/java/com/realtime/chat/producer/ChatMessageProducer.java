@@ -3,9 +3,12 @@ package com.realtime.chat.producer;
 import com.realtime.chat.config.KafkaConfig;
 import com.realtime.chat.event.ChatMessageEvent;
 import com.realtime.chat.event.ReadReceiptEvent;
+import com.realtime.chat.service.MessageHopTracer;
 import java.util.concurrent.CompletableFuture;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Component;
@@ -16,12 +19,31 @@ import org.springframework.stereotype.Component;
 public class ChatMessageProducer {
 
   private final KafkaTemplate<String, Object> kafkaTemplate;
+  // chat.messages 전용 producer (linger/batch/압축/idempotence, KafkaConfig 참고)
+  @Qualifier("chatMessageKafkaTemplate")
+  private final KafkaTemplate<String, Object> chatMessageKafkaTemplate;
+  private final HotRoomRouter hotRoomRouter;
+  private final MessageHopTracer messageHopTracer;
 
-  // partition key = roomId로 같은 방 메시지의 순서 보장
-  public CompletableFuture<SendResult<String, Object>> sendMessage(ChatMessageEvent event) {
-    String key = String.valueOf(event.getRoomId());
-    CompletableFuture<SendResult<String, Object>> future =
-        kafkaTemplate.send(KafkaConfig.MESSAGES_TOPIC, key, event);
+  // partition key = roomId로 같은 방 메시지의 순서 보장.
+  // hot room은 HotRoomRouter가 고른 shard partition으로 보내고 room 순서는 persistence의 roomSeq가 정한다.
+  // hop 추적이 켜져 있으면 WebSocket 수신/발행 시각을 record header로 싣는다 (MessageHopTracer).
+  public CompletableFuture<SendResult<String, Object>> sendMessage(
+      ChatMessageEvent event, long wsReceivedAt) {
+    HotRoomRouter.Route route = hotRoomRouter.route(event);
+    CompletableFuture<SendResult<String, Object>> future;
+    if (messageHopTracer.isEnabled()) {
+      ProducerRecord<String, Object> record =
+          new ProducerRecord<>(KafkaConfig.MESSAGES_TOPIC, route.partition(), route.key(), event);
+      messageHopTracer.stamp(record.headers(), wsReceivedAt);
+      future = chatMessageKafkaTemplate.send(record);
+    } else {
+      future =
+          route.partition() == null
+              ? chatMessageKafkaTemplate.send(KafkaConfig.MESSAGES_TOPIC, route.key(), event)
+              : chatMessageKafkaTemplate.send(
+                  KafkaConfig.MESSAGES_TOPIC, route.partition(), route.key(), event);
+    }
     future.whenComplete(
         (result, ex) -> {
           if (ex != null) {
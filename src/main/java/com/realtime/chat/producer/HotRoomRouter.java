@@ -0,0 +1,140 @@
+package com.realtime.chat.producer;
+
+import com.realtime.chat.common.BoundedFifoMaps;
+import com.realtime.chat.config.KafkaConfig;
+import com.realtime.chat.event.ChatMessageEvent;
+import io.micrometer.core.instrument.Counter;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.utils.Utils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+// chat.messages 발행 key/partition 결정. 기본은 key = roomId (room 하나 = partition 하나).
+// chat.hot-room.enabled=true면 노드 로컬 SEND 수를 room별 초 단위로 세어, 한 초에 messages-per-second 이상이면
+// hold 동안 hot room으로 보고 발신자별 shard partition으로 나눠 보낸다 (key = "{roomId}#{shard}").
+// - shard는 senderId로 고르므로 한 발신자의 메시지와 재시도는 같은 partition에서 순서를 지킨다.
+// - shard 0은 일반 key와 같은 partition이고, shard k는 그 다음 k번째 partition이다.
+// room 전체 순서는 persistence가 할당하는 roomSeq로 정하고, hot key record는 persistence가 roomSeq와 함께
+// 브로드캐스트한다 (MessagePersistenceConsumer 참고).
+// chat.broadcast.mode=kafka는 저장 전에 chat.messages를 바로 전달해 roomSeq를 붙일 곳이 없으므로 나누지 않는다.
+@Slf4j
+@Component
+public class HotRoomRouter {
+
+  public static final char SHARD_SEPARATOR = '#';
+
+  private final boolean enabled;
+  private final long messagesPerSecond;
+  private final int shards;
+  private final long holdMillis;
+  private final Counter hotRoomDetectedCounter;
+  private final Counter hotRoomMessagesCounter;
+  private final Clock clock;
+  private final Map<Long, RoomTraffic> trafficByRoom;
+
+  @Autowired
+  public HotRoomRouter(
+      @Value("${chat.hot-room.enabled:false}") boolean enabled,
+      @Value("${chat.hot-room.messages-per-second:200}") long messagesPerSecond,
+      @Value("${chat.hot-room.shards:4}") int shards,
+      @Value("${chat.hot-room.hold:60s}") Duration hold,
+      @Value("${chat.hot-room.max-tracked-rooms:10000}") int maxTrackedRooms,
+      @Qualifier("hotRoomDetectedCounter") Counter hotRoomDetectedCounter,
+      @Qualifier("hotRoomMessagesCounter") Counter hotRoomMessagesCounter,
+      @Value("${chat.broadcast.mode:redis}") String broadcastMode) {
+    this(
+        shardingAllowed(enabled, broadcastMode),
+        messagesPerSecond,
+        shards,
+        hold,
+        maxTrackedRooms,
+        hotRoomDetectedCounter,
+        hotRoomMessagesCounter,
+        Clock.systemUTC());
+  }
+
+  public HotRoomRouter(
+      boolean enabled,
+      long messagesPerSecond,
+      int shards,
+      Duration hold,
+      int maxTrackedRooms,
+      Counter hotRoomDetectedCounter,
+      Counter hotRoomMessagesCounter,
+      Clock clock) {
+    this.enabled = enabled;
+    this.messagesPerSecond = messagesPerSecond;
+    this.shards = Math.max(1, Math.min(shards, KafkaConfig.MESSAGES_PARTITIONS));
+    this.holdMillis = hold.toMillis();
+    this.hotRoomDetectedCounter = hotRoomDetectedCounter;
+    this.hotRoomMessagesCounter = hotRoomMessagesCounter;
+    this.clock = clock;
+    this.trafficByRoom = BoundedFifoMaps.synchronizedMap(maxTrackedRooms);
+  }
+
+  private static boolean shardingAllowed(boolean enabled, String broadcastMode) {
+    if (enabled && "kafka".equals(broadcastMode)) {
+      log.warn("chat.broadcast.mode=kafka에서는 hot room 분산 발행을 끈다 (roomSeq 없이 순서가 섞임)");
+      return false;
+    }
+    return enabled;
+  }
+
+  // SEND 1건을 세고 보낼 partition과 key를 정한다 (partition이 null이면 key hash partition)
+  public Route route(ChatMessageEvent event) {
+    String roomKey = String.valueOf(event.getRoomId());
+    if (!enabled || shards < 2 || !recordAndCheckHot(event.getRoomId())) {
+      return new Route(null, roomKey);
+    }
+    hotRoomMessagesCounter.increment();
+    int shard = (int) Math.floorMod(event.getSenderId(), (long) shards);
+    // Kafka 기본 partitioner와 같은 hash라 shard 0은 일반 key("{roomId}")와 같은 partition이다
+    int basePartition =
+        Utils.toPositive(Utils.murmur2(roomKey.getBytes(StandardCharsets.UTF_8)))
+            % KafkaConfig.MESSAGES_PARTITIONS;
+    return new Route(
+        (basePartition + shard) % KafkaConfig.MESSAGES_PARTITIONS,
+        roomKey + SHARD_SEPARATOR + shard);
+  }
+
+  public static boolean isHotKey(String key) {
+    return key != null && key.indexOf(SHARD_SEPARATOR) >= 0;
+  }
+
+  private boolean recordAndCheckHot(Long roomId) {
+    long now = clock.millis();
+    RoomTraffic traffic = trafficByRoom.computeIfAbsent(roomId, ignored -> new RoomTraffic());
+    synchronized (traffic) {
+      long second = now / 1000;
+      if (traffic.second != second) {
+        traffic.second = second;
+        traffic.count = 0;
+      }
+      traffic.count++;
+      boolean wasHot = now < traffic.hotUntilMillis;
+      if (traffic.count >= messagesPerSecond) {
+        traffic.hotUntilMillis = now + holdMillis;
+        if (!wasHot) {
+          hotRoomDetectedCounter.increment();
+        }
+        return true;
+      }
+      return wasHot;
+    }
+  }
+
+  public record Route(Integer partition, String key) {}
+
+  private static final class RoomTraffic {
+
+    private long second;
+    private long count;
+    private long hotUntilMillis;
+  }
+}
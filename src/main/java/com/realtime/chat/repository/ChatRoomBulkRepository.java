@@ -0,0 +1,13 @@
+package com.realtime.chat.repository;
+
+import java.util.Optional;
+
+// persistence consumer 전용: room 메시지 sequence 할당 (chat_rooms row lock으로 room 단위 직렬화)
+public interface ChatRoomBulkRepository {
+
+  // last_seq를 count만큼 올리고 새 last_seq를 반환 (할당 범위: 반환값 - count + 1 ~ 반환값). room이 없으면 empty
+  Optional<Long> allocateMessageSeqs(Long roomId, int count);
+
+  // 같은 트랜잭션에서 할당했지만 insert되지 않은 sequence를 반납
+  void releaseMessageSeqs(Long roomId, int count);
+}
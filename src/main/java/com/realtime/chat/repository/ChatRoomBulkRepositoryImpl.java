@@ -0,0 +1,28 @@
+package com.realtime.chat.repository;
+
+import java.util.Optional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@RequiredArgsConstructor
+public class ChatRoomBulkRepositoryImpl implements ChatRoomBulkRepository {
+
+  private final JdbcTemplate jdbcTemplate;
+
+  @Override
+  public Optional<Long> allocateMessageSeqs(Long roomId, int count) {
+    return jdbcTemplate
+        .query(
+            "UPDATE chat_rooms SET last_seq = last_seq + ? WHERE id = ? RETURNING last_seq",
+            (rs, rowNum) -> rs.getLong("last_seq"),
+            count,
+            roomId)
+        .stream()
+        .findFirst();
+  }
+
+  @Override
+  public void releaseMessageSeqs(Long roomId, int count) {
+    jdbcTemplate.update("UPDATE chat_rooms SET last_seq = last_seq - ? WHERE id = ?", count, roomId);
+  }
+}
@@ -0,0 +1,21 @@
+package com.realtime.chat.repository;
+
+import java.util.List;
+import java.util.Map;
+
+// unreadCount 계산용 sequence 컬럼 전용: JPA 영속성 컨텍스트를 거치지 않고 SQL로만 갱신한다
+public interface ChatRoomMemberBulkRepository {
+
+  // 메시지 저장 시 발신자 멤버 row만 갱신 (lastReadSeq 이후 본인 메시지 수 + 마지막 발신 sequence)
+  void recordSentMessages(Long roomId, Map<Long, SentMessages> sentBySender);
+
+  // 읽음 기준을 더 뒤의 메시지로만 옮기고 그 이후 본인 메시지 수를 다시 센다. 갱신된 row 수 반환
+  int markRead(Long roomId, Long userId, Long lastReadMessageId, long lastReadSeq);
+
+  // 읽음 위치 여러 개를 batch UPDATE 한 번으로 반영 (sequence는 메시지 row에서 조인). position별 갱신 row 수 반환
+  int[] markReadAll(List<ReadPosition> positions);
+
+  record SentMessages(int count, long lastSeq) {}
+
+  record ReadPosition(Long roomId, Long userId, Long lastReadMessageId) {}
+}
@@ -0,0 +1,85 @@
+package com.realtime.chat.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@RequiredArgsConstructor
+public class ChatRoomMemberBulkRepositoryImpl implements ChatRoomMemberBulkRepository {
+
+  private static final String RECORD_SENT_SQL =
+      "UPDATE chat_room_members SET sent_since_read = sent_since_read + ?,"
+          + " last_sent_seq = GREATEST(last_sent_seq, ?) WHERE room_id = ? AND user_id = ?";
+
+  // 읽은 위치가 마지막 발신 이후면 본인 메시지 수는 0, 아니면 읽은 위치 이후 본인 메시지만 센다
+  private static final String MARK_READ_SQL =
+      """
+      UPDATE chat_room_members
+      SET last_read_message_id = ?,
+          last_read_seq = ?,
+          sent_since_read = CASE
+              WHEN last_sent_seq <= ? THEN 0
+              ELSE (SELECT COUNT(*) FROM messages
+                    WHERE room_id = ? AND sender_id = ? AND room_seq > ?)
+          END
+      WHERE room_id = ? AND user_id = ?
+      AND (last_read_message_id IS NULL OR last_read_message_id < ?)
+      """;
+
+  // MARK_READ_SQL과 같은 규칙이지만 room_seq를 같은 room의 메시지 row에서 가져온다 (메시지가 없으면 0 row)
+  private static final String MARK_READ_ALL_SQL =
+      """
+      UPDATE chat_room_members m
+      SET last_read_message_id = r.id,
+          last_read_seq = r.room_seq,
+          sent_since_read = CASE
+              WHEN m.last_sent_seq <= r.room_seq THEN 0
+              ELSE (SELECT COUNT(*) FROM messages own
+                    WHERE own.room_id = m.room_id AND own.sender_id = m.user_id
+                    AND own.room_seq > r.room_seq)
+          END
+      FROM messages r
+      WHERE r.id = ? AND r.room_id = m.room_id
+      AND m.room_id = ? AND m.user_id = ?
+      AND (m.last_read_message_id IS NULL OR m.last_read_message_id < r.id)
+      """;
+
+  private final JdbcTemplate jdbcTemplate;
+
+  @Override
+  public void recordSentMessages(Long roomId, Map<Long, SentMessages> sentBySender) {
+    List<Object[]> args = new ArrayList<>(sentBySender.size());
+    sentBySender.forEach(
+        (senderId, sent) -> args.add(new Object[] {sent.count(), sent.lastSeq(), roomId, senderId}));
+    jdbcTemplate.batchUpdate(RECORD_SENT_SQL, args);
+  }
+
+  @Override
+  public int markRead(Long roomId, Long userId, Long lastReadMessageId, long lastReadSeq) {
+    return jdbcTemplate.update(
+        MARK_READ_SQL,
+        lastReadMessageId,
+        lastReadSeq,
+        lastReadSeq,
+        roomId,
+        userId,
+        lastReadSeq,
+        roomId,
+        userId,
+        lastReadMessageId);
+  }
+
+  @Override
+  public int[] markReadAll(List<ReadPosition> positions) {
+    List<Object[]> args = new ArrayList<>(positions.size());
+    positions.forEach(
+        position ->
+            args.add(
+                new Object[] {
+                  position.lastReadMessageId(), position.roomId(), position.userId()
+                }));
+    return jdbcTemplate.batchUpdate(MARK_READ_ALL_SQL, args);
+  }
+}
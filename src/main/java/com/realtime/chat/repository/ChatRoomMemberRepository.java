@@ -1,14 +1,16 @@
 package com.realtime.chat.repository;
 
 import com.realtime.chat.domain.ChatRoomMember;
+import com.realtime.chat.dto.UserRoomMembership;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
-public interface ChatRoomMemberRepository extends JpaRepository<ChatRoomMember, Long> {
+public interface ChatRoomMemberRepository
+    extends JpaRepository<ChatRoomMember, Long>, ChatRoomMemberBulkRepository {
 
   Optional<ChatRoomMember> findByChatRoomIdAndUserId(Long chatRoomId, Long userId);
 
@@ -21,16 +23,32 @@ public interface ChatRoomMemberRepository extends JpaRepository<ChatRoomMember,
       """)
   List<Long> findUserIdsByRoomId(@Param("roomId") Long roomId);
 
+  // 멤버십 캐시 적재: user가 참여한 room id 전체
+  @Query(
+      """
+      SELECT m.chatRoom.id FROM ChatRoomMember m
+      WHERE m.user.id = :userId
+      """)
+  List<Long> findRoomIdsByUserId(@Param("userId") Long userId);
+
+  // presence room fan-out: 여러 user가 속한 room 중 주어진 room(노드 로컬 구독 room)만 한 번에 조회
+  @Query(
+      """
+      SELECT new com.realtime.chat.dto.UserRoomMembership(m.user.id, m.chatRoom.id)
+      FROM ChatRoomMember m
+      WHERE m.user.id IN :userIds AND m.chatRoom.id IN :roomIds
+      """)
+  List<UserRoomMembership> findMembershipsByUserIdsAndRoomIds(
+      @Param("userIds") Collection<Long> userIds, @Param("roomIds") Collection<Long> roomIds);
+
   boolean existsByChatRoomIdAndUserId(Long chatRoomId, Long userId);
 
-  // 발신자를 제외한 같은 방 멤버들의 unreadCount 증가
-  @Modifying
+  // 멤버 row를 건드리지 않고 room sequence 차이로 unreadCount 계산
   @Query(
       """
-      UPDATE ChatRoomMember m
-      SET m.unreadCount = m.unreadCount + 1
-      WHERE m.chatRoom.id = :roomId AND m.user.id <> :senderId
+      SELECT cr.lastSeq - m.lastReadSeq - m.sentSinceRead FROM ChatRoomMember m
+      JOIN m.chatRoom cr
+      WHERE cr.id = :roomId AND m.user.id = :userId
       """)
-  int incrementUnreadCountForOtherMembers(
-      @Param("roomId") Long roomId, @Param("senderId") Long senderId);
+  Optional<Long> findUnreadCount(@Param("roomId") Long roomId, @Param("userId") Long userId);
 }
@@ -3,13 +3,14 @@ package com.realtime.chat.repository;
 import com.realtime.chat.domain.ChatRoom;
 import com.realtime.chat.domain.RoomType;
 import com.realtime.chat.dto.ChatRoomListResponse;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
-public interface ChatRoomRepository extends JpaRepository<ChatRoom, Long> {
+public interface ChatRoomRepository extends JpaRepository<ChatRoom, Long>, ChatRoomBulkRepository {
 
   // 1:1 채팅방 중복 방지: 두 유저가 이미 DIRECT 방에 함께 있는지 확인
   @Query(
@@ -28,17 +29,21 @@ public interface ChatRoomRepository extends JpaRepository<ChatRoom, Long> {
   Optional<ChatRoom> findDirectRoomByUsers(
       @Param("type") RoomType type, @Param("userId1") Long userId1, @Param("userId2") Long userId2);
 
-  // 내 채팅방 목록 조회 (N+1 해결: JPQL 프로젝션으로 단일 쿼리)
+  // 내 채팅방 목록 조회 (N+1 해결: JPQL 프로젝션으로 단일 쿼리, unreadCount는 room sequence 차이)
   @Query(
       """
       SELECT new com.realtime.chat.dto.ChatRoomListResponse(
           cr.id, cr.name, cr.type,
           (SELECT COUNT(m2) FROM ChatRoomMember m2 WHERE m2.chatRoom.id = cr.id),
-          m.unreadCount, cr.createdAt
+          cr.lastSeq - m.lastReadSeq - m.sentSinceRead, cr.createdAt
       )
       FROM ChatRoomMember m
       JOIN m.chatRoom cr
       WHERE m.user.id = :userId
       """)
   List<ChatRoomListResponse> findAllWithMemberInfoByUserId(@Param("userId") Long userId);
+
+  // persistence 존재 확인: entity를 로드하지 않고 존재하는 id만 조회
+  @Query("SELECT cr.id FROM ChatRoom cr WHERE cr.id IN :ids")
+  List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,21 @@
+package com.realtime.chat.repository;
+
+import com.realtime.chat.domain.Message;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+// persistence consumer 전용: JPA 영속성 컨텍스트를 거치지 않는 idempotent insert
+public interface MessageBulkRepository {
+
+  // multi-row INSERT ... ON CONFLICT DO NOTHING RETURNING으로 저장하고, 실제 insert된 row의 messageKey별 id만 반환
+  // message_key / (sender_id, client_message_id) unique 충돌 row는 예외 없이 건너뛴다
+  Map<UUID, Long> insertAll(List<Message> messages);
+
+  // 단건 idempotent insert: 새로 저장되면 생성 id, 중복이면 empty
+  Optional<Long> insertIfAbsent(Message message);
+
+  // 중복으로 insert되지 않은 row가 남긴 sequence 빈 번호를 메우기 위해 room_seq를 다시 매긴다
+  void updateRoomSeqs(Map<Long, Long> roomSeqsById);
+}
@@ -0,0 +1,90 @@
+package com.realtime.chat.repository;
+
+import com.realtime.chat.domain.Message;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+@RequiredArgsConstructor
+public class MessageBulkRepositoryImpl implements MessageBulkRepository {
+
+  // PostgreSQL bind parameter 한도(32767)를 넘지 않도록 statement 단위로 나눈다
+  private static final int MAX_ROWS_PER_STATEMENT = 1000;
+  private static final String INSERT_COLUMNS =
+      "INSERT INTO messages (message_key, client_message_id, room_id, sender_id, content, type,"
+          + " kafka_partition, kafka_offset, room_seq, created_at) VALUES ";
+  private static final String ROW_PLACEHOLDER = "(?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+  // conflict target을 지정하지 않아 message_key, uk_messages_sender_client_message, uk_messages_kafka 충돌을 모두 건너뛴다
+  private static final String RETURNING_CLAUSE = " ON CONFLICT DO NOTHING RETURNING id, message_key";
+
+  private final JdbcTemplate jdbcTemplate;
+
+  @Override
+  public Map<UUID, Long> insertAll(List<Message> messages) {
+    if (messages.isEmpty()) {
+      return Map.of();
+    }
+
+    Map<UUID, Long> idsByMessageKey = new HashMap<>();
+    LocalDateTime createdAt = LocalDateTime.now();
+    for (int from = 0; from < messages.size(); from += MAX_ROWS_PER_STATEMENT) {
+      List<Message> chunk =
+          messages.subList(from, Math.min(from + MAX_ROWS_PER_STATEMENT, messages.size()));
+      PreparedStatementSetter setter = ps -> bind(ps, chunk, createdAt);
+      RowCallbackHandler collector =
+          rs -> idsByMessageKey.put(rs.getObject("message_key", UUID.class), rs.getLong("id"));
+      jdbcTemplate.query(insertSql(chunk.size()), setter, collector);
+    }
+    return idsByMessageKey;
+  }
+
+  @Override
+  public Optional<Long> insertIfAbsent(Message message) {
+    return Optional.ofNullable(insertAll(List.of(message)).get(message.getMessageKey()));
+  }
+
+  @Override
+  public void updateRoomSeqs(Map<Long, Long> roomSeqsById) {
+    if (roomSeqsById.isEmpty()) {
+      return;
+    }
+    List<Object[]> args = new ArrayList<>(roomSeqsById.size());
+    roomSeqsById.forEach((id, roomSeq) -> args.add(new Object[] {roomSeq, id}));
+    jdbcTemplate.batchUpdate("UPDATE messages SET room_seq = ? WHERE id = ?", args);
+  }
+
+  private String insertSql(int rows) {
+    return INSERT_COLUMNS + String.join(", ", Collections.nCopies(rows, ROW_PLACEHOLDER))
+        + RETURNING_CLAUSE;
+  }
+
+  private void bind(PreparedStatement ps, List<Message> chunk, LocalDateTime createdAt)
+      throws SQLException {
+    int index = 1;
+    for (Message message : chunk) {
+      ps.setObject(index++, message.getMessageKey());
+      ps.setObject(index++, message.getClientMessageId());
+      ps.setLong(index++, message.getChatRoom().getId());
+      ps.setLong(index++, message.getSender().getId());
+      ps.setString(index++, message.getContent());
+      ps.setString(index++, message.getType() != null ? message.getType().name() : null);
+      ps.setObject(index++, message.getKafkaPartition(), Types.INTEGER);
+      ps.setObject(index++, message.getKafkaOffset(), Types.BIGINT);
+      ps.setObject(index++, message.getRoomSeq(), Types.BIGINT);
+      ps.setTimestamp(index++, Timestamp.valueOf(createdAt));
+    }
+  }
+}
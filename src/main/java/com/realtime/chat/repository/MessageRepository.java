@@ -1,7 +1,7 @@
 package com.realtime.chat.repository;
 
 import com.realtime.chat.domain.Message;
-import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -9,7 +9,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
-public interface MessageRepository extends JpaRepository<Message, Long> {
+public interface MessageRepository extends JpaRepository<Message, Long>, MessageBulkRepository {
 
   // 멱등성 체크: 동일 messageKey 존재 여부
   boolean existsByMessageKey(UUID messageKey);
@@ -29,6 +29,16 @@ public interface MessageRepository extends JpaRepository<Message, Long> {
   // 클라이언트 재시도 멱등성 처리: sender/clientMessageId로 기존 메시지 조회
   Optional<Message> findBySenderIdAndClientMessageId(Long senderId, UUID clientMessageId);
 
+  // batch 멱등성 체크: poll 단위 messageKey/clientMessageId를 한 번에 조회 (sender 비교는 호출부에서)
+  @Query(
+      """
+      SELECT m FROM Message m
+      WHERE m.messageKey IN :messageKeys OR m.clientMessageId IN :clientMessageIds
+      """)
+  List<Message> findAllByMessageKeysOrClientMessageIds(
+      @Param("messageKeys") Collection<UUID> messageKeys,
+      @Param("clientMessageIds") Collection<UUID> clientMessageIds);
+
   // 읽음 처리 검증: 해당 room의 메시지인지 확인
   @Query(
       """
@@ -82,18 +92,8 @@ public interface MessageRepository extends JpaRepository<Message, Long> {
       """)
   List<Message> findByRoomIdOrderByKafkaOffset(@Param("roomId") Long roomId);
 
-  // 읽음 처리용: 특정 메시지 이후 안읽은 메시지 수 계산
-  @Query(
-      """
-      SELECT COUNT(m) FROM Message m
-      WHERE m.chatRoom.id = :roomId
-      AND m.sender.id <> :userId
-      AND m.id > :lastReadMessageId
-      AND m.createdAt >= :joinedAt
-      """)
-  int countUnreadMessages(
-      @Param("roomId") Long roomId,
-      @Param("userId") Long userId,
-      @Param("lastReadMessageId") Long lastReadMessageId,
-      @Param("joinedAt") LocalDateTime joinedAt);
+  // 읽음 처리용: 읽음 기준 메시지의 room sequence
+  @Query("SELECT m.roomSeq FROM Message m WHERE m.id = :messageId AND m.chatRoom.id = :roomId")
+  Optional<Long> findRoomSeqByIdAndRoomId(
+      @Param("messageId") Long messageId, @Param("roomId") Long roomId);
 }
@@ -1,12 +1,20 @@
 package com.realtime.chat.repository;
 
 import com.realtime.chat.domain.User;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface UserRepository extends JpaRepository<User, Long> {
 
   Optional<User> findByEmail(String email);
 
   boolean existsByEmail(String email);
+
+  // persistence 존재 확인: entity를 로드하지 않고 존재하는 id만 조회
+  @Query("SELECT u.id FROM User u WHERE u.id IN :ids")
+  List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
 }
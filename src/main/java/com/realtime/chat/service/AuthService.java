@@ -20,6 +20,7 @@ public class AuthService {
   private final UserRepository userRepository;
   private final PasswordEncoder passwordEncoder;
   private final JwtTokenProvider jwtTokenProvider;
+  private final KnownEntityIdCache knownEntityIdCache;
 
   @Transactional
   public AuthResponse signup(SignupRequest request) {
@@ -33,6 +34,7 @@ public class AuthService {
             passwordEncoder.encode(request.getPassword()),
             request.getNickname());
     userRepository.save(user);
+    knownEntityIdCache.registerUser(user.getId());
 
     String token = jwtTokenProvider.createToken(user.getId(), user.getEmail());
     return new AuthResponse(token, user.getId(), user.getEmail(), user.getNickname());
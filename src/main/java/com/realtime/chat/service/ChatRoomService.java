@@ -11,10 +11,11 @@ import com.realtime.chat.dto.CreateGroupRoomRequest;
 import com.realtime.chat.repository.ChatRoomMemberRepository;
 import com.realtime.chat.repository.ChatRoomRepository;
 import com.realtime.chat.repository.UserRepository;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 import lombok.RequiredArgsConstructor;
 import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -26,6 +27,9 @@ public class ChatRoomService {
   private final ChatRoomRepository chatRoomRepository;
   private final ChatRoomMemberRepository chatRoomMemberRepository;
   private final UserRepository userRepository;
+  private final KnownEntityIdCache knownEntityIdCache;
+  private final RoomListCache roomListCache;
+  private final RoomMembershipCache roomMembershipCache;
 
   // 1:1 채팅방 생성 (이미 존재하면 기존 방 반환)
   @CacheEvict(value = "rooms", allEntries = true)
@@ -48,6 +52,8 @@ public class ChatRoomService {
               room.addMember(currentUser);
               room.addMember(targetUser);
               chatRoomRepository.save(room);
+              knownEntityIdCache.registerRoom(room.getId());
+              roomMembershipCache.invalidate(List.of(userId, targetUser.getId()));
               return ChatRoomResponse.from(room);
             });
   }
@@ -60,6 +66,8 @@ public class ChatRoomService {
 
     ChatRoom room = new ChatRoom(request.getName(), RoomType.GROUP, currentUser);
     room.addMember(currentUser);
+    Set<Long> memberIds = new LinkedHashSet<>();
+    memberIds.add(userId);
 
     // 초기 멤버 추가
     if (request.getMemberIds() != null) {
@@ -67,11 +75,14 @@ public class ChatRoomService {
         if (!memberId.equals(userId)) {
           User member = findUser(memberId);
           room.addMember(member);
+          memberIds.add(memberId);
         }
       }
     }
 
     chatRoomRepository.save(room);
+    knownEntityIdCache.registerRoom(room.getId());
+    roomMembershipCache.invalidate(memberIds);
     return ChatRoomResponse.from(room);
   }
 
@@ -91,14 +102,17 @@ public class ChatRoomService {
     }
 
     room.addMember(user);
+    roomMembershipCache.invalidate(List.of(userId));
     return ChatRoomResponse.from(room);
   }
 
-  // 내 채팅방 목록 조회 (JPQL 프로젝션 + Redis 캐싱)
-  @Cacheable(value = "rooms", key = "#userId")
+  // 내 채팅방 목록 조회 (JPQL 프로젝션 + room version 기반 Redis 캐싱)
   @Transactional(readOnly = true)
   public List<ChatRoomListResponse> getMyRooms(Long userId) {
-    return chatRoomRepository.findAllWithMemberInfoByUserId(userId);
+    return roomListCache.get(
+        userId,
+        () -> chatRoomMemberRepository.findRoomIdsByUserId(userId),
+        () -> chatRoomRepository.findAllWithMemberInfoByUserId(userId));
   }
 
   // 채팅방 상세 조회
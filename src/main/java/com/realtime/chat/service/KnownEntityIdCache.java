@@ -0,0 +1,93 @@
+package com.realtime.chat.service;
+
+import com.realtime.chat.common.BoundedFifoMaps;
+import com.realtime.chat.common.BusinessException;
+import com.realtime.chat.common.TransactionCallbacks;
+import com.realtime.chat.repository.ChatRoomRepository;
+import com.realtime.chat.repository.UserRepository;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+// persistence hot path용 노드 로컬 캐시: 존재가 확인된 room/user id만 기억한다.
+// 확인된 id는 SELECT 없이 getReferenceById proxy로 Message를 구성하고, 모르는 id만 IN 조회 1회로 확인한다.
+// 다른 노드의 삭제 등으로 캐시가 틀리면 insert FK 위반 시 evict 후 NOT_FOUND로 재시도 → DLT 흐름을 탄다.
+@Component
+public class KnownEntityIdCache {
+
+  private final ChatRoomRepository chatRoomRepository;
+  private final UserRepository userRepository;
+  private final Set<Long> roomIds;
+  private final Set<Long> userIds;
+
+  public KnownEntityIdCache(
+      ChatRoomRepository chatRoomRepository,
+      UserRepository userRepository,
+      @Value("${chat.persistence.known-id-cache.max-entries:100000}") int maxEntries) {
+    this.chatRoomRepository = chatRoomRepository;
+    this.userRepository = userRepository;
+    this.roomIds = BoundedFifoMaps.synchronizedSet(maxEntries);
+    this.userIds = BoundedFifoMaps.synchronizedSet(maxEntries);
+  }
+
+  public void requireRoom(Long roomId) {
+    requireRooms(List.of(roomId));
+  }
+
+  public void requireUser(Long userId) {
+    requireUsers(List.of(userId));
+  }
+
+  public void requireRooms(Collection<Long> ids) {
+    require(ids, roomIds, chatRoomRepository::findExistingIds, "채팅방을 찾을 수 없습니다.");
+  }
+
+  public void requireUsers(Collection<Long> ids) {
+    require(ids, userIds, userRepository::findExistingIds, "사용자를 찾을 수 없습니다.");
+  }
+
+  // 생성 이벤트: 새 id를 미리 등록해 첫 메시지도 조회 없이 처리
+  // 생성 트랜잭션이 롤백되면 없는 id가 남으므로 커밋 후에 등록한다
+  public void registerRoom(Long roomId) {
+    TransactionCallbacks.afterCommit(() -> roomIds.add(roomId));
+  }
+
+  public void registerUser(Long userId) {
+    TransactionCallbacks.afterCommit(() -> userIds.add(userId));
+  }
+
+  // 삭제 이벤트(또는 FK 위반으로 감지한 삭제): 다음 요청에서 DB로 다시 확인
+  public void evictRoom(Long roomId) {
+    roomIds.remove(roomId);
+  }
+
+  public void evictUser(Long userId) {
+    userIds.remove(userId);
+  }
+
+  private void require(
+      Collection<Long> ids,
+      Set<Long> knownIds,
+      Function<Collection<Long>, List<Long>> existingIdsLoader,
+      String notFoundMessage) {
+    Set<Long> unknownIds = new HashSet<>();
+    for (Long id : ids) {
+      if (!knownIds.contains(id)) {
+        unknownIds.add(id);
+      }
+    }
+    if (unknownIds.isEmpty()) {
+      return;
+    }
+    List<Long> existingIds = existingIdsLoader.apply(unknownIds);
+    knownIds.addAll(existingIds);
+    if (existingIds.size() < unknownIds.size()) {
+      throw new BusinessException(HttpStatus.NOT_FOUND, notFoundMessage);
+    }
+  }
+}
@@ -0,0 +1,168 @@
+package com.realtime.chat.service;
+
+import com.realtime.chat.dto.MessageHops;
+import io.micrometer.core.instrument.Timer;
+import java.nio.ByteBuffer;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+// 메시지 한 건이 거치는 hop마다 epoch nanos 시각을 찍고, hop 사이 지연을 hop tag별 timer에 기록한다.
+// - ws_to_kafka_ack: WebSocket 수신 → Kafka 발행 ack (발행 노드 안)
+// - kafka_to_persisted: Kafka 발행 → persistence 트랜잭션 커밋
+// - kafka_to_broadcast: Kafka 발행 → broadcast consumer 수신 (redis/kafka mode)
+// - redis_transit: Redis 발행 → Redis 수신
+// - stomp_send: Redis 수신(kafka mode는 로컬 전달 시작) → STOMP room topic 전달 완료 (수신 노드 안)
+// - end_to_end: WebSocket 수신 → STOMP room topic 전달 완료
+// 수신/발행 시각은 Kafka record header로, Redis 발행 시각은 room 메시지를 감싼 envelope의 hops로 다음 hop에
+// 넘긴다. 수신 노드는 envelope을 벗겨 내므로 클라이언트 frame에는 hops가 없다.
+// 노드를 넘는 hop은 wall clock 기준이라 노드 간 시계 차이만큼 오차가 있고, 음수 지연은 기록하지 않는다.
+@Component
+public class MessageHopTracer {
+
+  public static final String WS_RECEIVED_HEADER = "chat-ws-received-at";
+  public static final String PRODUCED_HEADER = "chat-produced-at";
+
+  private final boolean enabled;
+  private final Timer produceAckTimer;
+  private final Timer kafkaToPersistedTimer;
+  private final Timer kafkaToBroadcastTimer;
+  private final Timer redisTransitTimer;
+  private final Timer stompSendTimer;
+  private final Timer endToEndTimer;
+  private final Clock clock;
+
+  @Autowired
+  public MessageHopTracer(
+      @Value("${chat.latency.hops.enabled:false}") boolean enabled,
+      @Qualifier("hopProduceAckTimer") Timer produceAckTimer,
+      @Qualifier("hopKafkaToPersistedTimer") Timer kafkaToPersistedTimer,
+      @Qualifier("hopKafkaToBroadcastTimer") Timer kafkaToBroadcastTimer,
+      @Qualifier("hopRedisTransitTimer") Timer redisTransitTimer,
+      @Qualifier("hopStompSendTimer") Timer stompSendTimer,
+      @Qualifier("hopEndToEndTimer") Timer endToEndTimer) {
+    this(
+        enabled,
+        produceAckTimer,
+        kafkaToPersistedTimer,
+        kafkaToBroadcastTimer,
+        redisTransitTimer,
+        stompSendTimer,
+        endToEndTimer,
+        Clock.systemUTC());
+  }
+
+  public MessageHopTracer(
+      boolean enabled,
+      Timer produceAckTimer,
+      Timer kafkaToPersistedTimer,
+      Timer kafkaToBroadcastTimer,
+      Timer redisTransitTimer,
+      Timer stompSendTimer,
+      Timer endToEndTimer,
+      Clock clock) {
+    this.enabled = enabled;
+    this.produceAckTimer = produceAckTimer;
+    this.kafkaToPersistedTimer = kafkaToPersistedTimer;
+    this.kafkaToBroadcastTimer = kafkaToBroadcastTimer;
+    this.redisTransitTimer = redisTransitTimer;
+    this.stompSendTimer = stompSendTimer;
+    this.endToEndTimer = endToEndTimer;
+    this.clock = clock;
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  // epoch nanos (노드 간 비교가 필요해 System.nanoTime 대신 wall clock을 쓴다)
+  public long now() {
+    Instant instant = clock.instant();
+    return instant.getEpochSecond() * 1_000_000_000L + instant.getNano();
+  }
+
+  // chat.messages 발행 직전: WebSocket 수신 시각과 발행 시각을 record header에 싣는다
+  public void stamp(Headers headers, long wsReceivedAt) {
+    headers.add(WS_RECEIVED_HEADER, encode(wsReceivedAt));
+    headers.add(PRODUCED_HEADER, encode(now()));
+  }
+
+  public void recordProduceAck(long wsReceivedAt) {
+    if (enabled) {
+      recordHop(produceAckTimer, wsReceivedAt, now());
+    }
+  }
+
+  // persistence 트랜잭션 커밋 후 record마다 호출
+  public void recordPersisted(ConsumerRecord<String, ?> record) {
+    if (enabled) {
+      recordHop(kafkaToPersistedTimer, read(record.headers(), PRODUCED_HEADER), now());
+    }
+  }
+
+  // broadcast consumer(redis/kafka mode)가 record를 받았을 때 hop을 기록하고 envelope용 시각을 돌려준다
+  public MessageHops consumed(ConsumerRecord<String, ?> record) {
+    if (!enabled) {
+      return null;
+    }
+    MessageHops hops = hopsOf(record);
+    recordHop(kafkaToBroadcastTimer, hops.getProducedAt(), now());
+    return hops;
+  }
+
+  // record header의 수신/발행 시각 (publishedAt 없음). 비활성화면 null
+  public MessageHops hopsOf(ConsumerRecord<String, ?> record) {
+    if (!enabled) {
+      return null;
+    }
+    return new MessageHops(
+        read(record.headers(), WS_RECEIVED_HEADER), read(record.headers(), PRODUCED_HEADER), null);
+  }
+
+  // Redis 발행 직전 시각을 더한 envelope용 hops
+  public MessageHops published(MessageHops hops) {
+    if (hops == null) {
+      return null;
+    }
+    return new MessageHops(hops.getWsReceivedAt(), hops.getProducedAt(), now());
+  }
+
+  // 수신 노드에서 STOMP 전달을 마친 뒤 호출 (receivedAt: Redis 수신 또는 로컬 전달 시작 시각)
+  public void recordDelivered(MessageHops hops, long receivedAt) {
+    if (!enabled) {
+      return;
+    }
+    long deliveredAt = now();
+    recordHop(stompSendTimer, receivedAt, deliveredAt);
+    if (hops != null) {
+      recordHop(redisTransitTimer, hops.getPublishedAt(), receivedAt);
+      recordHop(endToEndTimer, hops.getWsReceivedAt(), deliveredAt);
+    }
+  }
+
+  private static void recordHop(Timer timer, Long from, long to) {
+    if (from != null && to >= from) {
+      timer.record(to - from, TimeUnit.NANOSECONDS);
+    }
+  }
+
+  private static byte[] encode(long epochNanos) {
+    return ByteBuffer.allocate(Long.BYTES).putLong(epochNanos).array();
+  }
+
+  // header가 없으면(hop 추적 이전 record, DLT replay 등) null
+  private static Long read(Headers headers, String name) {
+    Header header = headers.lastHeader(name);
+    if (header == null || header.value() == null || header.value().length != Long.BYTES) {
+      return null;
+    }
+    return ByteBuffer.wrap(header.value()).getLong();
+  }
+}
@@ -0,0 +1,143 @@
+package com.realtime.chat.service;
+
+import com.realtime.chat.dto.PresenceEvent;
+import com.realtime.chat.dto.UserRoomMembership;
+import com.realtime.chat.repository.ChatRoomMemberRepository;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+
+// Presence 이벤트를 user와 같은 room의 presence topic(/topic/room.{roomId}.presence)으로만 전달한다.
+// coalesce-window 동안 user별 이벤트를 모아, window 전과 상태가 달라진 user의 마지막 이벤트만 보낸다.
+// 모든 노드가 같은 이벤트를 받으므로, 각 노드는 로컬 구독자가 있는 room으로 좁혀 조회하고 보낸다.
+@Slf4j
+@Service
+public class PresenceFanoutService {
+
+  public static final String ROOM_PRESENCE_TOPIC_FORMAT = "/topic/room.%d.presence";
+  private static final int ROOM_LOOKUP_CHUNK_SIZE = 1000;
+
+  private final SimpMessagingTemplate messagingTemplate;
+  private final ChatRoomMemberRepository chatRoomMemberRepository;
+  private final RoomSubscriptionRegistry roomSubscriptionRegistry;
+  private final Duration coalesceWindow;
+  private final ScheduledExecutorService scheduler;
+
+  // userId → window 안의 첫 status와 마지막 이벤트
+  private Map<Long, PendingPresence> pending = new HashMap<>();
+  private boolean flushScheduled;
+
+  // registry가 listener container → RedisPubSubService를 거쳐 이 서비스를 참조하므로 순환을 끊기 위해 @Lazy
+  @Autowired
+  public PresenceFanoutService(
+      SimpMessagingTemplate messagingTemplate,
+      ChatRoomMemberRepository chatRoomMemberRepository,
+      @Lazy RoomSubscriptionRegistry roomSubscriptionRegistry,
+      @Value("${chat.presence.coalesce-window:250ms}") Duration coalesceWindow) {
+    this(
+        messagingTemplate,
+        chatRoomMemberRepository,
+        roomSubscriptionRegistry,
+        coalesceWindow,
+        Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, "presence-fanout");
+              thread.setDaemon(true);
+              return thread;
+            }));
+  }
+
+  public PresenceFanoutService(
+      SimpMessagingTemplate messagingTemplate,
+      ChatRoomMemberRepository chatRoomMemberRepository,
+      RoomSubscriptionRegistry roomSubscriptionRegistry,
+      Duration coalesceWindow,
+      ScheduledExecutorService scheduler) {
+    this.messagingTemplate = messagingTemplate;
+    this.chatRoomMemberRepository = chatRoomMemberRepository;
+    this.roomSubscriptionRegistry = roomSubscriptionRegistry;
+    this.coalesceWindow = coalesceWindow;
+    this.scheduler = scheduler;
+  }
+
+  // window의 첫 이벤트가 들어오면 window 종료 시점에 flush를 예약한다
+  public synchronized void enqueue(PresenceEvent event) {
+    pending.merge(
+        event.getUserId(),
+        new PendingPresence(event.getStatus(), event),
+        (current, next) -> new PendingPresence(current.firstStatus(), next.last()));
+    if (!flushScheduled) {
+      flushScheduled = true;
+      scheduler.schedule(this::flush, coalesceWindow.toMillis(), TimeUnit.MILLISECONDS);
+    }
+  }
+
+  // window 종료: net 전환이 있는 user의 room 중 로컬 구독자가 있는 room presence topic에만 전달.
+  // 로컬 구독 room이 없으면 조회하지 않고, 있으면 ROOM_LOOKUP_CHUNK_SIZE개씩 멤버십을 조회한다
+  public void flush() {
+    Map<Long, PendingPresence> window;
+    synchronized (this) {
+      window = pending;
+      pending = new HashMap<>();
+      flushScheduled = false;
+    }
+
+    Map<Long, PresenceEvent> changed = new HashMap<>();
+    window.forEach(
+        (userId, presence) -> {
+          if (presence.changed()) {
+            changed.put(userId, presence.last());
+          }
+        });
+    log.debug("presence window flush: received={}, changed={}", window.size(), changed.size());
+    if (changed.isEmpty()) {
+      return;
+    }
+    List<Long> localRoomIds = List.copyOf(roomSubscriptionRegistry.localRoomIds());
+    if (localRoomIds.isEmpty()) {
+      return;
+    }
+
+    try {
+      for (int from = 0; from < localRoomIds.size(); from += ROOM_LOOKUP_CHUNK_SIZE) {
+        List<Long> chunk =
+            localRoomIds.subList(
+                from, Math.min(from + ROOM_LOOKUP_CHUNK_SIZE, localRoomIds.size()));
+        for (UserRoomMembership membership :
+            chatRoomMemberRepository.findMembershipsByUserIdsAndRoomIds(changed.keySet(), chunk)) {
+          messagingTemplate.convertAndSend(
+              String.format(ROOM_PRESENCE_TOPIC_FORMAT, membership.getRoomId()),
+              changed.get(membership.getUserId()));
+        }
+      }
+    } catch (Exception e) {
+      log.error("presence room fan-out 실패: users={}", changed.size(), e);
+    }
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    scheduler.shutdownNow();
+  }
+
+  // 첫 이벤트는 window 전 상태에서의 전환이므로, 마지막 status가 첫 status와 같을 때만 상태가 바뀐 것이다.
+  // 예: OFFLINE → ONLINE (끊겼다 바로 재연결)은 window 전과 같은 ONLINE이라 보내지 않는다.
+  private record PendingPresence(String firstStatus, PresenceEvent last) {
+
+    boolean changed() {
+      return Objects.equals(firstStatus, last.getStatus());
+    }
+  }
+}
@@ -5,23 +5,37 @@ import java.time.Duration;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
-import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Service;
 
-// Redis 기반 온라인/오프라인 상태 관리
+// Redis 기반 온라인/오프라인 상태 관리.
+// user별 zset(member=sessionId, score=session 만료 epoch ms) 하나에 session을 두고,
+// 연결/해제/heartbeat/online 확인을 각각 Lua script 1회(Redis 왕복 1회)로 처리한다.
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class PresenceService {
 
-  private static final String SESSION_KEY_FORMAT = "user:presence:%d:session:%s";
-  private static final String SESSION_SET_KEY_FORMAT = "user:presence:%d:sessions";
+  private static final String SESSION_EXPIRY_KEY_FORMAT = "user:presence:%d:session-expiry";
   private static final String LEGACY_SESSION_ID = "legacy";
   private static final Duration PRESENCE_TTL = Duration.ofSeconds(60);
 
+  private static final RedisScript<Long> CONNECT_SCRIPT = script("connect");
+  private static final RedisScript<Long> DISCONNECT_SCRIPT = script("disconnect");
+  private static final RedisScript<Long> HEARTBEAT_SCRIPT = script("heartbeat");
+  private static final RedisScript<Long> IS_ONLINE_SCRIPT = script("is-online");
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private static final RedisScript<List<Long>> ONLINE_MEMBERS_SCRIPT =
+      (RedisScript) RedisScript.of(resource("online-members"), List.class);
+
+  // 한 script에 넘기는 최대 key 수 (script 실행 중 Redis가 다른 명령을 처리하지 못하는 시간을 제한)
+  private static final int ONLINE_LOOKUP_CHUNK_SIZE = 1000;
+
   private final StringRedisTemplate redisTemplate;
   private final ChatRoomMemberRepository chatRoomMemberRepository;
 
@@ -32,101 +46,83 @@ public class PresenceService {
 
   // session 단위 온라인 상태 설정. true면 기존 offline → online 전환이다.
   public boolean setOnline(Long userId, String sessionId) {
-    boolean wasOnline = isOnline(userId);
-    String sessionKey = sessionKey(userId, sessionId);
-    String sessionSetKey = sessionSetKey(userId);
-
-    redisTemplate.opsForValue().set(sessionKey, "ONLINE", PRESENCE_TTL);
-    redisTemplate.opsForSet().add(sessionSetKey, sessionId);
-    redisTemplate.expire(sessionSetKey, PRESENCE_TTL);
-
+    boolean becameOnline = executeFlag(CONNECT_SCRIPT, userId, sessionId, ttlMillis());
     log.debug("온라인 설정: userId={}", userId);
-    return !wasOnline;
+    return becameOnline;
   }
 
-  // 오프라인 상태 (키 삭제)
+  // 오프라인 상태 (모든 session 삭제)
   public void setOffline(Long userId) {
-    Set<String> sessionIds = redisTemplate.opsForSet().members(sessionSetKey(userId));
-    if (sessionIds != null) {
-      sessionIds.forEach(sessionId -> redisTemplate.delete(sessionKey(userId, sessionId)));
-    }
-    redisTemplate.delete(sessionSetKey(userId));
+    redisTemplate.delete(sessionExpiryKey(userId));
     log.debug("오프라인 설정: userId={}", userId);
   }
 
   // session 단위 오프라인 처리. true면 마지막 session이 끊겨 offline 전환이다.
   public boolean setOffline(Long userId, String sessionId) {
-    redisTemplate.delete(sessionKey(userId, sessionId));
-    redisTemplate.opsForSet().remove(sessionSetKey(userId), sessionId);
-
-    boolean hasActiveSession = !activeSessionIds(userId).isEmpty();
-    if (!hasActiveSession) {
-      redisTemplate.delete(sessionSetKey(userId));
+    boolean becameOffline = executeFlag(DISCONNECT_SCRIPT, userId, sessionId);
+    if (becameOffline) {
       log.debug("마지막 session 해제: userId={}, sessionId={}", userId, sessionId);
-      return true;
+    } else {
+      log.debug("session 해제: userId={}, sessionId={}", userId, sessionId);
     }
-
-    log.debug("session 해제: userId={}, sessionId={}", userId, sessionId);
-    return false;
+    return becameOffline;
   }
 
   // heartbeat로 현재 session TTL 갱신
   public boolean refreshSession(Long userId, String sessionId) {
-    String sessionKey = sessionKey(userId, sessionId);
-    if (!Boolean.TRUE.equals(redisTemplate.hasKey(sessionKey))) {
-      return false;
+    boolean refreshed = executeFlag(HEARTBEAT_SCRIPT, userId, sessionId, ttlMillis());
+    if (refreshed) {
+      log.debug("presence heartbeat 갱신: userId={}, sessionId={}", userId, sessionId);
     }
-
-    String sessionSetKey = sessionSetKey(userId);
-    redisTemplate.opsForValue().set(sessionKey, "ONLINE", PRESENCE_TTL);
-    redisTemplate.opsForSet().add(sessionSetKey, sessionId);
-    redisTemplate.expire(sessionSetKey, PRESENCE_TTL);
-    log.debug("presence heartbeat 갱신: userId={}, sessionId={}", userId, sessionId);
-    return true;
+    return refreshed;
   }
 
   // 특정 유저의 온라인 여부 확인
   public boolean isOnline(Long userId) {
-    return !activeSessionIds(userId).isEmpty();
+    return executeFlag(IS_ONLINE_SCRIPT, userId);
   }
 
-  // 채팅방 멤버 중 온라인인 유저 목록
+  // 채팅방 멤버 중 온라인인 유저 목록 (멤버 id projection 1회 + chunk당 Redis script 1회)
   public Set<Long> getOnlineMembers(Long roomId) {
-    List<Long> memberUserIds =
-        chatRoomMemberRepository.findAllByChatRoomId(roomId).stream()
-            .map(member -> member.getUser().getId())
-            .collect(Collectors.toList());
-
-    return memberUserIds.stream().filter(this::isOnline).collect(Collectors.toSet());
+    return findOnlineUserIds(chatRoomMemberRepository.findUserIdsByRoomId(roomId));
   }
 
-  private Set<String> activeSessionIds(Long userId) {
-    String sessionSetKey = sessionSetKey(userId);
-    Set<String> sessionIds = redisTemplate.opsForSet().members(sessionSetKey);
-    if (sessionIds == null || sessionIds.isEmpty()) {
-      return Set.of();
-    }
-
-    Set<String> activeSessionIds = new HashSet<>();
-    for (String sessionId : sessionIds) {
-      if (Boolean.TRUE.equals(redisTemplate.hasKey(sessionKey(userId, sessionId)))) {
-        activeSessionIds.add(sessionId);
-      } else {
-        redisTemplate.opsForSet().remove(sessionSetKey, sessionId);
+  // user id 목록 중 온라인인 user. ONLINE_LOOKUP_CHUNK_SIZE개씩 script 한 번으로 확인한다.
+  public Set<Long> findOnlineUserIds(List<Long> userIds) {
+    Set<Long> onlineUserIds = new HashSet<>();
+    for (int from = 0; from < userIds.size(); from += ONLINE_LOOKUP_CHUNK_SIZE) {
+      List<Long> chunk =
+          userIds.subList(from, Math.min(from + ONLINE_LOOKUP_CHUNK_SIZE, userIds.size()));
+      List<Long> onlineIndexes =
+          redisTemplate.execute(
+              ONLINE_MEMBERS_SCRIPT, chunk.stream().map(this::sessionExpiryKey).toList());
+      if (onlineIndexes != null) {
+        // Lua index는 1부터 시작
+        onlineIndexes.forEach(index -> onlineUserIds.add(chunk.get(index.intValue() - 1)));
       }
     }
+    return onlineUserIds;
+  }
 
-    if (activeSessionIds.isEmpty()) {
-      redisTemplate.delete(sessionSetKey);
-    }
-    return activeSessionIds;
+  private boolean executeFlag(RedisScript<Long> script, Long userId, String... args) {
+    Long result =
+        redisTemplate.execute(script, List.of(sessionExpiryKey(userId)), (Object[]) args);
+    return result != null && result > 0;
+  }
+
+  private String ttlMillis() {
+    return String.valueOf(PRESENCE_TTL.toMillis());
+  }
+
+  private String sessionExpiryKey(Long userId) {
+    return String.format(SESSION_EXPIRY_KEY_FORMAT, userId);
   }
 
-  private String sessionKey(Long userId, String sessionId) {
-    return String.format(SESSION_KEY_FORMAT, userId, sessionId);
+  private static RedisScript<Long> script(String name) {
+    return RedisScript.of(resource(name), Long.class);
   }
 
-  private String sessionSetKey(Long userId) {
-    return String.format(SESSION_SET_KEY_FORMAT, userId);
+  private static ClassPathResource resource(String name) {
+    return new ClassPathResource("redis/presence/" + name + ".lua");
   }
 }
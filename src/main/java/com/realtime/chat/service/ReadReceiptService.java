@@ -1,12 +1,22 @@
 package com.realtime.chat.service;
 
 import com.realtime.chat.common.BusinessException;
+import com.realtime.chat.common.TransactionCallbacks;
 import com.realtime.chat.domain.ChatRoomMember;
 import com.realtime.chat.domain.Message;
 import com.realtime.chat.event.ReadReceiptEvent;
 import com.realtime.chat.producer.ChatMessageProducer;
+import com.realtime.chat.repository.ChatRoomMemberBulkRepository.ReadPosition;
 import com.realtime.chat.repository.ChatRoomMemberRepository;
 import com.realtime.chat.repository.MessageRepository;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.CacheManager;
@@ -61,35 +71,76 @@ public class ReadReceiptService {
             .orElseThrow(() -> new BusinessException(HttpStatus.NOT_FOUND, "채팅방 멤버를 찾을 수 없습니다."));
 
     // lastReadMessageId 업데이트 (더 큰 값으로만 업데이트)
-    if (member.getLastReadMessageId() == null
-        || event.getLastReadMessageId() > member.getLastReadMessageId()) {
-      member.updateLastReadMessageId(event.getLastReadMessageId());
-
-      // DB에서 실제 unreadCount 재계산
-      int unreadCount =
-          messageRepository.countUnreadMessages(
-              event.getRoomId(),
-              event.getUserId(),
-              event.getLastReadMessageId(),
-              member.getJoinedAt());
-      member.updateUnreadCount(unreadCount);
-
-      // Redis 캐시 업데이트
-      String key = String.format(UNREAD_COUNT_KEY, event.getRoomId(), event.getUserId());
-      redisTemplate.opsForValue().set(key, String.valueOf(unreadCount));
-
-      // 채팅방 목록 캐시 무효화 (unreadCount 변경)
-      var roomsCache = cacheManager.getCache("rooms");
-      if (roomsCache != null) {
-        roomsCache.evict(event.getUserId());
+    if (member.getLastReadMessageId() != null
+        && event.getLastReadMessageId() <= member.getLastReadMessageId()) {
+      return;
+    }
+
+    long lastReadSeq =
+        messageRepository
+            .findRoomSeqByIdAndRoomId(event.getLastReadMessageId(), event.getRoomId())
+            .orElseThrow(() -> new BusinessException(HttpStatus.NOT_FOUND, "메시지를 찾을 수 없습니다."));
+    chatRoomMemberRepository.markRead(
+        event.getRoomId(), event.getUserId(), event.getLastReadMessageId(), lastReadSeq);
+
+    // unreadCount = room 마지막 sequence - 읽은 위치 - 읽은 위치 이후 본인 메시지 수 (메시지 COUNT 없이 계산)
+    int unreadCount = currentUnreadCount(event.getRoomId(), event.getUserId());
+
+    // Redis 캐시 업데이트 + 채팅방 목록 캐시 무효화 (unreadCount 변경)
+    String key = String.format(UNREAD_COUNT_KEY, event.getRoomId(), event.getUserId());
+    refreshCachesAfterCommit(
+        () -> redisTemplate.opsForValue().set(key, String.valueOf(unreadCount)),
+        List.of(event.getUserId()));
+
+    log.debug(
+        "읽음 처리 완료: roomId={}, userId={}, unreadCount={}",
+        event.getRoomId(),
+        event.getUserId(),
+        unreadCount);
+  }
+
+  // Kafka batch Consumer에서 호출: poll 안의 읽음 이벤트를 (roomId, userId)별 최대 lastReadMessageId로 합쳐
+  // batch UPDATE 한 번으로 반영한다. 반영을 시도한 읽음 위치 수를 반환
+  @Transactional
+  public int processReadReceipts(List<ReadReceiptEvent> events) {
+    Map<MemberKey, ReadReceiptEvent> latestByMember = new LinkedHashMap<>();
+    for (ReadReceiptEvent event : events) {
+      latestByMember.merge(
+          new MemberKey(event.getRoomId(), event.getUserId()),
+          event,
+          (current, next) ->
+              next.getLastReadMessageId() > current.getLastReadMessageId() ? next : current);
+    }
+    List<ReadReceiptEvent> latest = new ArrayList<>(latestByMember.values());
+    int[] updated =
+        chatRoomMemberRepository.markReadAll(
+            latest.stream()
+                .map(
+                    event ->
+                        new ReadPosition(
+                            event.getRoomId(), event.getUserId(), event.getLastReadMessageId()))
+                .toList());
+
+    List<String> unreadKeys = new ArrayList<>();
+    Set<Long> readUserIds = new LinkedHashSet<>();
+    for (int i = 0; i < latest.size(); i++) {
+      ReadReceiptEvent event = latest.get(i);
+      if (updated[i] == 0) {
+        // 이미 더 뒤까지 읽었거나 멤버/메시지가 없는 경우: 단건 경로로 no-op 또는 NOT_FOUND를 판정
+        processReadReceipt(event);
+        continue;
       }
+      unreadKeys.add(String.format(UNREAD_COUNT_KEY, event.getRoomId(), event.getUserId()));
+      readUserIds.add(event.getUserId());
+    }
 
-      log.debug(
-          "읽음 처리 완료: roomId={}, userId={}, unreadCount={}",
-          event.getRoomId(),
-          event.getUserId(),
-          unreadCount);
+    // unreadCount Redis 캐시는 지우고 다음 조회에서 sequence 차이로 다시 채운다 (DEL 한 번)
+    if (!unreadKeys.isEmpty()) {
+      refreshCachesAfterCommit(() -> redisTemplate.delete(unreadKeys), readUserIds);
     }
+
+    log.debug("읽음 처리 batch 완료: events={}, applied={}", events.size(), latest.size());
+    return latest.size();
   }
 
   // unreadCount 조회 (Redis 캐시 + DB fallback)
@@ -101,16 +152,41 @@ public class ReadReceiptService {
       return Integer.parseInt(cached);
     }
 
-    // Redis 캐시 미스 → DB에서 재계산
-    ChatRoomMember member =
-        chatRoomMemberRepository.findByChatRoomIdAndUserId(roomId, userId).orElse(null);
-
-    if (member == null) {
+    // Redis 캐시 미스 → DB에서 재계산 (멤버가 아니면 0)
+    Optional<Long> unread = chatRoomMemberRepository.findUnreadCount(roomId, userId);
+    if (unread.isEmpty()) {
       return 0;
     }
 
-    int unreadCount = member.getUnreadCount();
+    int unreadCount = (int) Math.max(0, unread.get());
     redisTemplate.opsForValue().set(key, String.valueOf(unreadCount));
     return unreadCount;
   }
+
+  // 커밋 전에 고치면 그 사이 조회가 커밋 전 읽음 위치로 unreadCount/목록 캐시를 다시 채운다.
+  // 읽음은 room version을 올리지 않으므로 그 값이 다음 메시지까지 남아 커밋 후에 고친다.
+  // 이미 커밋된 뒤라 실패는 되돌릴 수 없어 로그만 남긴다
+  private void refreshCachesAfterCommit(Runnable unreadCacheUpdate, Collection<Long> userIds) {
+    TransactionCallbacks.afterCommit(
+        () -> {
+          try {
+            unreadCacheUpdate.run();
+            var roomsCache = cacheManager.getCache(RoomListCache.CACHE_NAME);
+            if (roomsCache != null) {
+              userIds.forEach(roomsCache::evict);
+            }
+          } catch (Exception e) {
+            log.warn("읽음 처리 후 캐시 갱신 실패: userIds={}", userIds, e);
+          }
+        });
+  }
+
+  private int currentUnreadCount(Long roomId, Long userId) {
+    return chatRoomMemberRepository
+        .findUnreadCount(roomId, userId)
+        .map(unread -> (int) Math.max(0, unread))
+        .orElse(0);
+  }
+
+  private record MemberKey(Long roomId, Long userId) {}
 }
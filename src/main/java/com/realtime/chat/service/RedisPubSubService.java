@@ -1,21 +1,41 @@
 package com.realtime.chat.service;
 
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.realtime.chat.config.RedisConfig;
 import com.realtime.chat.dto.MessagePersistedNotification;
+import com.realtime.chat.dto.MessageHops;
 import com.realtime.chat.dto.MessagePersistedResponse;
 import com.realtime.chat.dto.PresenceEvent;
+import com.realtime.chat.dto.SequencedChatMessage;
+import com.realtime.chat.dto.TracedChatMessage;
 import com.realtime.chat.event.ChatMessageEvent;
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.Timer;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
 import org.springframework.stereotype.Service;
+import org.springframework.util.MimeType;
+import org.springframework.util.MimeTypeUtils;
 
 // Redis Pub/Sub를 통한 서버 간 메시지 브로드캐스트
 @Slf4j
@@ -23,6 +43,11 @@ import org.springframework.stereotype.Service;
 @RequiredArgsConstructor
 public class RedisPubSubService {
 
+  private static final MimeType JSON_UTF8 =
+      new MimeType(MimeTypeUtils.APPLICATION_JSON, StandardCharsets.UTF_8);
+  private static final byte[] TRACED_ENVELOPE_PREFIX =
+      "{\"hops\":".getBytes(StandardCharsets.UTF_8);
+
   private final StringRedisTemplate redisTemplate;
   private final SimpMessagingTemplate messagingTemplate;
   private final ObjectMapper objectMapper;
@@ -30,6 +55,12 @@ public class RedisPubSubService {
   private final Counter messagesReceivedCounter;
   @Qualifier("roomFanoutLatencyTimer")
   private final Timer roomFanoutLatencyTimer;
+  private final PresenceFanoutService presenceFanoutService;
+  private final MessageHopTracer messageHopTracer;
+
+  // true면 pass-through 전에 payload 전체를 ChatMessageEvent로 역직렬화해 검증한다
+  @Value("${chat.redis.broadcast.validate-payload:false}")
+  private boolean validatePayload = false;
 
   // Redis 채널에 메시지 발행 (Kafka Consumer → Redis)
   public void publish(ChatMessageEvent event) {
@@ -44,6 +75,46 @@ public class RedisPubSubService {
     }
   }
 
+  // poll batch를 하나의 Redis connection pipeline으로 발행 (Kafka Consumer → Redis).
+  // 명령은 입력 순서대로 전송되므로 같은 room(같은 partition) 메시지 순서가 유지된다.
+  public void publishAll(List<ChatMessageEvent> events) {
+    publishPipelined(events, ChatMessageEvent::getRoomId);
+  }
+
+  // hot room 메시지를 roomSeq와 함께 발행 (persistence consumer 커밋 후 → Redis)
+  public void publishSequenced(List<SequencedChatMessage> messages) {
+    publishPipelined(messages, message -> message.getEvent().getRoomId());
+  }
+
+  // hop 추적 시각(hops)을 envelope로 감싸 발행 (broadcast consumer, hot room 발행 → Redis)
+  public void publishTraced(List<TracedChatMessage> messages) {
+    publishPipelined(messages, TracedChatMessage::getRoomId);
+  }
+
+  private <T> void publishPipelined(List<T> payloads, Function<T, Long> roomIdOf) {
+    List<byte[]> channels = new ArrayList<>(payloads.size());
+    List<byte[]> messages = new ArrayList<>(payloads.size());
+    try {
+      for (T payload : payloads) {
+        String channel = RedisConfig.CHAT_ROOM_CHANNEL_PREFIX + roomIdOf.apply(payload);
+        channels.add(channel.getBytes(StandardCharsets.UTF_8));
+        messages.add(objectMapper.writeValueAsBytes(payload));
+      }
+      redisTemplate.executePipelined(
+          (RedisCallback<Object>)
+              connection -> {
+                for (int i = 0; i < channels.size(); i++) {
+                  connection.publish(channels.get(i), messages.get(i));
+                }
+                return null;
+              });
+      log.debug("Redis pipeline 발행: size={}", payloads.size());
+    } catch (Exception e) {
+      log.error("Redis pipeline 발행 실패: size={}", payloads.size(), e);
+      throw new IllegalStateException("Redis publish failed", e);
+    }
+  }
+
   // Redis 채널에 Presence 이벤트 발행 (서버 간 상태 공유)
   public void publishPresence(PresenceEvent event) {
     try {
@@ -73,14 +144,14 @@ public class RedisPubSubService {
     }
   }
 
-  // Redis 구독 Presence 이벤트 수신 → STOMP로 전체 브로드캐스트
+  // Redis 구독 Presence 이벤트 수신 → window 단위로 합쳐 user가 속한 room presence topic으로 전달
   public void onPresenceMessage(String message, String channel) {
     try {
       PresenceEvent event = objectMapper.readValue(message, PresenceEvent.class);
-      messagingTemplate.convertAndSend("/topic/presence", event);
-      log.debug("Presence 브로드캐스트: userId={}, status={}", event.getUserId(), event.getStatus());
+      presenceFanoutService.enqueue(event);
+      log.debug("Presence 수신: userId={}, status={}", event.getUserId(), event.getStatus());
     } catch (Exception e) {
-      log.error("Presence 브로드캐스트 실패: channel={}", channel, e);
+      log.error("Presence 수신 실패: channel={}", channel, e);
     }
   }
 
@@ -102,20 +173,121 @@ public class RedisPubSubService {
     }
   }
 
-  // Redis 구독 메시지 수신 → STOMP로 WebSocket 클라이언트에게 브로드캐스트
-  public void onMessage(String message, String channel) {
+  // Redis room 채널 수신(RoomSubscriptionRegistry 경유) → STOMP로 WebSocket 클라이언트에게 브로드캐스트.
+  // hop envelope이면 hops를 떼어 내고 message bytes만 전달한다.
+  public void onMessage(byte[] payload, String channel) {
+    long receivedAt = messageHopTracer.now();
+    byte[] message = payload;
+    MessageHops hops = null;
+    try {
+      if (isTracedEnvelope(payload)) {
+        TracedPayload traced = unwrap(payload);
+        message = traced.message();
+        hops = traced.hops();
+      }
+    } catch (Exception e) {
+      log.error("WebSocket 브로드캐스트 실패: channel={}", channel, e);
+      return;
+    }
+    onMessage(message, hops, receivedAt, channel);
+  }
+
+  // kafka mode의 LocalBroadcastConsumer 경유: Redis 없이 hops를 따로 받는다
+  public void onMessage(byte[] payload, MessageHops hops, String channel) {
+    onMessage(payload, hops, messageHopTracer.now(), channel);
+  }
+
+  // publish 때 직렬화한 UTF-8 JSON을 그대로 frame payload로 넘기고, destination용 roomId만 읽는다.
+  private void onMessage(byte[] payload, MessageHops hops, long receivedAt, String channel) {
     Instant startedAt = Instant.now();
     try {
-      ChatMessageEvent event = objectMapper.readValue(message, ChatMessageEvent.class);
-      String destination = "/topic/room." + event.getRoomId();
+      long roomId = validatePayload ? validate(payload) : peekRoomId(payload);
+      String destination = "/topic/room." + roomId;
 
-      messagingTemplate.convertAndSend(destination, event);
+      messagingTemplate.send(destination, MessageBuilder.createMessage(payload, jsonHeaders()));
       messagesReceivedCounter.increment();
       roomFanoutLatencyTimer.record(Duration.between(startedAt, Instant.now()));
-      log.debug(
-          "WebSocket 브로드캐스트: destination={}, messageKey={}", destination, event.getMessageKey());
+      messageHopTracer.recordDelivered(hops, receivedAt);
+      log.debug("WebSocket 브로드캐스트: destination={}, bytes={}", destination, payload.length);
     } catch (Exception e) {
       log.error("WebSocket 브로드캐스트 실패: channel={}", channel, e);
     }
   }
+
+  // TracedChatMessage는 hops를 첫 필드로 직렬화하므로 앞 bytes만 비교한다 (일반 room 메시지는 parser 없이 통과)
+  private static boolean isTracedEnvelope(byte[] payload) {
+    if (payload.length < TRACED_ENVELOPE_PREFIX.length) {
+      return false;
+    }
+    for (int i = 0; i < TRACED_ENVELOPE_PREFIX.length; i++) {
+      if (payload[i] != TRACED_ENVELOPE_PREFIX[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  // envelope의 message 객체 byte 범위를 잘라 내고 hops를 읽는다
+  private TracedPayload unwrap(byte[] payload) throws IOException {
+    try (JsonParser parser = objectMapper.getFactory().createParser(payload)) {
+      parser.nextToken();
+      MessageHops hops = null;
+      byte[] message = null;
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        String field = parser.currentName();
+        JsonToken value = parser.nextToken();
+        if ("hops".equals(field) && value == JsonToken.START_OBJECT) {
+          hops = objectMapper.readValue(parser, MessageHops.class);
+        } else if ("message".equals(field) && value == JsonToken.START_OBJECT) {
+          int start = (int) parser.currentTokenLocation().getByteOffset();
+          parser.skipChildren();
+          int end = (int) parser.currentTokenLocation().getByteOffset() + 1;
+          message = Arrays.copyOfRange(payload, start, end);
+        } else {
+          parser.skipChildren();
+        }
+      }
+      if (message == null) {
+        throw new JsonParseException(parser, "hop envelope에 message가 없습니다.");
+      }
+      return new TracedPayload(message, hops);
+    }
+  }
+
+  // 최상위 roomId 필드만 streaming parser로 읽고 나머지 값은 건너뛴다 (channel 이름보다 payload 기준)
+  private long peekRoomId(byte[] payload) throws IOException {
+    try (JsonParser parser = objectMapper.getFactory().createParser(payload)) {
+      if (parser.nextToken() != JsonToken.START_OBJECT) {
+        throw new JsonParseException(parser, "room 메시지가 JSON object가 아닙니다.");
+      }
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        String field = parser.currentName();
+        JsonToken value = parser.nextToken();
+        if ("roomId".equals(field) && value == JsonToken.VALUE_NUMBER_INT) {
+          return parser.getLongValue();
+        }
+        parser.skipChildren();
+      }
+      throw new JsonParseException(parser, "room 메시지에 roomId가 없습니다.");
+    }
+  }
+
+  // validate-payload 모드: 전체를 ChatMessageEvent로 검증하되 전달은 원본 bytes로 한다
+  private long validate(byte[] payload) throws IOException {
+    ChatMessageEvent event = objectMapper.readValue(payload, ChatMessageEvent.class);
+    if (event.getRoomId() == null) {
+      throw new IllegalArgumentException("room 메시지에 roomId가 없습니다.");
+    }
+    return event.getRoomId();
+  }
+
+  private record TracedPayload(byte[] message, MessageHops hops) {}
+
+  private MessageHeaders jsonHeaders() {
+    SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+    accessor.setContentType(JSON_UTF8);
+    // SimpMessagingTemplate이 destination header를 채울 수 있도록 mutable로 둔다
+    accessor.setLeaveMutable(true);
+    return accessor.getMessageHeaders();
+  }
 }
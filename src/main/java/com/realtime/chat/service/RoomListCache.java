@@ -0,0 +1,152 @@
+package com.realtime.chat.service;
+
+import com.realtime.chat.common.TransactionCallbacks;
+import com.realtime.chat.config.RedisConfig;
+import com.realtime.chat.dto.ChatRoomListResponse;
+import com.realtime.chat.dto.RoomListCacheEntry;
+import io.micrometer.core.instrument.Counter;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+// 채팅방 목록 캐시 (versioned entry).
+// 메시지 저장 시 멤버별 evict 대신 커밋 후 room version을 INCR 한 번으로 올리고,
+// 조회 시 캐싱된 목록의 room version을 MGET 한 번으로 비교해 하나라도 바뀌었으면 다시 조회한다.
+// version은 목록 조회 전에 읽어 둔 값으로 저장한다. 조회가 커밋 전 데이터를 봤다면 그 커밋의 INCR은
+// 아직 일어나지 않았으므로, 저장된 version이 다음 조회에서 반드시 어긋나 다시 조회된다.
+// version key는 INCR 때와 목록을 다시 캐싱하기 전 version을 읽을 때 TTL을 갱신한다 (ROOM_VERSION_TTL 참고).
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RoomListCache {
+
+  public static final String CACHE_NAME = "rooms";
+  private static final String ROOM_VERSION_KEY = "rooms:version:%d";
+  // version key TTL은 rooms cache TTL보다 길어야 한다. 캐싱된 목록이 살아 있는 동안 그 목록이 가진
+  // version key가 만료되면, 다음 INCR이 1부터 다시 세어 목록이 이미 가진 값으로 돌아올 수 있고
+  // 그러면 바뀐 목록이 hit로 남는다. 목록 저장 직전에 읽은 key의 TTL을 갱신하므로, 목록이 만료될 때까지
+  // key가 남아 있다. 2배는 그 사이 DB 조회 시간에 대한 여유다.
+  private static final Duration ROOM_VERSION_TTL = RedisConfig.CACHE_TTL.multipliedBy(2);
+  private static final RedisScript<Long> INCREMENT_VERSION_SCRIPT =
+      RedisScript.of(new ClassPathResource("redis/rooms/increment-version.lua"), Long.class);
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private static final RedisScript<List<Long>> READ_VERSIONS_SCRIPT =
+      (RedisScript)
+          RedisScript.of(new ClassPathResource("redis/rooms/read-versions.lua"), List.class);
+
+  // 한 script에 넘기는 최대 key 수 (script 실행 중 Redis가 다른 명령을 처리하지 못하는 시간을 제한)
+  private static final int VERSION_LOOKUP_CHUNK_SIZE = 1000;
+  // 조회 전에 version을 읽지 못한 room (그 사이 참여한 room): 다음 조회에서 항상 다시 조회한다
+  private static final long UNKNOWN_VERSION = -1L;
+
+  private final CacheManager cacheManager;
+  private final StringRedisTemplate redisTemplate;
+
+  @Qualifier("roomsCacheEvictionsCounter")
+  private final Counter roomsCacheEvictionsCounter;
+
+  public List<ChatRoomListResponse> get(
+      Long userId,
+      Supplier<List<Long>> roomIdsLoader,
+      Supplier<List<ChatRoomListResponse>> loader) {
+    Cache cache = cacheManager.getCache(CACHE_NAME);
+    if (cache == null) {
+      return loader.get();
+    }
+
+    // hit 확인은 MGET만 한다. 다시 캐싱할 때는 조회 전 version을 script로 읽으면서 key TTL을 갱신한다
+    List<Long> roomIds;
+    Cache.ValueWrapper cached = cache.get(userId);
+    if (cached != null && cached.get() instanceof RoomListCacheEntry entry) {
+      roomIds = entry.getRooms().stream().map(ChatRoomListResponse::getId).toList();
+      if (entry.getRoomVersions().equals(currentVersions(roomIds))) {
+        return entry.getRooms();
+      }
+    } else {
+      roomIds = roomIdsLoader.get();
+    }
+    Map<Long, Long> versionsBeforeLoad = versionsByRoom(roomIds, readVersionsForCaching(roomIds));
+
+    List<ChatRoomListResponse> rooms = new ArrayList<>(loader.get());
+    List<Long> roomVersions = new ArrayList<>(rooms.size());
+    for (ChatRoomListResponse room : rooms) {
+      roomVersions.add(versionsBeforeLoad.getOrDefault(room.getId(), UNKNOWN_VERSION));
+    }
+    cache.put(userId, new RoomListCacheEntry(rooms, roomVersions));
+    return rooms;
+  }
+
+  // room 멤버 전원의 목록을 논리적으로 무효화 (멤버 수와 무관하게 Redis 명령 1회)
+  // 커밋 전에 올리면 그 사이 다른 요청이 커밋 전 목록을 새 version으로 캐싱할 수 있어 커밋 후에 올린다
+  // 이미 커밋된 뒤라 INCR 실패는 되돌릴 수 없다. 목록은 cache TTL 안에서만 늦게 반영된다
+  public void invalidateRoom(Long roomId) {
+    TransactionCallbacks.afterCommit(
+        () -> {
+          try {
+            redisTemplate.execute(
+                INCREMENT_VERSION_SCRIPT,
+                List.of(String.format(ROOM_VERSION_KEY, roomId)),
+                ttlMillis());
+            roomsCacheEvictionsCounter.increment();
+          } catch (Exception e) {
+            log.warn("room version 증가 실패: roomId={}", roomId, e);
+          }
+        });
+  }
+
+  private List<Long> currentVersions(List<Long> roomIds) {
+    if (roomIds.isEmpty()) {
+      return new ArrayList<>();
+    }
+    List<String> keys =
+        roomIds.stream().map(roomId -> String.format(ROOM_VERSION_KEY, roomId)).toList();
+    List<String> values = redisTemplate.opsForValue().multiGet(keys);
+    List<Long> versions = new ArrayList<>(keys.size());
+    for (int i = 0; i < keys.size(); i++) {
+      String value = values == null ? null : values.get(i);
+      versions.add(value == null ? 0L : Long.parseLong(value));
+    }
+    return versions;
+  }
+
+  // VERSION_LOOKUP_CHUNK_SIZE개씩 script 한 번으로 version을 읽고 있는 key의 TTL을 갱신한다
+  private List<Long> readVersionsForCaching(List<Long> roomIds) {
+    List<Long> versions = new ArrayList<>(roomIds.size());
+    for (int from = 0; from < roomIds.size(); from += VERSION_LOOKUP_CHUNK_SIZE) {
+      List<String> keys =
+          roomIds.subList(from, Math.min(from + VERSION_LOOKUP_CHUNK_SIZE, roomIds.size())).stream()
+              .map(roomId -> String.format(ROOM_VERSION_KEY, roomId))
+              .toList();
+      List<Long> chunk = redisTemplate.execute(READ_VERSIONS_SCRIPT, keys, ttlMillis());
+      for (int i = 0; i < keys.size(); i++) {
+        versions.add(chunk == null ? 0L : chunk.get(i));
+      }
+    }
+    return versions;
+  }
+
+  private String ttlMillis() {
+    return String.valueOf(ROOM_VERSION_TTL.toMillis());
+  }
+
+  private Map<Long, Long> versionsByRoom(List<Long> roomIds, List<Long> versions) {
+    Map<Long, Long> versionsByRoom = new HashMap<>();
+    for (int i = 0; i < roomIds.size(); i++) {
+      versionsByRoom.put(roomIds.get(i), versions.get(i));
+    }
+    return versionsByRoom;
+  }
+}
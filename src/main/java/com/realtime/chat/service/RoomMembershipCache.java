@@ -0,0 +1,116 @@
+package com.realtime.chat.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.realtime.chat.common.BoundedFifoMaps;
+import com.realtime.chat.config.RedisConfig;
+import com.realtime.chat.repository.ChatRoomMemberRepository;
+import io.micrometer.core.instrument.Counter;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+// SEND/SUBSCRIBE 권한 검사용 노드 로컬 캐시: user별 참여 room id를 정렬된 long[]로 기억한다.
+// connect 때 미리 채우고, 멤버십이 바뀌면 Redis 채널로 모든 노드의 해당 user 항목을 지운다.
+// 캐시에 없는 room은 DB로 한 번 더 확인한다. 무효화가 늦거나 유실돼도 새 멤버가 거부되지 않고 다시 적재된다.
+// 메모리 상한: max-users × max-rooms-per-user × 8 bytes.
+// room이 max-rooms-per-user보다 많은 user는 캐시하지 않고 매번 DB로 확인한다.
+@Slf4j
+@Component
+public class RoomMembershipCache {
+
+  private static final TypeReference<List<Long>> USER_IDS_TYPE = new TypeReference<>() {};
+
+  private final ChatRoomMemberRepository chatRoomMemberRepository;
+  private final StringRedisTemplate redisTemplate;
+  private final ObjectMapper objectMapper;
+  private final Counter membershipCacheHitCounter;
+  private final Counter membershipCacheMissCounter;
+  private final int maxRoomsPerUser;
+  private final Map<Long, long[]> roomIdsByUser;
+
+  public RoomMembershipCache(
+      ChatRoomMemberRepository chatRoomMemberRepository,
+      StringRedisTemplate redisTemplate,
+      ObjectMapper objectMapper,
+      @Qualifier("membershipCacheHitCounter") Counter membershipCacheHitCounter,
+      @Qualifier("membershipCacheMissCounter") Counter membershipCacheMissCounter,
+      @Value("${chat.membership-cache.max-users:100000}") int maxUsers,
+      @Value("${chat.membership-cache.max-rooms-per-user:1000}") int maxRoomsPerUser) {
+    this.chatRoomMemberRepository = chatRoomMemberRepository;
+    this.redisTemplate = redisTemplate;
+    this.objectMapper = objectMapper;
+    this.membershipCacheHitCounter = membershipCacheHitCounter;
+    this.membershipCacheMissCounter = membershipCacheMissCounter;
+    this.maxRoomsPerUser = maxRoomsPerUser;
+    this.roomIdsByUser = BoundedFifoMaps.synchronizedMap(maxUsers);
+  }
+
+  public boolean isMember(Long roomId, Long userId) {
+    long[] roomIds = roomIdsByUser.get(userId);
+    if (roomIds != null && contains(roomIds, roomId)) {
+      membershipCacheHitCounter.increment();
+      return true;
+    }
+    membershipCacheMissCounter.increment();
+    if (roomIds == null) {
+      return contains(load(userId), roomId);
+    }
+    // 캐시 이후 참여했을 수 있으므로 DB로 확인하고, 맞으면 다시 적재한다
+    if (!chatRoomMemberRepository.existsByChatRoomIdAndUserId(roomId, userId)) {
+      return false;
+    }
+    load(userId);
+    return true;
+  }
+
+  // WebSocket connect: 첫 SEND/SUBSCRIBE 전에 참여 room을 한 번에 적재
+  public void preload(Long userId) {
+    load(userId);
+  }
+
+  // 멤버십 변경: 로컬 항목을 지우고 다른 노드에도 알린다 (발행 실패 시 다른 노드는 DB 재확인 경로로 보정)
+  public void invalidate(Collection<Long> userIds) {
+    evict(userIds);
+    try {
+      redisTemplate.convertAndSend(
+          RedisConfig.MEMBERSHIP_INVALIDATION_CHANNEL, objectMapper.writeValueAsString(userIds));
+    } catch (Exception e) {
+      log.warn("멤버십 캐시 무효화 발행 실패: userIds={}", userIds, e);
+    }
+  }
+
+  // Redis 구독 멤버십 무효화 수신 (자기 노드가 보낸 것도 포함, 중복 evict는 무해)
+  public void onInvalidationMessage(String message, String channel) {
+    try {
+      evict(objectMapper.readValue(message, USER_IDS_TYPE));
+    } catch (Exception e) {
+      log.error("멤버십 캐시 무효화 수신 실패: channel={}", channel, e);
+    }
+  }
+
+  private void evict(Collection<Long> userIds) {
+    for (Long userId : userIds) {
+      roomIdsByUser.remove(userId);
+    }
+  }
+
+  private long[] load(Long userId) {
+    List<Long> ids = chatRoomMemberRepository.findRoomIdsByUserId(userId);
+    long[] roomIds = ids.stream().mapToLong(Long::longValue).sorted().toArray();
+    if (roomIds.length <= maxRoomsPerUser) {
+      roomIdsByUser.put(userId, roomIds);
+    }
+    return roomIds;
+  }
+
+  private static boolean contains(long[] roomIds, Long roomId) {
+    return Arrays.binarySearch(roomIds, roomId) >= 0;
+  }
+}
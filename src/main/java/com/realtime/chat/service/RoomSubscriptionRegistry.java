@@ -0,0 +1,255 @@
+package com.realtime.chat.service;
+
+import com.realtime.chat.config.RedisConfig;
+import io.micrometer.core.instrument.Counter;
+import jakarta.annotation.PreDestroy;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+// 노드 로컬 STOMP 구독이 있는 room의 Redis 채널만 구독한다 (chat:room:* pattern 구독 대체).
+// room별 구독 수를 세고, 마지막 구독이 빠져도 unsubscribe-delay 동안은 채널을 유지해 재구독 churn을 줄인다.
+// chat.broadcast.mode=kafka면 Redis 채널은 구독하지 않고 로컬 구독 수만 센다 (LocalBroadcastConsumer가 사용).
+// 구독 수/채널 필요 여부는 lock 안에서 바꾸고, Redis SUBSCRIBE/UNSUBSCRIBE(listener container 호출)는
+// lock 밖의 단일 scheduler thread에서 순서대로 한다. STOMP inbound thread가 Redis 왕복을 기다리지 않는다.
+// room presence topic(/topic/room.{roomId}.presence) 구독도 같은 room의 로컬 구독으로 센다.
+// PresenceFanoutService가 로컬 구독자가 있는 room에만 presence를 보내므로, presence만 구독한 client도 빠지지 않는다.
+@Slf4j
+@Component
+public class RoomSubscriptionRegistry implements MessageListener {
+
+  private static final Pattern ROOM_TOPIC_PATTERN =
+      Pattern.compile("^/topic/room\\.(\\d+)(\\.presence)?$");
+
+  private final RedisMessageListenerContainer listenerContainer;
+  private final RedisPubSubService redisPubSubService;
+  private final Counter messagesDroppedNoSubscribersCounter;
+  private final Duration unsubscribeDelay;
+  private final ScheduledExecutorService scheduler;
+  private final boolean redisChannelsEnabled;
+
+  // sessionId → (subscriptionId → roomId)
+  private final Map<String, Map<String, Long>> sessionSubscriptions = new HashMap<>();
+  // roomId → 로컬 STOMP 구독 수 (0이 되면 제거)
+  private final Map<Long, Integer> localSubscriberCounts = new ConcurrentHashMap<>();
+  // Redis 채널이 필요한 room (unsubscribe 대기 중 포함)과 예약된 unsubscribe
+  private final Set<Long> wantedChannels = new HashSet<>();
+  private final Map<Long, ScheduledFuture<?>> pendingUnsubscribes = new HashMap<>();
+  // 실제 Redis 채널을 구독 중인 room. scheduler thread에서만 읽고 쓴다
+  private final Map<Long, ChannelTopic> subscribedChannels = new HashMap<>();
+
+  @Autowired
+  public RoomSubscriptionRegistry(
+      RedisMessageListenerContainer listenerContainer,
+      RedisPubSubService redisPubSubService,
+      @Qualifier("messagesDroppedNoSubscribersCounter")
+          Counter messagesDroppedNoSubscribersCounter,
+      @Value("${chat.redis.room-unsubscribe-delay:30s}") Duration unsubscribeDelay,
+      @Value("${chat.broadcast.mode:redis}") String broadcastMode) {
+    this(
+        listenerContainer,
+        redisPubSubService,
+        messagesDroppedNoSubscribersCounter,
+        unsubscribeDelay,
+        Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, "room-subscription");
+              thread.setDaemon(true);
+              return thread;
+            }),
+        !"kafka".equalsIgnoreCase(broadcastMode));
+  }
+
+  public RoomSubscriptionRegistry(
+      RedisMessageListenerContainer listenerContainer,
+      RedisPubSubService redisPubSubService,
+      Counter messagesDroppedNoSubscribersCounter,
+      Duration unsubscribeDelay,
+      ScheduledExecutorService scheduler,
+      boolean redisChannelsEnabled) {
+    this.listenerContainer = listenerContainer;
+    this.redisPubSubService = redisPubSubService;
+    this.messagesDroppedNoSubscribersCounter = messagesDroppedNoSubscribersCounter;
+    this.unsubscribeDelay = unsubscribeDelay;
+    this.scheduler = scheduler;
+    this.redisChannelsEnabled = redisChannelsEnabled;
+  }
+
+  // STOMP SUBSCRIBE: room topic이면 구독 수를 올리고, 처음이면 Redis 채널 구독을 예약
+  public void subscribe(String sessionId, String subscriptionId, String destination) {
+    Long roomId = extractRoomId(destination);
+    if (roomId == null || sessionId == null || subscriptionId == null) {
+      return;
+    }
+    boolean channelAdded;
+    synchronized (this) {
+      Long previous =
+          sessionSubscriptions
+              .computeIfAbsent(sessionId, ignored -> new HashMap<>())
+              .put(subscriptionId, roomId);
+      if (previous != null) {
+        release(previous);
+      }
+      localSubscriberCounts.merge(roomId, 1, Integer::sum);
+
+      ScheduledFuture<?> pending = pendingUnsubscribes.remove(roomId);
+      if (pending != null) {
+        pending.cancel(false);
+      }
+      channelAdded = redisChannelsEnabled && wantedChannels.add(roomId);
+    }
+    if (channelAdded) {
+      scheduler.execute(() -> syncChannel(roomId));
+    }
+  }
+
+  // STOMP UNSUBSCRIBE
+  public synchronized void unsubscribe(String sessionId, String subscriptionId) {
+    Map<String, Long> subscriptions = sessionSubscriptions.get(sessionId);
+    if (subscriptions == null) {
+      return;
+    }
+    Long roomId = subscriptions.remove(subscriptionId);
+    if (subscriptions.isEmpty()) {
+      sessionSubscriptions.remove(sessionId);
+    }
+    if (roomId != null) {
+      release(roomId);
+    }
+  }
+
+  // WebSocket DISCONNECT: 해당 session의 구독을 모두 해제
+  public synchronized void removeSession(String sessionId) {
+    Map<String, Long> subscriptions = sessionSubscriptions.remove(sessionId);
+    if (subscriptions != null) {
+      subscriptions.values().forEach(this::release);
+    }
+  }
+
+  public boolean hasLocalSubscribers(Long roomId) {
+    return localSubscriberCounts.containsKey(roomId);
+  }
+
+  // 로컬 구독자가 있는 room id snapshot
+  public Set<Long> localRoomIds() {
+    return Set.copyOf(localSubscriberCounts.keySet());
+  }
+
+  // room 채널 수신: unsubscribe 대기 중이라 로컬 구독자가 없는 room은 payload를 읽지 않고 버린다
+  @Override
+  public void onMessage(Message message, byte[] pattern) {
+    String channel = new String(message.getChannel(), StandardCharsets.UTF_8);
+    Long roomId = parseRoomId(channel);
+    if (roomId != null && !hasLocalSubscribers(roomId)) {
+      messagesDroppedNoSubscribersCounter.increment();
+      return;
+    }
+    redisPubSubService.onMessage(message.getBody(), channel);
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    scheduler.shutdownNow();
+  }
+
+  private void release(Long roomId) {
+    Integer remaining = localSubscriberCounts.computeIfPresent(roomId, (id, count) -> count - 1);
+    if (remaining == null || remaining > 0) {
+      return;
+    }
+    localSubscriberCounts.remove(roomId);
+    if (!wantedChannels.contains(roomId)) {
+      return;
+    }
+    pendingUnsubscribes.put(
+        roomId,
+        scheduler.schedule(
+            () -> unsubscribeIfIdle(roomId), unsubscribeDelay.toMillis(), TimeUnit.MILLISECONDS));
+  }
+
+  // scheduler thread에서 실행
+  private void unsubscribeIfIdle(Long roomId) {
+    synchronized (this) {
+      pendingUnsubscribes.remove(roomId);
+      if (hasLocalSubscribers(roomId) || !wantedChannels.remove(roomId)) {
+        return;
+      }
+    }
+    syncChannel(roomId);
+  }
+
+  // scheduler thread에서만 실행: 그 시점의 필요 여부에 맞춰 Redis 채널을 구독/해제한다.
+  // 호출이 한 thread에서 순서대로 일어나므로 구독과 해제가 뒤바뀌지 않는다
+  private void syncChannel(Long roomId) {
+    boolean wanted;
+    synchronized (this) {
+      wanted = wantedChannels.contains(roomId);
+    }
+    ChannelTopic current = subscribedChannels.get(roomId);
+    try {
+      if (wanted && current == null) {
+        ChannelTopic topic = new ChannelTopic(RedisConfig.CHAT_ROOM_CHANNEL_PREFIX + roomId);
+        listenerContainer.addMessageListener(this, topic);
+        subscribedChannels.put(roomId, topic);
+        log.debug("room 채널 구독: roomId={}", roomId);
+      } else if (!wanted && current != null) {
+        listenerContainer.removeMessageListener(this, current);
+        subscribedChannels.remove(roomId);
+        log.debug("room 채널 구독 해제: roomId={}", roomId);
+      }
+    } catch (Exception e) {
+      // 구독 실패면 필요 표시를 지워 다음 SUBSCRIBE가 다시 시도하게 한다
+      if (wanted) {
+        synchronized (this) {
+          wantedChannels.remove(roomId);
+        }
+      }
+      log.warn("room 채널 구독 변경 실패: roomId={}, subscribe={}", roomId, wanted, e);
+    }
+  }
+
+  private Long extractRoomId(String destination) {
+    if (destination == null) {
+      return null;
+    }
+    Matcher matcher = ROOM_TOPIC_PATTERN.matcher(destination);
+    if (!matcher.matches()) {
+      return null;
+    }
+    try {
+      return Long.parseLong(matcher.group(1));
+    } catch (NumberFormatException e) {
+      return null;
+    }
+  }
+
+  private Long parseRoomId(String channel) {
+    if (!channel.startsWith(RedisConfig.CHAT_ROOM_CHANNEL_PREFIX)) {
+      return null;
+    }
+    try {
+      return Long.parseLong(channel.substring(RedisConfig.CHAT_ROOM_CHANNEL_PREFIX.length()));
+    } catch (NumberFormatException e) {
+      return null;
+    }
+  }
+}
@@ -0,0 +1,72 @@
+package com.realtime.chat.service;
+
+import com.realtime.chat.common.BoundedFifoMaps;
+import com.realtime.chat.common.BusinessException;
+import com.realtime.chat.config.RedisConfig;
+import com.realtime.chat.domain.User;
+import com.realtime.chat.repository.UserRepository;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+// SEND hot path용 노드 로컬 캐시: ChatMessageEvent에 넣을 발신자 nickname을 userId별로 기억한다.
+// STOMP CONNECT 때 채우고, 캐시에 없을 때만 DB를 조회한다.
+// nickname이 바뀌면 invalidate로 Redis 채널에 알려 모든 노드의 해당 user 항목을 지운다.
+@Slf4j
+@Component
+public class SenderProfileCache {
+
+  private final UserRepository userRepository;
+  private final StringRedisTemplate redisTemplate;
+  private final Map<Long, String> nicknames;
+
+  public SenderProfileCache(
+      UserRepository userRepository,
+      StringRedisTemplate redisTemplate,
+      @Value("${chat.sender-profile-cache.max-entries:100000}") int maxEntries) {
+    this.userRepository = userRepository;
+    this.redisTemplate = redisTemplate;
+    this.nicknames = BoundedFifoMaps.synchronizedMap(maxEntries);
+  }
+
+  public String nickname(Long userId) {
+    String nickname = nicknames.get(userId);
+    if (nickname != null) {
+      return nickname;
+    }
+    User user =
+        userRepository
+            .findById(userId)
+            .orElseThrow(() -> new BusinessException(HttpStatus.NOT_FOUND, "사용자를 찾을 수 없습니다."));
+    nicknames.put(userId, user.getNickname());
+    return user.getNickname();
+  }
+
+  // STOMP CONNECT: 첫 SEND 전에 nickname을 적재한다
+  public void preload(Long userId) {
+    nickname(userId);
+  }
+
+  // nickname 변경: 로컬 항목을 지우고 다른 노드에도 알린다
+  public void invalidate(Long userId) {
+    nicknames.remove(userId);
+    try {
+      redisTemplate.convertAndSend(
+          RedisConfig.SENDER_PROFILE_INVALIDATION_CHANNEL, String.valueOf(userId));
+    } catch (Exception e) {
+      log.warn("발신자 프로필 캐시 무효화 발행 실패: userId={}", userId, e);
+    }
+  }
+
+  // Redis 구독 프로필 무효화 수신 (payload는 userId)
+  public void onInvalidationMessage(String message, String channel) {
+    try {
+      nicknames.remove(Long.parseLong(message.trim()));
+    } catch (Exception e) {
+      log.error("발신자 프로필 캐시 무효화 수신 실패: channel={}", channel, e);
+    }
+  }
+}
@@ -0,0 +1,9 @@
+-- IDENTITY → SEQUENCE 전환: Hibernate가 insert 전에 id를 알 수 있어야 JDBC batch insert가 동작한다.
+
+-- chat_rooms / chat_room_members: pooled optimizer(allocationSize = 50)와 sequence 증가폭을 맞춘다.
+-- 기존 row id는 현재 sequence 값 이하이므로 다음 블록(현재값 + 1 ~ 현재값 + 50)과 겹치지 않는다.
+ALTER SEQUENCE chat_rooms_id_seq INCREMENT BY 50;
+ALTER SEQUENCE chat_room_members_id_seq INCREMENT BY 50;
+
+-- messages_id_seq는 INCREMENT BY 1을 유지한다.
+-- id가 room 커서 기준이라, 노드별로 미리 받은 블록을 쓰면 partition 재할당 뒤 같은 room에서 id가 역전될 수 있다.
@@ -0,0 +1,44 @@
+-- unreadCount를 멤버 row 갱신 대신 room 메시지 sequence 차이로 계산한다.
+--   unreadCount = chat_rooms.last_seq - chat_room_members.last_read_seq - chat_room_members.sent_since_read
+-- 메시지 저장은 chat_rooms 한 row(last_seq)와 발신자 멤버 한 row(sent_since_read)만 갱신한다.
+
+ALTER TABLE chat_rooms ADD COLUMN last_seq BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE messages ADD COLUMN room_seq BIGINT;
+
+ALTER TABLE chat_room_members
+    ADD COLUMN last_read_seq   BIGINT NOT NULL DEFAULT 0,
+    ADD COLUMN sent_since_read INT    NOT NULL DEFAULT 0,
+    ADD COLUMN last_sent_seq   BIGINT NOT NULL DEFAULT 0;
+
+-- 기존 메시지: room 안에서 id 순서대로 sequence 부여 (id는 room 단위로 저장 순서대로 증가한다)
+UPDATE messages m
+SET room_seq = s.seq
+FROM (SELECT id, ROW_NUMBER() OVER (PARTITION BY room_id ORDER BY id) AS seq FROM messages) s
+WHERE m.id = s.id;
+
+UPDATE chat_rooms r
+SET last_seq = s.max_seq
+FROM (SELECT room_id, MAX(room_seq) AS max_seq FROM messages GROUP BY room_id) s
+WHERE r.id = s.room_id;
+
+UPDATE chat_room_members m
+SET last_sent_seq = s.max_seq
+FROM (SELECT room_id, sender_id, MAX(room_seq) AS max_seq FROM messages GROUP BY room_id, sender_id) s
+WHERE m.room_id = s.room_id AND m.user_id = s.sender_id;
+
+-- 기존 unread_count가 그대로 나오도록 last_read_seq를 역산한다 (sent_since_read = 0)
+UPDATE chat_room_members m
+SET last_read_seq = GREATEST(r.last_seq - m.unread_count, 0)
+FROM chat_rooms r
+WHERE r.id = m.room_id;
+
+-- unread_count는 이 버전부터 읽지도 쓰지 않지만 rolling deploy 동안 남겨 둔다.
+-- 이전 빌드는 이 컬럼을 매핑하므로(ddl-auto: validate, primitive int) 여기서 지우면 migration 직후
+-- 이전 빌드 instance의 멤버 조회가 모두 실패한다. NOT NULL DEFAULT 0을 유지해 새 빌드가 넣는 row도
+-- 이전 빌드가 읽을 수 있게 한다. 컬럼 삭제는 이전 빌드가 모두 내려간 뒤의 다음 migration에서 한다.
+
+-- 읽음 이후 본인 메시지 수 계산용.
+-- unique로 두지 않는다: 제약 없는 ON CONFLICT DO NOTHING이 sequence 충돌을 중복 메시지로 삼키지 않게 한다.
+CREATE INDEX IF NOT EXISTS idx_messages_room_seq
+    ON messages(room_id, room_seq);
@@ -0,0 +1,16 @@
+-- session 연결: 만료 session 정리 → session 만료 시각 등록 → key TTL 갱신
+-- KEYS[1]: user:presence:{userId}:session-expiry (zset, member=sessionId, score=만료 epoch ms)
+-- ARGV[1]: sessionId, ARGV[2]: presence TTL(ms)
+-- return 1: offline → online 전환, 0: 이미 online
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+local ttl = tonumber(ARGV[2])
+
+redis.call('ZREMRANGEBYSCORE', KEYS[1], '-inf', now)
+local wasOnline = redis.call('ZCARD', KEYS[1]) > 0
+redis.call('ZADD', KEYS[1], now + ttl, ARGV[1])
+redis.call('PEXPIRE', KEYS[1], ttl)
+if wasOnline then
+  return 0
+end
+return 1
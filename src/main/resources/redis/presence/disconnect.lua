@@ -0,0 +1,14 @@
+-- session 해제: session 제거 → 만료 session 정리 → 남은 session이 없으면 key 삭제
+-- KEYS[1]: user:presence:{userId}:session-expiry
+-- ARGV[1]: sessionId
+-- return 1: 활성 session이 남지 않음 (online → offline 전환), 0: 다른 session으로 online 유지
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+
+redis.call('ZREM', KEYS[1], ARGV[1])
+redis.call('ZREMRANGEBYSCORE', KEYS[1], '-inf', now)
+if redis.call('ZCARD', KEYS[1]) == 0 then
+  redis.call('DEL', KEYS[1])
+  return 1
+end
+return 0
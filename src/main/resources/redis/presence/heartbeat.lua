@@ -0,0 +1,15 @@
+-- heartbeat: 아직 만료되지 않은 session만 만료 시각과 key TTL을 갱신한다
+-- KEYS[1]: user:presence:{userId}:session-expiry
+-- ARGV[1]: sessionId, ARGV[2]: presence TTL(ms)
+-- return 1: 갱신, 0: 등록되지 않았거나 이미 만료된 session
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+local ttl = tonumber(ARGV[2])
+
+local expiresAt = redis.call('ZSCORE', KEYS[1], ARGV[1])
+if not expiresAt or tonumber(expiresAt) <= now then
+  return 0
+end
+redis.call('ZADD', KEYS[1], now + ttl, ARGV[1])
+redis.call('PEXPIRE', KEYS[1], ttl)
+return 1
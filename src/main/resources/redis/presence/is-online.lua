@@ -0,0 +1,6 @@
+-- online 여부: 만료 시각이 현재보다 뒤인 session 수 (읽기 전용)
+-- KEYS[1]: user:presence:{userId}:session-expiry
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+
+return redis.call('ZCOUNT', KEYS[1], '(' .. now, '+inf')
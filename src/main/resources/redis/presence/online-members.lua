@@ -0,0 +1,14 @@
+-- 여러 user의 online 여부를 한 번에 확인한다 (읽기 전용)
+-- KEYS: 각 user의 user:presence:{userId}:session-expiry
+-- return: 활성 session이 있는 KEYS의 index 목록 (1부터 시작)
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+local min = '(' .. now
+
+local online = {}
+for index, key in ipairs(KEYS) do
+  if redis.call('ZCOUNT', key, min, '+inf') > 0 then
+    online[#online + 1] = index
+  end
+end
+return online
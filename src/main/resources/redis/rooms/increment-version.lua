@@ -0,0 +1,7 @@
+-- room version을 올리고 key TTL을 갱신한다
+-- KEYS[1]: rooms:version:{roomId}
+-- ARGV[1]: version key TTL (ms)
+-- return: 올린 뒤의 version
+local version = redis.call('INCR', KEYS[1])
+redis.call('PEXPIRE', KEYS[1], ARGV[1])
+return version
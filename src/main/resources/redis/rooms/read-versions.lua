@@ -0,0 +1,15 @@
+-- 목록을 다시 캐싱하기 전에 room version을 읽고, 있는 key는 TTL을 갱신한다
+-- KEYS: 각 room의 rooms:version:{roomId}
+-- ARGV[1]: version key TTL (ms)
+-- return: KEYS 순서의 version (key가 없으면 0)
+local versions = {}
+for index, key in ipairs(KEYS) do
+  local version = redis.call('GET', key)
+  if version then
+    redis.call('PEXPIRE', key, ARGV[1])
+    versions[index] = tonumber(version)
+  else
+    versions[index] = 0
+  end
+end
+return versions
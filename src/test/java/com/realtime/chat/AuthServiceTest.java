@@ -14,6 +14,7 @@ import com.realtime.chat.dto.LoginRequest;
 import com.realtime.chat.dto.SignupRequest;
 import com.realtime.chat.repository.UserRepository;
 import com.realtime.chat.service.AuthService;
+import com.realtime.chat.service.KnownEntityIdCache;
 import java.util.Optional;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -35,6 +36,8 @@ class AuthServiceTest {
 
   @Mock private JwtTokenProvider jwtTokenProvider;
 
+  @Mock private KnownEntityIdCache knownEntityIdCache;
+
   @Test
   @DisplayName("회원가입 성공")
   void signupSuccess() {
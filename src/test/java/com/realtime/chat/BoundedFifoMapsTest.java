@@ -0,0 +1,36 @@
+package com.realtime.chat;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.realtime.chat.common.BoundedFifoMaps;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class BoundedFifoMapsTest {
+
+  @Test
+  @DisplayName("최대 개수를 넘으면 조회 여부와 무관하게 가장 먼저 넣은 항목부터 버린다")
+  void evictsOldestInsertedEntryEvenIfRead() {
+    Map<Long, String> map = BoundedFifoMaps.synchronizedMap(2);
+    map.put(1L, "a");
+    map.put(2L, "b");
+    map.get(1L);
+
+    map.put(3L, "c");
+
+    assertThat(map).containsOnlyKeys(2L, 3L);
+  }
+
+  @Test
+  @DisplayName("set도 같은 FIFO 제한을 따른다")
+  void setEvictsOldestInsertedElement() {
+    Set<Long> set = BoundedFifoMaps.synchronizedSet(2);
+    set.add(1L);
+    set.add(2L);
+    set.add(3L);
+
+    assertThat(set).containsExactly(2L, 3L);
+  }
+}
@@ -2,6 +2,7 @@ package com.realtime.chat;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.mock;
@@ -10,18 +11,17 @@ import static org.mockito.Mockito.verify;
 
 import com.realtime.chat.controller.ChatMessageController;
 import com.realtime.chat.domain.MessageType;
-import com.realtime.chat.domain.User;
 import com.realtime.chat.dto.MessagePublishAckResponse;
 import com.realtime.chat.dto.MessagePublishErrorResponse;
 import com.realtime.chat.dto.MessagePublishStatus;
 import com.realtime.chat.dto.SendMessageRequest;
 import com.realtime.chat.event.ChatMessageEvent;
 import com.realtime.chat.producer.ChatMessageProducer;
-import com.realtime.chat.repository.ChatRoomMemberRepository;
-import com.realtime.chat.repository.UserRepository;
+import com.realtime.chat.service.MessageHopTracer;
+import com.realtime.chat.service.RoomMembershipCache;
+import com.realtime.chat.service.SenderProfileCache;
 import io.micrometer.core.instrument.Counter;
 import java.security.Principal;
-import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import org.junit.jupiter.api.DisplayName;
@@ -39,29 +39,33 @@ class ChatMessageControllerTest {
 
   @Mock private ChatMessageProducer chatMessageProducer;
 
-  @Mock private ChatRoomMemberRepository chatRoomMemberRepository;
+  @Mock private RoomMembershipCache roomMembershipCache;
 
-  @Mock private UserRepository userRepository;
+  @Mock private SenderProfileCache senderProfileCache;
 
   @Mock private Counter messagesSentCounter;
 
   @Mock private SimpMessagingTemplate messagingTemplate;
 
+  @Mock private MessageHopTracer messageHopTracer;
+
   @Test
-  @DisplayName("Kafka publish 성공 시 sender에게 ACCEPTED ACK를 보낸다")
+  @DisplayName("Kafka publish 성공 시 sender에게 ACCEPTED ACK를 보내고 WebSocket 수신 → 발행 ack hop을 기록한다")
   void sendAckWhenKafkaPublishSucceeds() {
     UUID clientMessageId = UUID.randomUUID();
     ChatMessageController controller = controller();
     SendMessageRequest request = sendRequest(20L, "안녕하세요", clientMessageId);
     ArgumentCaptor<ChatMessageEvent> eventCaptor = ArgumentCaptor.forClass(ChatMessageEvent.class);
     givenMemberAndSender();
-    given(chatMessageProducer.sendMessage(any(ChatMessageEvent.class)))
+    given(messageHopTracer.now()).willReturn(1_000L);
+    given(chatMessageProducer.sendMessage(any(ChatMessageEvent.class), anyLong()))
         .willReturn(CompletableFuture.completedFuture(sendResult()));
 
     controller.sendMessage(request, principal("10"));
 
-    verify(chatMessageProducer).sendMessage(eventCaptor.capture());
+    verify(chatMessageProducer).sendMessage(eventCaptor.capture(), eq(1_000L));
     assertThat(eventCaptor.getValue().getClientMessageId()).isEqualTo(clientMessageId);
+    verify(messageHopTracer).recordProduceAck(1_000L);
 
     ArgumentCaptor<MessagePublishAckResponse> captor =
         ArgumentCaptor.forClass(MessagePublishAckResponse.class);
@@ -84,7 +88,8 @@ class ChatMessageControllerTest {
     CompletableFuture<SendResult<String, Object>> failedFuture = new CompletableFuture<>();
     failedFuture.completeExceptionally(new RuntimeException("kafka unavailable"));
     givenMemberAndSender();
-    given(chatMessageProducer.sendMessage(any(ChatMessageEvent.class))).willReturn(failedFuture);
+    given(chatMessageProducer.sendMessage(any(ChatMessageEvent.class), anyLong()))
+        .willReturn(failedFuture);
 
     controller.sendMessage(request, principal("10"));
 
@@ -97,6 +102,7 @@ class ChatMessageControllerTest {
     assertThat(response.getRoomId()).isEqualTo(20L);
     assertThat(response.getStatus()).isEqualTo(MessagePublishStatus.FAILED);
     assertThat(response.getReason()).contains("kafka unavailable");
+    verify(messageHopTracer, never()).recordProduceAck(anyLong());
     verify(messagesSentCounter, never()).increment();
   }
 
@@ -107,12 +113,12 @@ class ChatMessageControllerTest {
     SendMessageRequest request = sendRequest(20L, "안녕하세요", null);
     ArgumentCaptor<ChatMessageEvent> eventCaptor = ArgumentCaptor.forClass(ChatMessageEvent.class);
     givenMemberAndSender();
-    given(chatMessageProducer.sendMessage(any(ChatMessageEvent.class)))
+    given(chatMessageProducer.sendMessage(any(ChatMessageEvent.class), anyLong()))
         .willReturn(CompletableFuture.completedFuture(sendResult()));
 
     controller.sendMessage(request, principal("10"));
 
-    verify(chatMessageProducer).sendMessage(eventCaptor.capture());
+    verify(chatMessageProducer).sendMessage(eventCaptor.capture(), anyLong());
     ArgumentCaptor<MessagePublishAckResponse> captor =
         ArgumentCaptor.forClass(MessagePublishAckResponse.class);
     verify(messagingTemplate)
@@ -125,17 +131,16 @@ class ChatMessageControllerTest {
   private ChatMessageController controller() {
     return new ChatMessageController(
         chatMessageProducer,
-        chatRoomMemberRepository,
-        userRepository,
+        roomMembershipCache,
+        senderProfileCache,
         messagesSentCounter,
-        messagingTemplate);
+        messagingTemplate,
+        messageHopTracer);
   }
 
   private void givenMemberAndSender() {
-    User sender = new User("user@test.com", "encoded", "유저");
-    ReflectionTestUtils.setField(sender, "id", 10L);
-    given(chatRoomMemberRepository.existsByChatRoomIdAndUserId(20L, 10L)).willReturn(true);
-    given(userRepository.findById(10L)).willReturn(Optional.of(sender));
+    given(roomMembershipCache.isMember(20L, 10L)).willReturn(true);
+    given(senderProfileCache.nickname(10L)).willReturn("유저");
   }
 
   private SendMessageRequest sendRequest(Long roomId, String content, UUID clientMessageId) {
@@ -1,19 +1,29 @@
 package com.realtime.chat;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 
 import com.realtime.chat.config.KafkaConfig;
 import com.realtime.chat.domain.MessageType;
 import com.realtime.chat.event.ChatMessageEvent;
 import com.realtime.chat.producer.ChatMessageProducer;
+import com.realtime.chat.producer.HotRoomRouter;
+import com.realtime.chat.service.MessageHopTracer;
+import java.nio.ByteBuffer;
+import java.time.Clock;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import org.apache.kafka.clients.producer.ProducerRecord;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.kafka.core.KafkaTemplate;
@@ -24,19 +34,80 @@ class ChatMessageProducerTest {
 
   @Mock private KafkaTemplate<String, Object> kafkaTemplate;
 
+  @Mock private KafkaTemplate<String, Object> chatMessageKafkaTemplate;
+
+  @Mock private HotRoomRouter hotRoomRouter;
+
+  @Mock private MessageHopTracer messageHopTracer;
+
   @Test
-  @DisplayName("메시지는 chat.messages topic에 roomId key로 발행하고 Kafka future를 반환한다")
+  @DisplayName("메시지는 chat.messages 전용 producer로 roomId key를 붙여 발행하고 Kafka future를 반환한다")
   void sendMessageUsesMessagesTopicAndRoomIdKey() {
-    ChatMessageProducer producer = new ChatMessageProducer(kafkaTemplate);
-    ChatMessageEvent event =
-        new ChatMessageEvent(
-            UUID.randomUUID(), 20L, 10L, "유저", "안녕하세요", MessageType.TEXT, LocalDateTime.now());
+    ChatMessageProducer producer = producer();
+    ChatMessageEvent event = event();
+    given(hotRoomRouter.route(event)).willReturn(new HotRoomRouter.Route(null, "20"));
     CompletableFuture<SendResult<String, Object>> future = new CompletableFuture<>();
-    given(kafkaTemplate.send(KafkaConfig.MESSAGES_TOPIC, "20", event)).willReturn(future);
+    given(chatMessageKafkaTemplate.send(KafkaConfig.MESSAGES_TOPIC, "20", event))
+        .willReturn(future);
 
-    CompletableFuture<SendResult<String, Object>> result = producer.sendMessage(event);
+    CompletableFuture<SendResult<String, Object>> result = producer.sendMessage(event, 0L);
 
     assertThat(result).isSameAs(future);
-    verify(kafkaTemplate).send(KafkaConfig.MESSAGES_TOPIC, "20", event);
+    verify(chatMessageKafkaTemplate).send(KafkaConfig.MESSAGES_TOPIC, "20", event);
+    verifyNoInteractions(kafkaTemplate);
+  }
+
+  @Test
+  @DisplayName("hot room 메시지는 router가 고른 shard partition과 shard key로 발행한다")
+  void sendMessageUsesHotRoomShardPartition() {
+    ChatMessageProducer producer = producer();
+    ChatMessageEvent event = event();
+    given(hotRoomRouter.route(event)).willReturn(new HotRoomRouter.Route(3, "20#2"));
+    CompletableFuture<SendResult<String, Object>> future = new CompletableFuture<>();
+    given(chatMessageKafkaTemplate.send(KafkaConfig.MESSAGES_TOPIC, 3, "20#2", event))
+        .willReturn(future);
+
+    assertThat(producer.sendMessage(event, 0L)).isSameAs(future);
+    verify(chatMessageKafkaTemplate).send(KafkaConfig.MESSAGES_TOPIC, 3, "20#2", event);
+  }
+
+  @Test
+  @DisplayName("hop 추적이 켜져 있으면 WebSocket 수신/발행 시각을 record header로 싣는다")
+  void sendMessageStampsHopHeadersWhenTracingEnabled() {
+    Clock clock = Clock.fixed(Instant.ofEpochSecond(100, 500), ZoneOffset.UTC);
+    MessageHopTracer tracer = new MessageHopTracer(true, null, null, null, null, null, null, clock);
+    ChatMessageProducer producer =
+        new ChatMessageProducer(kafkaTemplate, chatMessageKafkaTemplate, hotRoomRouter, tracer);
+    ChatMessageEvent event = event();
+    given(hotRoomRouter.route(event)).willReturn(new HotRoomRouter.Route(3, "20#2"));
+    CompletableFuture<SendResult<String, Object>> future = new CompletableFuture<>();
+    given(chatMessageKafkaTemplate.send(any(ProducerRecord.class))).willReturn(future);
+
+    assertThat(producer.sendMessage(event, 99_000_000_000L)).isSameAs(future);
+
+    ArgumentCaptor<ProducerRecord<String, Object>> captor =
+        ArgumentCaptor.forClass(ProducerRecord.class);
+    verify(chatMessageKafkaTemplate).send(captor.capture());
+    ProducerRecord<String, Object> record = captor.getValue();
+    assertThat(record.topic()).isEqualTo(KafkaConfig.MESSAGES_TOPIC);
+    assertThat(record.partition()).isEqualTo(3);
+    assertThat(record.key()).isEqualTo("20#2");
+    assertThat(record.value()).isSameAs(event);
+    assertThat(header(record, MessageHopTracer.WS_RECEIVED_HEADER)).isEqualTo(99_000_000_000L);
+    assertThat(header(record, MessageHopTracer.PRODUCED_HEADER)).isEqualTo(100_000_000_500L);
+  }
+
+  private ChatMessageProducer producer() {
+    return new ChatMessageProducer(
+        kafkaTemplate, chatMessageKafkaTemplate, hotRoomRouter, messageHopTracer);
+  }
+
+  private long header(ProducerRecord<String, Object> record, String name) {
+    return ByteBuffer.wrap(record.headers().lastHeader(name).value()).getLong();
+  }
+
+  private ChatMessageEvent event() {
+    return new ChatMessageEvent(
+        UUID.randomUUID(), 20L, 10L, "유저", "안녕하세요", MessageType.TEXT, LocalDateTime.now());
   }
 }
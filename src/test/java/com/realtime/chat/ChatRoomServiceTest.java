@@ -5,6 +5,7 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verify;
 
 import com.realtime.chat.common.BusinessException;
 import com.realtime.chat.domain.ChatRoom;
@@ -17,7 +18,12 @@ import com.realtime.chat.repository.ChatRoomMemberRepository;
 import com.realtime.chat.repository.ChatRoomRepository;
 import com.realtime.chat.repository.UserRepository;
 import com.realtime.chat.service.ChatRoomService;
+import com.realtime.chat.service.KnownEntityIdCache;
+import com.realtime.chat.service.RoomListCache;
+import com.realtime.chat.service.RoomMembershipCache;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -34,8 +40,20 @@ class ChatRoomServiceTest {
 
   @Mock private UserRepository userRepository;
 
+  @Mock private KnownEntityIdCache knownEntityIdCache;
+
+  @Mock private RoomListCache roomListCache;
+
+  @Mock private RoomMembershipCache roomMembershipCache;
+
   private ChatRoomService chatRoomService() {
-    return new ChatRoomService(chatRoomRepository, chatRoomMemberRepository, userRepository);
+    return new ChatRoomService(
+        chatRoomRepository,
+        chatRoomMemberRepository,
+        userRepository,
+        knownEntityIdCache,
+        roomListCache,
+        roomMembershipCache);
   }
 
   private User createUser(Long id, String email, String nickname) {
@@ -69,6 +87,7 @@ class ChatRoomServiceTest {
 
     assertThat(response.getType()).isEqualTo(RoomType.DIRECT);
     assertThat(response.getMembers()).hasSize(2);
+    verify(roomMembershipCache).invalidate(List.of(1L, 2L));
   }
 
   @Test
@@ -105,6 +124,24 @@ class ChatRoomServiceTest {
     assertThat(response.getName()).isEqualTo("테스트 그룹");
     assertThat(response.getType()).isEqualTo(RoomType.GROUP);
     assertThat(response.getMembers()).hasSize(1);
+    verify(roomMembershipCache).invalidate(Set.of(1L));
+  }
+
+  @Test
+  @DisplayName("그룹 채팅방 참여 시 참여한 사용자의 멤버십 캐시를 무효화한다")
+  void joinRoomInvalidatesMembershipCache() {
+    User owner = createUser(1L, "user1@test.com", "유저1");
+    User joiner = createUser(2L, "user2@test.com", "유저2");
+    ChatRoom room = new ChatRoom("테스트 그룹", RoomType.GROUP, owner);
+    ReflectionTestUtils.setField(room, "id", 20L);
+
+    given(userRepository.findById(2L)).willReturn(Optional.of(joiner));
+    given(chatRoomRepository.findById(20L)).willReturn(Optional.of(room));
+    given(chatRoomMemberRepository.existsByChatRoomIdAndUserId(20L, 2L)).willReturn(false);
+
+    chatRoomService().joinRoom(2L, 20L);
+
+    verify(roomMembershipCache).invalidate(List.of(2L));
   }
 
 }
@@ -5,6 +5,7 @@ import static org.awaitility.Awaitility.await;
 
 import com.realtime.chat.config.KafkaConfig;
 import com.realtime.chat.domain.MessageType;
+import com.realtime.chat.event.ChatEventDeserializer;
 import com.realtime.chat.event.ChatMessageEvent;
 import com.realtime.chat.repository.MessageRepository;
 import com.realtime.chat.service.DltReplayService;
@@ -101,7 +102,7 @@ class DltReplayIntegrationTest extends BaseIntegrationTest {
             ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG,
             StringDeserializer.class,
             ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG,
-            JsonDeserializer.class,
+            ChatEventDeserializer.class,
             JsonDeserializer.TRUSTED_PACKAGES,
             "com.realtime.chat.event",
             JsonDeserializer.VALUE_DEFAULT_TYPE,
@@ -149,8 +150,8 @@ class DltReplayIntegrationTest extends BaseIntegrationTest {
         senderId);
     jdbcTemplate.update(
         """
-        INSERT INTO chat_room_members (room_id, user_id, unread_count, joined_at)
-        VALUES (?, ?, 0, NOW())
+        INSERT INTO chat_room_members (room_id, user_id, joined_at)
+        VALUES (?, ?, NOW())
         """,
         roomId,
         senderId);
@@ -0,0 +1,135 @@
+package com.realtime.chat;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.realtime.chat.config.KafkaConfig;
+import com.realtime.chat.domain.MessageType;
+import com.realtime.chat.event.ChatEventDeserializer;
+import com.realtime.chat.event.ChatEventSerializer;
+import com.realtime.chat.event.ChatMessageEvent;
+import com.realtime.chat.event.EventWireFormat;
+import com.realtime.chat.event.ReadReceiptEvent;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+class EventWireFormatTest {
+
+  private static final LocalDateTime TIMESTAMP =
+      LocalDateTime.of(2026, 5, 22, 10, 30, 15, 123456789);
+
+  @Test
+  @DisplayName("채팅 메시지 event는 binary로 왕복해도 모든 필드가 같고 JSON보다 작다")
+  void chatMessageRoundTripIsSmallerThanJson() {
+    ChatMessageEvent event =
+        new ChatMessageEvent(
+            UUID.randomUUID(),
+            20L,
+            10L,
+            "유저",
+            "안녕하세요",
+            MessageType.IMAGE,
+            UUID.randomUUID(),
+            TIMESTAMP);
+
+    byte[] binary = EventWireFormat.encode(event);
+    ChatMessageEvent decoded = (ChatMessageEvent) EventWireFormat.decode(binary);
+
+    assertThat(decoded).usingRecursiveComparison().isEqualTo(event);
+    assertThat(binary[0]).isEqualTo(EventWireFormat.MAGIC);
+    assertThat(binary.length)
+        .isLessThan(new JsonSerializer<>().serialize(KafkaConfig.MESSAGES_TOPIC, event).length);
+  }
+
+  @Test
+  @DisplayName("읽음 event와 null 필드도 binary로 왕복한다")
+  void readReceiptAndNullFieldsRoundTrip() {
+    ReadReceiptEvent receipt = new ReadReceiptEvent(20L, 10L, 987654321L, TIMESTAMP);
+    ReadReceiptEvent withNulls = new ReadReceiptEvent(20L, null, null, null);
+
+    assertThat(EventWireFormat.decode(EventWireFormat.encode(receipt)))
+        .usingRecursiveComparison()
+        .isEqualTo(receipt);
+    assertThat(EventWireFormat.decode(EventWireFormat.encode(withNulls)))
+        .usingRecursiveComparison()
+        .isEqualTo(withNulls);
+  }
+
+  @Test
+  @DisplayName("전환 이전 JSON record도 같은 deserializer로 읽는다")
+  void deserializerReadsLegacyJsonRecords() {
+    ChatMessageEvent event =
+        new ChatMessageEvent(
+            UUID.randomUUID(), 20L, 10L, "유저", "안녕하세요", MessageType.TEXT, TIMESTAMP);
+    RecordHeaders headers = new RecordHeaders();
+    byte[] json = new JsonSerializer<>().serialize(KafkaConfig.MESSAGES_TOPIC, headers, event);
+    ChatEventDeserializer deserializer = new ChatEventDeserializer();
+    deserializer.configure(
+        Map.of(JsonDeserializer.TRUSTED_PACKAGES, "com.realtime.chat.event"), false);
+
+    Object decoded = deserializer.deserialize(KafkaConfig.MESSAGES_TOPIC, headers, json);
+
+    assertThat(decoded).usingRecursiveComparison().isEqualTo(event);
+  }
+
+  @Test
+  @DisplayName("wire-format=json이면 serializer는 기존 JSON과 type header를 쓴다")
+  void serializerFallsBackToJsonWhenConfigured() {
+    ReadReceiptEvent receipt = new ReadReceiptEvent(20L, 10L, 30L, TIMESTAMP);
+    ChatEventSerializer serializer = new ChatEventSerializer();
+    serializer.configure(Map.of(ChatEventSerializer.WIRE_FORMAT_CONFIG, "json"), false);
+    RecordHeaders headers = new RecordHeaders();
+
+    byte[] data = serializer.serialize(KafkaConfig.READ_RECEIPTS_TOPIC, headers, receipt);
+
+    assertThat(EventWireFormat.isBinary(data)).isFalse();
+    assertThat(headers.lastHeader("__TypeId__")).isNotNull();
+  }
+
+  @Test
+  @DisplayName("wire-format 설정이 없으면 rolling 배포에 안전한 기존 JSON을 쓴다")
+  void serializerDefaultsToJson() {
+    ChatEventSerializer serializer = new ChatEventSerializer();
+    serializer.configure(Map.of(), false);
+
+    byte[] data =
+        serializer.serialize(
+            KafkaConfig.READ_RECEIPTS_TOPIC,
+            new RecordHeaders(),
+            new ReadReceiptEvent(20L, 10L, 30L, TIMESTAMP));
+
+    assertThat(EventWireFormat.isBinary(data)).isFalse();
+  }
+
+  @Test
+  @DisplayName("wire-format=binary이면 serializer는 EventWireFormat으로 쓴다")
+  void serializerWritesBinaryWhenConfigured() {
+    ChatEventSerializer serializer = new ChatEventSerializer();
+    serializer.configure(Map.of(ChatEventSerializer.WIRE_FORMAT_CONFIG, "binary"), false);
+
+    byte[] data =
+        serializer.serialize(
+            KafkaConfig.READ_RECEIPTS_TOPIC,
+            new RecordHeaders(),
+            new ReadReceiptEvent(20L, 10L, 30L, TIMESTAMP));
+
+    assertThat(EventWireFormat.isBinary(data)).isTrue();
+  }
+
+  @Test
+  @DisplayName("알 수 없는 wire version은 SerializationException으로 거부한다")
+  void rejectsUnknownVersion() {
+    byte[] data = EventWireFormat.encode(new ReadReceiptEvent(20L, 10L, 30L, TIMESTAMP));
+    data[1] = 99;
+
+    assertThatThrownBy(() -> EventWireFormat.decode(data))
+        .isInstanceOf(SerializationException.class);
+  }
+}
@@ -0,0 +1,157 @@
+package com.realtime.chat;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.realtime.chat.config.KafkaConfig;
+import com.realtime.chat.domain.MessageType;
+import com.realtime.chat.event.ChatMessageEvent;
+import com.realtime.chat.producer.HotRoomRouter;
+import com.realtime.chat.producer.HotRoomRouter.Route;
+import io.micrometer.core.instrument.Counter;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.kafka.common.utils.Utils;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class HotRoomRouterTest {
+
+  @Mock private Counter hotRoomDetectedCounter;
+  @Mock private Counter hotRoomMessagesCounter;
+
+  private final AtomicLong millis = new AtomicLong(1_710_000_000_000L);
+
+  @Test
+  @DisplayName("비활성화 상태에서는 트래픽과 무관하게 roomId key로만 발행한다")
+  void disabledRouterAlwaysUsesRoomKey() {
+    HotRoomRouter router = router(false);
+
+    for (int i = 0; i < 10; i++) {
+      assertThat(router.route(event(20L, 10L))).isEqualTo(new Route(null, "20"));
+    }
+    verify(hotRoomDetectedCounter, never()).increment();
+  }
+
+  @Test
+  @DisplayName("한 초에 임계치에 도달하면 hot room으로 전환해 발신자별 shard partition으로 나눈다")
+  void switchesToShardPartitionsAtThreshold() {
+    HotRoomRouter router = router(true);
+
+    assertThat(router.route(event(20L, 10L)).partition()).isNull();
+    assertThat(router.route(event(20L, 10L)).partition()).isNull();
+    Route hot = router.route(event(20L, 10L));
+    Route otherSender = router.route(event(20L, 11L));
+
+    int base =
+        Utils.toPositive(Utils.murmur2("20".getBytes(StandardCharsets.UTF_8)))
+            % KafkaConfig.MESSAGES_PARTITIONS;
+    assertThat(hot)
+        .isEqualTo(new Route((base + 2) % KafkaConfig.MESSAGES_PARTITIONS, "20#2"));
+    assertThat(otherSender)
+        .isEqualTo(new Route((base + 3) % KafkaConfig.MESSAGES_PARTITIONS, "20#3"));
+    assertThat(HotRoomRouter.isHotKey(hot.key())).isTrue();
+    assertThat(HotRoomRouter.isHotKey("20")).isFalse();
+    verify(hotRoomDetectedCounter).increment();
+    verify(hotRoomMessagesCounter, times(2)).increment();
+    // 다른 room은 영향을 받지 않는다
+    assertThat(router.route(event(21L, 10L))).isEqualTo(new Route(null, "21"));
+  }
+
+  @Test
+  @DisplayName("hot room은 hold 동안 유지되고 그 뒤 트래픽이 줄면 roomId key로 돌아온다")
+  void staysHotForHoldThenFallsBack() {
+    HotRoomRouter router = router(true);
+    for (int i = 0; i < 3; i++) {
+      router.route(event(20L, 10L));
+    }
+
+    millis.addAndGet(Duration.ofSeconds(30).toMillis());
+    assertThat(router.route(event(20L, 10L)).key()).isEqualTo("20#2");
+
+    millis.addAndGet(Duration.ofSeconds(31).toMillis());
+    assertThat(router.route(event(20L, 10L))).isEqualTo(new Route(null, "20"));
+    verify(hotRoomDetectedCounter).increment();
+  }
+
+  @Test
+  @DisplayName("kafka 브로드캐스트 모드에서는 roomSeq를 붙일 수 없으므로 hot room 분산 발행을 끈다")
+  void kafkaBroadcastModeDisablesSharding() {
+    HotRoomRouter router =
+        new HotRoomRouter(
+            true,
+            3,
+            4,
+            Duration.ofSeconds(60),
+            100,
+            hotRoomDetectedCounter,
+            hotRoomMessagesCounter,
+            "kafka");
+
+    for (int i = 0; i < 10; i++) {
+      assertThat(router.route(event(20L, 10L))).isEqualTo(new Route(null, "20"));
+    }
+    verify(hotRoomDetectedCounter, never()).increment();
+    verify(hotRoomMessagesCounter, never()).increment();
+  }
+
+  private HotRoomRouter router(boolean enabled) {
+    return new HotRoomRouter(
+        enabled,
+        3,
+        4,
+        Duration.ofSeconds(60),
+        100,
+        hotRoomDetectedCounter,
+        hotRoomMessagesCounter,
+        new MutableClock());
+  }
+
+  private ChatMessageEvent event(Long roomId, Long senderId) {
+    return new ChatMessageEvent(
+        UUID.randomUUID(),
+        roomId,
+        senderId,
+        "sender",
+        "hello",
+        MessageType.TEXT,
+        LocalDateTime.now());
+  }
+
+  // 테스트에서 millis를 직접 옮기는 시계
+  private class MutableClock extends Clock {
+
+    @Override
+    public ZoneId getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+      return this;
+    }
+
+    @Override
+    public long millis() {
+      return millis.get();
+    }
+
+    @Override
+    public Instant instant() {
+      return Instant.ofEpochMilli(millis.get());
+    }
+  }
+}
@@ -0,0 +1,173 @@
+package com.realtime.chat;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.realtime.chat.config.KafkaConfig;
+import com.realtime.chat.consumer.KeyOrderedRecordProcessor;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+
+class KeyOrderedRecordProcessorTest {
+
+  private KeyOrderedRecordProcessor processor;
+
+  @AfterEach
+  void tearDown() {
+    processor.shutdown();
+  }
+
+  @Test
+  @DisplayName("기본 모드는 poll 순서대로 처리하고 첫 실패 record index를 넘긴 뒤 멈춘다")
+  void sequentialModeStopsAtFirstFailure() {
+    processor = new KeyOrderedRecordProcessor(false, 4);
+    List<Long> handled = new ArrayList<>();
+    List<ConsumerRecord<String, String>> records =
+        List.of(record(0L, "20"), record(1L, "21"), record(2L, "20"));
+
+    assertThatThrownBy(
+            () ->
+                processor.process(
+                    records,
+                    "처리 실패",
+                    record -> {
+                      if (record.offset() == 1L) {
+                        throw new IllegalStateException("broken");
+                      }
+                      handled.add(record.offset());
+                    }))
+        .isInstanceOfSatisfying(
+            BatchListenerFailedException.class, e -> assertThat(e.getIndex()).isEqualTo(1));
+
+    assertThat(handled).containsExactly(0L);
+  }
+
+  @Test
+  @DisplayName("key-ordered 모드는 서로 다른 room을 동시에 처리하고 같은 room은 offset 순서를 지킨다")
+  void processesDifferentKeysConcurrentlyInKeyOrder() {
+    processor = new KeyOrderedRecordProcessor(true, 4);
+    CountDownLatch otherRoomStarted = new CountDownLatch(1);
+    List<Long> room20 = Collections.synchronizedList(new ArrayList<>());
+    List<ConsumerRecord<String, String>> records =
+        List.of(record(0L, "20"), record(1L, "21"), record(2L, "20"));
+
+    processor.process(
+        records,
+        "처리 실패",
+        record -> {
+          if ("21".equals(record.key())) {
+            otherRoomStarted.countDown();
+            return;
+          }
+          // 순차 처리라면 room 21이 시작되지 않아 대기 시간이 끝날 때까지 풀리지 않는다
+          if (record.offset() == 0L) {
+            assertThat(otherRoomStarted.await(5, TimeUnit.SECONDS)).isTrue();
+          }
+          room20.add(record.offset());
+        });
+
+    assertThat(room20).containsExactly(0L, 2L);
+  }
+
+  @Test
+  @DisplayName("한 room이 실패하면 그 room의 뒤 record는 건너뛰고 다른 room은 계속 처리한 뒤 가장 낮은 실패 index를 넘긴다")
+  void reportsLowestFailedIndexAndSkipsRestOfFailedKey() {
+    processor = new KeyOrderedRecordProcessor(true, 4);
+    List<Long> handled = Collections.synchronizedList(new ArrayList<>());
+    List<ConsumerRecord<String, String>> records =
+        List.of(
+            record(0L, "20"),
+            record(1L, "20"),
+            record(2L, "21"),
+            record(3L, "22"),
+            record(4L, "20"),
+            record(5L, "22"));
+
+    assertThatThrownBy(
+            () ->
+                processor.process(
+                    records,
+                    "처리 실패",
+                    record -> {
+                      if (record.offset() == 1L || record.offset() == 5L) {
+                        throw new IllegalStateException("broken");
+                      }
+                      handled.add(record.offset());
+                    }))
+        .isInstanceOfSatisfying(
+            BatchListenerFailedException.class, e -> assertThat(e.getIndex()).isEqualTo(1));
+
+    assertThat(handled).containsExactlyInAnyOrder(0L, 2L, 3L);
+  }
+
+  @Test
+  @DisplayName("기본 모드는 poll 전체를 batch handler 한 번으로 처리한다")
+  void sequentialModeHandlesWholePollAsOneBatch() {
+    processor = new KeyOrderedRecordProcessor(false, 4);
+    List<List<Long>> batches = new ArrayList<>();
+    List<ConsumerRecord<String, String>> records =
+        List.of(record(0L, "20"), record(1L, "21"), record(2L, "20"));
+
+    processor.process(
+        records,
+        "처리 실패",
+        batch -> {
+          batches.add(batch.stream().map(ConsumerRecord::offset).toList());
+          return true;
+        },
+        record -> {
+          throw new IllegalStateException("record 단위 경로를 타면 안 된다");
+        });
+
+    assertThat(batches).containsExactly(List.of(0L, 1L, 2L));
+  }
+
+  @Test
+  @DisplayName("key-ordered 모드는 room별 묶음을 batch handler로 처리하고, 실패한 묶음만 record 단위로 재처리한다")
+  void keyOrderedModeBatchesPerKeyAndFallsBackOnlyForFailedKey() {
+    processor = new KeyOrderedRecordProcessor(true, 4);
+    List<List<Long>> batches = Collections.synchronizedList(new ArrayList<>());
+    List<Long> handled = Collections.synchronizedList(new ArrayList<>());
+    List<ConsumerRecord<String, String>> records =
+        List.of(
+            record(0L, "20"),
+            record(1L, "21"),
+            record(2L, "20"),
+            record(3L, "21"),
+            record(4L, "22"));
+
+    assertThatThrownBy(
+            () ->
+                processor.process(
+                    records,
+                    "처리 실패",
+                    batch -> {
+                      batches.add(batch.stream().map(ConsumerRecord::offset).toList());
+                      return !"21".equals(batch.get(0).key());
+                    },
+                    record -> {
+                      if (record.offset() == 3L) {
+                        throw new IllegalStateException("broken");
+                      }
+                      handled.add(record.offset());
+                    }))
+        .isInstanceOfSatisfying(
+            BatchListenerFailedException.class, e -> assertThat(e.getIndex()).isEqualTo(3));
+
+    // 한 건뿐인 room 22는 batch handler 없이 바로 record 단위로 처리한다
+    assertThat(batches).containsExactlyInAnyOrder(List.of(0L, 2L), List.of(1L, 3L));
+    assertThat(handled).containsExactlyInAnyOrder(1L, 4L);
+  }
+
+  private ConsumerRecord<String, String> record(long offset, String roomId) {
+    return new ConsumerRecord<>(KafkaConfig.MESSAGES_TOPIC, 0, offset, roomId, "payload");
+  }
+}
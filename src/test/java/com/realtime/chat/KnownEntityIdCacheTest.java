@@ -0,0 +1,136 @@
+package com.realtime.chat;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.realtime.chat.common.BusinessException;
+import com.realtime.chat.repository.ChatRoomRepository;
+import com.realtime.chat.repository.UserRepository;
+import com.realtime.chat.service.KnownEntityIdCache;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@ExtendWith(MockitoExtension.class)
+class KnownEntityIdCacheTest {
+
+  @Mock private ChatRoomRepository chatRoomRepository;
+
+  @Mock private UserRepository userRepository;
+
+  @Test
+  @DisplayName("한 번 존재가 확인된 room id는 다시 DB를 조회하지 않는다")
+  void confirmedRoomIdIsNotQueriedAgain() {
+    KnownEntityIdCache cache = cache(100);
+    given(chatRoomRepository.findExistingIds(Set.of(20L))).willReturn(List.of(20L));
+
+    cache.requireRoom(20L);
+    cache.requireRoom(20L);
+
+    verify(chatRoomRepository, times(1)).findExistingIds(anyCollection());
+  }
+
+  @Test
+  @DisplayName("batch 확인은 모르는 id만 한 번에 조회하고 하나라도 없으면 NOT_FOUND를 던진다")
+  void requireUsersQueriesOnlyUnknownIds() {
+    KnownEntityIdCache cache = cache(100);
+    cache.registerUser(10L);
+    given(userRepository.findExistingIds(Set.of(11L, 12L))).willReturn(List.of(11L));
+
+    assertThatThrownBy(() -> cache.requireUsers(List.of(10L, 11L, 12L)))
+        .isInstanceOf(BusinessException.class)
+        .hasMessage("사용자를 찾을 수 없습니다.");
+
+    // 존재가 확인된 11L은 기억해 두고 12L만 다시 확인한다
+    given(userRepository.findExistingIds(Set.of(12L))).willReturn(List.of());
+    assertThatThrownBy(() -> cache.requireUsers(List.of(10L, 11L, 12L)))
+        .isInstanceOf(BusinessException.class);
+  }
+
+  @Test
+  @DisplayName("등록된 id는 조회 없이 통과하고, evict된 id는 다시 DB로 확인한다")
+  void registeredIdSkipsQueryUntilEvicted() {
+    KnownEntityIdCache cache = cache(100);
+    cache.registerRoom(20L);
+
+    cache.requireRoom(20L);
+    verify(chatRoomRepository, never()).findExistingIds(anyCollection());
+
+    cache.evictRoom(20L);
+    given(chatRoomRepository.findExistingIds(Set.of(20L))).willReturn(List.of());
+
+    assertThatThrownBy(() -> cache.requireRoom(20L))
+        .isInstanceOf(BusinessException.class)
+        .hasMessage("채팅방을 찾을 수 없습니다.");
+  }
+
+  @Test
+  @DisplayName("최대 개수를 넘으면 가장 먼저 등록된 id부터 버린다")
+  void evictsEldestIdWhenFull() {
+    KnownEntityIdCache cache = cache(2);
+    cache.registerRoom(1L);
+    cache.registerRoom(2L);
+    cache.registerRoom(3L);
+    given(chatRoomRepository.findExistingIds(Set.of(1L))).willReturn(List.of(1L));
+
+    cache.requireRooms(List.of(1L, 2L, 3L));
+
+    verify(chatRoomRepository).findExistingIds(Set.of(1L));
+  }
+
+  @Test
+  @DisplayName("트랜잭션 안에서 등록한 id는 커밋 전에는 기억하지 않고 커밋 후에 기억한다")
+  void registersIdAfterCommit() {
+    KnownEntityIdCache cache = cache(100);
+    given(chatRoomRepository.findExistingIds(Set.of(20L))).willReturn(List.of());
+
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      cache.registerRoom(20L);
+      assertThatThrownBy(() -> cache.requireRoom(20L)).isInstanceOf(BusinessException.class);
+      TransactionSynchronizationManager.getSynchronizations()
+          .forEach(TransactionSynchronization::afterCommit);
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    cache.requireRoom(20L);
+    verify(chatRoomRepository, times(1)).findExistingIds(anyCollection());
+  }
+
+  @Test
+  @DisplayName("생성 트랜잭션이 롤백되면 id를 등록하지 않는다")
+  void rolledBackRegistrationIsDropped() {
+    KnownEntityIdCache cache = cache(100);
+    given(userRepository.findExistingIds(Set.of(10L))).willReturn(List.of());
+
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      cache.registerUser(10L);
+      TransactionSynchronizationManager.getSynchronizations()
+          .forEach(
+              synchronization ->
+                  synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    assertThatThrownBy(() -> cache.requireUser(10L))
+        .isInstanceOf(BusinessException.class)
+        .hasMessage("사용자를 찾을 수 없습니다.");
+  }
+
+  private KnownEntityIdCache cache(int maxEntries) {
+    return new KnownEntityIdCache(chatRoomRepository, userRepository, maxEntries);
+  }
+}
@@ -0,0 +1,104 @@
+package com.realtime.chat;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.realtime.chat.config.KafkaConfig;
+import com.realtime.chat.consumer.LocalBroadcastConsumer;
+import com.realtime.chat.domain.MessageType;
+import com.realtime.chat.dto.MessageHops;
+import com.realtime.chat.event.ChatMessageEvent;
+import com.realtime.chat.service.MessageHopTracer;
+import com.realtime.chat.service.RedisPubSubService;
+import com.realtime.chat.service.RoomSubscriptionRegistry;
+import io.micrometer.core.instrument.Counter;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class LocalBroadcastConsumerTest {
+
+  @Mock private RedisPubSubService redisPubSubService;
+
+  @Mock private RoomSubscriptionRegistry roomSubscriptionRegistry;
+
+  @Mock private Counter messagesDroppedNoSubscribersCounter;
+
+  @Mock private MessageHopTracer messageHopTracer;
+
+  private ObjectMapper objectMapper;
+
+  @BeforeEach
+  void setUp() {
+    objectMapper = new ObjectMapper().findAndRegisterModules();
+  }
+
+  @Test
+  @DisplayName("로컬 구독자가 있는 room 메시지는 Redis를 거치지 않고 로컬 room topic 전달로 넘긴다")
+  void forwardsToLocalBrokerWithLocalSubscribers() throws Exception {
+    ChatMessageEvent event = event();
+    given(roomSubscriptionRegistry.hasLocalSubscribers(20L)).willReturn(true);
+
+    consumer().consume(record(event));
+
+    verify(redisPubSubService)
+        .onMessage(objectMapper.writeValueAsBytes(event), null, KafkaConfig.MESSAGES_TOPIC);
+    verify(redisPubSubService, never()).publish(any());
+  }
+
+  @Test
+  @DisplayName("hop 추적이 켜져 있으면 Kafka header 시각을 frame payload와 따로 로컬 room topic 전달로 넘긴다")
+  void forwardsHopsSeparatelyWhenTracingEnabled() throws Exception {
+    ChatMessageEvent event = event();
+    ConsumerRecord<String, ChatMessageEvent> record = record(event);
+    MessageHops hops = new MessageHops(1L, 2L, null);
+    given(roomSubscriptionRegistry.hasLocalSubscribers(20L)).willReturn(true);
+    given(messageHopTracer.consumed(record)).willReturn(hops);
+
+    consumer().consume(record);
+
+    // frame payload는 hops 없는 room 메시지 그대로다
+    verify(redisPubSubService)
+        .onMessage(objectMapper.writeValueAsBytes(event), hops, KafkaConfig.MESSAGES_TOPIC);
+  }
+
+  @Test
+  @DisplayName("로컬 구독자가 없는 room 메시지는 직렬화하지 않고 drop metric만 기록한다")
+  void dropsMessageWithoutLocalSubscribers() {
+    given(roomSubscriptionRegistry.hasLocalSubscribers(20L)).willReturn(false);
+
+    consumer().consume(record(event()));
+
+    verify(messagesDroppedNoSubscribersCounter).increment();
+    verifyNoInteractions(redisPubSubService);
+  }
+
+  private LocalBroadcastConsumer consumer() {
+    return new LocalBroadcastConsumer(
+        redisPubSubService,
+        roomSubscriptionRegistry,
+        objectMapper,
+        messagesDroppedNoSubscribersCounter,
+        messageHopTracer);
+  }
+
+  private ConsumerRecord<String, ChatMessageEvent> record(ChatMessageEvent event) {
+    return new ConsumerRecord<>(KafkaConfig.MESSAGES_TOPIC, 0, 15L, "20", event);
+  }
+
+  private ChatMessageEvent event() {
+    return new ChatMessageEvent(
+        UUID.randomUUID(), 20L, 10L, "sender", "hello", MessageType.TEXT, LocalDateTime.now());
+  }
+}
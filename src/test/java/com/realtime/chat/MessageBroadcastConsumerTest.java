@@ -1,22 +1,38 @@
 package com.realtime.chat;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willDoNothing;
 import static org.mockito.BDDMockito.willThrow;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 
+import com.realtime.chat.consumer.KeyOrderedRecordProcessor;
 import com.realtime.chat.consumer.MessageBroadcastConsumer;
 import com.realtime.chat.domain.MessageType;
+import com.realtime.chat.dto.MessageHops;
+import com.realtime.chat.dto.TracedChatMessage;
 import com.realtime.chat.event.ChatMessageEvent;
+import com.realtime.chat.service.MessageHopTracer;
 import com.realtime.chat.service.RedisPubSubService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Timer;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.listener.BatchListenerFailedException;
 import org.springframework.kafka.support.Acknowledgment;
 
 @ExtendWith(MockitoExtension.class)
@@ -24,24 +40,117 @@ class MessageBroadcastConsumerTest {
 
   @Mock private RedisPubSubService redisPubSubService;
 
+  @Mock private DistributionSummary broadcastBatchSizeSummary;
+
+  @Mock private Timer broadcastPublishTimer;
+
+  @Mock private MessageHopTracer messageHopTracer;
+
   @Mock private Acknowledgment ack;
 
   @Test
-  @DisplayName("Redis publish 실패 시 Kafka ack를 하지 않고 예외를 재전파한다")
-  void redisPublishFailureIsNotAcknowledged() {
-    MessageBroadcastConsumer consumer = new MessageBroadcastConsumer(redisPubSubService);
-    ChatMessageEvent event =
-        new ChatMessageEvent(
-            UUID.randomUUID(), 20L, 10L, "sender", "hello", MessageType.TEXT, LocalDateTime.now());
-    ConsumerRecord<String, ChatMessageEvent> record =
-        new ConsumerRecord<>("chat.messages", 0, 15L, "20", event);
+  @DisplayName("poll batch는 Redis pipeline 한 번으로 발행하고 batch 크기/발행 시간을 기록한 뒤 한 번만 ack한다")
+  void publishesBatchThroughPipelineAndAcksOnce() {
+    MessageBroadcastConsumer consumer = consumer();
+    ChatMessageEvent first = event(20L);
+    ChatMessageEvent second = event(21L);
+    ChatMessageEvent third = event(20L);
+
+    consumer.consumeBatch(
+        List.of(record(0L, first), record(1L, second), record(2L, third)), ack);
+
+    verify(redisPubSubService).publishAll(List.of(first, second, third));
+    verify(broadcastBatchSizeSummary).record(3);
+    verify(broadcastPublishTimer).record(anyLong(), eq(TimeUnit.NANOSECONDS));
+    verify(redisPubSubService, never()).publish(first);
+    verify(ack).acknowledge();
+  }
+
+  @Test
+  @DisplayName("pipeline 발행이 실패하면 record 단위로 재발행하고 실패 record index를 ErrorHandler에 넘긴다")
+  void fallsBackToPerRecordAndReportsFailedIndex() {
+    MessageBroadcastConsumer consumer = consumer();
+    ChatMessageEvent first = event(20L);
+    ChatMessageEvent broken = event(21L);
+    willThrow(new IllegalStateException("Redis publish failed"))
+        .given(redisPubSubService)
+        .publishAll(anyList());
+    willDoNothing().given(redisPubSubService).publish(first);
     willThrow(new IllegalStateException("Redis publish failed"))
         .given(redisPubSubService)
-        .publish(event);
+        .publish(broken);
+
+    assertThatThrownBy(
+            () -> consumer.consumeBatch(List.of(record(0L, first), record(1L, broken)), ack))
+        .isInstanceOfSatisfying(
+            BatchListenerFailedException.class, e -> assertThat(e.getIndex()).isEqualTo(1));
 
-    assertThatThrownBy(() -> consumer.consume(record, ack))
-        .isInstanceOf(IllegalStateException.class)
-        .hasMessage("Redis publish failed");
+    verify(redisPubSubService).publish(first);
     verify(ack, never()).acknowledge();
   }
+
+  @Test
+  @DisplayName("hot room shard key record는 persistence가 roomSeq와 함께 발행하므로 건너뛴다")
+  void skipsHotRoomShardRecords() {
+    MessageBroadcastConsumer consumer = consumer();
+    ChatMessageEvent normal = event(20L);
+    ChatMessageEvent hot = event(21L);
+
+    consumer.consumeBatch(
+        List.of(
+            record(0L, normal),
+            new ConsumerRecord<>("chat.messages", 0, 1L, "21#1", hot)),
+        ack);
+
+    verify(redisPubSubService).publishAll(List.of(normal));
+    verify(ack).acknowledge();
+  }
+
+  @Test
+  @DisplayName("hop 추적이 켜져 있으면 record header 시각과 Redis 발행 시각을 hops로 실어 발행한다")
+  void publishesTracedMessagesWhenTracingEnabled() {
+    MessageBroadcastConsumer consumer = consumer();
+    ChatMessageEvent event = event(20L);
+    ConsumerRecord<String, ChatMessageEvent> record = record(0L, event);
+    MessageHops consumed = new MessageHops(1L, 2L, null);
+    MessageHops published = new MessageHops(1L, 2L, 3L);
+    given(messageHopTracer.isEnabled()).willReturn(true);
+    given(messageHopTracer.consumed(record)).willReturn(consumed);
+    given(messageHopTracer.published(consumed)).willReturn(published);
+
+    consumer.consumeBatch(List.of(record), ack);
+
+    @SuppressWarnings("unchecked")
+    ArgumentCaptor<List<TracedChatMessage>> captor = ArgumentCaptor.forClass(List.class);
+    verify(redisPubSubService).publishTraced(captor.capture());
+    assertThat(captor.getValue())
+        .singleElement()
+        .satisfies(
+            message -> {
+              assertThat(message.getMessage()).isSameAs(event);
+              assertThat(message.getRoomId()).isEqualTo(20L);
+              assertThat(message.getHops()).isSameAs(published);
+            });
+    verify(redisPubSubService, never()).publishAll(anyList());
+    verify(ack).acknowledge();
+  }
+
+  private MessageBroadcastConsumer consumer() {
+    return new MessageBroadcastConsumer(
+        redisPubSubService,
+        broadcastBatchSizeSummary,
+        broadcastPublishTimer,
+        new KeyOrderedRecordProcessor(false, 1),
+        messageHopTracer);
+  }
+
+  private ConsumerRecord<String, ChatMessageEvent> record(long offset, ChatMessageEvent event) {
+    return new ConsumerRecord<>(
+        "chat.messages", 0, offset, String.valueOf(event.getRoomId()), event);
+  }
+
+  private ChatMessageEvent event(Long roomId) {
+    return new ChatMessageEvent(
+        UUID.randomUUID(), roomId, 10L, "sender", "hello", MessageType.TEXT, LocalDateTime.now());
+  }
 }
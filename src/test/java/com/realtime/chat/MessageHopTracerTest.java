@@ -0,0 +1,136 @@
+package com.realtime.chat;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import com.realtime.chat.dto.MessageHops;
+import com.realtime.chat.service.MessageHopTracer;
+import io.micrometer.core.instrument.Timer;
+import java.nio.ByteBuffer;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.concurrent.TimeUnit;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class MessageHopTracerTest {
+
+  // 1970-01-01T00:00:01.000000500Z = 1_000_000_500 epoch nanos
+  private static final Clock CLOCK = Clock.fixed(Instant.ofEpochSecond(1, 500), ZoneOffset.UTC);
+  private static final long NOW = 1_000_000_500L;
+
+  @Mock private Timer produceAckTimer;
+
+  @Mock private Timer kafkaToPersistedTimer;
+
+  @Mock private Timer kafkaToBroadcastTimer;
+
+  @Mock private Timer redisTransitTimer;
+
+  @Mock private Timer stompSendTimer;
+
+  @Mock private Timer endToEndTimer;
+
+  @Test
+  @DisplayName("발행 시 WebSocket 수신/발행 시각을 header에 싣고 consumer는 같은 값을 hops로 읽는다")
+  void stampedHeadersRoundTripToHops() {
+    MessageHopTracer tracer = tracer(true);
+    ConsumerRecord<String, Object> record = record();
+
+    tracer.stamp(record.headers(), 400L);
+    MessageHops hops = tracer.hopsOf(record);
+
+    assertThat(hops.getWsReceivedAt()).isEqualTo(400L);
+    assertThat(hops.getProducedAt()).isEqualTo(NOW);
+    assertThat(hops.getPublishedAt()).isNull();
+    assertThat(tracer.published(hops).getPublishedAt()).isEqualTo(NOW);
+  }
+
+  @Test
+  @DisplayName("broadcast consumer 수신 시 Kafka 발행 → 수신 hop을 기록한다")
+  void consumedRecordsKafkaToBroadcastHop() {
+    MessageHopTracer tracer = tracer(true);
+    ConsumerRecord<String, Object> record = record();
+    record.headers().add(MessageHopTracer.PRODUCED_HEADER, encode(NOW - 3_000L));
+
+    tracer.consumed(record);
+    tracer.recordPersisted(record);
+
+    verify(kafkaToBroadcastTimer).record(3_000L, TimeUnit.NANOSECONDS);
+    verify(kafkaToPersistedTimer).record(3_000L, TimeUnit.NANOSECONDS);
+  }
+
+  @Test
+  @DisplayName("STOMP 전달 후 Redis 구간, 전달 구간, end-to-end hop을 기록한다")
+  void recordDeliveredRecordsRedisStompAndEndToEnd() {
+    MessageHopTracer tracer = tracer(true);
+    MessageHops hops = new MessageHops(NOW - 9_000L, NOW - 5_000L, NOW - 3_000L);
+
+    tracer.recordDelivered(hops, NOW - 1_000L);
+
+    verify(redisTransitTimer).record(2_000L, TimeUnit.NANOSECONDS);
+    verify(stompSendTimer).record(1_000L, TimeUnit.NANOSECONDS);
+    verify(endToEndTimer).record(9_000L, TimeUnit.NANOSECONDS);
+  }
+
+  @Test
+  @DisplayName("header가 없거나 시계 차이로 음수가 되는 hop은 기록하지 않는다")
+  void skipsMissingAndNegativeHops() {
+    MessageHopTracer tracer = tracer(true);
+
+    tracer.consumed(record());
+    tracer.recordDelivered(new MessageHops(NOW + 1_000L, null, null), NOW);
+
+    verifyNoInteractions(kafkaToBroadcastTimer, redisTransitTimer, endToEndTimer);
+    verify(stompSendTimer).record(0L, TimeUnit.NANOSECONDS);
+  }
+
+  @Test
+  @DisplayName("비활성화면 hops를 만들지 않고 어떤 hop도 기록하지 않는다")
+  void disabledTracerRecordsNothing() {
+    MessageHopTracer tracer = tracer(false);
+    ConsumerRecord<String, Object> record = record();
+    record.headers().add(MessageHopTracer.PRODUCED_HEADER, encode(NOW - 3_000L));
+
+    assertThat(tracer.consumed(record)).isNull();
+    assertThat(tracer.hopsOf(record)).isNull();
+    tracer.recordPersisted(record);
+    tracer.recordProduceAck(NOW - 1_000L);
+    tracer.recordDelivered(new MessageHops(NOW - 9_000L, NOW - 5_000L, NOW - 3_000L), NOW);
+
+    verifyNoInteractions(
+        produceAckTimer,
+        kafkaToPersistedTimer,
+        kafkaToBroadcastTimer,
+        redisTransitTimer,
+        stompSendTimer,
+        endToEndTimer);
+  }
+
+  private MessageHopTracer tracer(boolean enabled) {
+    return new MessageHopTracer(
+        enabled,
+        produceAckTimer,
+        kafkaToPersistedTimer,
+        kafkaToBroadcastTimer,
+        redisTransitTimer,
+        stompSendTimer,
+        endToEndTimer,
+        CLOCK);
+  }
+
+  private ConsumerRecord<String, Object> record() {
+    return new ConsumerRecord<>("chat.messages", 0, 0L, "20", new Object());
+  }
+
+  private byte[] encode(long epochNanos) {
+    return ByteBuffer.allocate(Long.BYTES).putLong(epochNanos).array();
+  }
+}
@@ -0,0 +1,108 @@
+package com.realtime.chat;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.realtime.chat.domain.ChatRoom;
+import com.realtime.chat.domain.ChatRoomMember;
+import com.realtime.chat.domain.Message;
+import com.realtime.chat.domain.MessageType;
+import com.realtime.chat.domain.RoomType;
+import com.realtime.chat.domain.User;
+import com.realtime.chat.repository.ChatRoomMemberRepository;
+import com.realtime.chat.repository.ChatRoomRepository;
+import com.realtime.chat.repository.MessageRepository;
+import com.realtime.chat.repository.UserRepository;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+class MessageIdGenerationIntegrationTest extends BaseIntegrationTest {
+
+  private static final int MESSAGES_PER_PATH = 200;
+
+  @Autowired private UserRepository userRepository;
+
+  @Autowired private ChatRoomRepository chatRoomRepository;
+
+  @Autowired private ChatRoomMemberRepository chatRoomMemberRepository;
+
+  @Autowired private MessageRepository messageRepository;
+
+  @BeforeEach
+  void setUp() {
+    messageRepository.deleteAll();
+    chatRoomMemberRepository.deleteAll();
+    chatRoomRepository.deleteAll();
+    userRepository.deleteAll();
+  }
+
+  @Test
+  @DisplayName("row 단위 저장, JPA batch 저장, JDBC multi-row 저장을 섞어도 같은 room의 id는 저장 순서대로 증가한다")
+  void messageIdsStayMonotonicPerRoomAcrossInsertPaths() {
+    User sender = userRepository.save(new User("sender@test.com", "encoded", "보낸사람"));
+    ChatRoom room = new ChatRoom("그룹", RoomType.GROUP, sender);
+    room.addMember(sender);
+    chatRoomRepository.saveAndFlush(room);
+
+    List<Message> perRow = messages(room, sender, "row");
+    perRow.forEach(messageRepository::saveAndFlush);
+
+    List<Message> jpaBatch = messages(room, sender, "jpa-batch");
+    messageRepository.saveAll(jpaBatch);
+
+    List<Message> jdbcBatch = messages(room, sender, "jdbc-batch");
+    messageRepository.insertAll(jdbcBatch);
+
+    List<String> expectedContents = new ArrayList<>();
+    perRow.forEach(message -> expectedContents.add(message.getContent()));
+    jpaBatch.forEach(message -> expectedContents.add(message.getContent()));
+    jdbcBatch.forEach(message -> expectedContents.add(message.getContent()));
+
+    List<Message> saved =
+        messageRepository.findByRoomIdAfterMessageId(room.getId(), 0L, MESSAGES_PER_PATH * 3);
+    assertThat(saved).isSortedAccordingTo(Comparator.comparing(Message::getId));
+    assertThat(saved).extracting(Message::getContent).containsExactlyElementsOf(expectedContents);
+
+    Long cursor = saved.get(MESSAGES_PER_PATH).getId();
+    assertThat(messageRepository.findByRoomIdWithCursor(room.getId(), cursor, MESSAGES_PER_PATH))
+        .extracting(Message::getContent)
+        .containsExactlyElementsOf(expectedContents.subList(0, MESSAGES_PER_PATH).reversed());
+  }
+
+  @Test
+  @DisplayName("그룹 방 생성 시 방과 초기 멤버가 sequence id를 받아 함께 저장된다")
+  void groupRoomAndMembersReceiveSequenceIds() {
+    User owner = userRepository.save(new User("owner@test.com", "encoded", "방장"));
+    List<User> members =
+        IntStream.range(0, 10)
+            .mapToObj(
+                i -> userRepository.save(new User("member" + i + "@test.com", "encoded", "멤버" + i)))
+            .toList();
+    ChatRoom room = new ChatRoom("그룹", RoomType.GROUP, owner);
+    room.addMember(owner);
+    members.forEach(room::addMember);
+
+    chatRoomRepository.saveAndFlush(room);
+
+    assertThat(room.getId()).isNotNull();
+    assertThat(room.getMembers())
+        .allSatisfy(member -> assertThat(member.getId()).isNotNull())
+        .extracting(ChatRoomMember::getId)
+        .doesNotHaveDuplicates();
+    assertThat(chatRoomMemberRepository.findUserIdsByRoomId(room.getId())).hasSize(11);
+  }
+
+  private List<Message> messages(ChatRoom room, User sender, String prefix) {
+    return IntStream.range(0, MESSAGES_PER_PATH)
+        .mapToObj(
+            i ->
+                new Message(UUID.randomUUID(), room, sender, prefix + "-" + i, MessageType.TEXT))
+        .toList();
+  }
+}
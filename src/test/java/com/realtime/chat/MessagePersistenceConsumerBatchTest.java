@@ -0,0 +1,359 @@
+package com.realtime.chat;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.realtime.chat.config.KafkaConfig;
+import com.realtime.chat.consumer.KeyOrderedRecordProcessor;
+import com.realtime.chat.consumer.MessagePersistenceConsumer;
+import com.realtime.chat.domain.ChatRoom;
+import com.realtime.chat.domain.Message;
+import com.realtime.chat.domain.MessageType;
+import com.realtime.chat.domain.RoomType;
+import com.realtime.chat.domain.User;
+import com.realtime.chat.dto.MessagePersistedNotification;
+import com.realtime.chat.dto.MessageHops;
+import com.realtime.chat.dto.SequencedChatMessage;
+import com.realtime.chat.dto.TracedChatMessage;
+import com.realtime.chat.event.ChatMessageEvent;
+import com.realtime.chat.repository.ChatRoomMemberBulkRepository.SentMessages;
+import com.realtime.chat.repository.ChatRoomMemberRepository;
+import com.realtime.chat.repository.ChatRoomRepository;
+import com.realtime.chat.repository.MessageRepository;
+import com.realtime.chat.repository.UserRepository;
+import com.realtime.chat.service.KnownEntityIdCache;
+import com.realtime.chat.service.MessageHopTracer;
+import com.realtime.chat.service.RedisPubSubService;
+import com.realtime.chat.service.RoomListCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Timer;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@ExtendWith(MockitoExtension.class)
+class MessagePersistenceConsumerBatchTest {
+
+  @Mock private MessageRepository messageRepository;
+
+  @Mock private ChatRoomRepository chatRoomRepository;
+
+  @Mock private UserRepository userRepository;
+
+  @Mock private ChatRoomMemberRepository chatRoomMemberRepository;
+
+  @Mock private Counter messagesPersistedCounter;
+
+  @Mock private Counter messagesFailedCounter;
+
+  @Mock private Timer messagesLatencyTimer;
+
+  @Mock private RoomListCache roomListCache;
+
+  @Mock private RedisPubSubService redisPubSubService;
+
+  @Mock private KnownEntityIdCache knownEntityIdCache;
+
+  @Mock private MessageHopTracer messageHopTracer;
+
+  @Mock private Acknowledgment acknowledgment;
+
+  @Test
+  @DisplayName("poll batch는 room 단위 sequence 할당 + multi-row insert 한 번 후 한 번만 ack한다")
+  void persistsBatchWithSingleInsert() {
+    MessagePersistenceConsumer consumer = consumer();
+    User sender = user(10L);
+    ChatRoom room = room(20L, sender);
+    ChatMessageEvent first = event(UUID.randomUUID(), UUID.randomUUID());
+    ChatMessageEvent second = event(UUID.randomUUID(), UUID.randomUUID());
+    given(chatRoomRepository.getReferenceById(20L)).willReturn(room);
+    given(userRepository.getReferenceById(10L)).willReturn(sender);
+    given(messageRepository.insertAll(anyList()))
+        .willReturn(Map.of(first.getMessageKey(), 100L, second.getMessageKey(), 101L));
+    given(chatRoomRepository.allocateMessageSeqs(20L, 2)).willReturn(Optional.of(12L));
+
+    consumer.consumeBatch(List.of(record(0L, first), record(1L, second)), acknowledgment);
+
+    verify(messageRepository, never())
+        .findAllByMessageKeysOrClientMessageIds(anyCollection(), anyCollection());
+    verify(messageRepository, never()).existsByMessageKey(any());
+    verify(messageRepository, never()).saveAndFlush(any(Message.class));
+    verify(knownEntityIdCache).requireRooms(Set.of(20L));
+    verify(knownEntityIdCache).requireUsers(Set.of(10L));
+    verify(chatRoomRepository, never()).findAllById(anyCollection());
+    verify(chatRoomMemberRepository, never()).findUserIdsByRoomId(any());
+    @SuppressWarnings("unchecked")
+    ArgumentCaptor<List<Message>> insertCaptor = ArgumentCaptor.forClass(List.class);
+    verify(messageRepository).insertAll(insertCaptor.capture());
+    assertThat(insertCaptor.getValue()).extracting(Message::getRoomSeq).containsExactly(11L, 12L);
+    verify(chatRoomMemberRepository)
+        .recordSentMessages(20L, Map.of(10L, new SentMessages(2, 12L)));
+    verify(chatRoomRepository, never()).releaseMessageSeqs(any(), anyInt());
+    verify(messageRepository, never()).updateRoomSeqs(anyMap());
+    verify(roomListCache).invalidateRoom(20L);
+    verify(messagesPersistedCounter).increment(2);
+
+    ArgumentCaptor<MessagePersistedNotification> notificationCaptor =
+        ArgumentCaptor.forClass(MessagePersistedNotification.class);
+    verify(redisPubSubService, times(2)).publishPersisted(notificationCaptor.capture());
+    assertThat(notificationCaptor.getAllValues())
+        .extracting(MessagePersistedNotification::getMessageId)
+        .containsExactly(100L, 101L);
+    verify(acknowledgment, times(1)).acknowledge();
+  }
+
+  @Test
+  @DisplayName("ON CONFLICT로 빠진 중복 record는 기존 row 기준으로 알림을 보내고 빈 sequence를 당겨 채운다")
+  void publishesPersistedForConflictingRecords() {
+    MessagePersistenceConsumer consumer = consumer();
+    User sender = user(10L);
+    ChatRoom room = room(20L, sender);
+    Message existingMessage = persisted(50L, UUID.randomUUID(), room, sender);
+    Message freshMessage = persisted(100L, UUID.randomUUID(), room, sender);
+    ChatMessageEvent existing =
+        event(existingMessage.getMessageKey(), existingMessage.getClientMessageId());
+    ChatMessageEvent fresh =
+        event(freshMessage.getMessageKey(), freshMessage.getClientMessageId());
+    ChatMessageEvent retry = event(UUID.randomUUID(), fresh.getClientMessageId());
+    given(chatRoomRepository.getReferenceById(20L)).willReturn(room);
+    given(userRepository.getReferenceById(10L)).willReturn(sender);
+    given(messageRepository.insertAll(anyList()))
+        .willReturn(Map.of(fresh.getMessageKey(), 100L));
+    given(messageRepository.findAllByMessageKeysOrClientMessageIds(anyCollection(), anyCollection()))
+        .willReturn(List.of(existingMessage, freshMessage));
+    given(chatRoomRepository.allocateMessageSeqs(20L, 3)).willReturn(Optional.of(3L));
+
+    consumer.consumeBatch(
+        List.of(record(0L, existing), record(1L, fresh), record(2L, retry)), acknowledgment);
+
+    @SuppressWarnings("unchecked")
+    ArgumentCaptor<List<Message>> insertCaptor = ArgumentCaptor.forClass(List.class);
+    verify(messageRepository).insertAll(insertCaptor.capture());
+    assertThat(insertCaptor.getValue()).hasSize(3);
+    // 두 번째 record에 부여한 2번을 1번으로 당기고, 쓰지 않은 2개는 반납한다
+    verify(messageRepository).updateRoomSeqs(Map.of(100L, 1L));
+    verify(chatRoomRepository).releaseMessageSeqs(20L, 2);
+    verify(chatRoomMemberRepository).recordSentMessages(20L, Map.of(10L, new SentMessages(1, 1L)));
+    verify(messagesPersistedCounter).increment(1);
+
+    ArgumentCaptor<MessagePersistedNotification> notificationCaptor =
+        ArgumentCaptor.forClass(MessagePersistedNotification.class);
+    verify(redisPubSubService, times(3)).publishPersisted(notificationCaptor.capture());
+    assertThat(notificationCaptor.getAllValues())
+        .extracting(MessagePersistedNotification::getMessageId)
+        .containsExactly(50L, 100L, 100L);
+    verify(acknowledgment).acknowledge();
+  }
+
+  @Test
+  @DisplayName("batch 저장이 실패하면 record 단위로 재처리하고 실패 record index를 ErrorHandler에 넘긴다")
+  void fallsBackToPerRecordAndReportsFailedIndex() {
+    MessagePersistenceConsumer consumer = consumer();
+    User sender = user(10L);
+    ChatRoom room = room(20L, sender);
+    ChatMessageEvent first = event(UUID.randomUUID(), UUID.randomUUID());
+    ChatMessageEvent broken = event(UUID.randomUUID(), UUID.randomUUID());
+    given(chatRoomRepository.getReferenceById(20L)).willReturn(room);
+    given(userRepository.getReferenceById(10L)).willReturn(sender);
+    given(messageRepository.insertAll(anyList()))
+        .willThrow(new DataIntegrityViolationException("value too long"));
+    given(chatRoomRepository.allocateMessageSeqs(20L, 2)).willReturn(Optional.of(2L));
+    given(chatRoomRepository.allocateMessageSeqs(20L, 1)).willReturn(Optional.of(1L));
+    given(messageRepository.insertIfAbsent(any(Message.class)))
+        .willReturn(Optional.of(100L))
+        .willThrow(new DataIntegrityViolationException("value too long"));
+
+    assertThatThrownBy(
+            () ->
+                consumer.consumeBatch(
+                    List.of(record(0L, first), record(1L, broken)), acknowledgment))
+        .isInstanceOfSatisfying(
+            BatchListenerFailedException.class,
+            e -> assertThat(e.getIndex()).isEqualTo(1));
+
+    verify(chatRoomMemberRepository).recordSentMessages(20L, Map.of(10L, new SentMessages(1, 1L)));
+    verify(redisPubSubService).publishPersisted(any(MessagePersistedNotification.class));
+    verify(messagesFailedCounter).increment();
+    verify(acknowledgment, never()).acknowledge();
+  }
+
+  @Test
+  @DisplayName("hot room shard key record는 커밋 후 최종 roomSeq를 붙이고 hop 시각은 envelope로 감싸 발행한다")
+  void broadcastsHotRoomRecordsWithRoomSeq() {
+    MessagePersistenceConsumer consumer = consumer();
+    User sender = user(10L);
+    ChatRoom room = room(20L, sender);
+    ChatMessageEvent normal = event(UUID.randomUUID(), UUID.randomUUID());
+    ChatMessageEvent hot = event(UUID.randomUUID(), UUID.randomUUID());
+    given(chatRoomRepository.getReferenceById(20L)).willReturn(room);
+    given(userRepository.getReferenceById(10L)).willReturn(sender);
+    given(messageRepository.insertAll(anyList()))
+        .willReturn(Map.of(normal.getMessageKey(), 100L, hot.getMessageKey(), 101L));
+    given(chatRoomRepository.allocateMessageSeqs(20L, 2)).willReturn(Optional.of(12L));
+    ConsumerRecord<String, ChatMessageEvent> normalRecord = record(0L, normal);
+    ConsumerRecord<String, ChatMessageEvent> hotRecord =
+        new ConsumerRecord<>(KafkaConfig.MESSAGES_TOPIC, 1, 0L, "20#1", hot);
+    MessageHops hops = new MessageHops(1L, 2L, null);
+    MessageHops publishedHops = new MessageHops(1L, 2L, 3L);
+    given(messageHopTracer.isEnabled()).willReturn(true);
+    given(messageHopTracer.hopsOf(hotRecord)).willReturn(hops);
+    given(messageHopTracer.published(hops)).willReturn(publishedHops);
+
+    consumer.consumeBatch(List.of(normalRecord, hotRecord), acknowledgment);
+
+    @SuppressWarnings("unchecked")
+    ArgumentCaptor<List<TracedChatMessage>> tracedCaptor = ArgumentCaptor.forClass(List.class);
+    verify(redisPubSubService).publishTraced(tracedCaptor.capture());
+    assertThat(tracedCaptor.getValue())
+        .singleElement()
+        .satisfies(
+            traced -> {
+              assertThat(traced.getHops()).isSameAs(publishedHops);
+              assertThat(traced.getMessage())
+                  .isInstanceOfSatisfying(
+                      SequencedChatMessage.class,
+                      message -> {
+                        assertThat(message.getEvent()).isSameAs(hot);
+                        assertThat(message.getRoomSeq()).isEqualTo(12L);
+                      });
+            });
+    verify(redisPubSubService, never()).publishSequenced(anyList());
+    verify(messageHopTracer).recordPersisted(normalRecord);
+    verify(messageHopTracer).recordPersisted(hotRecord);
+    verify(acknowledgment).acknowledge();
+  }
+
+  @Test
+  @DisplayName("record 단위 경로도 PERSISTED 알림과 hot room 메시지를 트랜잭션 커밋 후에 발행한다")
+  void recordPathPublishesHotMessageAfterCommit() {
+    List<String> publishedBeforeCommit = new ArrayList<>();
+    TransactionOperations committing =
+        new TransactionOperations() {
+          @Override
+          public <T> T execute(TransactionCallback<T> action) {
+            TransactionSynchronizationManager.initSynchronization();
+            try {
+              T result = action.doInTransaction(new SimpleTransactionStatus());
+              mockingDetails(redisPubSubService)
+                  .getInvocations()
+                  .forEach(invocation -> publishedBeforeCommit.add(invocation.toString()));
+              TransactionSynchronizationManager.getSynchronizations()
+                  .forEach(TransactionSynchronization::afterCommit);
+              return result;
+            } finally {
+              TransactionSynchronizationManager.clearSynchronization();
+            }
+          }
+        };
+    MessagePersistenceConsumer consumer = consumer(committing);
+    User sender = user(10L);
+    ChatRoom room = room(20L, sender);
+    ChatMessageEvent hot = event(UUID.randomUUID(), UUID.randomUUID());
+    given(chatRoomRepository.getReferenceById(20L)).willReturn(room);
+    given(userRepository.getReferenceById(10L)).willReturn(sender);
+    given(chatRoomRepository.allocateMessageSeqs(20L, 1)).willReturn(Optional.of(7L));
+    given(messageRepository.insertIfAbsent(any(Message.class))).willReturn(Optional.of(100L));
+    ConsumerRecord<String, ChatMessageEvent> hotRecord =
+        new ConsumerRecord<>(KafkaConfig.MESSAGES_TOPIC, 1, 0L, "20#1", hot);
+
+    consumer.consumeBatch(List.of(hotRecord), acknowledgment);
+
+    assertThat(publishedBeforeCommit).isEmpty();
+    verify(redisPubSubService).publishPersisted(any(MessagePersistedNotification.class));
+    @SuppressWarnings("unchecked")
+    ArgumentCaptor<List<SequencedChatMessage>> sequencedCaptor =
+        ArgumentCaptor.forClass(List.class);
+    verify(redisPubSubService).publishSequenced(sequencedCaptor.capture());
+    assertThat(sequencedCaptor.getValue())
+        .singleElement()
+        .extracting(SequencedChatMessage::getRoomSeq)
+        .isEqualTo(7L);
+    verify(acknowledgment).acknowledge();
+  }
+
+  private ConsumerRecord<String, ChatMessageEvent> record(long offset, ChatMessageEvent event) {
+    return new ConsumerRecord<>(KafkaConfig.MESSAGES_TOPIC, 0, offset, "20", event);
+  }
+
+  private ChatMessageEvent event(UUID messageKey, UUID clientMessageId) {
+    return new ChatMessageEvent(
+        messageKey,
+        20L,
+        10L,
+        "보낸사람",
+        "안녕하세요",
+        MessageType.TEXT,
+        clientMessageId,
+        LocalDateTime.now());
+  }
+
+  private Message persisted(Long messageId, UUID messageKey, ChatRoom room, User sender) {
+    Message message =
+        new Message(messageKey, UUID.randomUUID(), room, sender, "안녕하세요", MessageType.TEXT);
+    ReflectionTestUtils.setField(message, "id", messageId);
+    return message;
+  }
+
+  private User user(Long userId) {
+    User user = new User("sender@test.com", "encoded", "보낸사람");
+    ReflectionTestUtils.setField(user, "id", userId);
+    return user;
+  }
+
+  private ChatRoom room(Long roomId, User createdBy) {
+    ChatRoom room = new ChatRoom(null, RoomType.DIRECT, createdBy);
+    ReflectionTestUtils.setField(room, "id", roomId);
+    return room;
+  }
+
+  private MessagePersistenceConsumer consumer() {
+    return consumer(TransactionOperations.withoutTransaction());
+  }
+
+  private MessagePersistenceConsumer consumer(TransactionOperations transactionOperations) {
+    return new MessagePersistenceConsumer(
+        messageRepository,
+        chatRoomRepository,
+        userRepository,
+        chatRoomMemberRepository,
+        messagesPersistedCounter,
+        messagesFailedCounter,
+        messagesLatencyTimer,
+        roomListCache,
+        redisPubSubService,
+        transactionOperations,
+        knownEntityIdCache,
+        new KeyOrderedRecordProcessor(false, 1),
+        messageHopTracer);
+  }
+}
@@ -1,13 +1,17 @@
 package com.realtime.chat;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 
+import com.realtime.chat.common.BusinessException;
 import com.realtime.chat.config.KafkaConfig;
+import com.realtime.chat.consumer.KeyOrderedRecordProcessor;
 import com.realtime.chat.consumer.MessagePersistenceConsumer;
 import com.realtime.chat.domain.ChatRoom;
 import com.realtime.chat.domain.Message;
@@ -16,15 +20,21 @@ import com.realtime.chat.domain.RoomType;
 import com.realtime.chat.domain.User;
 import com.realtime.chat.dto.MessagePersistedNotification;
 import com.realtime.chat.event.ChatMessageEvent;
+import com.realtime.chat.repository.ChatRoomMemberBulkRepository.SentMessages;
 import com.realtime.chat.repository.ChatRoomMemberRepository;
 import com.realtime.chat.repository.ChatRoomRepository;
 import com.realtime.chat.repository.MessageRepository;
 import com.realtime.chat.repository.UserRepository;
+import com.realtime.chat.service.KnownEntityIdCache;
+import com.realtime.chat.service.MessageHopTracer;
 import com.realtime.chat.service.RedisPubSubService;
+import com.realtime.chat.service.RoomListCache;
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.Timer;
+import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
@@ -34,10 +44,11 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.cache.Cache;
-import org.springframework.cache.CacheManager;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.kafka.listener.BatchListenerFailedException;
 import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.transaction.support.TransactionOperations;
 
 @ExtendWith(MockitoExtension.class)
 class MessagePersistenceConsumerCacheTest {
@@ -56,19 +67,19 @@ class MessagePersistenceConsumerCacheTest {
 
   @Mock private Timer messagesLatencyTimer;
 
-  @Mock private Counter roomsCacheEvictionsCounter;
+  @Mock private RoomListCache roomListCache;
 
-  @Mock private CacheManager cacheManager;
+  @Mock private RedisPubSubService redisPubSubService;
 
-  @Mock private Cache roomsCache;
+  @Mock private KnownEntityIdCache knownEntityIdCache;
 
-  @Mock private RedisPubSubService redisPubSubService;
+  @Mock private MessageHopTracer messageHopTracer;
 
   @Mock private Acknowledgment acknowledgment;
 
   @Test
-  @DisplayName("메시지 저장 시 해당 room 멤버의 rooms cache만 evict한다")
-  void evictsOnlyRoomMembersRoomsCache() {
+  @DisplayName("메시지 저장 시 room sequence를 할당하고 발신자 row와 room version만 갱신한다")
+  void invalidatesRoomListCacheByRoomVersion() {
     MessagePersistenceConsumer consumer = consumer();
     User sender = new User("sender@test.com", "encoded", "보낸사람");
     ChatRoom room = new ChatRoom(null, RoomType.DIRECT, sender);
@@ -85,17 +96,12 @@ class MessagePersistenceConsumerCacheTest {
             LocalDateTime.now());
     ConsumerRecord<String, ChatMessageEvent> record =
         new ConsumerRecord<>(KafkaConfig.MESSAGES_TOPIC, 0, 0L, "20", event);
-    given(messageRepository.existsByMessageKey(event.getMessageKey())).willReturn(false);
-    given(messageRepository.existsBySenderIdAndClientMessageId(10L, clientMessageId))
-        .willReturn(false);
-    given(chatRoomRepository.findById(20L)).willReturn(Optional.of(room));
-    given(userRepository.findById(10L)).willReturn(Optional.of(sender));
-    given(messageRepository.saveAndFlush(any(Message.class)))
-        .willAnswer(invocation -> invocation.getArgument(0));
-    given(chatRoomMemberRepository.findUserIdsByRoomId(20L)).willReturn(List.of(10L, 11L));
-    given(cacheManager.getCache("rooms")).willReturn(roomsCache);
-
-    consumer.consume(record, acknowledgment);
+    given(chatRoomRepository.getReferenceById(20L)).willReturn(room);
+    given(userRepository.getReferenceById(10L)).willReturn(sender);
+    given(chatRoomRepository.allocateMessageSeqs(20L, 1)).willReturn(Optional.of(5L));
+    given(messageRepository.insertIfAbsent(any(Message.class))).willReturn(Optional.of(100L));
+
+    consumer.consumeBatch(List.of(record), acknowledgment);
 
     ArgumentCaptor<MessagePersistedNotification> notificationCaptor =
         ArgumentCaptor.forClass(MessagePersistedNotification.class);
@@ -104,82 +110,133 @@ class MessagePersistenceConsumerCacheTest {
     assertThat(notification.getTargetUserId()).isEqualTo(10L);
     assertThat(notification.getClientMessageId()).isEqualTo(clientMessageId);
     assertThat(notification.getMessageKey()).isEqualTo(event.getMessageKey());
+    assertThat(notification.getMessageId()).isEqualTo(100L);
     assertThat(notification.getRoomId()).isEqualTo(20L);
 
-    verify(roomsCache).evict(10L);
-    verify(roomsCache).evict(11L);
-    verify(roomsCache, never()).evict(99L);
-    verify(roomsCache, never()).clear();
-    verify(roomsCacheEvictionsCounter, org.mockito.Mockito.times(2)).increment();
+    ArgumentCaptor<Message> messageCaptor = ArgumentCaptor.forClass(Message.class);
+    verify(messageRepository).insertIfAbsent(messageCaptor.capture());
+    assertThat(messageCaptor.getValue().getRoomSeq()).isEqualTo(5L);
+    verify(chatRoomMemberRepository).recordSentMessages(20L, Map.of(10L, new SentMessages(1, 5L)));
+    verify(roomListCache).invalidateRoom(20L);
+    verify(chatRoomMemberRepository, never()).findUserIdsByRoomId(any());
     verify(acknowledgment).acknowledge();
   }
 
   @Test
-  @DisplayName("동일 messageKey 중복 메시지는 저장과 부수 효과 없이 acknowledge한다")
-  void duplicateMessageKeyAcknowledgesWithoutSideEffects() {
+  @DisplayName("ON CONFLICT로 insert되지 않은 중복 메시지는 사전 exists 조회 없이 부수 효과 없이 acknowledge한다")
+  void duplicateMessageAcknowledgesWithoutSideEffects() {
     MessagePersistenceConsumer consumer = consumer();
     ChatMessageEvent event = event(UUID.randomUUID(), UUID.randomUUID());
     ConsumerRecord<String, ChatMessageEvent> record =
         new ConsumerRecord<>(KafkaConfig.MESSAGES_TOPIC, 0, 0L, "20", event);
-    given(messageRepository.existsByMessageKey(event.getMessageKey())).willReturn(true);
+    givenRoomAndSender();
+    given(messageRepository.insertIfAbsent(any(Message.class))).willReturn(Optional.empty());
 
-    consumer.consume(record, acknowledgment);
+    consumer.consumeBatch(List.of(record), acknowledgment);
 
     verify(acknowledgment).acknowledge();
+    verify(messageRepository, never()).existsByMessageKey(any());
+    verify(messageRepository, never()).existsBySenderIdAndClientMessageId(any(), any());
     verify(messageRepository, never()).saveAndFlush(any(Message.class));
+    verify(chatRoomRepository).releaseMessageSeqs(20L, 1);
     verify(redisPubSubService, never()).publishPersisted(any(MessagePersistedNotification.class));
-    verifyNoInteractions(chatRoomRepository, userRepository, chatRoomMemberRepository, cacheManager);
+    verifyNoInteractions(chatRoomMemberRepository, roomListCache);
     verify(messagesPersistedCounter, never()).increment();
     verify(messagesFailedCounter, never()).increment();
   }
 
   @Test
-  @DisplayName("동일 senderId/clientMessageId 중복 메시지는 저장과 부수 효과 없이 acknowledge한다")
-  void duplicateClientMessageIdAcknowledgesWithoutSideEffects() {
+  @DisplayName("중복이 아닌 무결성 위반은 중복으로 삼키지 않고 ErrorHandler로 재전파한다")
+  void nonDuplicateIntegrityViolationIsRethrown() {
     MessagePersistenceConsumer consumer = consumer();
-    UUID clientMessageId = UUID.randomUUID();
-    ChatMessageEvent event = event(UUID.randomUUID(), clientMessageId);
+    ChatMessageEvent event = event(UUID.randomUUID(), UUID.randomUUID());
     ConsumerRecord<String, ChatMessageEvent> record =
         new ConsumerRecord<>(KafkaConfig.MESSAGES_TOPIC, 0, 0L, "20", event);
-    given(messageRepository.existsByMessageKey(event.getMessageKey())).willReturn(false);
-    given(messageRepository.existsBySenderIdAndClientMessageId(10L, clientMessageId))
-        .willReturn(true);
+    givenRoomAndSender();
+    given(messageRepository.insertIfAbsent(any(Message.class)))
+        .willThrow(new DataIntegrityViolationException("value too long"));
 
-    consumer.consume(record, acknowledgment);
+    assertThatThrownBy(() -> consumer.consumeBatch(List.of(record), acknowledgment))
+        .isInstanceOf(BatchListenerFailedException.class)
+        .cause()
+        .isInstanceOf(DataIntegrityViolationException.class);
 
-    verify(acknowledgment).acknowledge();
-    verify(messageRepository, never()).saveAndFlush(any(Message.class));
-    verify(redisPubSubService, never()).publishPersisted(any(MessagePersistedNotification.class));
-    verifyNoInteractions(chatRoomRepository, userRepository, chatRoomMemberRepository, cacheManager);
+    verify(acknowledgment, never()).acknowledge();
+    verifyNoInteractions(chatRoomMemberRepository, roomListCache);
     verify(messagesPersistedCounter, never()).increment();
-    verify(messagesFailedCounter, never()).increment();
+    verify(messagesFailedCounter).increment();
   }
 
   @Test
-  @DisplayName("saveAndFlush 중 unique 충돌 후 중복 키가 확인되면 idempotent duplicate로 acknowledge한다")
-  void dataIntegrityViolationAcknowledgesWhenDuplicateAppearsAfterFlush() {
+  @DisplayName("캐시에 남아 있던 room/user가 삭제되어 FK 위반이 나면 캐시에서 evict하고 NOT_FOUND로 재전파한다")
+  void foreignKeyViolationEvictsKnownIdsAndThrowsNotFound() {
     MessagePersistenceConsumer consumer = consumer();
-    User sender = new User("sender@test.com", "encoded", "보낸사람");
-    ChatRoom room = new ChatRoom(null, RoomType.DIRECT, sender);
-    UUID clientMessageId = UUID.randomUUID();
-    ChatMessageEvent event = event(UUID.randomUUID(), clientMessageId);
+    ChatMessageEvent event = event(UUID.randomUUID(), UUID.randomUUID());
     ConsumerRecord<String, ChatMessageEvent> record =
         new ConsumerRecord<>(KafkaConfig.MESSAGES_TOPIC, 0, 0L, "20", event);
-    given(messageRepository.existsByMessageKey(event.getMessageKey())).willReturn(false, false);
-    given(messageRepository.existsBySenderIdAndClientMessageId(10L, clientMessageId))
-        .willReturn(false, true);
-    given(chatRoomRepository.findById(20L)).willReturn(Optional.of(room));
-    given(userRepository.findById(10L)).willReturn(Optional.of(sender));
-    given(messageRepository.saveAndFlush(any(Message.class)))
-        .willThrow(new DataIntegrityViolationException("duplicate client message"));
+    givenRoomAndSender();
+    given(messageRepository.insertIfAbsent(any(Message.class)))
+        .willThrow(
+            new DataIntegrityViolationException(
+                "insert failed", new SQLException("violates foreign key constraint", "23503")));
+
+    assertThatThrownBy(() -> consumer.consumeBatch(List.of(record), acknowledgment))
+        .isInstanceOf(BatchListenerFailedException.class)
+        .cause()
+        .isInstanceOf(BusinessException.class)
+        .satisfies(
+            e -> assertThat(((BusinessException) e).getStatus()).isEqualTo(HttpStatus.NOT_FOUND));
+
+    verify(knownEntityIdCache).evictRoom(20L);
+    verify(knownEntityIdCache).evictUser(10L);
+    verify(acknowledgment, never()).acknowledge();
+    verify(messagesFailedCounter).increment();
+  }
 
-    consumer.consume(record, acknowledgment);
+  @Test
+  @DisplayName("존재하지 않는 채팅방이면 insert 없이 NOT_FOUND로 재전파한다")
+  void unknownRoomThrowsNotFoundWithoutInsert() {
+    MessagePersistenceConsumer consumer = consumer();
+    ChatMessageEvent event = event(UUID.randomUUID(), UUID.randomUUID());
+    ConsumerRecord<String, ChatMessageEvent> record =
+        new ConsumerRecord<>(KafkaConfig.MESSAGES_TOPIC, 0, 0L, "20", event);
+    willThrow(new BusinessException(HttpStatus.NOT_FOUND, "채팅방을 찾을 수 없습니다."))
+        .given(knownEntityIdCache)
+        .requireRoom(20L);
+
+    assertThatThrownBy(() -> consumer.consumeBatch(List.of(record), acknowledgment))
+        .isInstanceOf(BatchListenerFailedException.class)
+        .cause()
+        .isInstanceOf(BusinessException.class);
+
+    verify(messageRepository, never()).insertIfAbsent(any(Message.class));
+    verify(acknowledgment, never()).acknowledge();
+    verify(messagesFailedCounter).increment();
+  }
 
-    verify(acknowledgment).acknowledge();
-    verify(chatRoomMemberRepository, never()).incrementUnreadCountForOtherMembers(any(), any());
-    verify(cacheManager, never()).getCache("rooms");
-    verify(messagesPersistedCounter, never()).increment();
-    verify(messagesFailedCounter, never()).increment();
+  @Test
+  @DisplayName("sequence 할당 시 채팅방 row가 없으면 캐시에서 evict하고 insert 없이 NOT_FOUND로 재전파한다")
+  void deletedRoomOnSequenceAllocationThrowsNotFound() {
+    MessagePersistenceConsumer consumer = consumer();
+    ChatMessageEvent event = event(UUID.randomUUID(), UUID.randomUUID());
+    ConsumerRecord<String, ChatMessageEvent> record =
+        new ConsumerRecord<>(KafkaConfig.MESSAGES_TOPIC, 0, 0L, "20", event);
+    User sender = new User("sender@test.com", "encoded", "보낸사람");
+    given(chatRoomRepository.getReferenceById(20L))
+        .willReturn(new ChatRoom(null, RoomType.DIRECT, sender));
+    given(userRepository.getReferenceById(10L)).willReturn(sender);
+    given(chatRoomRepository.allocateMessageSeqs(20L, 1)).willReturn(Optional.empty());
+
+    assertThatThrownBy(() -> consumer.consumeBatch(List.of(record), acknowledgment))
+        .isInstanceOf(BatchListenerFailedException.class)
+        .cause()
+        .isInstanceOf(BusinessException.class)
+        .satisfies(
+            e -> assertThat(((BusinessException) e).getStatus()).isEqualTo(HttpStatus.NOT_FOUND));
+
+    verify(knownEntityIdCache).evictRoom(20L);
+    verify(messageRepository, never()).insertIfAbsent(any(Message.class));
+    verify(acknowledgment, never()).acknowledge();
   }
 
   @Test
@@ -195,10 +252,11 @@ class MessagePersistenceConsumerCacheTest {
         new Message(messageKey, clientMessageId, room, sender, "안녕하세요", MessageType.TEXT);
     ConsumerRecord<String, ChatMessageEvent> record =
         new ConsumerRecord<>(KafkaConfig.MESSAGES_TOPIC, 0, 0L, "20", event);
-    given(messageRepository.existsByMessageKey(messageKey)).willReturn(true);
+    givenRoomAndSender();
+    given(messageRepository.insertIfAbsent(any(Message.class))).willReturn(Optional.empty());
     given(messageRepository.findByMessageKey(messageKey)).willReturn(Optional.of(existingMessage));
 
-    consumer.consume(record, acknowledgment);
+    consumer.consumeBatch(List.of(record), acknowledgment);
 
     ArgumentCaptor<MessagePersistedNotification> notificationCaptor =
         ArgumentCaptor.forClass(MessagePersistedNotification.class);
@@ -206,8 +264,7 @@ class MessagePersistenceConsumerCacheTest {
     assertThat(notificationCaptor.getValue().getTargetUserId()).isEqualTo(10L);
     assertThat(notificationCaptor.getValue().getClientMessageId()).isEqualTo(clientMessageId);
     verify(acknowledgment).acknowledge();
-    verify(messageRepository, never()).saveAndFlush(any(Message.class));
-    verifyNoInteractions(chatRoomRepository, userRepository, chatRoomMemberRepository, cacheManager);
+    verifyNoInteractions(chatRoomMemberRepository, roomListCache);
   }
 
   @Test
@@ -222,13 +279,13 @@ class MessagePersistenceConsumerCacheTest {
         new Message(UUID.randomUUID(), clientMessageId, room, sender, "안녕하세요", MessageType.TEXT);
     ConsumerRecord<String, ChatMessageEvent> record =
         new ConsumerRecord<>(KafkaConfig.MESSAGES_TOPIC, 0, 0L, "20", event);
-    given(messageRepository.existsByMessageKey(event.getMessageKey())).willReturn(false);
-    given(messageRepository.existsBySenderIdAndClientMessageId(10L, clientMessageId))
-        .willReturn(true);
+    givenRoomAndSender();
+    given(messageRepository.insertIfAbsent(any(Message.class))).willReturn(Optional.empty());
+    given(messageRepository.findByMessageKey(event.getMessageKey())).willReturn(Optional.empty());
     given(messageRepository.findBySenderIdAndClientMessageId(10L, clientMessageId))
         .willReturn(Optional.of(existingMessage));
 
-    consumer.consume(record, acknowledgment);
+    consumer.consumeBatch(List.of(record), acknowledgment);
 
     ArgumentCaptor<MessagePersistedNotification> notificationCaptor =
         ArgumentCaptor.forClass(MessagePersistedNotification.class);
@@ -236,8 +293,15 @@ class MessagePersistenceConsumerCacheTest {
     assertThat(notificationCaptor.getValue().getTargetUserId()).isEqualTo(10L);
     assertThat(notificationCaptor.getValue().getClientMessageId()).isEqualTo(clientMessageId);
     verify(acknowledgment).acknowledge();
-    verify(messageRepository, never()).saveAndFlush(any(Message.class));
-    verifyNoInteractions(chatRoomRepository, userRepository, chatRoomMemberRepository, cacheManager);
+    verifyNoInteractions(chatRoomMemberRepository, roomListCache);
+  }
+
+  private void givenRoomAndSender() {
+    User sender = new User("sender@test.com", "encoded", "보낸사람");
+    given(chatRoomRepository.getReferenceById(20L))
+        .willReturn(new ChatRoom(null, RoomType.DIRECT, sender));
+    given(userRepository.getReferenceById(10L)).willReturn(sender);
+    given(chatRoomRepository.allocateMessageSeqs(20L, 1)).willReturn(Optional.of(5L));
   }
 
   private ChatMessageEvent event(UUID messageKey, UUID clientMessageId) {
@@ -261,8 +325,11 @@ class MessagePersistenceConsumerCacheTest {
         messagesPersistedCounter,
         messagesFailedCounter,
         messagesLatencyTimer,
-        roomsCacheEvictionsCounter,
-        cacheManager,
-        redisPubSubService);
+        roomListCache,
+        redisPubSubService,
+        TransactionOperations.withoutTransaction(),
+        knownEntityIdCache,
+        new KeyOrderedRecordProcessor(false, 1),
+        messageHopTracer);
   }
 }
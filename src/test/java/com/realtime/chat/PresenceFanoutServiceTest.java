@@ -0,0 +1,137 @@
+package com.realtime.chat;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import com.realtime.chat.dto.PresenceEvent;
+import com.realtime.chat.dto.UserRoomMembership;
+import com.realtime.chat.repository.ChatRoomMemberRepository;
+import com.realtime.chat.service.PresenceFanoutService;
+import com.realtime.chat.service.RoomSubscriptionRegistry;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class PresenceFanoutServiceTest {
+
+  private static final Duration WINDOW = Duration.ofMillis(250);
+
+  @Mock private SimpMessagingTemplate messagingTemplate;
+
+  @Mock private ChatRoomMemberRepository chatRoomMemberRepository;
+
+  @Mock private RoomSubscriptionRegistry roomSubscriptionRegistry;
+
+  @Mock private ScheduledExecutorService scheduler;
+
+  @Test
+  @DisplayName("window 안의 전환은 멤버십 조회 1회로 user가 속한 room presence topic에만 마지막 이벤트를 보낸다")
+  void sendsNetTransitionToUserRoomsOnly() {
+    PresenceFanoutService service = service();
+    PresenceEvent online = new PresenceEvent(10L, "ONLINE", 1L);
+    given(roomSubscriptionRegistry.localRoomIds()).willReturn(Set.of(20L, 21L));
+    given(
+            chatRoomMemberRepository.findMembershipsByUserIdsAndRoomIds(
+                eq(Set.of(10L)), argThat(roomIds -> Set.copyOf(roomIds).equals(Set.of(20L, 21L)))))
+        .willReturn(List.of(new UserRoomMembership(10L, 20L), new UserRoomMembership(10L, 21L)));
+
+    service.enqueue(online);
+    service.flush();
+
+    verify(messagingTemplate).convertAndSend("/topic/room.20.presence", online);
+    verify(messagingTemplate).convertAndSend("/topic/room.21.presence", online);
+    verify(messagingTemplate, never()).convertAndSend(eq("/topic/presence"), any(Object.class));
+  }
+
+  @Test
+  @DisplayName("window 안에서 끊겼다 다시 연결된 user는 상태가 같으므로 보내지 않고, 왕복 후 다시 끊긴 user는 한 번만 보낸다")
+  void coalescesFlappingConnections() {
+    PresenceFanoutService service = service();
+    PresenceEvent lastOffline = new PresenceEvent(11L, "OFFLINE", 3L);
+    given(roomSubscriptionRegistry.localRoomIds()).willReturn(Set.of(20L));
+    given(chatRoomMemberRepository.findMembershipsByUserIdsAndRoomIds(Set.of(11L), List.of(20L)))
+        .willReturn(List.of(new UserRoomMembership(11L, 20L)));
+
+    service.enqueue(new PresenceEvent(10L, "OFFLINE", 1L));
+    service.enqueue(new PresenceEvent(10L, "ONLINE", 2L));
+    service.enqueue(new PresenceEvent(11L, "OFFLINE", 1L));
+    service.enqueue(new PresenceEvent(11L, "ONLINE", 2L));
+    service.enqueue(lastOffline);
+    service.flush();
+
+    verify(messagingTemplate, times(1)).convertAndSend(any(String.class), any(Object.class));
+    verify(messagingTemplate).convertAndSend("/topic/room.20.presence", lastOffline);
+    verify(scheduler, times(1)).schedule(any(Runnable.class), eq(250L), eq(TimeUnit.MILLISECONDS));
+  }
+
+  @Test
+  @DisplayName("net 전환이 없는 window는 멤버십을 조회하지 않는다")
+  void skipsMembershipLookupWithoutNetTransition() {
+    PresenceFanoutService service = service();
+
+    service.enqueue(new PresenceEvent(10L, "OFFLINE", 1L));
+    service.enqueue(new PresenceEvent(10L, "ONLINE", 2L));
+    service.flush();
+
+    verifyNoInteractions(chatRoomMemberRepository, roomSubscriptionRegistry, messagingTemplate);
+  }
+
+  @Test
+  @DisplayName("로컬 구독자가 있는 room이 없으면 멤버십을 조회하지도 보내지도 않는다")
+  void skipsFanoutWithoutLocalSubscribers() {
+    PresenceFanoutService service = service();
+    given(roomSubscriptionRegistry.localRoomIds()).willReturn(Set.of());
+
+    service.enqueue(new PresenceEvent(10L, "ONLINE", 1L));
+    service.flush();
+
+    verify(chatRoomMemberRepository, never())
+        .findMembershipsByUserIdsAndRoomIds(anyCollection(), anyCollection());
+    verifyNoInteractions(messagingTemplate);
+  }
+
+  @Test
+  @DisplayName("로컬 구독 room이 많으면 room id를 chunk로 나눠 조회한다")
+  void looksUpMembershipsInRoomChunks() {
+    PresenceFanoutService service = service();
+    Set<Long> localRoomIds =
+        LongStream.rangeClosed(1, 1500).boxed().collect(Collectors.toSet());
+    given(roomSubscriptionRegistry.localRoomIds()).willReturn(localRoomIds);
+
+    service.enqueue(new PresenceEvent(10L, "ONLINE", 1L));
+    service.flush();
+
+    ArgumentCaptor<Collection<Long>> roomIdsCaptor = ArgumentCaptor.forClass(Collection.class);
+    verify(chatRoomMemberRepository, times(2))
+        .findMembershipsByUserIdsAndRoomIds(eq(Set.of(10L)), roomIdsCaptor.capture());
+    assertThat(roomIdsCaptor.getAllValues())
+        .extracting(Collection::size)
+        .containsExactly(1000, 500);
+  }
+
+  private PresenceFanoutService service() {
+    return new PresenceFanoutService(
+        messagingTemplate, chatRoomMemberRepository, roomSubscriptionRegistry, WINDOW, scheduler);
+  }
+}
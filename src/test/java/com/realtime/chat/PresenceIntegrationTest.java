@@ -77,6 +77,23 @@ class PresenceIntegrationTest extends BaseIntegrationTest {
     assertThat(presenceService.isOnline(user1Id)).isFalse();
   }
 
+  @Test
+  @DisplayName("Lua presence script: session 단위 online/offline 전환과 heartbeat")
+  void sessionTransitionsWithScripts() {
+    // 첫 session만 offline → online 전환
+    assertThat(presenceService.setOnline(user1Id, "s1")).isTrue();
+    assertThat(presenceService.setOnline(user1Id, "s2")).isFalse();
+    assertThat(presenceService.refreshSession(user1Id, "s1")).isTrue();
+    assertThat(presenceService.refreshSession(user1Id, "unknown")).isFalse();
+
+    // 마지막 session 해제에서만 online → offline 전환
+    assertThat(presenceService.setOffline(user1Id, "s1")).isFalse();
+    assertThat(presenceService.isOnline(user1Id)).isTrue();
+    assertThat(presenceService.setOffline(user1Id, "s2")).isTrue();
+    assertThat(presenceService.isOnline(user1Id)).isFalse();
+    assertThat(presenceService.refreshSession(user1Id, "s2")).isFalse();
+  }
+
   @Test
   @DisplayName("채팅방 멤버 중 온라인 유저 조회")
   void getOnlineMembers() {
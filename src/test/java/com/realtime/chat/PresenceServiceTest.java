@@ -1,106 +1,144 @@
 package com.realtime.chat;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 import com.realtime.chat.repository.ChatRoomMemberRepository;
 import com.realtime.chat.service.PresenceService;
-import java.time.Duration;
-import java.util.Set;
+import java.util.List;
+import java.util.stream.LongStream;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.redis.core.SetOperations;
 import org.springframework.data.redis.core.StringRedisTemplate;
-import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
 
 @ExtendWith(MockitoExtension.class)
 class PresenceServiceTest {
 
-  private static final Duration PRESENCE_TTL = Duration.ofSeconds(60);
+  private static final List<String> SESSION_EXPIRY_KEY = List.of("user:presence:10:session-expiry");
+  private static final String PRESENCE_TTL_MILLIS = "60000";
 
   @Mock private StringRedisTemplate redisTemplate;
 
-  @Mock private ValueOperations<String, String> valueOperations;
-
-  @Mock private SetOperations<String, String> setOperations;
-
   @Mock private ChatRoomMemberRepository chatRoomMemberRepository;
 
   @Test
-  @DisplayName("session 단위 online key와 user session set을 TTL과 함께 생성한다")
-  void setOnlineCreatesSessionKeyAndSessionSet() {
+  @DisplayName("session 연결은 connect script 1회로 만료 시각을 등록하고 offline → online 전환 여부를 돌려준다")
+  void setOnlineRunsConnectScriptOnce() {
     PresenceService service = service();
-    givenAllRedisOperations();
-    given(setOperations.members("user:presence:10:sessions")).willReturn(Set.of());
+    given(
+            redisTemplate.execute(
+                any(RedisScript.class), eq(SESSION_EXPIRY_KEY), eq("s1"), eq(PRESENCE_TTL_MILLIS)))
+        .willReturn(1L);
 
     boolean becameOnline = service.setOnline(10L, "s1");
 
     assertThat(becameOnline).isTrue();
-    verify(valueOperations).set("user:presence:10:session:s1", "ONLINE", PRESENCE_TTL);
-    verify(setOperations).add("user:presence:10:sessions", "s1");
-    verify(redisTemplate).expire("user:presence:10:sessions", PRESENCE_TTL);
+    assertThat(executedScript()).contains("ZADD").contains("PEXPIRE");
   }
 
   @Test
   @DisplayName("같은 user의 session 2개 중 1개 disconnect 후에도 online 상태를 유지한다")
   void disconnectOneSessionKeepsUserOnline() {
     PresenceService service = service();
-    givenSetOperations();
-    given(setOperations.members("user:presence:10:sessions")).willReturn(Set.of("s2"));
-    given(redisTemplate.hasKey("user:presence:10:session:s2")).willReturn(true);
+    given(redisTemplate.execute(any(RedisScript.class), eq(SESSION_EXPIRY_KEY), eq("s1")))
+        .willReturn(0L);
 
     boolean becameOffline = service.setOffline(10L, "s1");
 
     assertThat(becameOffline).isFalse();
-    verify(redisTemplate).delete("user:presence:10:session:s1");
-    verify(setOperations).remove("user:presence:10:sessions", "s1");
-    verify(redisTemplate, never()).delete("user:presence:10:sessions");
+    assertThat(executedScript()).contains("ZREM");
   }
 
   @Test
   @DisplayName("마지막 session disconnect 시 offline 상태가 된다")
   void disconnectLastSessionMakesUserOffline() {
     PresenceService service = service();
-    givenSetOperations();
-    given(setOperations.members("user:presence:10:sessions")).willReturn(Set.of());
+    given(redisTemplate.execute(any(RedisScript.class), eq(SESSION_EXPIRY_KEY), eq("s1")))
+        .willReturn(1L);
 
     boolean becameOffline = service.setOffline(10L, "s1");
 
     assertThat(becameOffline).isTrue();
-    verify(redisTemplate).delete("user:presence:10:session:s1");
-    verify(setOperations).remove("user:presence:10:sessions", "s1");
-    verify(redisTemplate).delete("user:presence:10:sessions");
   }
 
   @Test
-  @DisplayName("heartbeat는 살아있는 session key의 TTL을 갱신한다")
-  void refreshSessionExtendsTtl() {
+  @DisplayName("heartbeat는 만료되지 않은 session만 갱신하고, 모르는 session은 false를 돌려준다")
+  void refreshSessionOnlyExtendsLiveSession() {
     PresenceService service = service();
-    givenAllRedisOperations();
-    given(redisTemplate.hasKey("user:presence:10:session:s1")).willReturn(true);
+    given(
+            redisTemplate.execute(
+                any(RedisScript.class), eq(SESSION_EXPIRY_KEY), eq("s1"), eq(PRESENCE_TTL_MILLIS)))
+        .willReturn(1L);
+    given(
+            redisTemplate.execute(
+                any(RedisScript.class), eq(SESSION_EXPIRY_KEY), eq("s9"), eq(PRESENCE_TTL_MILLIS)))
+        .willReturn(0L);
+
+    assertThat(service.refreshSession(10L, "s1")).isTrue();
+    assertThat(service.refreshSession(10L, "s9")).isFalse();
+  }
 
-    boolean refreshed = service.refreshSession(10L, "s1");
+  @Test
+  @DisplayName("online 확인은 script 결과가 없으면 offline으로 본다")
+  void isOnlineTreatsMissingResultAsOffline() {
+    PresenceService service = service();
+    given(redisTemplate.execute(any(RedisScript.class), eq(SESSION_EXPIRY_KEY)))
+        .willReturn(null);
 
-    assertThat(refreshed).isTrue();
-    verify(valueOperations).set("user:presence:10:session:s1", "ONLINE", PRESENCE_TTL);
-    verify(redisTemplate).expire("user:presence:10:sessions", PRESENCE_TTL);
+    assertThat(service.isOnline(10L)).isFalse();
   }
 
-  private PresenceService service() {
-    return new PresenceService(redisTemplate, chatRoomMemberRepository);
+  @Test
+  @DisplayName("채팅방 online 멤버는 멤버 id projection 1회와 script 1회로 조회한다")
+  void getOnlineMembersUsesProjectionAndSingleScript() {
+    PresenceService service = service();
+    given(chatRoomMemberRepository.findUserIdsByRoomId(20L)).willReturn(List.of(10L, 11L, 12L));
+    given(
+            redisTemplate.execute(
+                any(RedisScript.class),
+                eq(
+                    List.of(
+                        "user:presence:10:session-expiry",
+                        "user:presence:11:session-expiry",
+                        "user:presence:12:session-expiry"))))
+        .willReturn(List.of(1L, 3L));
+
+    assertThat(service.getOnlineMembers(20L)).containsExactlyInAnyOrder(10L, 12L);
+    verify(chatRoomMemberRepository, never()).findAllByChatRoomId(20L);
+  }
+
+  @Test
+  @DisplayName("1,000명을 넘는 멤버는 1,000명 단위 chunk마다 script를 한 번씩 실행한다")
+  void findOnlineUserIdsChunksLargeRooms() {
+    PresenceService service = service();
+    List<Long> userIds = LongStream.rangeClosed(1, 2_500).boxed().toList();
+    given(redisTemplate.execute(any(RedisScript.class), anyList()))
+        .willReturn(List.of(1L), List.of(1000L), List.of(500L));
+
+    assertThat(service.findOnlineUserIds(userIds)).containsExactlyInAnyOrder(1L, 2_000L, 2_500L);
+    verify(redisTemplate, times(3)).execute(any(RedisScript.class), anyList());
   }
 
-  private void givenAllRedisOperations() {
-    given(redisTemplate.opsForValue()).willReturn(valueOperations);
-    givenSetOperations();
+  @SuppressWarnings("unchecked")
+  private String executedScript() {
+    ArgumentCaptor<RedisScript<Long>> scriptCaptor = ArgumentCaptor.forClass(RedisScript.class);
+    verify(redisTemplate)
+        .execute(scriptCaptor.capture(), eq(SESSION_EXPIRY_KEY), any(Object[].class));
+    return scriptCaptor.getValue().getScriptAsString();
   }
 
-  private void givenSetOperations() {
-    given(redisTemplate.opsForSet()).willReturn(setOperations);
+  private PresenceService service() {
+    return new PresenceService(redisTemplate, chatRoomMemberRepository);
   }
 }
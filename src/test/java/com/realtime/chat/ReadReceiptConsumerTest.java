@@ -0,0 +1,97 @@
+package com.realtime.chat;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willDoNothing;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import com.realtime.chat.common.BusinessException;
+import com.realtime.chat.config.KafkaConfig;
+import com.realtime.chat.consumer.KeyOrderedRecordProcessor;
+import com.realtime.chat.consumer.ReadReceiptConsumer;
+import com.realtime.chat.event.ReadReceiptEvent;
+import com.realtime.chat.service.ReadReceiptService;
+import io.micrometer.core.instrument.Counter;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.support.Acknowledgment;
+
+@ExtendWith(MockitoExtension.class)
+class ReadReceiptConsumerTest {
+
+  @Mock private ReadReceiptService readReceiptService;
+
+  @Mock private Counter readReceiptsReceivedCounter;
+
+  @Mock private Counter readReceiptsAppliedCounter;
+
+  @Mock private Acknowledgment ack;
+
+  @Test
+  @DisplayName("poll batch는 합쳐서 한 번에 반영하고 수신/반영 수를 기록한 뒤 한 번만 ack한다")
+  void appliesCoalescedBatchAndRecordsRatio() {
+    ReadReceiptConsumer consumer = consumer();
+    ReadReceiptEvent first = event(100L);
+    ReadReceiptEvent second = event(101L);
+    ReadReceiptEvent third = event(102L);
+    given(readReceiptService.processReadReceipts(List.of(first, second, third))).willReturn(1);
+
+    consumer.consumeBatch(List.of(record(0L, first), record(1L, second), record(2L, third)), ack);
+
+    verify(readReceiptsReceivedCounter).increment(3);
+    verify(readReceiptsAppliedCounter).increment(1);
+    verify(readReceiptService, never()).processReadReceipt(first);
+    verify(ack).acknowledge();
+  }
+
+  @Test
+  @DisplayName("batch 반영이 실패하면 record 단위로 재처리하고 실패 record index를 ErrorHandler에 넘긴다")
+  void fallsBackToPerRecordAndReportsFailedIndex() {
+    ReadReceiptConsumer consumer = consumer();
+    ReadReceiptEvent first = event(100L);
+    ReadReceiptEvent broken = event(101L);
+    given(readReceiptService.processReadReceipts(anyList()))
+        .willThrow(new BusinessException(HttpStatus.NOT_FOUND, "채팅방 멤버를 찾을 수 없습니다."));
+    willDoNothing().given(readReceiptService).processReadReceipt(first);
+    willThrow(new BusinessException(HttpStatus.NOT_FOUND, "채팅방 멤버를 찾을 수 없습니다."))
+        .given(readReceiptService)
+        .processReadReceipt(broken);
+
+    assertThatThrownBy(
+            () -> consumer.consumeBatch(List.of(record(0L, first), record(1L, broken)), ack))
+        .isInstanceOfSatisfying(
+            BatchListenerFailedException.class, e -> assertThat(e.getIndex()).isEqualTo(1));
+
+    verify(readReceiptService).processReadReceipt(first);
+    verify(readReceiptsAppliedCounter).increment();
+    verify(ack, never()).acknowledge();
+  }
+
+  private ReadReceiptConsumer consumer() {
+    return new ReadReceiptConsumer(
+        readReceiptService,
+        readReceiptsReceivedCounter,
+        readReceiptsAppliedCounter,
+        new KeyOrderedRecordProcessor(false, 1));
+  }
+
+  private ConsumerRecord<String, ReadReceiptEvent> record(long offset, ReadReceiptEvent event) {
+    return new ConsumerRecord<>(KafkaConfig.READ_RECEIPTS_TOPIC, 0, offset, "20", event);
+  }
+
+  private ReadReceiptEvent event(Long lastReadMessageId) {
+    return new ReadReceiptEvent(20L, 10L, lastReadMessageId, LocalDateTime.now());
+  }
+}
@@ -2,20 +2,24 @@ package com.realtime.chat;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import com.realtime.chat.config.KafkaConfig;
+import com.realtime.chat.consumer.MessagePersistenceConsumer;
 import com.realtime.chat.domain.ChatRoom;
-import com.realtime.chat.domain.ChatRoomMember;
-import com.realtime.chat.domain.Message;
 import com.realtime.chat.domain.MessageType;
 import com.realtime.chat.domain.RoomType;
 import com.realtime.chat.domain.User;
+import com.realtime.chat.event.ChatMessageEvent;
 import com.realtime.chat.event.ReadReceiptEvent;
 import com.realtime.chat.repository.ChatRoomMemberRepository;
 import com.realtime.chat.repository.ChatRoomRepository;
 import com.realtime.chat.repository.MessageRepository;
 import com.realtime.chat.repository.UserRepository;
+import com.realtime.chat.service.ChatRoomService;
 import com.realtime.chat.service.ReadReceiptService;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -33,6 +37,12 @@ class ReadReceiptIntegrationTest extends BaseIntegrationTest {
 
   @Autowired private ReadReceiptService readReceiptService;
 
+  @Autowired private ChatRoomService chatRoomService;
+
+  @Autowired private MessagePersistenceConsumer messagePersistenceConsumer;
+
+  private long offset;
+
   @BeforeEach
   void setUp() {
     messageRepository.deleteAll();
@@ -47,17 +57,17 @@ class ReadReceiptIntegrationTest extends BaseIntegrationTest {
     User user1 = userRepository.save(new User("user1@test.com", "encoded", "유저1"));
     User user2 = userRepository.save(new User("user2@test.com", "encoded", "유저2"));
     ChatRoom room = createRoomWithMembers(user1, user2);
-    messageRepository.saveAndFlush(
-        new Message(UUID.randomUUID(), room, user1, "내 메시지", MessageType.TEXT));
-    messageRepository.saveAndFlush(
-        new Message(UUID.randomUUID(), room, user2, "상대 메시지", MessageType.TEXT));
+    Long firstMessageId = send(room, user2, "상대 메시지 1");
+    send(room, user1, "내 메시지");
+    send(room, user2, "상대 메시지 2");
 
     readReceiptService.processReadReceipt(
-        new ReadReceiptEvent(room.getId(), user1.getId(), 0L, LocalDateTime.now()));
+        new ReadReceiptEvent(room.getId(), user1.getId(), firstMessageId, LocalDateTime.now()));
 
-    ChatRoomMember member =
-        chatRoomMemberRepository.findByChatRoomIdAndUserId(room.getId(), user1.getId()).get();
-    assertThat(member.getUnreadCount()).isEqualTo(1);
+    assertThat(chatRoomMemberRepository.findUnreadCount(room.getId(), user1.getId()))
+        .contains(1L);
+    assertThat(chatRoomMemberRepository.findUnreadCount(room.getId(), user2.getId()))
+        .contains(1L);
   }
 
   @Test
@@ -69,19 +79,13 @@ class ReadReceiptIntegrationTest extends BaseIntegrationTest {
     room.addMember(owner);
     chatRoomRepository.saveAndFlush(room);
 
-    messageRepository.saveAndFlush(
-        new Message(UUID.randomUUID(), room, owner, "참여 전 메시지", MessageType.TEXT));
-    room.addMember(lateMember);
-    chatRoomRepository.saveAndFlush(room);
-    messageRepository.saveAndFlush(
-        new Message(UUID.randomUUID(), room, owner, "참여 후 메시지", MessageType.TEXT));
-
-    readReceiptService.processReadReceipt(
-        new ReadReceiptEvent(room.getId(), lateMember.getId(), 0L, LocalDateTime.now()));
+    send(room, owner, "참여 전 메시지");
+    chatRoomService.joinRoom(lateMember.getId(), room.getId());
+    send(room, owner, "참여 후 메시지");
 
-    ChatRoomMember member =
-        chatRoomMemberRepository.findByChatRoomIdAndUserId(room.getId(), lateMember.getId()).get();
-    assertThat(member.getUnreadCount()).isEqualTo(1);
+    assertThat(chatRoomMemberRepository.findUnreadCount(room.getId(), lateMember.getId()))
+        .contains(1L);
+    assertThat(readReceiptService.getUnreadCount(room.getId(), lateMember.getId())).isEqualTo(1);
   }
 
   private ChatRoom createRoomWithMembers(User user1, User user2) {
@@ -90,4 +94,25 @@ class ReadReceiptIntegrationTest extends BaseIntegrationTest {
     room.addMember(user2);
     return chatRoomRepository.saveAndFlush(room);
   }
+
+  // 실제 저장 경로(room sequence 할당 + 발신자 row 갱신)로 메시지를 저장하고 id를 반환
+  private Long send(ChatRoom room, User sender, String content) {
+    UUID messageKey = UUID.randomUUID();
+    ChatMessageEvent event =
+        new ChatMessageEvent(
+            messageKey,
+            room.getId(),
+            sender.getId(),
+            sender.getNickname(),
+            content,
+            MessageType.TEXT,
+            null,
+            LocalDateTime.now());
+    messagePersistenceConsumer.consumeBatch(
+        List.of(
+            new ConsumerRecord<>(
+                KafkaConfig.MESSAGES_TOPIC, 0, offset++, String.valueOf(room.getId()), event)),
+        () -> {});
+    return messageRepository.findByMessageKey(messageKey).orElseThrow().getId();
+  }
 }
@@ -2,11 +2,14 @@ package com.realtime.chat;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 
 import com.realtime.chat.common.BusinessException;
 import com.realtime.chat.domain.ChatRoom;
@@ -17,10 +20,12 @@ import com.realtime.chat.domain.RoomType;
 import com.realtime.chat.domain.User;
 import com.realtime.chat.event.ReadReceiptEvent;
 import com.realtime.chat.producer.ChatMessageProducer;
+import com.realtime.chat.repository.ChatRoomMemberBulkRepository.ReadPosition;
 import com.realtime.chat.repository.ChatRoomMemberRepository;
 import com.realtime.chat.repository.MessageRepository;
 import com.realtime.chat.service.ReadReceiptService;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import org.junit.jupiter.api.DisplayName;
@@ -34,6 +39,8 @@ import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.data.redis.core.ValueOperations;
 import org.springframework.http.HttpStatus;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 @ExtendWith(MockitoExtension.class)
 class ReadReceiptServiceTest {
@@ -57,7 +64,7 @@ class ReadReceiptServiceTest {
   void markAsReadPublishesEventForMessageInRoom() {
     ReadReceiptService service = service();
     LocalDateTime joinedAt = LocalDateTime.of(2026, 5, 10, 10, 0);
-    ChatRoomMember member = member(null, 0, joinedAt);
+    ChatRoomMember member = member(null, joinedAt);
     given(chatRoomMemberRepository.findByChatRoomIdAndUserId(20L, 10L))
         .willReturn(Optional.of(member));
     given(messageRepository.findByIdAndChatRoomId(100L, 20L))
@@ -78,7 +85,7 @@ class ReadReceiptServiceTest {
   @DisplayName("lastReadMessageId가 null이면 읽음 처리를 거부한다")
   void markAsReadRejectsNullMessageId() {
     ReadReceiptService service = service();
-    ChatRoomMember member = member(null, 0, LocalDateTime.of(2026, 5, 10, 10, 0));
+    ChatRoomMember member = member(null, LocalDateTime.of(2026, 5, 10, 10, 0));
     given(chatRoomMemberRepository.findByChatRoomIdAndUserId(20L, 10L))
         .willReturn(Optional.of(member));
 
@@ -93,7 +100,7 @@ class ReadReceiptServiceTest {
   @DisplayName("lastReadMessageId가 존재하지 않으면 읽음 처리를 거부한다")
   void markAsReadRejectsUnknownMessageId() {
     ReadReceiptService service = service();
-    ChatRoomMember member = member(null, 0, LocalDateTime.of(2026, 5, 10, 10, 0));
+    ChatRoomMember member = member(null, LocalDateTime.of(2026, 5, 10, 10, 0));
     given(chatRoomMemberRepository.findByChatRoomIdAndUserId(20L, 10L))
         .willReturn(Optional.of(member));
     given(messageRepository.findByIdAndChatRoomId(999L, 20L)).willReturn(Optional.empty());
@@ -109,7 +116,7 @@ class ReadReceiptServiceTest {
   @DisplayName("다른 room의 메시지 ID로 unreadCount를 낮출 수 없다")
   void markAsReadRejectsMessageFromAnotherRoom() {
     ReadReceiptService service = service();
-    ChatRoomMember member = member(null, 0, LocalDateTime.of(2026, 5, 10, 10, 0));
+    ChatRoomMember member = member(null, LocalDateTime.of(2026, 5, 10, 10, 0));
     given(chatRoomMemberRepository.findByChatRoomIdAndUserId(20L, 10L))
         .willReturn(Optional.of(member));
     given(messageRepository.findByIdAndChatRoomId(100L, 20L)).willReturn(Optional.empty());
@@ -126,7 +133,7 @@ class ReadReceiptServiceTest {
   void markAsReadRejectsMessageBeforeJoinedAt() {
     ReadReceiptService service = service();
     LocalDateTime joinedAt = LocalDateTime.of(2026, 5, 10, 10, 0);
-    ChatRoomMember member = member(null, 0, joinedAt);
+    ChatRoomMember member = member(null, joinedAt);
     given(chatRoomMemberRepository.findByChatRoomIdAndUserId(20L, 10L))
         .willReturn(Optional.of(member));
     given(messageRepository.findByIdAndChatRoomId(100L, 20L))
@@ -140,61 +147,149 @@ class ReadReceiptServiceTest {
   }
 
   @Test
-  @DisplayName("내가 보낸 메시지 제외를 위해 userId 기준으로 unreadCount를 재계산한다")
-  void recalculatesUnreadCountWithUserId() {
+  @DisplayName("읽은 메시지의 room sequence로 읽음 위치를 갱신하고 sequence 차이로 unreadCount를 계산한다")
+  void marksReadWithRoomSequence() {
     ReadReceiptService service = service();
-    ChatRoomMember member = member(null, 0, LocalDateTime.of(2026, 5, 10, 10, 0));
+    ChatRoomMember member = member(null, LocalDateTime.of(2026, 5, 10, 10, 0));
     given(chatRoomMemberRepository.findByChatRoomIdAndUserId(20L, 10L))
         .willReturn(Optional.of(member));
-    given(messageRepository.countUnreadMessages(20L, 10L, 100L, member.getJoinedAt()))
-        .willReturn(3);
+    given(messageRepository.findRoomSeqByIdAndRoomId(100L, 20L)).willReturn(Optional.of(7L));
+    given(chatRoomMemberRepository.findUnreadCount(20L, 10L)).willReturn(Optional.of(3L));
     given(redisTemplate.opsForValue()).willReturn(valueOperations);
     given(cacheManager.getCache("rooms")).willReturn(roomsCache);
 
     service.processReadReceipt(new ReadReceiptEvent(20L, 10L, 100L, LocalDateTime.now()));
 
-    assertThat(member.getLastReadMessageId()).isEqualTo(100L);
-    assertThat(member.getUnreadCount()).isEqualTo(3);
-    verify(messageRepository).countUnreadMessages(20L, 10L, 100L, member.getJoinedAt());
+    verify(chatRoomMemberRepository).markRead(20L, 10L, 100L, 7L);
     verify(valueOperations).set("unread:room:20:user:10", "3");
     verify(roomsCache).evict(10L);
   }
 
   @Test
-  @DisplayName("joinedAt 이전 메시지 제외를 위해 참여 시각 기준으로 unreadCount를 재계산한다")
-  void recalculatesUnreadCountWithJoinedAt() {
+  @DisplayName("room에 없는 메시지로는 읽음 위치를 갱신하지 않는다")
+  void readReceiptForUnknownMessageIsRejected() {
     ReadReceiptService service = service();
-    LocalDateTime joinedAt = LocalDateTime.of(2026, 5, 10, 11, 0);
-    ChatRoomMember member = member(null, 0, joinedAt);
+    ChatRoomMember member = member(null, LocalDateTime.of(2026, 5, 10, 10, 0));
     given(chatRoomMemberRepository.findByChatRoomIdAndUserId(20L, 10L))
         .willReturn(Optional.of(member));
-    given(messageRepository.countUnreadMessages(20L, 10L, 100L, joinedAt)).willReturn(1);
-    given(redisTemplate.opsForValue()).willReturn(valueOperations);
-    given(cacheManager.getCache("rooms")).willReturn(roomsCache);
-
-    service.processReadReceipt(new ReadReceiptEvent(20L, 10L, 100L, LocalDateTime.now()));
+    given(messageRepository.findRoomSeqByIdAndRoomId(100L, 20L)).willReturn(Optional.empty());
 
-    assertThat(member.getUnreadCount()).isEqualTo(1);
-    verify(messageRepository).countUnreadMessages(20L, 10L, 100L, joinedAt);
+    assertThatThrownBy(
+            () ->
+                service.processReadReceipt(
+                    new ReadReceiptEvent(20L, 10L, 100L, LocalDateTime.now())))
+        .isInstanceOfSatisfying(
+            BusinessException.class,
+            ex -> assertThat(ex.getStatus()).isEqualTo(HttpStatus.NOT_FOUND));
+    verify(chatRoomMemberRepository, never()).markRead(anyLong(), anyLong(), anyLong(), anyLong());
   }
 
   @Test
   @DisplayName("같은 read receipt를 중복 처리해도 상태를 다시 갱신하지 않는다")
   void duplicateReadReceiptIsIdempotent() {
     ReadReceiptService service = service();
-    ChatRoomMember member = member(100L, 5, LocalDateTime.of(2026, 5, 10, 10, 0));
+    ChatRoomMember member = member(100L, LocalDateTime.of(2026, 5, 10, 10, 0));
     given(chatRoomMemberRepository.findByChatRoomIdAndUserId(20L, 10L))
         .willReturn(Optional.of(member));
 
     service.processReadReceipt(new ReadReceiptEvent(20L, 10L, 100L, LocalDateTime.now()));
 
-    assertThat(member.getLastReadMessageId()).isEqualTo(100L);
-    assertThat(member.getUnreadCount()).isEqualTo(5);
-    verify(messageRepository, never()).countUnreadMessages(20L, 10L, 100L, member.getJoinedAt());
+    verify(messageRepository, never()).findRoomSeqByIdAndRoomId(anyLong(), anyLong());
+    verify(chatRoomMemberRepository, never()).markRead(anyLong(), anyLong(), anyLong(), anyLong());
     verify(redisTemplate, never()).opsForValue();
     verify(cacheManager, never()).getCache(anyString());
   }
 
+  @Test
+  @DisplayName("batch 읽음 처리는 (roomId, userId)별 최대 lastReadMessageId만 한 번의 bulk update로 반영한다")
+  void processReadReceiptsCoalescesPerMember() {
+    ReadReceiptService service = service();
+    given(
+            chatRoomMemberRepository.markReadAll(
+                List.of(new ReadPosition(20L, 10L, 105L), new ReadPosition(21L, 11L, 50L))))
+        .willReturn(new int[] {1, 1});
+    given(cacheManager.getCache("rooms")).willReturn(roomsCache);
+
+    int applied =
+        service.processReadReceipts(
+            List.of(
+                new ReadReceiptEvent(20L, 10L, 100L, LocalDateTime.now()),
+                new ReadReceiptEvent(20L, 10L, 105L, LocalDateTime.now()),
+                new ReadReceiptEvent(21L, 11L, 50L, LocalDateTime.now()),
+                new ReadReceiptEvent(20L, 10L, 103L, LocalDateTime.now())));
+
+    assertThat(applied).isEqualTo(2);
+    verify(redisTemplate).delete(List.of("unread:room:20:user:10", "unread:room:21:user:11"));
+    verify(roomsCache).evict(10L);
+    verify(roomsCache).evict(11L);
+    verify(chatRoomMemberRepository, never()).findByChatRoomIdAndUserId(anyLong(), anyLong());
+  }
+
+  @Test
+  @DisplayName("트랜잭션 안의 읽음 처리는 커밋 후에만 unreadCount 캐시와 채팅방 목록 캐시를 고친다")
+  void readReceiptCachesAreTouchedOnlyAfterCommit() {
+    ReadReceiptService service = service();
+    ChatRoomMember member = member(null, LocalDateTime.of(2026, 5, 10, 10, 0));
+    given(chatRoomMemberRepository.findByChatRoomIdAndUserId(20L, 10L))
+        .willReturn(Optional.of(member));
+    given(messageRepository.findRoomSeqByIdAndRoomId(100L, 20L)).willReturn(Optional.of(7L));
+    given(chatRoomMemberRepository.findUnreadCount(20L, 10L)).willReturn(Optional.of(3L));
+    given(chatRoomMemberRepository.markReadAll(List.of(new ReadPosition(21L, 11L, 50L))))
+        .willReturn(new int[] {1});
+    given(redisTemplate.opsForValue()).willReturn(valueOperations);
+    given(cacheManager.getCache("rooms")).willReturn(roomsCache);
+
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      service.processReadReceipt(new ReadReceiptEvent(20L, 10L, 100L, LocalDateTime.now()));
+      service.processReadReceipts(
+          List.of(new ReadReceiptEvent(21L, 11L, 50L, LocalDateTime.now())));
+      verifyNoInteractions(redisTemplate, cacheManager, roomsCache);
+
+      TransactionSynchronizationManager.getSynchronizations()
+          .forEach(TransactionSynchronization::afterCommit);
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    verify(valueOperations).set("unread:room:20:user:10", "3");
+    verify(redisTemplate).delete(List.of("unread:room:21:user:11"));
+    verify(roomsCache).evict(10L);
+    verify(roomsCache).evict(11L);
+  }
+
+  @Test
+  @DisplayName("bulk update가 갱신하지 못한 읽음 위치는 단건 경로로 no-op 여부를 판정한다")
+  void processReadReceiptsFallsBackForUnappliedPosition() {
+    ReadReceiptService service = service();
+    given(chatRoomMemberRepository.markReadAll(List.of(new ReadPosition(20L, 10L, 100L))))
+        .willReturn(new int[] {0});
+    ChatRoomMember member = member(120L, LocalDateTime.of(2026, 5, 10, 10, 0));
+    given(chatRoomMemberRepository.findByChatRoomIdAndUserId(20L, 10L))
+        .willReturn(Optional.of(member));
+
+    service.processReadReceipts(
+        List.of(
+            new ReadReceiptEvent(20L, 10L, 90L, LocalDateTime.now()),
+            new ReadReceiptEvent(20L, 10L, 100L, LocalDateTime.now())));
+
+    verify(messageRepository, never()).findRoomSeqByIdAndRoomId(anyLong(), anyLong());
+    verify(redisTemplate, never()).delete(anyList());
+    verify(cacheManager, never()).getCache(anyString());
+  }
+
+  @Test
+  @DisplayName("Redis 캐시 미스면 sequence 차이로 계산한 unreadCount를 캐싱한다")
+  void unreadCountCacheMissUsesSequenceDifference() {
+    ReadReceiptService service = service();
+    given(redisTemplate.opsForValue()).willReturn(valueOperations);
+    given(valueOperations.get("unread:room:20:user:10")).willReturn(null);
+    given(chatRoomMemberRepository.findUnreadCount(20L, 10L)).willReturn(Optional.of(4L));
+
+    assertThat(service.getUnreadCount(20L, 10L)).isEqualTo(4);
+    verify(valueOperations).set("unread:room:20:user:10", "4");
+  }
+
   private ReadReceiptService service() {
     return new ReadReceiptService(
         chatRoomMemberRepository,
@@ -204,10 +299,10 @@ class ReadReceiptServiceTest {
         cacheManager);
   }
 
-  private ChatRoomMember member(Long lastReadMessageId, int unreadCount, LocalDateTime joinedAt) {
-    ChatRoomMember member = new ChatRoomMember(null, null);
+  private ChatRoomMember member(Long lastReadMessageId, LocalDateTime joinedAt) {
+    User user = new User("member@test.com", "encoded", "member");
+    ChatRoomMember member = new ChatRoomMember(new ChatRoom(null, RoomType.GROUP, user), user);
     ReflectionTestUtils.setField(member, "lastReadMessageId", lastReadMessageId);
-    ReflectionTestUtils.setField(member, "unreadCount", unreadCount);
     ReflectionTestUtils.setField(member, "joinedAt", joinedAt);
     return member;
   }
@@ -2,20 +2,30 @@ package com.realtime.chat;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.realtime.chat.config.RedisConfig;
 import com.realtime.chat.domain.MessageType;
+import com.realtime.chat.dto.MessageHops;
 import com.realtime.chat.dto.MessagePersistedNotification;
 import com.realtime.chat.dto.MessagePersistedResponse;
+import com.realtime.chat.dto.PresenceEvent;
+import com.realtime.chat.dto.SequencedChatMessage;
+import com.realtime.chat.dto.TracedChatMessage;
 import com.realtime.chat.event.ChatMessageEvent;
+import com.realtime.chat.service.MessageHopTracer;
+import com.realtime.chat.service.PresenceFanoutService;
 import com.realtime.chat.service.RedisPubSubService;
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.Timer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.UUID;
 import org.junit.jupiter.api.BeforeEach;
@@ -26,7 +36,12 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.MimeType;
+import org.springframework.util.MimeTypeUtils;
 
 @ExtendWith(MockitoExtension.class)
 class RedisPubSubServiceTest {
@@ -39,6 +54,10 @@ class RedisPubSubServiceTest {
 
   @Mock private Timer roomFanoutLatencyTimer;
 
+  @Mock private PresenceFanoutService presenceFanoutService;
+
+  @Mock private MessageHopTracer messageHopTracer;
+
   private ObjectMapper objectMapper;
 
   @BeforeEach
@@ -104,38 +123,151 @@ class RedisPubSubServiceTest {
   }
 
   @Test
-  @DisplayName("PatternTopic 수신 channel이 pattern이어도 event roomId로 room topic에 전달한다")
-  void onMessageUsesEventRoomIdWhenPatternTopicProvidesPatternChannel() throws Exception {
+  @DisplayName("Presence 이벤트는 전체 topic으로 보내지 않고 room fan-out window에 넣는다")
+  void onPresenceMessageEnqueuesForRoomFanout() throws Exception {
     RedisPubSubService service = service();
-    ChatMessageEvent event =
-        new ChatMessageEvent(
-            UUID.randomUUID(), 20L, 10L, "sender", "hello", MessageType.TEXT, LocalDateTime.now());
-    String message = objectMapper.writeValueAsString(event);
+    String message = objectMapper.writeValueAsString(PresenceEvent.online(10L));
+
+    service.onPresenceMessage(message, RedisConfig.PRESENCE_CHANNEL);
+
+    ArgumentCaptor<PresenceEvent> eventCaptor = ArgumentCaptor.forClass(PresenceEvent.class);
+    verify(presenceFanoutService).enqueue(eventCaptor.capture());
+    assertThat(eventCaptor.getValue().getUserId()).isEqualTo(10L);
+    assertThat(eventCaptor.getValue().getStatus()).isEqualTo("ONLINE");
+    verify(messagingTemplate, never()).convertAndSend(eq("/topic/presence"), any(Object.class));
+  }
+
+  @Test
+  @DisplayName("수신 channel 이름과 무관하게 payload roomId로 room topic에 원본 bytes를 그대로 전달한다")
+  void onMessageForwardsOriginalBytesToEventRoomTopic() throws Exception {
+    RedisPubSubService service = service();
+    byte[] payload = objectMapper.writeValueAsBytes(event());
+
+    service.onMessage(payload, RedisConfig.CHAT_ROOM_CHANNEL_PREFIX + "other");
+
+    Message<?> sent = sentMessage("/topic/room.20");
+    assertThat(sent.getPayload()).isSameAs(payload);
+    assertThat(sent.getHeaders().get(MessageHeaders.CONTENT_TYPE))
+        .isEqualTo(new MimeType(MimeTypeUtils.APPLICATION_JSON, StandardCharsets.UTF_8));
+  }
 
-    service.onMessage(message, RedisConfig.CHAT_ROOM_PATTERN);
+  @Test
+  @DisplayName("roomId 앞의 중첩 값은 건너뛰고 최상위 roomId만 destination에 사용한다")
+  void onMessageSkipsNestedValuesWhenPeekingRoomId() {
+    RedisPubSubService service = service();
+    String json =
+        "{\"meta\":{\"roomId\":99,\"tags\":[1,{\"roomId\":98}]},"
+            + "\"roomId\":20,\"content\":\"hi\"}";
+    byte[] payload = json.getBytes(StandardCharsets.UTF_8);
+
+    service.onMessage(payload, RedisConfig.CHAT_ROOM_CHANNEL_PREFIX + "20");
+
+    assertThat(sentMessage("/topic/room.20").getPayload()).isSameAs(payload);
+  }
+
+  @Test
+  @DisplayName("roomId가 없는 payload는 브로드캐스트하지 않고 received metric도 올리지 않는다")
+  void onMessageWithoutRoomIdIsDropped() {
+    RedisPubSubService service = service();
+
+    service.onMessage(
+        "{\"content\":\"hi\"}".getBytes(StandardCharsets.UTF_8),
+        RedisConfig.CHAT_ROOM_CHANNEL_PREFIX + "20");
+
+    verify(messagingTemplate, never()).send(anyString(), any());
+    verify(messagesReceivedCounter, never()).increment();
+  }
+
+  @Test
+  @DisplayName("validate-payload 모드는 ChatMessageEvent로 검증하되 원본 bytes를 전달한다")
+  void onMessageValidatesPayloadWhenEnabled() throws Exception {
+    RedisPubSubService service = service();
+    ReflectionTestUtils.setField(service, "validatePayload", true);
+    byte[] payload = objectMapper.writeValueAsBytes(event());
 
-    ArgumentCaptor<Object> payloadCaptor = ArgumentCaptor.forClass(Object.class);
-    verify(messagingTemplate).convertAndSend(eq("/topic/room.20"), payloadCaptor.capture());
+    service.onMessage(payload, RedisConfig.CHAT_ROOM_CHANNEL_PREFIX + "20");
+    service.onMessage(
+        "{\"roomId\":20,\"type\":\"UNKNOWN\"}".getBytes(StandardCharsets.UTF_8),
+        RedisConfig.CHAT_ROOM_CHANNEL_PREFIX + "20");
 
-    assertThat(payloadCaptor.getValue()).isInstanceOf(ChatMessageEvent.class);
-    ChatMessageEvent received = (ChatMessageEvent) payloadCaptor.getValue();
-    assertThat(received.getRoomId()).isEqualTo(event.getRoomId());
-    assertThat(received.getMessageKey()).isEqualTo(event.getMessageKey());
+    assertThat(sentMessage("/topic/room.20").getPayload()).isSameAs(payload);
+    verify(messagesReceivedCounter).increment();
   }
 
   @Test
   @DisplayName("room topic 브로드캐스트 성공 시 received counter와 fan-out latency를 기록한다")
   void onMessageRecordsReceivedCounterAndFanoutLatency() throws Exception {
     RedisPubSubService service = service();
-    ChatMessageEvent event =
-        new ChatMessageEvent(
-            UUID.randomUUID(), 20L, 10L, "sender", "hello", MessageType.TEXT, LocalDateTime.now());
-    String message = objectMapper.writeValueAsString(event);
+    ChatMessageEvent event = event();
+    byte[] payload = objectMapper.writeValueAsBytes(event);
 
-    service.onMessage(message, RedisConfig.CHAT_ROOM_PATTERN);
+    service.onMessage(payload, RedisConfig.CHAT_ROOM_CHANNEL_PREFIX + event.getRoomId());
 
     verify(messagesReceivedCounter).increment();
-    verify(roomFanoutLatencyTimer).record(org.mockito.ArgumentMatchers.any(java.time.Duration.class));
+    verify(roomFanoutLatencyTimer).record(any(Duration.class));
+  }
+
+  @Test
+  @DisplayName("hop envelope은 hops를 떼어 내 전달 hop에 쓰고 client frame에는 message bytes만 보낸다")
+  void onMessageUnwrapsHopEnvelope() throws Exception {
+    RedisPubSubService service = service();
+    given(messageHopTracer.now()).willReturn(40L);
+    ChatMessageEvent event = event();
+    byte[] payload =
+        objectMapper.writeValueAsBytes(
+            new TracedChatMessage(event, new MessageHops(10L, 20L, 30L)));
+
+    service.onMessage(payload, RedisConfig.CHAT_ROOM_CHANNEL_PREFIX + "20");
+
+    byte[] frame = (byte[]) sentMessage("/topic/room.20").getPayload();
+    assertThat(frame).isEqualTo(objectMapper.writeValueAsBytes(event));
+    assertThat(new String(frame, StandardCharsets.UTF_8)).doesNotContain("hops");
+    ArgumentCaptor<MessageHops> hopsCaptor = ArgumentCaptor.forClass(MessageHops.class);
+    verify(messageHopTracer).recordDelivered(hopsCaptor.capture(), eq(40L));
+    assertThat(hopsCaptor.getValue().getWsReceivedAt()).isEqualTo(10L);
+    assertThat(hopsCaptor.getValue().getProducedAt()).isEqualTo(20L);
+    assertThat(hopsCaptor.getValue().getPublishedAt()).isEqualTo(30L);
+  }
+
+  @Test
+  @DisplayName("hot room envelope도 roomSeq가 붙은 message bytes만 client frame으로 보낸다")
+  void onMessageUnwrapsSequencedHopEnvelope() throws Exception {
+    RedisPubSubService service = service();
+    given(messageHopTracer.now()).willReturn(40L);
+    SequencedChatMessage sequenced = new SequencedChatMessage(event(), 7L);
+    byte[] payload =
+        objectMapper.writeValueAsBytes(
+            new TracedChatMessage(sequenced, new MessageHops(10L, 20L, 30L)));
+
+    service.onMessage(payload, RedisConfig.CHAT_ROOM_CHANNEL_PREFIX + "20");
+
+    assertThat((byte[]) sentMessage("/topic/room.20").getPayload())
+        .isEqualTo(objectMapper.writeValueAsBytes(sequenced));
+    verify(messageHopTracer).recordDelivered(any(MessageHops.class), eq(40L));
+  }
+
+  @Test
+  @DisplayName("hops가 없는 room 메시지는 원본 bytes 그대로 전달하고 전달 hop은 hops 없이 기록한다")
+  void onMessageWithoutHopsStillDelivers() throws Exception {
+    RedisPubSubService service = service();
+    given(messageHopTracer.now()).willReturn(40L);
+    byte[] payload = objectMapper.writeValueAsBytes(event());
+
+    service.onMessage(payload, RedisConfig.CHAT_ROOM_CHANNEL_PREFIX + "20");
+
+    assertThat(sentMessage("/topic/room.20").getPayload()).isSameAs(payload);
+    verify(messageHopTracer).recordDelivered(null, 40L);
+  }
+
+  private ChatMessageEvent event() {
+    return new ChatMessageEvent(
+        UUID.randomUUID(), 20L, 10L, "sender", "hello", MessageType.TEXT, LocalDateTime.now());
+  }
+
+  private Message<?> sentMessage(String destination) {
+    ArgumentCaptor<Message<?>> messageCaptor = ArgumentCaptor.forClass(Message.class);
+    verify(messagingTemplate).send(eq(destination), messageCaptor.capture());
+    return messageCaptor.getValue();
   }
 
   private RedisPubSubService service() {
@@ -144,6 +276,8 @@ class RedisPubSubServiceTest {
         messagingTemplate,
         objectMapper,
         messagesReceivedCounter,
-        roomFanoutLatencyTimer);
+        roomFanoutLatencyTimer,
+        presenceFanoutService,
+        messageHopTracer);
   }
 }
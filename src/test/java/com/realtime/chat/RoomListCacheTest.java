@@ -0,0 +1,252 @@
+package com.realtime.chat;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import com.realtime.chat.config.RedisConfig;
+import com.realtime.chat.domain.RoomType;
+import com.realtime.chat.dto.ChatRoomListResponse;
+import com.realtime.chat.dto.RoomListCacheEntry;
+import com.realtime.chat.service.RoomListCache;
+import io.micrometer.core.instrument.Counter;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@ExtendWith(MockitoExtension.class)
+class RoomListCacheTest {
+
+  // rooms cache TTL(5분)의 2배
+  private static final String VERSION_TTL_MILLIS = "600000";
+
+  @Mock private CacheManager cacheManager;
+
+  @Mock private Cache roomsCache;
+
+  @Mock private StringRedisTemplate redisTemplate;
+
+  @Mock private ValueOperations<String, String> valueOperations;
+
+  @Mock private Counter roomsCacheEvictionsCounter;
+
+  @Test
+  @DisplayName("캐시 미스면 참여 room version을 먼저 읽고 목록을 조회해 그 version으로 저장한다")
+  void missReadsVersionsBeforeLoading() {
+    RoomListCache cache = cache();
+    given(cacheManager.getCache("rooms")).willReturn(roomsCache);
+    List<String> versionKeys = List.of("rooms:version:20", "rooms:version:21");
+    given(redisTemplate.execute(anyScript(), eq(versionKeys), eq(VERSION_TTL_MILLIS)))
+        .willReturn(List.of(3L, 0L));
+
+    List<ChatRoomListResponse> rooms =
+        cache.get(
+            10L,
+            () -> List.of(20L, 21L),
+            () -> {
+              verify(redisTemplate).execute(anyScript(), eq(versionKeys), eq(VERSION_TTL_MILLIS));
+              return List.of(room(20L), room(21L));
+            });
+
+    assertThat(rooms).extracting(ChatRoomListResponse::getId).containsExactly(20L, 21L);
+    ArgumentCaptor<RoomListCacheEntry> entryCaptor =
+        ArgumentCaptor.forClass(RoomListCacheEntry.class);
+    verify(roomsCache).put(any(), entryCaptor.capture());
+    assertThat(entryCaptor.getValue().getRoomVersions()).containsExactly(3L, 0L);
+  }
+
+  @Test
+  @DisplayName("캐싱된 room version이 현재와 같으면 DB 조회 없이 캐시를 반환한다")
+  void hitWithSameVersionsSkipsLoader() {
+    RoomListCache cache = cache();
+    given(cacheManager.getCache("rooms")).willReturn(roomsCache);
+    given(roomsCache.get(10L))
+        .willReturn(
+            new SimpleValueWrapper(
+                new RoomListCacheEntry(
+                    new ArrayList<>(List.of(room(20L))), new ArrayList<>(List.of(3L)))));
+    given(redisTemplate.opsForValue()).willReturn(valueOperations);
+    given(valueOperations.multiGet(List.of("rooms:version:20"))).willReturn(List.of("3"));
+
+    List<ChatRoomListResponse> rooms =
+        cache.get(
+            10L,
+            () -> {
+              throw new AssertionError("캐시 hit에서는 참여 room을 조회하지 않아야 한다");
+            },
+            () -> {
+              throw new AssertionError("캐시 hit에서는 조회하지 않아야 한다");
+            });
+
+    assertThat(rooms).extracting(ChatRoomListResponse::getId).containsExactly(20L);
+    verify(roomsCache, never()).put(any(), any());
+  }
+
+  @Test
+  @DisplayName("캐싱 이후 room version이 올라갔으면 hit 확인 때 읽은 version으로 목록을 다시 캐싱한다")
+  void hitWithChangedVersionReloads() {
+    RoomListCache cache = cache();
+    given(cacheManager.getCache("rooms")).willReturn(roomsCache);
+    given(roomsCache.get(10L))
+        .willReturn(
+            new SimpleValueWrapper(
+                new RoomListCacheEntry(
+                    new ArrayList<>(List.of(room(20L))), new ArrayList<>(List.of(3L)))));
+    given(redisTemplate.opsForValue()).willReturn(valueOperations);
+    given(valueOperations.multiGet(List.of("rooms:version:20"))).willReturn(List.of("4"));
+    given(
+            redisTemplate.execute(
+                anyScript(), eq(List.of("rooms:version:20")), eq(VERSION_TTL_MILLIS)))
+        .willReturn(List.of(4L));
+
+    List<ChatRoomListResponse> rooms =
+        cache.get(
+            10L,
+            () -> {
+              throw new AssertionError("캐싱된 목록이 있으면 참여 room을 조회하지 않아야 한다");
+            },
+            () -> List.of(room(20L), room(21L)));
+
+    assertThat(rooms).hasSize(2);
+    ArgumentCaptor<RoomListCacheEntry> entryCaptor =
+        ArgumentCaptor.forClass(RoomListCacheEntry.class);
+    verify(roomsCache).put(any(), entryCaptor.capture());
+    // 조회 전에 version을 읽지 못한 21번 room은 다음 조회에서 다시 조회되도록 -1로 둔다
+    assertThat(entryCaptor.getValue().getRoomVersions()).containsExactly(4L, -1L);
+    verify(valueOperations).multiGet(anyList());
+  }
+
+  @Test
+  @DisplayName("hit 확인은 MGET만 하고 version key TTL을 건드리지 않는다")
+  void hitDoesNotTouchVersionTtl() {
+    RoomListCache cache = cache();
+    given(cacheManager.getCache("rooms")).willReturn(roomsCache);
+    given(roomsCache.get(10L))
+        .willReturn(
+            new SimpleValueWrapper(
+                new RoomListCacheEntry(
+                    new ArrayList<>(List.of(room(20L))), new ArrayList<>(List.of(3L)))));
+    given(redisTemplate.opsForValue()).willReturn(valueOperations);
+    given(valueOperations.multiGet(List.of("rooms:version:20"))).willReturn(List.of("3"));
+
+    cache.get(10L, List::of, List::of);
+
+    verify(redisTemplate, never()).execute(anyScript(), anyList(), any());
+  }
+
+  @Test
+  @DisplayName("참여 room이 많으면 version을 chunk로 나눠 읽는다")
+  void readsVersionsInChunks() {
+    RoomListCache cache = cache();
+    given(cacheManager.getCache("rooms")).willReturn(roomsCache);
+    List<Long> roomIds = LongStream.rangeClosed(1, 1500).boxed().toList();
+    given(redisTemplate.execute(anyScript(), anyList(), eq(VERSION_TTL_MILLIS)))
+        .willAnswer(
+            invocation -> Collections.nCopies(invocation.<List<?>>getArgument(1).size(), 1L));
+
+    cache.get(10L, () -> roomIds, List::of);
+
+    ArgumentCaptor<List<String>> keysCaptor = ArgumentCaptor.forClass(List.class);
+    verify(redisTemplate, times(2))
+        .execute(anyScript(), keysCaptor.capture(), eq(VERSION_TTL_MILLIS));
+    assertThat(keysCaptor.getAllValues()).extracting(List::size).containsExactly(1000, 500);
+  }
+
+  @Test
+  @DisplayName("이전 형식(List)으로 캐싱된 값은 무시하고 다시 조회한다")
+  void legacyEntryReloads() {
+    RoomListCache cache = cache();
+    given(cacheManager.getCache("rooms")).willReturn(roomsCache);
+    given(roomsCache.get(10L)).willReturn(new SimpleValueWrapper(List.of(room(20L))));
+
+    List<ChatRoomListResponse> rooms = cache.get(10L, List::of, List::of);
+
+    assertThat(rooms).isEmpty();
+    verify(roomsCache).put(any(), any(RoomListCacheEntry.class));
+    verify(valueOperations, never()).multiGet(anyList());
+  }
+
+  @Test
+  @DisplayName("room 무효화는 멤버 수와 무관하게 version INCR 한 번이고 무효화 수는 room 단위로 기록한다")
+  void invalidateRoomIncrementsVersionOnce() {
+    RoomListCache cache = cache();
+
+    cache.invalidateRoom(20L);
+
+    // INCR과 같은 script에서 version key TTL을 rooms cache TTL의 2배로 갱신한다
+    verify(redisTemplate)
+        .execute(anyScript(), eq(List.of("rooms:version:20")), eq(VERSION_TTL_MILLIS));
+    assertThat(Long.parseLong(VERSION_TTL_MILLIS)).isGreaterThan(RedisConfig.CACHE_TTL.toMillis());
+    verify(roomsCacheEvictionsCounter).increment();
+    verify(cacheManager, never()).getCache(any());
+  }
+
+  @Test
+  @DisplayName("트랜잭션 안의 room 무효화는 커밋 후에 version을 올린다")
+  void invalidateRoomWaitsForCommit() {
+    RoomListCache cache = cache();
+
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      cache.invalidateRoom(20L);
+      verifyNoInteractions(redisTemplate);
+
+      TransactionSynchronizationManager.getSynchronizations()
+          .forEach(TransactionSynchronization::afterCommit);
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    verify(redisTemplate)
+        .execute(anyScript(), eq(List.of("rooms:version:20")), eq(VERSION_TTL_MILLIS));
+    verify(roomsCacheEvictionsCounter).increment();
+  }
+
+  @Test
+  @DisplayName("커밋 후 version 증가가 실패해도 예외를 던지지 않는다")
+  void invalidateRoomFailureIsSwallowed() {
+    RoomListCache cache = cache();
+    given(redisTemplate.execute(anyScript(), eq(List.of("rooms:version:20")), any()))
+        .willThrow(new RedisConnectionFailureException("down"));
+
+    cache.invalidateRoom(20L);
+
+    verify(roomsCacheEvictionsCounter, never()).increment();
+  }
+
+  private static RedisScript<Object> anyScript() {
+    return any();
+  }
+
+  private RoomListCache cache() {
+    return new RoomListCache(cacheManager, redisTemplate, roomsCacheEvictionsCounter);
+  }
+
+  private ChatRoomListResponse room(Long roomId) {
+    return new ChatRoomListResponse(
+        roomId, "방" + roomId, RoomType.GROUP, 3, 0, LocalDateTime.of(2026, 5, 10, 10, 0));
+  }
+}
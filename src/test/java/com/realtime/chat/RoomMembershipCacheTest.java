@@ -0,0 +1,132 @@
+package com.realtime.chat;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.realtime.chat.config.RedisConfig;
+import com.realtime.chat.repository.ChatRoomMemberRepository;
+import com.realtime.chat.service.RoomMembershipCache;
+import io.micrometer.core.instrument.Counter;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class RoomMembershipCacheTest {
+
+  @Mock private ChatRoomMemberRepository chatRoomMemberRepository;
+
+  @Mock private StringRedisTemplate redisTemplate;
+
+  @Mock private Counter membershipCacheHitCounter;
+
+  @Mock private Counter membershipCacheMissCounter;
+
+  @Test
+  @DisplayName("처음 확인할 때 참여 room 전체를 한 번 적재하고 이후에는 DB 없이 판정한다")
+  void loadsRoomsOnceThenHitsWithoutQuery() {
+    RoomMembershipCache cache = cache(100, 100);
+    given(chatRoomMemberRepository.findRoomIdsByUserId(10L)).willReturn(List.of(30L, 20L));
+
+    assertThat(cache.isMember(20L, 10L)).isTrue();
+    assertThat(cache.isMember(30L, 10L)).isTrue();
+
+    verify(chatRoomMemberRepository, times(1)).findRoomIdsByUserId(10L);
+    verify(membershipCacheMissCounter).increment();
+    verify(membershipCacheHitCounter).increment();
+  }
+
+  @Test
+  @DisplayName("캐시에 없는 room은 DB로 확인하고, 참여 중이면 다시 적재한다")
+  void unknownRoomFallsBackToDbAndReloads() {
+    RoomMembershipCache cache = cache(100, 100);
+    given(chatRoomMemberRepository.findRoomIdsByUserId(10L))
+        .willReturn(List.of(20L), List.of(20L, 30L));
+    given(chatRoomMemberRepository.existsByChatRoomIdAndUserId(30L, 10L)).willReturn(true);
+    cache.preload(10L);
+
+    assertThat(cache.isMember(30L, 10L)).isTrue();
+    assertThat(cache.isMember(30L, 10L)).isTrue();
+
+    verify(chatRoomMemberRepository, times(1)).existsByChatRoomIdAndUserId(30L, 10L);
+    verify(chatRoomMemberRepository, times(2)).findRoomIdsByUserId(10L);
+  }
+
+  @Test
+  @DisplayName("DB에서도 멤버가 아니면 거부하고 캐시는 다시 적재하지 않는다")
+  void nonMemberIsRejected() {
+    RoomMembershipCache cache = cache(100, 100);
+    given(chatRoomMemberRepository.findRoomIdsByUserId(10L)).willReturn(List.of(20L));
+    given(chatRoomMemberRepository.existsByChatRoomIdAndUserId(40L, 10L)).willReturn(false);
+    cache.preload(10L);
+
+    assertThat(cache.isMember(40L, 10L)).isFalse();
+
+    verify(chatRoomMemberRepository, times(1)).findRoomIdsByUserId(10L);
+    verify(membershipCacheHitCounter, never()).increment();
+  }
+
+  @Test
+  @DisplayName("멤버십 변경 시 로컬 항목을 지우고 다른 노드에 무효화를 발행한다")
+  void invalidateEvictsLocallyAndPublishes() {
+    RoomMembershipCache cache = cache(100, 100);
+    given(chatRoomMemberRepository.findRoomIdsByUserId(10L)).willReturn(List.of(20L));
+    cache.preload(10L);
+
+    cache.invalidate(List.of(10L, 11L));
+    cache.isMember(20L, 10L);
+
+    verify(redisTemplate).convertAndSend(RedisConfig.MEMBERSHIP_INVALIDATION_CHANNEL, "[10,11]");
+    verify(chatRoomMemberRepository, times(2)).findRoomIdsByUserId(10L);
+  }
+
+  @Test
+  @DisplayName("다른 노드의 무효화 메시지를 받으면 해당 user 항목을 지운다")
+  void invalidationMessageEvictsUsers() {
+    RoomMembershipCache cache = cache(100, 100);
+    given(chatRoomMemberRepository.findRoomIdsByUserId(10L)).willReturn(List.of(20L));
+    cache.preload(10L);
+
+    cache.onInvalidationMessage("[10]", RedisConfig.MEMBERSHIP_INVALIDATION_CHANNEL);
+    cache.isMember(20L, 10L);
+
+    verify(chatRoomMemberRepository, times(2)).findRoomIdsByUserId(10L);
+  }
+
+  @Test
+  @DisplayName("최대 user 수를 넘으면 먼저 적재된 user를 버리고, room이 너무 많은 user는 캐시하지 않는다")
+  void boundsUsersAndRoomsPerUser() {
+    RoomMembershipCache cache = cache(1, 2);
+    given(chatRoomMemberRepository.findRoomIdsByUserId(10L)).willReturn(List.of(20L));
+    given(chatRoomMemberRepository.findRoomIdsByUserId(11L)).willReturn(List.of(20L));
+    given(chatRoomMemberRepository.findRoomIdsByUserId(12L)).willReturn(List.of(20L, 21L, 22L));
+
+    cache.preload(10L);
+    cache.preload(11L);
+    cache.isMember(20L, 10L);
+    cache.isMember(20L, 12L);
+    cache.isMember(20L, 12L);
+
+    verify(chatRoomMemberRepository, times(2)).findRoomIdsByUserId(10L);
+    verify(chatRoomMemberRepository, times(2)).findRoomIdsByUserId(12L);
+  }
+
+  private RoomMembershipCache cache(int maxUsers, int maxRoomsPerUser) {
+    return new RoomMembershipCache(
+        chatRoomMemberRepository,
+        redisTemplate,
+        new ObjectMapper(),
+        membershipCacheHitCounter,
+        membershipCacheMissCounter,
+        maxUsers,
+        maxRoomsPerUser);
+  }
+}
@@ -0,0 +1,223 @@
+package com.realtime.chat;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import com.realtime.chat.service.RedisPubSubService;
+import com.realtime.chat.service.RoomSubscriptionRegistry;
+import io.micrometer.core.instrument.Counter;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+@ExtendWith(MockitoExtension.class)
+class RoomSubscriptionRegistryTest {
+
+  private static final Duration DELAY = Duration.ofSeconds(30);
+
+  @Mock private RedisMessageListenerContainer listenerContainer;
+
+  @Mock private RedisPubSubService redisPubSubService;
+
+  @Mock private Counter messagesDroppedNoSubscribersCounter;
+
+  @Mock private ScheduledExecutorService scheduler;
+
+  @Mock private ScheduledFuture<Object> pendingUnsubscribe;
+
+  @Test
+  @DisplayName("room의 첫 로컬 구독에서만 해당 room 채널을 구독하고 room 외 destination은 무시한다")
+  void subscribesRoomChannelOnFirstLocalSubscriber() {
+    RoomSubscriptionRegistry registry = registry();
+    givenImmediateExecution();
+
+    registry.subscribe("s1", "sub-1", "/topic/room.20");
+    registry.subscribe("s2", "sub-1", "/topic/room.20");
+    registry.subscribe("s1", "sub-2", "/topic/presence");
+
+    verify(listenerContainer, times(1))
+        .addMessageListener(registry, new ChannelTopic("chat:room:20"));
+    assertThat(registry.hasLocalSubscribers(20L)).isTrue();
+  }
+
+  @Test
+  @DisplayName("room presence topic 구독도 그 room의 로컬 구독으로 센다")
+  void countsRoomPresenceTopicAsLocalSubscription() {
+    RoomSubscriptionRegistry registry = registry();
+    givenImmediateExecution();
+
+    registry.subscribe("s1", "sub-1", "/topic/room.21.presence");
+
+    assertThat(registry.hasLocalSubscribers(21L)).isTrue();
+    assertThat(registry.localRoomIds()).containsExactly(21L);
+    verify(listenerContainer).addMessageListener(registry, new ChannelTopic("chat:room:21"));
+  }
+
+  @Test
+  @DisplayName("마지막 구독이 빠지면 지연 후 해제하고, 그 사이 재구독하면 예약을 취소한다")
+  void delaysUnsubscribeAndCancelsOnResubscribe() {
+    RoomSubscriptionRegistry registry = registry();
+    givenImmediateExecution();
+    givenScheduledUnsubscribe();
+    registry.subscribe("s1", "sub-1", "/topic/room.20");
+
+    registry.unsubscribe("s1", "sub-1");
+    assertThat(registry.hasLocalSubscribers(20L)).isFalse();
+    registry.subscribe("s2", "sub-1", "/topic/room.20");
+
+    verify(pendingUnsubscribe).cancel(false);
+    verify(listenerContainer, times(1)).addMessageListener(any(), any(ChannelTopic.class));
+    verify(listenerContainer, never()).removeMessageListener(any(), any(ChannelTopic.class));
+  }
+
+  @Test
+  @DisplayName("disconnect로 모든 구독이 빠지면 지연 시간이 지난 뒤 room 채널 구독을 해제한다")
+  void disconnectReleasesSubscriptionsAfterDelay() {
+    RoomSubscriptionRegistry registry = registry();
+    givenImmediateExecution();
+    givenScheduledUnsubscribe();
+    registry.subscribe("s1", "sub-1", "/topic/room.20");
+    registry.subscribe("s1", "sub-2", "/topic/room.20");
+
+    registry.removeSession("s1");
+
+    ArgumentCaptor<Runnable> taskCaptor = ArgumentCaptor.forClass(Runnable.class);
+    verify(scheduler)
+        .schedule(taskCaptor.capture(), eq(DELAY.toMillis()), eq(TimeUnit.MILLISECONDS));
+    taskCaptor.getValue().run();
+    verify(listenerContainer).removeMessageListener(registry, new ChannelTopic("chat:room:20"));
+  }
+
+  @Test
+  @DisplayName("Redis 채널 구독은 STOMP thread가 아니라 scheduler에서 registry lock 없이 호출한다")
+  void subscribesChannelOnSchedulerOutsideRegistryLock() {
+    RoomSubscriptionRegistry registry = registry();
+    AtomicBoolean lockHeld = new AtomicBoolean(true);
+    willAnswer(
+            invocation -> {
+              lockHeld.set(Thread.holdsLock(registry));
+              return null;
+            })
+        .given(listenerContainer)
+        .addMessageListener(eq(registry), any(ChannelTopic.class));
+
+    registry.subscribe("s1", "sub-1", "/topic/room.20");
+
+    ArgumentCaptor<Runnable> taskCaptor = ArgumentCaptor.forClass(Runnable.class);
+    verify(scheduler).execute(taskCaptor.capture());
+    verify(listenerContainer, never()).addMessageListener(any(), any(ChannelTopic.class));
+    assertThat(registry.hasLocalSubscribers(20L)).isTrue();
+
+    taskCaptor.getValue().run();
+    verify(listenerContainer).addMessageListener(registry, new ChannelTopic("chat:room:20"));
+    assertThat(lockHeld).isFalse();
+  }
+
+  @Test
+  @DisplayName("Redis 채널 구독이 실패하면 다음 SUBSCRIBE에서 다시 시도한다")
+  void retriesChannelSubscribeAfterFailure() {
+    RoomSubscriptionRegistry registry = registry();
+    givenImmediateExecution();
+    willThrow(new IllegalStateException("down"))
+        .willAnswer(invocation -> null)
+        .given(listenerContainer)
+        .addMessageListener(eq(registry), any(ChannelTopic.class));
+
+    registry.subscribe("s1", "sub-1", "/topic/room.20");
+    registry.subscribe("s2", "sub-1", "/topic/room.20");
+
+    verify(listenerContainer, times(2))
+        .addMessageListener(registry, new ChannelTopic("chat:room:20"));
+  }
+
+  @Test
+  @DisplayName("로컬 구독자가 없는 room 메시지는 브로드캐스트하지 않고 drop metric만 기록한다")
+  void dropsMessageWithoutLocalSubscribers() {
+    RoomSubscriptionRegistry registry = registry();
+
+    registry.onMessage(message("chat:room:20", "{}"), null);
+
+    verify(messagesDroppedNoSubscribersCounter).increment();
+    verifyNoInteractions(redisPubSubService);
+  }
+
+  @Test
+  @DisplayName("로컬 구독자가 있는 room 메시지는 RedisPubSubService로 전달한다")
+  void forwardsMessageWithLocalSubscribers() {
+    RoomSubscriptionRegistry registry = registry();
+    registry.subscribe("s1", "sub-1", "/topic/room.20");
+
+    registry.onMessage(message("chat:room:20", "{\"roomId\":20}"), null);
+
+    verify(redisPubSubService)
+        .onMessage("{\"roomId\":20}".getBytes(StandardCharsets.UTF_8), "chat:room:20");
+    verify(messagesDroppedNoSubscribersCounter, never()).increment();
+  }
+
+  @Test
+  @DisplayName("kafka broadcast mode에서는 로컬 구독 수만 세고 Redis room 채널은 구독하지 않는다")
+  void kafkaModeCountsSubscribersWithoutRedisChannel() {
+    RoomSubscriptionRegistry registry = registry(false);
+
+    registry.subscribe("s1", "sub-1", "/topic/room.20");
+    assertThat(registry.hasLocalSubscribers(20L)).isTrue();
+    registry.removeSession("s1");
+
+    assertThat(registry.hasLocalSubscribers(20L)).isFalse();
+    verifyNoInteractions(listenerContainer, scheduler);
+  }
+
+  private void givenImmediateExecution() {
+    willAnswer(
+            invocation -> {
+              invocation.<Runnable>getArgument(0).run();
+              return null;
+            })
+        .given(scheduler)
+        .execute(any(Runnable.class));
+  }
+
+  private void givenScheduledUnsubscribe() {
+    given(scheduler.schedule(any(Runnable.class), eq(DELAY.toMillis()), eq(TimeUnit.MILLISECONDS)))
+        .willAnswer(invocation -> pendingUnsubscribe);
+  }
+
+  private DefaultMessage message(String channel, String body) {
+    return new DefaultMessage(
+        channel.getBytes(StandardCharsets.UTF_8), body.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private RoomSubscriptionRegistry registry() {
+    return registry(true);
+  }
+
+  private RoomSubscriptionRegistry registry(boolean redisChannelsEnabled) {
+    return new RoomSubscriptionRegistry(
+        listenerContainer,
+        redisPubSubService,
+        messagesDroppedNoSubscribersCounter,
+        DELAY,
+        scheduler,
+        redisChannelsEnabled);
+  }
+}
@@ -0,0 +1,174 @@
+package com.realtime.chat;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import com.realtime.chat.config.SendRateLimiter;
+import io.micrometer.core.instrument.Counter;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.stubbing.Answer;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisKeyCommands;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class SendRateLimiterTest {
+
+  private static final Clock FIXED_CLOCK =
+      Clock.fixed(Instant.ofEpochSecond(1_710_000_000L), ZoneOffset.UTC);
+  private static final byte[] USER_10_KEY =
+      "rate:ws:send:user:10:1710000000".getBytes(StandardCharsets.UTF_8);
+
+  @Mock private StringRedisTemplate redisTemplate;
+  @Mock private RedisConnection connection;
+  @Mock private RedisStringCommands stringCommands;
+  @Mock private RedisKeyCommands keyCommands;
+  @Mock private Counter rateLimitSyncFailureCounter;
+  @Mock private ScheduledExecutorService scheduler;
+
+  private final AtomicLong nanoTime = new AtomicLong();
+
+  @Test
+  @DisplayName("burst만큼 바로 허용하고, 이후에는 초당 제한 속도로 token이 찬다")
+  void allowsBurstThenRefillsAtRate() {
+    SendRateLimiter limiter = limiter(10, 3);
+
+    assertThat(limiter.tryAcquire(10L)).isTrue();
+    assertThat(limiter.tryAcquire(10L)).isTrue();
+    assertThat(limiter.tryAcquire(10L)).isTrue();
+    assertThat(limiter.tryAcquire(10L)).isFalse();
+
+    advance(100);
+    assertThat(limiter.tryAcquire(10L)).isTrue();
+    assertThat(limiter.tryAcquire(10L)).isFalse();
+  }
+
+  @Test
+  @DisplayName("초 경계를 넘어도 bucket이 다시 가득 차지 않아 경계 burst가 두 배가 되지 않는다")
+  void secondBoundaryDoesNotResetBucket() {
+    SendRateLimiter limiter = limiter(10, 3);
+    advance(990);
+    for (int i = 0; i < 3; i++) {
+      assertThat(limiter.tryAcquire(10L)).isTrue();
+    }
+
+    advance(20);
+
+    assertThat(limiter.tryAcquire(10L)).isFalse();
+  }
+
+  @Test
+  @DisplayName("사용자별 bucket은 분리된다")
+  void bucketsAreSeparatedByUser() {
+    SendRateLimiter limiter = limiter(10, 1);
+
+    assertThat(limiter.tryAcquire(10L)).isTrue();
+    assertThat(limiter.tryAcquire(11L)).isTrue();
+    assertThat(limiter.tryAcquire(10L)).isFalse();
+  }
+
+  @Test
+  @DisplayName("sync는 로컬 증가분을 pipeline으로 반영하고 다른 노드 사용량만큼 로컬 token을 차감한다")
+  void syncPushesLocalDeltaAndChargesOtherNodes() {
+    SendRateLimiter limiter = limiter(10, 3);
+    givenPipeline(List.of(3L, true));
+    assertThat(limiter.tryAcquire(10L)).isTrue();
+
+    limiter.syncWithRedis();
+
+    verify(stringCommands).incrBy(USER_10_KEY, 1L);
+    verify(keyCommands).expire(USER_10_KEY, 2L);
+    assertThat(limiter.tryAcquire(10L)).isFalse();
+  }
+
+  @Test
+  @DisplayName("Redis sync 실패 시 로컬 판정은 계속하고 증가분은 다음 sync에 다시 보낸다")
+  void redisFailureKeepsLocalDecisionsAndRetriesDelta() {
+    SendRateLimiter limiter = limiter(10, 3);
+    given(redisTemplate.executePipelined(any(RedisCallback.class)))
+        .willThrow(new RedisConnectionFailureException("redis down"))
+        .willAnswer(runPipeline(List.of(2L, true)));
+    given(connection.stringCommands()).willReturn(stringCommands);
+    given(connection.keyCommands()).willReturn(keyCommands);
+    assertThat(limiter.tryAcquire(10L)).isTrue();
+
+    limiter.syncWithRedis();
+    assertThat(limiter.tryAcquire(10L)).isTrue();
+    limiter.syncWithRedis();
+
+    verify(rateLimitSyncFailureCounter).increment();
+    verify(stringCommands).incrBy(USER_10_KEY, 2L);
+  }
+
+  @Test
+  @DisplayName("최근 SEND가 없는 user는 sync하지 않고, 오래 쉰 bucket은 정리한다")
+  void skipsIdleUsersAndEvictsOldBuckets() {
+    SendRateLimiter limiter = limiter(10, 3);
+    limiter.syncWithRedis();
+    verifyNoInteractions(redisTemplate);
+
+    givenPipeline(List.of(1L, true));
+    assertThat(limiter.tryAcquire(10L)).isTrue();
+    limiter.syncWithRedis();
+    advance(2_000);
+    limiter.syncWithRedis();
+    advance(60_000);
+    limiter.syncWithRedis();
+
+    verify(redisTemplate, times(1)).executePipelined(any(RedisCallback.class));
+    verify(scheduler)
+        .scheduleWithFixedDelay(any(Runnable.class), anyLong(), anyLong(), any(TimeUnit.class));
+  }
+
+  private void givenPipeline(List<Object> results) {
+    given(redisTemplate.executePipelined(any(RedisCallback.class)))
+        .willAnswer(runPipeline(results));
+    given(connection.stringCommands()).willReturn(stringCommands);
+    given(connection.keyCommands()).willReturn(keyCommands);
+  }
+
+  private Answer<List<Object>> runPipeline(List<Object> results) {
+    return invocation -> {
+      RedisCallback<?> callback = invocation.getArgument(0);
+      callback.doInRedis(connection);
+      return results;
+    };
+  }
+
+  private void advance(long millis) {
+    nanoTime.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis));
+  }
+
+  private SendRateLimiter limiter(int messagesPerSecond, int burst) {
+    return new SendRateLimiter(
+        redisTemplate,
+        messagesPerSecond,
+        burst,
+        Duration.ofMillis(100),
+        rateLimitSyncFailureCounter,
+        FIXED_CLOCK,
+        nanoTime::get,
+        scheduler);
+  }
+}
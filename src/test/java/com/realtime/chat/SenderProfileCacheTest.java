@@ -0,0 +1,101 @@
+package com.realtime.chat;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.realtime.chat.common.BusinessException;
+import com.realtime.chat.config.RedisConfig;
+import com.realtime.chat.domain.User;
+import com.realtime.chat.repository.UserRepository;
+import com.realtime.chat.service.SenderProfileCache;
+import java.util.Optional;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class SenderProfileCacheTest {
+
+  @Mock private UserRepository userRepository;
+
+  @Mock private StringRedisTemplate redisTemplate;
+
+  @Test
+  @DisplayName("CONNECT 때 적재한 nickname은 SEND에서 DB 조회 없이 읽는다")
+  void preloadedNicknameIsReadWithoutQuery() {
+    SenderProfileCache cache = cache(100);
+    given(userRepository.findById(10L)).willReturn(Optional.of(user("유저")));
+
+    cache.preload(10L);
+
+    assertThat(cache.nickname(10L)).isEqualTo("유저");
+    assertThat(cache.nickname(10L)).isEqualTo("유저");
+    verify(userRepository, times(1)).findById(10L);
+  }
+
+  @Test
+  @DisplayName("없는 사용자는 NOT_FOUND를 던진다")
+  void unknownUserIsNotFound() {
+    SenderProfileCache cache = cache(100);
+    given(userRepository.findById(10L)).willReturn(Optional.empty());
+
+    assertThatThrownBy(() -> cache.nickname(10L))
+        .isInstanceOf(BusinessException.class)
+        .hasMessage("사용자를 찾을 수 없습니다.");
+  }
+
+  @Test
+  @DisplayName("invalidate는 로컬 항목을 지우고 다른 노드에 무효화를 발행한다")
+  void invalidateEvictsLocallyAndPublishes() {
+    SenderProfileCache cache = cache(100);
+    given(userRepository.findById(10L))
+        .willReturn(Optional.of(user("이전")), Optional.of(user("변경")));
+    cache.preload(10L);
+
+    cache.invalidate(10L);
+
+    assertThat(cache.nickname(10L)).isEqualTo("변경");
+    verify(redisTemplate).convertAndSend(RedisConfig.SENDER_PROFILE_INVALIDATION_CHANNEL, "10");
+  }
+
+  @Test
+  @DisplayName("다른 노드의 무효화 메시지를 받으면 다음 SEND에서 다시 조회한다")
+  void invalidationMessageEvictsUser() {
+    SenderProfileCache cache = cache(100);
+    given(userRepository.findById(10L)).willReturn(Optional.of(user("유저")));
+    cache.preload(10L);
+
+    cache.onInvalidationMessage("10", RedisConfig.SENDER_PROFILE_INVALIDATION_CHANNEL);
+    cache.nickname(10L);
+
+    verify(userRepository, times(2)).findById(10L);
+  }
+
+  @Test
+  @DisplayName("최대 개수를 넘으면 먼저 적재된 user부터 버린다")
+  void evictsOldestUserOverCapacity() {
+    SenderProfileCache cache = cache(1);
+    given(userRepository.findById(10L)).willReturn(Optional.of(user("유저1")));
+    given(userRepository.findById(11L)).willReturn(Optional.of(user("유저2")));
+
+    cache.preload(10L);
+    cache.preload(11L);
+    cache.nickname(10L);
+
+    verify(userRepository, times(2)).findById(10L);
+  }
+
+  private User user(String nickname) {
+    return new User("user@test.com", "encoded", nickname);
+  }
+
+  private SenderProfileCache cache(int maxEntries) {
+    return new SenderProfileCache(userRepository, redisTemplate, maxEntries);
+  }
+}
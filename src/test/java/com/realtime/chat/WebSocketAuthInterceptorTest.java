@@ -3,9 +3,11 @@ package com.realtime.chat;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verify;
 
 import com.realtime.chat.common.JwtTokenProvider;
 import com.realtime.chat.config.WebSocketAuthInterceptor;
+import com.realtime.chat.service.SenderProfileCache;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -21,10 +23,12 @@ class WebSocketAuthInterceptorTest {
 
   @Mock private JwtTokenProvider jwtTokenProvider;
 
+  @Mock private SenderProfileCache senderProfileCache;
+
   @Test
-  @DisplayName("CONNECT Authorization Bearer 토큰을 검증하고 Principal에 userId를 바인딩한다")
+  @DisplayName("CONNECT Authorization Bearer 토큰을 검증해 Principal에 userId를 바인딩하고 발신자 프로필을 적재한다")
   void connectWithValidTokenBindsPrincipal() {
-    WebSocketAuthInterceptor interceptor = new WebSocketAuthInterceptor(jwtTokenProvider);
+    WebSocketAuthInterceptor interceptor = new WebSocketAuthInterceptor(jwtTokenProvider, senderProfileCache);
     Message<byte[]> message = connectMessage("Bearer token");
     given(jwtTokenProvider.validateToken("token")).willReturn(true);
     given(jwtTokenProvider.getUserId("token")).willReturn(10L);
@@ -34,12 +38,13 @@ class WebSocketAuthInterceptorTest {
 
     assertThat(accessor.getUser()).isNotNull();
     assertThat(accessor.getUser().getName()).isEqualTo("10");
+    verify(senderProfileCache).preload(10L);
   }
 
   @Test
   @DisplayName("CONNECT Authorization 헤더가 없으면 연결을 거부한다")
   void connectWithoutTokenIsRejected() {
-    WebSocketAuthInterceptor interceptor = new WebSocketAuthInterceptor(jwtTokenProvider);
+    WebSocketAuthInterceptor interceptor = new WebSocketAuthInterceptor(jwtTokenProvider, senderProfileCache);
 
     assertThatThrownBy(() -> interceptor.preSend(connectMessage(null), null))
         .isInstanceOf(IllegalArgumentException.class)
@@ -3,9 +3,10 @@ package com.realtime.chat;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verifyNoInteractions;
 
 import com.realtime.chat.config.WebSocketAuthorizationInterceptor;
-import com.realtime.chat.repository.ChatRoomMemberRepository;
+import com.realtime.chat.service.RoomMembershipCache;
 import java.util.List;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -22,15 +23,15 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 @ExtendWith(MockitoExtension.class)
 class WebSocketAuthorizationInterceptorTest {
 
-  @Mock private ChatRoomMemberRepository chatRoomMemberRepository;
+  @Mock private RoomMembershipCache roomMembershipCache;
 
   @Test
   @DisplayName("채팅방 멤버는 room topic을 구독할 수 있다")
   void memberCanSubscribeRoomTopic() {
     WebSocketAuthorizationInterceptor interceptor =
-        new WebSocketAuthorizationInterceptor(chatRoomMemberRepository);
+        new WebSocketAuthorizationInterceptor(roomMembershipCache);
     Message<byte[]> message = subscribeMessage(10L, "/topic/room.20");
-    given(chatRoomMemberRepository.existsByChatRoomIdAndUserId(20L, 10L)).willReturn(true);
+    given(roomMembershipCache.isMember(20L, 10L)).willReturn(true);
 
     Message<?> result = interceptor.preSend(message, null);
 
@@ -41,32 +42,64 @@ class WebSocketAuthorizationInterceptorTest {
   @DisplayName("채팅방 멤버가 아니면 room topic 구독을 거부한다")
   void nonMemberCannotSubscribeRoomTopic() {
     WebSocketAuthorizationInterceptor interceptor =
-        new WebSocketAuthorizationInterceptor(chatRoomMemberRepository);
+        new WebSocketAuthorizationInterceptor(roomMembershipCache);
     Message<byte[]> message = subscribeMessage(10L, "/topic/room.20");
-    given(chatRoomMemberRepository.existsByChatRoomIdAndUserId(20L, 10L)).willReturn(false);
+    given(roomMembershipCache.isMember(20L, 10L)).willReturn(false);
 
     assertThatThrownBy(() -> interceptor.preSend(message, null))
         .isInstanceOf(AccessDeniedException.class)
         .hasMessageContaining("채팅방을 구독할 권한이 없습니다");
   }
 
+  @Test
+  @DisplayName("room presence topic도 채팅방 멤버만 구독할 수 있다")
+  void roomPresenceTopicRequiresMembership() {
+    WebSocketAuthorizationInterceptor interceptor =
+        new WebSocketAuthorizationInterceptor(roomMembershipCache);
+    Message<byte[]> memberMessage = subscribeMessage(10L, "/topic/room.20.presence");
+    given(roomMembershipCache.isMember(20L, 10L)).willReturn(true);
+    given(roomMembershipCache.isMember(20L, 11L)).willReturn(false);
+
+    assertThat(interceptor.preSend(memberMessage, null)).isSameAs(memberMessage);
+    assertThatThrownBy(
+            () -> interceptor.preSend(subscribeMessage(11L, "/topic/room.20.presence"), null))
+        .isInstanceOf(AccessDeniedException.class)
+        .hasMessageContaining("채팅방을 구독할 권한이 없습니다");
+    assertThatThrownBy(
+            () -> interceptor.preSend(subscribeMessage(10L, "/topic/room.20.typing"), null))
+        .isInstanceOf(AccessDeniedException.class)
+        .hasMessageContaining("잘못된 채팅방 구독 경로입니다");
+  }
+
   @Test
   @DisplayName("room topic이 아닌 구독은 그대로 통과시킨다")
   void nonRoomTopicPassesThrough() {
     WebSocketAuthorizationInterceptor interceptor =
-        new WebSocketAuthorizationInterceptor(chatRoomMemberRepository);
-    Message<byte[]> message = subscribeMessage(10L, "/topic/presence");
+        new WebSocketAuthorizationInterceptor(roomMembershipCache);
+    Message<byte[]> message = subscribeMessage(10L, "/user/queue/messages/ack");
 
     Message<?> result = interceptor.preSend(message, null);
 
     assertThat(result).isSameAs(message);
   }
 
+  @Test
+  @DisplayName("이벤트를 더 받지 않는 전역 presence topic 구독은 거부한다")
+  void legacyPresenceTopicIsRejected() {
+    WebSocketAuthorizationInterceptor interceptor =
+        new WebSocketAuthorizationInterceptor(roomMembershipCache);
+
+    assertThatThrownBy(() -> interceptor.preSend(subscribeMessage(10L, "/topic/presence"), null))
+        .isInstanceOf(AccessDeniedException.class)
+        .hasMessageContaining("/topic/room.{roomId}.presence");
+    verifyNoInteractions(roomMembershipCache);
+  }
+
   @Test
   @DisplayName("room topic처럼 보이지만 형식이 잘못된 destination은 거부한다")
   void malformedRoomTopicIsRejected() {
     WebSocketAuthorizationInterceptor interceptor =
-        new WebSocketAuthorizationInterceptor(chatRoomMemberRepository);
+        new WebSocketAuthorizationInterceptor(roomMembershipCache);
 
     assertThatThrownBy(() -> interceptor.preSend(subscribeMessage(10L, "/topic/room"), null))
         .isInstanceOf(AccessDeniedException.class)
@@ -2,6 +2,7 @@ package com.realtime.chat;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 
@@ -9,6 +10,8 @@ import com.realtime.chat.config.WebSocketEventListener;
 import com.realtime.chat.dto.PresenceEvent;
 import com.realtime.chat.service.PresenceService;
 import com.realtime.chat.service.RedisPubSubService;
+import com.realtime.chat.service.RoomMembershipCache;
+import com.realtime.chat.service.RoomSubscriptionRegistry;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.jupiter.api.DisplayName;
@@ -17,7 +20,11 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.web.socket.messaging.SessionConnectEvent;
 import org.springframework.web.socket.messaging.SessionDisconnectEvent;
 
 @ExtendWith(MockitoExtension.class)
@@ -27,6 +34,10 @@ class WebSocketEventListenerTest {
 
   @Mock private RedisPubSubService redisPubSubService;
 
+  @Mock private RoomSubscriptionRegistry roomSubscriptionRegistry;
+
+  @Mock private RoomMembershipCache roomMembershipCache;
+
   @Mock private SessionDisconnectEvent disconnectEvent;
 
   @Test
@@ -34,12 +45,19 @@ class WebSocketEventListenerTest {
   void disconnectWithRemainingSessionDoesNotPublishOffline() {
     AtomicInteger gauge = new AtomicInteger(2);
     WebSocketEventListener listener =
-        new WebSocketEventListener(presenceService, redisPubSubService, gauge);
+        new WebSocketEventListener(
+            presenceService,
+            redisPubSubService,
+            gauge,
+            roomSubscriptionRegistry,
+            roomMembershipCache);
     givenDisconnectEvent(10L, "s1");
     given(presenceService.setOffline(10L, "s1")).willReturn(false);
 
     listener.handleWebSocketDisconnect(disconnectEvent);
 
+    verify(roomSubscriptionRegistry).removeSession("s1");
+
     verify(redisPubSubService, never()).publishPresence(org.mockito.ArgumentMatchers.any());
     assertThat(gauge.get()).isEqualTo(1);
   }
@@ -49,7 +67,12 @@ class WebSocketEventListenerTest {
   void disconnectLastSessionPublishesOffline() {
     AtomicInteger gauge = new AtomicInteger(1);
     WebSocketEventListener listener =
-        new WebSocketEventListener(presenceService, redisPubSubService, gauge);
+        new WebSocketEventListener(
+            presenceService,
+            redisPubSubService,
+            gauge,
+            roomSubscriptionRegistry,
+            roomMembershipCache);
     givenDisconnectEvent(10L, "s1");
     given(presenceService.setOffline(10L, "s1")).willReturn(true);
 
@@ -62,6 +85,34 @@ class WebSocketEventListenerTest {
     assertThat(gauge.get()).isZero();
   }
 
+  @Test
+  @DisplayName("connect 시 멤버십 캐시를 적재하고, 적재 실패는 연결 처리를 막지 않는다")
+  void connectPreloadsMembershipCache() {
+    AtomicInteger gauge = new AtomicInteger(0);
+    WebSocketEventListener listener =
+        new WebSocketEventListener(
+            presenceService,
+            redisPubSubService,
+            gauge,
+            roomSubscriptionRegistry,
+            roomMembershipCache);
+    willThrow(new IllegalStateException("db down")).given(roomMembershipCache).preload(10L);
+
+    listener.handleWebSocketConnect(connectEvent(10L, "s1"));
+
+    verify(roomMembershipCache).preload(10L);
+    verify(presenceService).setOnline(10L, "s1");
+    assertThat(gauge.get()).isEqualTo(1);
+  }
+
+  private SessionConnectEvent connectEvent(Long userId, String sessionId) {
+    StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.CONNECT);
+    accessor.setSessionId(sessionId);
+    accessor.setUser(new UsernamePasswordAuthenticationToken(userId, null, List.of()));
+    return new SessionConnectEvent(
+        this, MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders()));
+  }
+
   private void givenDisconnectEvent(Long userId, String sessionId) {
     given(disconnectEvent.getUser())
         .willReturn(new UsernamePasswordAuthenticationToken(userId, null, List.of()));